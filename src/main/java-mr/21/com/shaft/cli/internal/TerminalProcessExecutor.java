@@ -0,0 +1,20 @@
+package com.shaft.cli.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The shared executor that drains the output streams of local terminal processes.
+ * Every stream is drained by its own virtual thread, so blocking reads are cheap.
+ */
+public class TerminalProcessExecutor {
+    private static final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("SHAFT-Terminal-Process-", 1).factory());
+
+    private TerminalProcessExecutor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+}
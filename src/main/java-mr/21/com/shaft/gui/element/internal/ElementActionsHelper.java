@@ -166,21 +166,24 @@ public class ElementActionsHelper {
         boolean isValidToCheckForVisibility = isValidToCheckForVisibility(elementLocator, checkForVisibility);
         var isMobileExecution = DriverFactoryHelper.isMobileNativeExecution() || DriverFactoryHelper.isMobileWebExecution();
 
+        var timeout = (long) (SHAFT.Properties.timeouts.defaultElementIdentificationTimeout() * 1000L * numberOfAttempts);
+
         try {
 //            JavaScriptWaitManager.waitForLazyLoading(driver);
-            return new FluentWait<>(driver)
-                    .withTimeout(Duration.ofMillis(
-                            (long) (SHAFT.Properties.timeouts.defaultElementIdentificationTimeout() * 1000L * numberOfAttempts)))
-                    .pollingEvery(Duration.ofMillis(ELEMENT_IDENTIFICATION_POLLING_DELAY))
+            return ElementIdentificationWait.fluentWait(driver, elementLocator, Duration.ofMillis(timeout))
                     .ignoreAll(getExpectedExceptions(isValidToCheckForVisibility))
                     .until(nestedDriver -> {
                         try (ExecutorService myExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+                            // a live cached handle skips the lookup, count, html, and name calls
+                            var cachedElementInformation = ElementHandleCache.getLiveElement(driver, elementLocator);
                             final WebElement[] targetElement = new WebElement[1];
-                            ElementInformation elementInformation = new ElementInformation();
+                            ElementInformation elementInformation = cachedElementInformation != null ? cachedElementInformation : new ElementInformation();
 
                             myExecutor.submit(() -> {
                                 // BLOCK #1 :: GETTING THE ELEMENT
-                                if (ShadowLocatorBuilder.shadowDomLocator != null
+                                if (cachedElementInformation != null) {
+                                    targetElement[0] = cachedElementInformation.getFirstElement();
+                                } else if (ShadowLocatorBuilder.shadowDomLocator != null
                                         && ShadowLocatorBuilder.cssSelector == elementLocator) {
                                     targetElement[0] = driver.findElement(ShadowLocatorBuilder.shadowDomLocator).getShadowRoot().findElement(ShadowLocatorBuilder.cssSelector);
                                 } else if (LocatorBuilder.getIFrameLocator() != null) {
@@ -189,13 +192,22 @@ public class ElementActionsHelper {
                                     } catch (NoSuchElementException exception) {
                                         targetElement[0] = driver.findElement(elementLocator);
                                     }
+                                } else if (LocatorHealingCache.isEnabled(driver)) {
+                                    // broken locators are only healed once, and working locators skip healenium
+                                    targetElement[0] = LocatorHealingCache.findElement(driver, elementLocator);
                                 } else {
-                                    targetElement[0] = driver.findElement(elementLocator);
+                                    // on native mobile, xpath locators may be mapped to a unique id that is cheaper to find
+                                    targetElement[0] = driver.findElement(PageSourceSnapshot.getServerLocator(driver, elementLocator));
+                                    PageSourceSnapshot.invalidateIfMissedLocally(elementLocator);
                                 }
                             }).get();
 
                             var threadRect = myExecutor.submit(() -> {
                                 // BLOCK #2 :: GETTING THE ELEMENT LOCATION (RECT)
+                                if (cachedElementInformation != null) {
+                                    // already fetched while probing the cached handle
+                                    return;
+                                }
                                 try {
                                     elementInformation.setElementRect(targetElement[0].getRect());
                                 } catch (ElementNotInteractableException elementNotInteractableException) {
@@ -229,17 +241,23 @@ public class ElementActionsHelper {
 
                             var threadCount = myExecutor.submit(() -> {
                                 // BLOCK #4 :: GETTING THE NUMBER OF FOUND ELEMENTS
+                                if (cachedElementInformation != null) {
+                                    return;
+                                }
                                 if (ShadowLocatorBuilder.shadowDomLocator != null
                                         && ShadowLocatorBuilder.cssSelector == elementLocator) {
                                     elementInformation.setNumberOfFoundElements(driver.findElement(ShadowLocatorBuilder.shadowDomLocator).getShadowRoot().findElements(ShadowLocatorBuilder.cssSelector).size());
+                                } else if (LocatorHealingCache.isEnabled(driver) && LocatorBuilder.getIFrameLocator() == null) {
+                                    elementInformation.setNumberOfFoundElements(LocatorHealingCache.getElementsCount(driver, elementLocator));
                                 } else {
-                                    elementInformation.setNumberOfFoundElements(driver.findElements(elementLocator).size());
+                                    var localElementsCount = PageSourceSnapshot.getElementsCount(driver, elementLocator);
+                                    elementInformation.setNumberOfFoundElements(localElementsCount > 0 ? localElementsCount : driver.findElements(elementLocator).size());
                                 }
                             });
 
                             var threadHTML = myExecutor.submit(() -> {
                                 // BLOCK #5 :: GETTING THE INNER AND OUTER HTML
-                                if (!isMobileExecution && GET_ELEMENT_HTML) {
+                                if (cachedElementInformation == null && !isMobileExecution && GET_ELEMENT_HTML) {
                                     elementInformation.setOuterHTML(targetElement[0].getAttribute("outerHTML"));
                                     elementInformation.setInnerHTML(targetElement[0].getAttribute("innerHTML"));
                                 }
@@ -247,7 +265,7 @@ public class ElementActionsHelper {
 
                             var threadName = myExecutor.submit(() -> {
                                 // BLOCK #5 :: GETTING ELEMENT NAME
-                                if (SHAFT.Properties.reporting.captureElementName()) {
+                                if (cachedElementInformation == null && SHAFT.Properties.reporting.captureElementName()) {
                                     var elementName = formatLocatorToString(elementLocator);
                                     try {
                                         var accessibleName = targetElement[0].getAccessibleName();
@@ -270,8 +288,11 @@ public class ElementActionsHelper {
                             threadHTML.get();
                             threadName.get();
 
-                            elementInformation.setFirstElement(targetElement[0]);
-                            elementInformation.setLocator(elementLocator);
+                            if (cachedElementInformation == null) {
+                                elementInformation.setFirstElement(targetElement[0]);
+                                elementInformation.setLocator(elementLocator);
+                                ElementHandleCache.put(driver, elementInformation);
+                            }
 
                             // BLOCK #6 :: PERFORMING ACTION  (WITH OPTIONAL ARGS)
                             // attempt to perform action inside the loop to guarantee higher odds of success and reduced WebDriver calls
@@ -295,9 +316,10 @@ public class ElementActionsHelper {
                     });
         } catch (org.openqa.selenium.TimeoutException timeoutException) {
             // In case the element was not found / not visible and the timeout expired
-            var causeMessage = timeoutException.getCause().getMessage();
-            causeMessage = !causeMessage.isBlank() && causeMessage.contains("\n") ? timeoutException.getMessage() + " || " + causeMessage.substring(0, causeMessage.indexOf("\n")) : timeoutException.getMessage();
-            ReportManager.logDiscrete(causeMessage);
+            ReportManager.logDiscrete(() -> {
+                var causeMessage = timeoutException.getCause().getMessage();
+                return !causeMessage.isBlank() && causeMessage.contains("\n") ? timeoutException.getMessage() + " || " + causeMessage.substring(0, causeMessage.indexOf("\n")) : timeoutException.getMessage();
+            });
             var elementInformation = new ArrayList<>();
             elementInformation.add(0);
             elementInformation.add(null);
@@ -305,7 +327,7 @@ public class ElementActionsHelper {
             return elementInformation;
         } catch (org.openqa.selenium.InvalidSelectorException invalidSelectorException) {
             // In case the selector is not valid
-            ReportManager.logDiscrete(invalidSelectorException.getMessage());
+            ReportManager.logDiscrete(invalidSelectorException::getMessage);
             var elementInformation = new ArrayList<>();
             elementInformation.add(0);
             elementInformation.add(null);
@@ -387,7 +409,7 @@ public class ElementActionsHelper {
                     });
         } catch (org.openqa.selenium.TimeoutException timeoutException) {
             // In case the element was not found / not visible and the timeout expired
-            ReportManager.logDiscrete(timeoutException.getMessage() + " || " + timeoutException.getCause().getMessage().substring(0, timeoutException.getCause().getMessage().indexOf("\n")));
+            ReportManager.logDiscrete(() -> timeoutException.getMessage() + " || " + timeoutException.getCause().getMessage().substring(0, timeoutException.getCause().getMessage().indexOf("\n")));
             var elementInformation = new ArrayList<>();
             elementInformation.add(0);
             elementInformation.add(null);
@@ -935,6 +957,18 @@ public class ElementActionsHelper {
      * desired elementLocator
      */
     public static int getElementsCount(WebDriver driver, By elementLocator) {
+        var localElementsCount = PageSourceSnapshot.getElementsCount(driver, elementLocator);
+        if (localElementsCount > 0) {
+            if (localElementsCount != 1) {
+                ElementHandleCache.invalidate(elementLocator);
+            }
+            return localElementsCount;
+        }
+        // a live cached handle is revalidated with a single lookup instead of being evicted
+        var revalidatedElementsCount = ElementHandleCache.revalidate(driver, elementLocator);
+        if (revalidatedElementsCount > 0) {
+            return revalidatedElementsCount;
+        }
         return Integer.parseInt(ElementActionsHelper.getMatchingElementsInformation(driver, elementLocator, 1, false).get(0).toString());
     }
 
@@ -951,6 +985,18 @@ public class ElementActionsHelper {
      * desired elementLocator
      */
     public static int getElementsCount(WebDriver driver, By elementLocator, int numberOfAttempts) {
+        var localElementsCount = PageSourceSnapshot.getElementsCount(driver, elementLocator);
+        if (localElementsCount > 0) {
+            if (localElementsCount != 1) {
+                ElementHandleCache.invalidate(elementLocator);
+            }
+            return localElementsCount;
+        }
+        // a live cached handle is revalidated with a single lookup instead of being evicted
+        var revalidatedElementsCount = ElementHandleCache.revalidate(driver, elementLocator);
+        if (revalidatedElementsCount > 0) {
+            return revalidatedElementsCount;
+        }
         return Integer.parseInt(ElementActionsHelper.getMatchingElementsInformation(driver, elementLocator, numberOfAttempts, false).get(0).toString());
     }
 
@@ -971,6 +1017,7 @@ public class ElementActionsHelper {
 
     public static void passAction(WebDriver driver, By elementLocator, String actionName, String testData,
                                   List<List<Object>> screenshots, String elementName) {
+        PageSourceSnapshot.invalidateUnlessReadOnly(actionName);
         reportActionResult(driver, actionName, testData, elementLocator, screenshots, elementName, true);
     }
 
@@ -998,6 +1045,7 @@ public class ElementActionsHelper {
 
     public static void failAction(WebDriver driver, String actionName, String testData, By elementLocator, List<List<Object>> screenshots,
                                   Throwable... rootCauseException) {
+        PageSourceSnapshot.invalidate();
         //TODO: merge all fail actions, make all methods call this one, get elementName where applicable instead of reporting null
         //this condition works if this is the first level of failure, but the first level is usually caught by the calling method
 
@@ -1,6 +1,7 @@
 package com.shaft.cli;
 
-import com.google.common.hash.Hashing;
+import com.shaft.cli.internal.FileActionsHelper;
+import com.shaft.cli.internal.FileDownloader;
 import com.shaft.driver.SHAFT;
 import com.shaft.tools.internal.support.JavaHelper;
 import com.shaft.tools.io.PdfFileManager;
@@ -8,7 +9,6 @@ import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.FailureReporter;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.TrueFileFilter;
 import org.apache.commons.lang3.SystemUtils;
 import org.openqa.selenium.Platform;
@@ -17,14 +17,13 @@ import org.sikuli.basics.FileManager;
 import java.io.*;
 import java.net.JarURLConnection;
 import java.net.URI;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.*;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.jar.JarEntry;
 import java.util.jar.JarFile;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipFile;
-import java.util.zip.ZipOutputStream;
 
 public class FileActions {
 
@@ -176,12 +175,10 @@ public class FileActions {
         String targetFilePath = copyFileToLocalMachine(terminalSession, targetFileFolderPath, targetFileName,
                 pathToTempDirectoryOnRemoteMachine);
 
-        // read file
-        byte[] fileBytes;
+        // stream the file instead of loading it into memory
         String sha256 = "";
         try {
-            fileBytes = Files.readAllBytes(Paths.get(targetFilePath));
-            sha256 = Hashing.sha256().hashBytes(fileBytes).toString();
+            sha256 = FileActionsHelper.getSHA256Checksum(Paths.get(targetFilePath));
         } catch (IOException rootCauseException) {
 
             failAction("Failed to read file \"" + targetFilePath + "\"", rootCauseException);
@@ -435,7 +432,7 @@ public class FileActions {
         File sourceFolder = new File(sourceFolderPath);
         File destinationFolder = new File(destinationFolderPath);
         try {
-            FileUtils.copyDirectory(sourceFolder, destinationFolder);
+            FileActionsHelper.copyFolder(sourceFolder.toPath(), destinationFolder.toPath());
             passAction(
                     "Source Folder: \"" + sourceFolderPath + "\" | Destination Folder: \"" + destinationFolder + "\"");
         } catch (IOException rootCauseException) {
@@ -444,91 +441,11 @@ public class FileActions {
     }
 
     public void copyFolderFromJar(String sourceFolderPath, String destinationFolderPath) {
-        try {
-            URL url = URI.create(sourceFolderPath.replace("file:", "jar:file:")).toURL();
-            JarURLConnection jarConnection = (JarURLConnection) url.openConnection();
-            JarFile jarFile = jarConnection.getJarFile();
-
-            /*
-             * Iterate all entries in the jar file.
-             */
-            for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
-
-                JarEntry jarEntry = e.nextElement();
-                String jarEntryName = jarEntry.getName();
-                String jarConnectionEntryName = jarConnection.getEntryName();
-
-                /*
-                 * Extract files only if they match the path.
-                 */
-                if (jarEntryName.startsWith(jarConnectionEntryName)) {
-
-                    String filename = jarEntryName.startsWith(jarConnectionEntryName) ? jarEntryName.substring(jarConnectionEntryName.length()) : jarEntryName;
-                    File currentFile = new File(destinationFolderPath, filename);
-                    if (!currentFile.toPath().normalize().startsWith(new File(destinationFolderPath).toPath())) {
-                        throw new Exception("Bad zip entry");
-                    }
-                    if (jarEntry.isDirectory()) {
-                        boolean success = currentFile.mkdirs();
-                        if (success) {
-                            ReportManager.logDiscrete("Directory Created successfully...");
-                        }
-                    } else {
-                        InputStream is = jarFile.getInputStream(jarEntry);
-                        OutputStream out = FileUtils.openOutputStream(currentFile);
-                        IOUtils.copy(is, out);
-                        is.close();
-                        out.close();
-                    }
-                }
-            }
-        } catch (Exception rootCauseException) {
-            failAction(rootCauseException);
-        }
+        copyFromJar(sourceFolderPath, destinationFolderPath, jarEntryName -> true);
     }
 
     public void copyFileFromJar(String sourceFolderPath, String destinationFolderPath, String fileName) {
-        try {
-            URL url = URI.create(sourceFolderPath.replace("file:", "jar:file:")).toURL();
-            JarURLConnection jarConnection = (JarURLConnection) url.openConnection();
-            JarFile jarFile = jarConnection.getJarFile();
-
-            /*
-             * Iterate all entries in the jar file.
-             */
-            for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
-
-                JarEntry jarEntry = e.nextElement();
-                String jarEntryName = jarEntry.getName();
-                String jarConnectionEntryName = jarConnection.getEntryName();
-
-                /*
-                 * Extract files only if they match the path.
-                 */
-                if (jarEntryName.startsWith(jarConnectionEntryName) && jarEntryName.contains(fileName)) {
-
-                    String filename = jarEntryName.startsWith(jarConnectionEntryName) ? jarEntryName.substring(jarConnectionEntryName.length()) : jarEntryName;
-                    File currentFile = new File(destinationFolderPath, filename);
-                    if (!currentFile.toPath().normalize().startsWith(new File(destinationFolderPath).toPath())) {
-                        throw new Exception("Bad zip entry");
-                    }
-                    if (jarEntry.isDirectory()) {
-                        boolean success = currentFile.mkdirs();
-                        if (success) {
-                            ReportManager.logDiscrete("Directory Created successfully...");
-                        }
-                    } else {
-                        InputStream is = jarFile.getInputStream(jarEntry);
-                        OutputStream out = FileUtils.openOutputStream(currentFile);
-                        IOUtils.copy(is, out);
-                        is.close();
-                        out.close();
-                    }
-                }
-            }
-        } catch (Exception rootCauseException) {
-            failAction(rootCauseException);
-        }
+        copyFromJar(sourceFolderPath, destinationFolderPath, jarEntryName -> jarEntryName.contains(fileName));
     }
 
     public void deleteFolder(String folderPath) {
@@ -583,16 +500,20 @@ public class FileActions {
             failAction("file: " + url.toString() + " to directory: " + destinationFolderPath);
         }
         File unpacked = null;
-        try (InputStream in = new BufferedInputStream(url.openStream(), 1024)) {
+        try {
             // make sure we get the actual file
             File zip = File.createTempFile("archive_", url.toString().substring(url.toString().length() - 4), targetDir);
             zip.deleteOnExit();
-            OutputStream out = new BufferedOutputStream(new FileOutputStream(zip));
-            copyInputStream(in, out);
-            out.close();
+            if (url.getProtocol().startsWith("http")) {
+                FileDownloader.download(url.toURI(), zip.toPath(), 0, 0, null);
+            } else {
+                try (InputStream in = url.openStream()) {
+                    Files.copy(in, zip.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
             unpacked = unpackArchive(zip, targetDir);
             passAction("Target URL\"" + url + "\" | Destination Folder: \"" + destinationFolderPath + "\"");
-        } catch (IOException rootCauseException) {
+        } catch (IOException | URISyntaxException rootCauseException) {
 
             failAction("file: " + url + " to directory: " + destinationFolderPath, rootCauseException);
         }
@@ -605,6 +526,36 @@ public class FileActions {
 
     public URL downloadFile(String targetFileURL, String destinationFilePath, int connectionTimeout,
                             int readTimeout) {
+        return downloadFile(targetFileURL, destinationFilePath, connectionTimeout, readTimeout, null);
+    }
+
+    /**
+     * Downloads a file and verifies its SHA-256 checksum. Large files are downloaded in parallel ranges,
+     * and interrupted downloads are resumed from where they stopped. No timeouts are applied, use
+     * {@link #downloadFile(String, String, int, int, String)} to limit how long the download may wait for the server.
+     *
+     * @param targetFileURL          the url of the file to be downloaded
+     * @param destinationFilePath    the path of the downloaded file
+     * @param expectedSHA256Checksum the expected SHA-256 checksum of the downloaded file
+     * @return the url of the downloaded file on the local storage
+     */
+    public URL downloadFile(String targetFileURL, String destinationFilePath, String expectedSHA256Checksum) {
+        return downloadFile(targetFileURL, destinationFilePath, 0, 0, expectedSHA256Checksum);
+    }
+
+    /**
+     * Downloads a file and verifies its SHA-256 checksum. HTTP(S) downloads of large files are split into parallel
+     * ranges, and interrupted downloads are resumed from where they stopped.
+     *
+     * @param targetFileURL          the url of the file to be downloaded
+     * @param destinationFilePath    the path of the downloaded file
+     * @param connectionTimeout      the connection timeout in milliseconds, 0 means no timeout
+     * @param readTimeout            the maximum time to wait for the server to send data in milliseconds, 0 means no timeout
+     * @param expectedSHA256Checksum the expected SHA-256 checksum of the downloaded file, or null to skip the verification
+     * @return the url of the downloaded file on the local storage
+     */
+    public URL downloadFile(String targetFileURL, String destinationFilePath, int connectionTimeout,
+                            int readTimeout, String expectedSHA256Checksum) {
         if (targetFileURL != null && destinationFilePath != null) {
             // force logging
             boolean initialLoggingState = ReportManagerHelper.getDiscreteLogging();
@@ -612,8 +563,15 @@ public class FileActions {
             try {
                 ReportManager.log("Downloading a file from this url \"" + targetFileURL + "\" to this directory \""
                         + destinationFilePath + "\", please wait as downloading may take some time...");
-                FileUtils.copyURLToFile(URI.create(targetFileURL).toURL(), new File(destinationFilePath), connectionTimeout,
-                        readTimeout);
+                var source = URI.create(targetFileURL);
+                if (source.getScheme() != null && source.getScheme().toLowerCase().startsWith("http")) {
+                    FileDownloader.download(source, Paths.get(destinationFilePath), connectionTimeout,
+                            readTimeout, expectedSHA256Checksum);
+                } else {
+                    // file, jar, and ftp urls aren't supported by the http client
+                    FileUtils.copyURLToFile(source.toURL(), new File(destinationFilePath), connectionTimeout, readTimeout);
+                    verifySHA256Checksum(Paths.get(destinationFilePath), expectedSHA256Checksum);
+                }
                 ReportManager.logDiscrete("Downloading completed successfully.");
                 URL downloadedFile = new File(destinationFilePath).toURI().toURL();
                 passAction("Target File URL\"" + targetFileURL + "\" | Destination Folder: \"" + destinationFilePath
@@ -621,7 +579,7 @@ public class FileActions {
                         + "\"");
 
                 return downloadedFile;
-            } catch (IOException rootCauseException) {
+            } catch (IOException | IllegalArgumentException rootCauseException) {
 
                 failAction("Target File URL: \"" + targetFileURL + "\", and Destination File Path: \""
                         + destinationFilePath + "\"", rootCauseException);
@@ -636,6 +594,17 @@ public class FileActions {
         }
     }
 
+    private static void verifySHA256Checksum(Path file, String expectedSHA256Checksum) throws IOException {
+        if (expectedSHA256Checksum == null || expectedSHA256Checksum.isBlank()) {
+            return;
+        }
+        var actualSHA256Checksum = FileActionsHelper.getSHA256Checksum(file);
+        if (!actualSHA256Checksum.equalsIgnoreCase(expectedSHA256Checksum.trim())) {
+            Files.deleteIfExists(file);
+            throw new IOException("Checksum mismatch for \"" + file + "\", expected SHA-256 \"" + expectedSHA256Checksum + "\" but found \"" + actualSHA256Checksum + "\".");
+        }
+    }
+
     private void passAction(String testData) {
         String actionName = Thread.currentThread().getStackTrace()[2].getMethodName();
         reportActionResult(actionName, testData, null, true);
@@ -742,89 +711,57 @@ public class FileActions {
     }
 
     private void zipFolder(String srcFolder, String destZipFile) {
-        /*
-         * create the output stream to zip file result
-         */
-        try (FileOutputStream fileWriter = new FileOutputStream(destZipFile);
-             ZipOutputStream zip = new ZipOutputStream(fileWriter)) {
-
-            /*
-             * add the folder to the zip
-             */
-            addFolderToZip("", srcFolder, zip);
-            /*
-             * close the zip objects
-             */
-            zip.flush();
+        try {
+            FileActionsHelper.zipFolder(Paths.get(srcFolder), Paths.get(destZipFile));
         } catch (IOException rootCauseException) {
             failAction(rootCauseException);
         }
     }
 
-    private void addFileToZip(String path, String srcFile, ZipOutputStream zip, boolean flag)
-            throws IOException {
-        /*
-         * create the file object for inputs
-         */
-        File folder = new File(srcFile);
-
-        /*
-         * if the folder is empty add empty folder to the Zip file
-         */
-        if (flag) {
-            zip.putNextEntry(new ZipEntry(path + FileSystems.getDefault().getSeparator() + folder.getName()
-                    + FileSystems.getDefault().getSeparator()));
-        } else { /*
-         * if the current name is directory, recursively traverse it to get the files
-         */
-            if (folder.isDirectory()) {
-                /*
-                 * if folder is not empty
-                 */
-                addFolderToZip(path, srcFile, zip);
-            } else {
-                /*
-                 * write the file to the output
-                 */
-                try (FileInputStream in = new FileInputStream(srcFile)) {
-                    byte[] buf = new byte[1024];
-                    int len;
-                    zip.putNextEntry(new ZipEntry(path + FileSystems.getDefault().getSeparator() + folder.getName()));
-                    while ((len = in.read(buf)) > 0) {
-                        /*
-                         * Write the Result
-                         */
-                        zip.write(buf, 0, len);
+    private void copyFromJar(String sourceFolderPath, String destinationFolderPath, Predicate<String> entryFilter) {
+        try {
+            URL url = URI.create(sourceFolderPath.replace("file:", "jar:file:")).toURL();
+            JarURLConnection jarConnection = (JarURLConnection) url.openConnection();
+            JarFile jarFile = jarConnection.getJarFile();
+            String jarConnectionEntryName = jarConnection.getEntryName();
+            Path destinationFolder = Paths.get(destinationFolderPath).toAbsolutePath().normalize();
+
+            /*
+             * Extract entries only if they match the path, folders are created first and then the files are copied in parallel.
+             */
+            List<JarEntry> filesToCopy = new ArrayList<>();
+            for (Enumeration<JarEntry> e = jarFile.entries(); e.hasMoreElements(); ) {
+                JarEntry jarEntry = e.nextElement();
+                String jarEntryName = jarEntry.getName();
+                if (jarEntryName.startsWith(jarConnectionEntryName) && entryFilter.test(jarEntryName)) {
+                    Path currentFile = getJarEntryDestination(jarEntry, jarConnectionEntryName, destinationFolder);
+                    if (jarEntry.isDirectory()) {
+                        Files.createDirectories(currentFile);
+                    } else {
+                        Files.createDirectories(currentFile.getParent());
+                        filesToCopy.add(jarEntry);
                     }
-                } catch (Exception rootCauseException) {
-                    failAction(rootCauseException);
                 }
             }
+            filesToCopy.parallelStream().forEach(jarEntry -> {
+                try (InputStream is = jarFile.getInputStream(jarEntry)) {
+                    Files.copy(is, getJarEntryDestination(jarEntry, jarConnectionEntryName, destinationFolder), StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException ioException) {
+                    throw new UncheckedIOException(ioException);
+                }
+            });
+        } catch (Exception rootCauseException) {
+            failAction(rootCauseException);
         }
     }
 
-    private void addFolderToZip(String path, String srcFolder, ZipOutputStream zip) throws IOException {
-        File folder = new File(srcFolder);
-
-        /*
-         * check the empty folder
-         */
-        if (Objects.requireNonNull(folder.list()).length == 0) {
-            addFileToZip(path, srcFolder, zip, true);
-        } else {
-            /*
-             * list the files in the folder
-             */
-            for (String fileName : Objects.requireNonNull(folder.list())) {
-                if (path.isEmpty()) {
-                    addFileToZip(folder.getName(), srcFolder + FileSystems.getDefault().getSeparator() + fileName, zip,
-                            false);
-                } else {
-                    addFileToZip(path + FileSystems.getDefault().getSeparator() + folder.getName(),
-                            srcFolder + FileSystems.getDefault().getSeparator() + fileName, zip, false);
-                }
-            }
+    private Path getJarEntryDestination(JarEntry jarEntry, String jarConnectionEntryName, Path destinationFolder) throws IOException {
+        String filename = jarEntry.getName().substring(jarConnectionEntryName.length());
+        Path currentFile = destinationFolder.resolve(filename).normalize();
+        if (!currentFile.startsWith(destinationFolder)) {
+            throw new IOException("Bad zip entry");
         }
+        return currentFile;
     }
 
     private File unpackArchive(File theFile, File targetDir) throws IOException {
@@ -835,42 +772,13 @@ public class FileActions {
             throw new IOException(ERROR_CANNOT_CREATE_DIRECTORY + targetDir);
         }
 
-        try (ZipFile zipFile = new ZipFile(theFile)) {
-            for (Enumeration<? extends ZipEntry> entries = zipFile.entries(); entries.hasMoreElements(); ) {
-                ZipEntry entry = entries.nextElement();
-                File file = new File(targetDir, File.separator + entry.getName());
-                if (!file.toPath().normalize().startsWith(targetDir.toPath()))
-                    throw new IOException("Bad zip entry");
-                if (buildDirectory(file.getParentFile())) {
-                    throw new IOException(ERROR_CANNOT_CREATE_DIRECTORY + file.getParentFile());
-                }
-                if (!entry.isDirectory()) {
-                    copyInputStream(zipFile.getInputStream(entry),
-                            new BufferedOutputStream(new FileOutputStream(file)));
-                } else {
-                    if (buildDirectory(file)) {
-                        throw new IOException(ERROR_CANNOT_CREATE_DIRECTORY + file);
-                    }
-                }
-            }
-        } catch (IOException e) {
-            throw new IOException(e);
+        try (InputStream archive = new BufferedInputStream(Files.newInputStream(theFile.toPath()))) {
+            FileActionsHelper.unzip(archive, targetDir.toPath());
         }
         passAction("Target File\"" + theFile.getAbsolutePath() + "\" | Destination Folder: \"" + targetDir + "\"");
         return theFile;
     }
 
-    private void copyInputStream(InputStream in, OutputStream out) throws IOException {
-        byte[] buffer = new byte[1024];
-        int len = in.read(buffer);
-        while (len >= 0) {
-            out.write(buffer, 0, len);
-            len = in.read(buffer);
-        }
-        in.close();
-        out.close();
-    }
-
     private boolean buildDirectory(File file) {
         return !file.exists() && !file.mkdirs();
     }
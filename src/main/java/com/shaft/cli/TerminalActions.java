@@ -4,6 +4,7 @@ import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
+import com.shaft.cli.internal.SSHSessionPool;
 import com.shaft.driver.SHAFT;
 import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.FailureReporter;
@@ -17,9 +18,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.*;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @SuppressWarnings("unused")
 public class TerminalActions {
@@ -237,6 +237,42 @@ public class TerminalActions {
         return performTerminalCommands(Collections.singletonList(command));
     }
 
+    /**
+     * Starts a local terminal command without waiting for it to finish, for example to start a local server or mock
+     * during test setup. Use the returned handle to stream its output, wait for a certain line to be printed, await its
+     * exit code, or kill it along with all its child processes.
+     *
+     * @param command the terminal command to be started
+     * @return a handle to the running process
+     */
+    public TerminalProcess startTerminalCommand(String command) {
+        return startTerminalCommand(command, null);
+    }
+
+    /**
+     * Starts a local terminal command without waiting for it to finish, for example to start a local server or mock
+     * during test setup. Use the returned handle to stream its output, wait for a certain line to be printed, await its
+     * exit code, or kill it along with all its child processes.
+     *
+     * @param command        the terminal command to be started
+     * @param outputConsumer receives every line printed to the standard output and standard error as soon as it is printed
+     * @return a handle to the running process
+     */
+    public TerminalProcess startTerminalCommand(String command, Consumer<String> outputConsumer) {
+        if (isRemoteTerminal()) {
+            failAction(command, new UnsupportedOperationException("Process handles are only supported for local terminal commands."));
+        }
+        var longCommand = buildLongCommand(Collections.singletonList(command));
+        try {
+            var terminalProcess = TerminalProcess.start(getProcessBuilder(longCommand, System.getProperty("user.dir"), SystemUtils.IS_OS_WINDOWS), longCommand, outputConsumer);
+            passAction("Host Name: \"localHost\" | Command: \"" + longCommand + "\" | PID: \"" + terminalProcess.getPid() + "\"", null);
+            return terminalProcess;
+        } catch (IOException ioException) {
+            failAction(longCommand, ioException);
+            return null;
+        }
+    }
+
     private void passAction(String actionName, String testData, String log) {
         reportActionResult(actionName, testData, log, true);
     }
@@ -353,18 +389,8 @@ public class TerminalActions {
                     exitStatuses.append(localProcess.exitValue());
                 } else {
                     exitStatuses.append("asynchronous");
-                    ScheduledExecutorService asynchronousProcessExecution = Executors.newScheduledThreadPool(1);
-                    asynchronousProcessExecution.schedule(() -> {
-                        try {
-                            pb.start();
-                            asynchronousProcessExecution.shutdown();
-                        } catch (Throwable throwable) {
-                            asynchronousProcessExecution.shutdownNow();
-                        }
-                    }, 0, TimeUnit.SECONDS);
-                    if (!asynchronousProcessExecution.awaitTermination(SHAFT.Properties.timeouts.shellSessionTimeout(), TimeUnit.MINUTES)) {
-                        asynchronousProcessExecution.shutdownNow();
-                    }
+                    // the output is drained in the background so that the process never blocks on a full pipe
+                    TerminalProcess.start(pb, command, Boolean.TRUE.equals(verbose) ? ReportManager::logDiscrete : null);
                 }
             } catch (IOException | InterruptedException exception) {
                 failAction(longCommand, exception);
@@ -397,13 +423,23 @@ public class TerminalActions {
         // remote execution
         ReportManager.logDiscrete(
                 "Attempting to perform the following command remotely. Command: \"" + longCommand + "\"");
-        Session remoteSession = createSSHsession();
+        var reuseSSHSessions = SHAFT.Properties.flags.reuseSSHSessions();
+        Session remoteSession;
+        if (reuseSSHSessions) {
+            var keyFilePath = sshKeyFileName != null && !sshKeyFileName.isEmpty() ? FileActions.getInstance().getAbsolutePath(sshKeyFileFolderName, sshKeyFileName) : "";
+            remoteSession = SSHSessionPool.acquire(sshHostName, sshPortNumber, sshUsername, keyFilePath, this::createSSHsession);
+        } else {
+            remoteSession = createSSHsession();
+        }
         if (remoteSession != null) {
+            ChannelExec remoteChannelExecutor = null;
             try {
-                remoteSession.setTimeout(sessionTimeout);
-                ChannelExec remoteChannelExecutor = (ChannelExec) remoteSession.openChannel("exec");
+                if (!reuseSSHSessions) {
+                    remoteSession.setTimeout(sessionTimeout);
+                }
+                remoteChannelExecutor = (ChannelExec) remoteSession.openChannel("exec");
                 remoteChannelExecutor.setCommand(longCommand);
-                remoteChannelExecutor.connect();
+                remoteChannelExecutor.connect(sessionTimeout);
 
                 // Capture logs and close readers
                 BufferedReader reader = new BufferedReader(new InputStreamReader(remoteChannelExecutor.getInputStream()));
@@ -413,9 +449,18 @@ public class TerminalActions {
 
                 // Retrieve the exit status of the executed command and destroy open sessions
                 exitStatuses.append(remoteChannelExecutor.getExitStatus());
-                remoteSession.disconnect();
             } catch (JSchException | IOException exception) {
                 failAction(longCommand, exception);
+            } finally {
+                if (remoteChannelExecutor != null) {
+                    remoteChannelExecutor.disconnect();
+                }
+                if (reuseSSHSessions) {
+                    // the session stays open for the next command against the same host
+                    SSHSessionPool.release(remoteSession);
+                } else {
+                    remoteSession.disconnect();
+                }
             }
         }
         return Arrays.asList(logs.toString(), exitStatuses.toString());
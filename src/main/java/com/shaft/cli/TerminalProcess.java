@@ -0,0 +1,260 @@
+package com.shaft.cli;
+
+import com.shaft.cli.internal.TerminalProcessExecutor;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import lombok.Getter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * A handle to a local terminal command that keeps running in the background.
+ * <p>
+ * The output streams are drained on a shared executor as soon as the process starts, every line is passed to the
+ * registered consumers, and only the last lines are kept in bounded tail buffers. Use {@link #waitForOutput(String, Duration)}
+ * to block until the process prints a certain line, and {@link #close()} to kill the process along with all its children.
+ * <p>
+ * Instances are created using {@link TerminalActions#startTerminalCommand(String)}.
+ */
+@SuppressWarnings("unused")
+public class TerminalProcess implements AutoCloseable {
+    private static final int DEFAULT_TAIL_SIZE = 1000; // lines
+    private static final long GRACEFUL_SHUTDOWN_TIMEOUT = 5; // seconds
+
+    @Getter
+    private final String command;
+    private final Process process;
+    private final int tailSize;
+    private final Deque<String> outputTail = new ArrayDeque<>();
+    private final Deque<String> errorTail = new ArrayDeque<>();
+    private final List<Consumer<String>> outputConsumers = new CopyOnWriteArrayList<>();
+    private final List<Consumer<String>> errorConsumers = new CopyOnWriteArrayList<>();
+    private final List<OutputWaiter> outputWaiters = new ArrayList<>();
+    private final CompletableFuture<Void> outputDrained;
+    private final CompletableFuture<Void> errorDrained;
+
+    private TerminalProcess(String command, Process process, int tailSize, Consumer<String> outputConsumer) {
+        this.command = command;
+        this.process = process;
+        this.tailSize = tailSize;
+        if (outputConsumer != null) {
+            outputConsumers.add(outputConsumer);
+            errorConsumers.add(outputConsumer);
+        }
+        outputDrained = CompletableFuture.runAsync(() -> drain(process.getInputStream(), outputTail, outputConsumers), TerminalProcessExecutor.getExecutor());
+        errorDrained = CompletableFuture.runAsync(() -> drain(process.getErrorStream(), errorTail, errorConsumers), TerminalProcessExecutor.getExecutor());
+        // pending waits can never be satisfied once both streams are closed
+        CompletableFuture.allOf(outputDrained, errorDrained).whenComplete((ignored, throwable) -> cancelOutputWaiters());
+    }
+
+    static TerminalProcess start(ProcessBuilder processBuilder, String command, Consumer<String> outputConsumer) throws IOException {
+        var process = processBuilder.start();
+        ReportManager.logDiscrete("Started: \"" + command + "\" locally with PID \"" + process.pid() + "\".");
+        return new TerminalProcess(command, process, DEFAULT_TAIL_SIZE, outputConsumer);
+    }
+
+    /**
+     * Registers a consumer that receives every new line printed to the standard output.
+     *
+     * @param consumer the consumer of the output lines
+     * @return a self-reference to be used to chain actions
+     */
+    public TerminalProcess onOutput(Consumer<String> consumer) {
+        outputConsumers.add(consumer);
+        return this;
+    }
+
+    /**
+     * Registers a consumer that receives every new line printed to the standard error.
+     *
+     * @param consumer the consumer of the error lines
+     * @return a self-reference to be used to chain actions
+     */
+    public TerminalProcess onError(Consumer<String> consumer) {
+        errorConsumers.add(consumer);
+        return this;
+    }
+
+    /**
+     * Blocks until a line that matches the target regular expression is printed to the standard output or standard error.
+     * Lines that are still held in the tail buffers are checked first.
+     *
+     * @param regex   the regular expression that the target line should contain, for example "Server started"
+     * @param timeout the maximum time to wait
+     * @return the first matching line, or an empty string if the timeout expired or the process exited first
+     */
+    public String waitForOutput(String regex, Duration timeout) {
+        var pattern = Pattern.compile(regex);
+        var waiter = new OutputWaiter(pattern, new CompletableFuture<>());
+        synchronized (this) {
+            var bufferedMatch = findInTail(pattern);
+            if (bufferedMatch != null) {
+                return bufferedMatch;
+            }
+            if (outputDrained.isDone() && errorDrained.isDone()) {
+                return "";
+            }
+            outputWaiters.add(waiter);
+        }
+        try {
+            var matchingLine = waiter.match().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            ReportManager.logDiscrete("\"" + command + "\" printed: \"" + matchingLine + "\".");
+            return matchingLine;
+        } catch (TimeoutException timeoutException) {
+            ReportManager.logDiscrete("Timed out waiting for \"" + command + "\" to print a line matching \"" + regex + "\".");
+            return "";
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return "";
+        } catch (ExecutionException | CancellationException exception) {
+            ReportManager.logDiscrete("\"" + command + "\" exited before printing a line matching \"" + regex + "\".");
+            return "";
+        } finally {
+            synchronized (this) {
+                outputWaiters.remove(waiter);
+            }
+        }
+    }
+
+    /**
+     * @return a future that completes with the exit code of the process once it exits and its output is fully drained
+     */
+    public CompletableFuture<Integer> getExitCode() {
+        return process.onExit().thenCombine(CompletableFuture.allOf(outputDrained, errorDrained), (exitedProcess, ignored) -> exitedProcess.exitValue());
+    }
+
+    /**
+     * Blocks until the process exits.
+     *
+     * @param timeout the maximum time to wait
+     * @return the exit code of the process, or -1 if the timeout expired before the process exited
+     */
+    public int waitFor(Duration timeout) {
+        try {
+            return getExitCode().get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException timeoutException) {
+            ReportManager.logDiscrete("Timed out waiting for \"" + command + "\" to exit.");
+            return -1;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (ExecutionException executionException) {
+            ReportManagerHelper.logDiscrete(executionException);
+            return -1;
+        }
+    }
+
+    /**
+     * @return the last lines that were printed to the standard output
+     */
+    public synchronized String getOutputTail() {
+        return String.join(System.lineSeparator(), outputTail);
+    }
+
+    /**
+     * @return the last lines that were printed to the standard error
+     */
+    public synchronized String getErrorTail() {
+        return String.join(System.lineSeparator(), errorTail);
+    }
+
+    public long getPid() {
+        return process.pid();
+    }
+
+    public boolean isAlive() {
+        return process.isAlive();
+    }
+
+    /**
+     * Terminates the process and all its child processes. The processes are asked to exit gracefully first and are
+     * forcibly killed if they are still alive after a short grace period.
+     */
+    public void kill() {
+        if (!process.isAlive()) {
+            return;
+        }
+        // children are collected first as they get re-parented once the main process exits
+        var processTree = new ArrayList<ProcessHandle>();
+        process.descendants().forEach(processTree::add);
+        processTree.add(process.toHandle());
+        processTree.forEach(ProcessHandle::destroy);
+        try {
+            process.onExit().get(GRACEFUL_SHUTDOWN_TIMEOUT, TimeUnit.SECONDS);
+        } catch (TimeoutException | ExecutionException exception) {
+            // forcibly destroyed below
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        processTree.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly);
+        ReportManager.logDiscrete("Killed: \"" + command + "\" with PID \"" + process.pid() + "\".");
+    }
+
+    @Override
+    public void close() {
+        kill();
+    }
+
+    private void drain(InputStream stream, Deque<String> tail, List<Consumer<String>> consumers) {
+        try (var reader = new BufferedReader(new InputStreamReader(stream))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                synchronized (this) {
+                    if (tail.size() >= tailSize) {
+                        tail.removeFirst();
+                    }
+                    tail.addLast(line);
+                    for (var waiter : outputWaiters) {
+                        if (waiter.pattern().matcher(line).find()) {
+                            waiter.match().complete(line);
+                        }
+                    }
+                }
+                for (var consumer : consumers) {
+                    try {
+                        consumer.accept(line);
+                    } catch (Exception exception) {
+                        // a faulty consumer must not stop the stream from being drained, or the process will block
+                        ReportManagerHelper.logDiscrete(exception);
+                    }
+                }
+            }
+        } catch (IOException ioException) {
+            // the stream is closed when the process is killed
+        }
+    }
+
+    private String findInTail(Pattern pattern) {
+        for (var tail : List.of(outputTail, errorTail)) {
+            for (var line : tail) {
+                if (pattern.matcher(line).find()) {
+                    return line;
+                }
+            }
+        }
+        return null;
+    }
+
+    private synchronized void cancelOutputWaiters() {
+        outputWaiters.forEach(waiter -> waiter.match().cancel(false));
+    }
+
+    private record OutputWaiter(Pattern pattern, CompletableFuture<String> match) {
+    }
+}
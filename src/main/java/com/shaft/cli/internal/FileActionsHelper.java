@@ -0,0 +1,198 @@
+package com.shaft.cli.internal;
+
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * NIO based implementations of the heavier file actions.
+ * <p>
+ * Files are copied and compressed in parallel, checksums are calculated while streaming the file through a direct buffer
+ * so the file is never fully loaded into memory, and archives are extracted as a stream.
+ */
+public class FileActionsHelper {
+    private static final int CHECKSUM_BUFFER_SIZE = 1024 * 1024; // bytes
+    // compressing these again costs CPU time without reducing their size
+    private static final Set<String> COMPRESSED_FILE_EXTENSIONS = Set.of("png", "jpg", "jpeg", "gif", "webp", "mp4", "webm", "mov", "zip", "gz", "jar", "7z");
+
+    private FileActionsHelper() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Copies a folder with all its contents, the folder structure is created first and then the files are copied in parallel.
+     *
+     * @param sourceFolder      the folder to be copied
+     * @param destinationFolder the target folder, will be created if it doesn't exist
+     * @throws IOException if any file could not be copied
+     */
+    public static void copyFolder(Path sourceFolder, Path destinationFolder) throws IOException {
+        List<Path> files;
+        try (Stream<Path> tree = Files.walk(sourceFolder)) {
+            files = tree.toList();
+        }
+        for (var path : files) {
+            if (Files.isDirectory(path)) {
+                Files.createDirectories(destinationFolder.resolve(sourceFolder.relativize(path).toString()));
+            }
+        }
+        try {
+            files.parallelStream()
+                    .filter(Files::isRegularFile)
+                    .forEach(file -> {
+                        try {
+                            Files.copy(file, destinationFolder.resolve(sourceFolder.relativize(file).toString()),
+                                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                        } catch (IOException ioException) {
+                            throw new UncheckedIOException(ioException);
+                        }
+                    });
+        } catch (UncheckedIOException uncheckedIOException) {
+            throw uncheckedIOException.getCause();
+        }
+    }
+
+    /**
+     * Calculates the SHA-256 checksum of a file by streaming it through a direct buffer.
+     *
+     * @param file the target file
+     * @return the lowercase hexadecimal SHA-256 checksum
+     * @throws IOException if the file could not be read
+     */
+    public static String getSHA256Checksum(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            var buffer = ByteBuffer.allocateDirect(CHECKSUM_BUFFER_SIZE);
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Archives a folder, every entry is compressed in parallel and already compressed media files are stored as is.
+     * Entries are named relative to the parent of the source folder, so the archive contains the source folder itself.
+     *
+     * @param sourceFolder   the folder to be archived
+     * @param destinationZip the path of the archive to be created
+     * @throws IOException if any file could not be read or the archive could not be written
+     */
+    public static void zipFolder(Path sourceFolder, Path destinationZip) throws IOException {
+        var normalizedSourceFolder = sourceFolder.toAbsolutePath().normalize();
+        var entriesRoot = normalizedSourceFolder.getParent() != null ? normalizedSourceFolder.getParent() : normalizedSourceFolder;
+        List<Path> paths;
+        try (Stream<Path> tree = Files.walk(normalizedSourceFolder)) {
+            paths = tree.toList();
+        }
+        var executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+            var thread = new Thread(runnable, "SHAFT-Zip-Worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var zipCreator = new ParallelScatterZipCreator(executor);
+        try (var zipOutputStream = new ZipArchiveOutputStream(destinationZip.toFile())) {
+            for (var path : paths) {
+                var entryName = getEntryName(entriesRoot, path);
+                if (Files.isDirectory(path)) {
+                    if (isEmptyDirectory(path)) {
+                        zipOutputStream.putArchiveEntry(new ZipArchiveEntry(entryName + "/"));
+                        zipOutputStream.closeArchiveEntry();
+                    }
+                } else {
+                    var entry = new ZipArchiveEntry(entryName);
+                    entry.setMethod(isCompressedFile(path) ? ZipEntry.STORED : ZipEntry.DEFLATED);
+                    entry.setTime(Files.getLastModifiedTime(path).toMillis());
+                    zipCreator.addArchiveEntry(entry, () -> {
+                        try {
+                            return Files.newInputStream(path);
+                        } catch (IOException ioException) {
+                            throw new UncheckedIOException(ioException);
+                        }
+                    });
+                }
+            }
+            zipCreator.writeTo(zipOutputStream);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        } catch (ExecutionException executionException) {
+            throw new IOException(executionException.getCause());
+        } finally {
+            // the creator only shuts its executor down if the archive is written
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Extracts an archive as a stream, entries that would be extracted outside the target folder are rejected.
+     *
+     * @param archive         the archive to be extracted
+     * @param targetDirectory the folder to extract the archive into
+     * @throws IOException if the archive could not be read, contains a bad entry, or a file could not be written
+     */
+    public static void unzip(InputStream archive, Path targetDirectory) throws IOException {
+        var normalizedTargetDirectory = targetDirectory.toAbsolutePath().normalize();
+        Files.createDirectories(normalizedTargetDirectory);
+        try (var zipInputStream = new ZipInputStream(archive)) {
+            ZipEntry entry;
+            while ((entry = zipInputStream.getNextEntry()) != null) {
+                var target = normalizedTargetDirectory.resolve(entry.getName()).normalize();
+                if (!target.startsWith(normalizedTargetDirectory)) {
+                    throw new IOException("Bad zip entry: " + entry.getName());
+                }
+                if (entry.isDirectory()) {
+                    Files.createDirectories(target);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(zipInputStream, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+        }
+    }
+
+    private static String getEntryName(Path entriesRoot, Path path) {
+        // zip entries always use forward slashes regardless of the current file system
+        return entriesRoot.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private static boolean isEmptyDirectory(Path directory) throws IOException {
+        try (Stream<Path> children = Files.list(directory)) {
+            return children.findAny().isEmpty();
+        }
+    }
+
+    private static boolean isCompressedFile(Path file) {
+        var fileName = file.getFileName().toString();
+        var extensionIndex = fileName.lastIndexOf('.');
+        return extensionIndex != -1 && COMPRESSED_FILE_EXTENSIONS.contains(fileName.substring(extensionIndex + 1).toLowerCase());
+    }
+}
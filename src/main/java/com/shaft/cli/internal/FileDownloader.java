@@ -0,0 +1,412 @@
+package com.shaft.cli.internal;
+
+import com.shaft.tools.io.ReportManager;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.ProxySelector;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+/**
+ * Downloads files over HTTP(S), splitting large files into byte ranges that are fetched in parallel.
+ * <p>
+ * Data is written to a partial file next to the destination, and the completed ranges are tracked in a small properties
+ * file, so an interrupted download resumes from where it stopped instead of starting over. Concurrent requests to
+ * download the same url to the same destination share a single download.
+ * <p>
+ * The read timeout applies to the response headers and to every read of the response body, a body read that stalls for
+ * longer than that closes the connection so that a server that stops sending data can't hang the download.
+ */
+public class FileDownloader {
+    private static final long CHUNK_SIZE = 4L * 1024 * 1024; // bytes
+    private static final int PARALLELISM = 4;
+    private static final int MAXIMUM_ATTEMPTS_PER_CHUNK = 3;
+    private static final int BUFFER_SIZE = 64 * 1024; // bytes
+    private static final String PARTIAL_FILE_EXTENSION = ".part";
+    private static final String METADATA_FILE_EXTENSION = ".part.properties";
+    private static final Map<DownloadKey, CompletableFuture<Path>> downloadsInProgress = new ConcurrentHashMap<>();
+    private static final ScheduledThreadPoolExecutor readTimeoutWatchdog = new ScheduledThreadPoolExecutor(1, runnable -> {
+        var thread = new Thread(runnable, "SHAFT-File-Downloader-Watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        // every read schedules a timeout that is cancelled once the read returns
+        readTimeoutWatchdog.setRemoveOnCancelPolicy(true);
+    }
+
+    private FileDownloader() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Downloads the target url to the destination path, or waits for an identical download that is already in progress.
+     *
+     * @param source                 the url of the file to be downloaded
+     * @param destination            the path of the downloaded file
+     * @param connectionTimeout      the connection timeout in milliseconds, 0 means no timeout
+     * @param readTimeout            the timeout for the server to respond to each request, and to send each part of the
+     *                               response body, in milliseconds, 0 means no timeout
+     * @param expectedSHA256Checksum the expected SHA-256 checksum of the downloaded file, or null to skip the verification
+     * @return the path of the downloaded file
+     * @throws IOException if the download failed or the checksum didn't match
+     */
+    public static Path download(URI source, Path destination, int connectionTimeout, int readTimeout, String expectedSHA256Checksum) throws IOException {
+        var target = destination.toAbsolutePath().normalize();
+        var key = new DownloadKey(source, target);
+        var download = new CompletableFuture<Path>();
+        var downloadInProgress = downloadsInProgress.putIfAbsent(key, download);
+        if (downloadInProgress != null) {
+            ReportManager.logDiscrete("Waiting for the download of \"" + source + "\" that is already in progress.");
+            return await(downloadInProgress);
+        }
+        try {
+            download.complete(performDownload(source, target, connectionTimeout, readTimeout, expectedSHA256Checksum));
+        } catch (IOException | RuntimeException exception) {
+            download.completeExceptionally(exception);
+            throw exception;
+        } finally {
+            downloadsInProgress.remove(key, download);
+        }
+        return download.join();
+    }
+
+    private static Path performDownload(URI source, Path target, int connectionTimeout, int readTimeout, String expectedSHA256Checksum) throws IOException {
+        var clientBuilder = HttpClient.newBuilder().followRedirects(HttpClient.Redirect.NORMAL);
+        // honor the JVM proxy settings the same way URLConnection does
+        if (ProxySelector.getDefault() != null) {
+            clientBuilder.proxy(ProxySelector.getDefault());
+        }
+        if (connectionTimeout > 0) {
+            clientBuilder.connectTimeout(Duration.ofMillis(connectionTimeout));
+        }
+        var client = clientBuilder.build();
+        var requestTimeout = readTimeout > 0 ? Duration.ofMillis(readTimeout) : null;
+
+        if (target.getParent() != null) {
+            Files.createDirectories(target.getParent());
+        }
+        var partialFile = target.resolveSibling(target.getFileName() + PARTIAL_FILE_EXTENSION);
+        var metadataFile = target.resolveSibling(target.getFileName() + METADATA_FILE_EXTENSION);
+
+        var remoteFile = probe(client, source, requestTimeout);
+        if (remoteFile.acceptsRanges() && remoteFile.length() > CHUNK_SIZE) {
+            downloadInRanges(client, remoteFile, partialFile, metadataFile, requestTimeout);
+        } else {
+            downloadAsStream(client, remoteFile, partialFile, metadataFile, requestTimeout);
+        }
+
+        if (expectedSHA256Checksum != null && !expectedSHA256Checksum.isBlank()) {
+            var actualSHA256Checksum = FileActionsHelper.getSHA256Checksum(partialFile);
+            if (!actualSHA256Checksum.equalsIgnoreCase(expectedSHA256Checksum.trim())) {
+                Files.deleteIfExists(partialFile);
+                Files.deleteIfExists(metadataFile);
+                throw new IOException("Checksum mismatch for \"" + source + "\", expected SHA-256 \"" + expectedSHA256Checksum + "\" but found \"" + actualSHA256Checksum + "\".");
+            }
+        }
+        Files.move(partialFile, target, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(metadataFile);
+        return target;
+    }
+
+    private static RemoteFile probe(HttpClient client, URI source, Duration requestTimeout) throws IOException {
+        try {
+            var response = client.send(newRequest(source, requestTimeout).method("HEAD", HttpRequest.BodyPublishers.noBody()).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 400) {
+                // some servers don't support HEAD requests, the file will be downloaded as a single stream
+                return new RemoteFile(source, -1, false, "");
+            }
+            var headers = response.headers();
+            return new RemoteFile(response.uri(),
+                    headers.firstValueAsLong("Content-Length").orElse(-1),
+                    headers.firstValue("Accept-Ranges").map("bytes"::equalsIgnoreCase).orElse(false),
+                    headers.firstValue("ETag").or(() -> headers.firstValue("Last-Modified")).orElse(""));
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        }
+    }
+
+    private static void downloadInRanges(HttpClient client, RemoteFile remoteFile, Path partialFile, Path metadataFile, Duration requestTimeout) throws IOException {
+        var numberOfChunks = (int) ((remoteFile.length() + CHUNK_SIZE - 1) / CHUNK_SIZE);
+        Set<Integer> completedChunks = ConcurrentHashMap.newKeySet();
+        completedChunks.addAll(readCompletedChunks(metadataFile, remoteFile, partialFile));
+        if (completedChunks.isEmpty()) {
+            Files.deleteIfExists(partialFile);
+        } else {
+            ReportManager.logDiscrete("Resuming download of \"" + remoteFile.uri() + "\", " + completedChunks.size() + " of " + numberOfChunks + " parts were already downloaded.");
+        }
+
+        var executor = Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            var thread = new Thread(runnable, "SHAFT-File-Downloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (var channel = FileChannel.open(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            List<Future<?>> chunks = new ArrayList<>();
+            for (var chunk = 0; chunk < numberOfChunks; chunk++) {
+                if (completedChunks.contains(chunk)) {
+                    continue;
+                }
+                var currentChunk = chunk;
+                chunks.add(executor.submit(() -> {
+                    downloadChunk(client, remoteFile, channel, currentChunk, requestTimeout);
+                    completedChunks.add(currentChunk);
+                    writeCompletedChunks(metadataFile, remoteFile, completedChunks);
+                    return null;
+                }));
+            }
+            for (var chunk : chunks) {
+                chunk.get();
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        } catch (ExecutionException executionException) {
+            // the completed parts are kept so that the next attempt resumes the download
+            if (executionException.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(executionException.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void downloadChunk(HttpClient client, RemoteFile remoteFile, FileChannel channel, int chunk, Duration requestTimeout) throws IOException {
+        var start = chunk * CHUNK_SIZE;
+        var end = Math.min(remoteFile.length(), start + CHUNK_SIZE) - 1;
+        for (var attempt = 1; ; attempt++) {
+            try {
+                var response = client.send(newRequest(remoteFile.uri(), requestTimeout).header("Range", "bytes=" + start + "-" + end).GET().build(),
+                        HttpResponse.BodyHandlers.ofInputStream());
+                try (InputStream body = withReadTimeout(response.body(), requestTimeout)) {
+                    if (response.statusCode() != 206) {
+                        throw new IOException("Expected a partial response for bytes " + start + "-" + end + " but the server responded with status code " + response.statusCode() + ".");
+                    }
+                    var position = start;
+                    var buffer = new byte[BUFFER_SIZE];
+                    int bytesRead;
+                    while ((bytesRead = body.read(buffer)) != -1) {
+                        var byteBuffer = ByteBuffer.wrap(buffer, 0, bytesRead);
+                        while (byteBuffer.hasRemaining()) {
+                            position += channel.write(byteBuffer, position);
+                        }
+                    }
+                    if (position != end + 1) {
+                        throw new IOException("Connection closed after downloading " + (position - start) + " of " + (end + 1 - start) + " bytes.");
+                    }
+                    return;
+                }
+            } catch (IOException ioException) {
+                if (attempt >= MAXIMUM_ATTEMPTS_PER_CHUNK) {
+                    throw ioException;
+                }
+                ReportManager.logDiscrete("Retrying bytes " + start + "-" + end + " of \"" + remoteFile.uri() + "\" after a failed attempt. " + ioException.getMessage());
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+                throw new IOException(interruptedException);
+            }
+        }
+    }
+
+    private static void downloadAsStream(HttpClient client, RemoteFile remoteFile, Path partialFile, Path metadataFile, Duration requestTimeout) throws IOException {
+        // a partial file can only be resumed if it was downloaded from the same version of the remote file
+        var isResumable = remoteFile.acceptsRanges() && !remoteFile.validator().isEmpty();
+        var existingBytes = isResumable && Files.exists(partialFile) && isSameRemoteFile(readMetadata(metadataFile), remoteFile) ? Files.size(partialFile) : 0;
+        if (existingBytes > 0 && existingBytes == remoteFile.length()) {
+            return;
+        }
+        if (existingBytes == 0) {
+            Files.deleteIfExists(partialFile);
+        }
+        if (isResumable) {
+            writeCompletedChunks(metadataFile, remoteFile, Set.of());
+        } else {
+            Files.deleteIfExists(metadataFile);
+        }
+        var request = newRequest(remoteFile.uri(), requestTimeout).GET();
+        if (existingBytes > 0) {
+            // the server sends the whole file instead of the range if it changed since the validator was recorded
+            request.header("Range", "bytes=" + existingBytes + "-");
+            request.header("If-Range", remoteFile.validator());
+        }
+        try {
+            var response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = withReadTimeout(response.body(), requestTimeout)) {
+                if (response.statusCode() >= 400) {
+                    throw new IOException("Failed to download \"" + remoteFile.uri() + "\", the server responded with status code " + response.statusCode() + ".");
+                }
+                var isResumed = existingBytes > 0 && response.statusCode() == 206;
+                if (isResumed) {
+                    ReportManager.logDiscrete("Resuming download of \"" + remoteFile.uri() + "\" from byte " + existingBytes + ".");
+                }
+                try (var output = Files.newOutputStream(partialFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        isResumed ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                    body.transferTo(output);
+                }
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw new IOException(interruptedException);
+        }
+    }
+
+    private static Set<Integer> readCompletedChunks(Path metadataFile, RemoteFile remoteFile, Path partialFile) {
+        if (!Files.exists(partialFile)) {
+            return Set.of();
+        }
+        var metadata = readMetadata(metadataFile);
+        // the parts that were downloaded before can only be reused if the remote file didn't change
+        if (!isSameRemoteFile(metadata, remoteFile)
+                || !String.valueOf(CHUNK_SIZE).equals(metadata.getProperty("chunkSize"))) {
+            return Set.of();
+        }
+        var completedChunks = metadata.getProperty("completedChunks", "");
+        if (completedChunks.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(completedChunks.split(","))
+                .map(String::trim)
+                .map(Integer::valueOf)
+                .collect(Collectors.toSet());
+    }
+
+    private static Properties readMetadata(Path metadataFile) {
+        var metadata = new Properties();
+        if (Files.exists(metadataFile)) {
+            try (var input = Files.newInputStream(metadataFile)) {
+                metadata.load(input);
+            } catch (IOException | IllegalArgumentException exception) {
+                // unreadable metadata means that nothing can be resumed
+                metadata.clear();
+            }
+        }
+        return metadata;
+    }
+
+    private static boolean isSameRemoteFile(Properties metadata, RemoteFile remoteFile) {
+        return remoteFile.uri().toString().equals(metadata.getProperty("url"))
+                && String.valueOf(remoteFile.length()).equals(metadata.getProperty("length"))
+                && remoteFile.validator().equals(metadata.getProperty("validator"));
+    }
+
+    private static synchronized void writeCompletedChunks(Path metadataFile, RemoteFile remoteFile, Set<Integer> completedChunks) {
+        var metadata = new Properties();
+        metadata.setProperty("url", remoteFile.uri().toString());
+        metadata.setProperty("length", String.valueOf(remoteFile.length()));
+        metadata.setProperty("validator", remoteFile.validator());
+        metadata.setProperty("chunkSize", String.valueOf(CHUNK_SIZE));
+        metadata.setProperty("completedChunks", completedChunks.stream().sorted().map(String::valueOf).collect(Collectors.joining(",")));
+        try (var output = Files.newOutputStream(metadataFile)) {
+            metadata.store(output, "SHAFT partial download");
+        } catch (IOException ioException) {
+            throw new UncheckedIOException(ioException);
+        }
+    }
+
+    private static HttpRequest.Builder newRequest(URI uri, Duration requestTimeout) {
+        var builder = HttpRequest.newBuilder(uri);
+        if (requestTimeout != null) {
+            builder.timeout(requestTimeout);
+        }
+        return builder;
+    }
+
+    private static InputStream withReadTimeout(InputStream body, Duration readTimeout) {
+        return readTimeout == null ? body : new ReadTimeoutInputStream(body, readTimeout.toMillis());
+    }
+
+    private static Path await(CompletableFuture<Path> download) throws IOException {
+        try {
+            return download.join();
+        } catch (CompletionException completionException) {
+            if (completionException.getCause() instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException(completionException.getCause());
+        }
+    }
+
+    /**
+     * Closes the response body if a single read blocks for longer than the read timeout, which makes the blocked read
+     * fail instead of waiting for a server that stopped sending data.
+     */
+    private static final class ReadTimeoutInputStream extends FilterInputStream {
+        private final long readTimeout; // milliseconds
+        private volatile boolean isTimedOut;
+
+        private ReadTimeoutInputStream(InputStream body, long readTimeout) {
+            super(body);
+            this.readTimeout = readTimeout;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var timeout = scheduleTimeout();
+            try {
+                return super.read();
+            } catch (IOException ioException) {
+                throw timeoutOr(ioException);
+            } finally {
+                timeout.cancel(false);
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            var timeout = scheduleTimeout();
+            try {
+                return super.read(buffer, offset, length);
+            } catch (IOException ioException) {
+                throw timeoutOr(ioException);
+            } finally {
+                timeout.cancel(false);
+            }
+        }
+
+        private ScheduledFuture<?> scheduleTimeout() {
+            return readTimeoutWatchdog.schedule(() -> {
+                isTimedOut = true;
+                try {
+                    in.close();
+                } catch (IOException ioException) {
+                    // the blocked read fails either way
+                }
+            }, readTimeout, TimeUnit.MILLISECONDS);
+        }
+
+        private IOException timeoutOr(IOException ioException) {
+            if (!isTimedOut) {
+                return ioException;
+            }
+            var timeoutException = new SocketTimeoutException("Read timed out after " + readTimeout + " milliseconds without receiving any data.");
+            timeoutException.initCause(ioException);
+            return timeoutException;
+        }
+    }
+
+    private record DownloadKey(URI source, Path destination) {
+    }
+
+    private record RemoteFile(URI uri, long length, boolean acceptsRanges, String validator) {
+    }
+}
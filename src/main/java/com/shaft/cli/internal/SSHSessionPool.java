@@ -0,0 +1,193 @@
+package com.shaft.cli.internal;
+
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Keeps authenticated SSH sessions open so that consecutive remote terminal commands against the same host reuse them.
+ * <p>
+ * Sessions are keyed by host, port, username, and key file. Every command opens its own exec channel, so several commands
+ * can be multiplexed over one session at the same time. Sessions are kept alive while in use, health-checked before
+ * being handed out, evicted once they stay idle for longer than sshSessionIdleTimeout, and closed at engine teardown.
+ */
+public class SSHSessionPool {
+    private static final int KEEP_ALIVE_INTERVAL = 15000; // milliseconds
+    private static final int KEEP_ALIVE_COUNT_MAX = 3;
+    private static final Map<Key, PooledSession> sessions = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService idleSessionEvictor;
+
+    private SSHSessionPool() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Returns a healthy pooled session for the target host, or creates a new one using the provided factory.
+     * Every acquired session must be handed back using {@link #release(Session)} once the command is done.
+     *
+     * @param hostName       the IP address or host name of the remote machine
+     * @param portNumber     the port that's used for the SSH service on the remote machine
+     * @param username       the username which will be used to access the remote machine
+     * @param keyFilePath    the absolute path of the ssh key file, or an empty string if no key file is used
+     * @param sessionFactory creates and connects a new session in case there is no healthy pooled session
+     * @return a connected session, or null if the factory failed to create one
+     */
+    public static Session acquire(String hostName, int portNumber, String username, String keyFilePath, Supplier<Session> sessionFactory) {
+        var key = new Key(hostName, portNumber, username, keyFilePath);
+        var pooledSession = sessions.get(key);
+        var isHealthy = pooledSession != null && pooledSession.isHealthy();
+        if (isHealthy && claim(key, pooledSession)) {
+            startIdleSessionEvictor();
+            return pooledSession.session;
+        }
+        if (pooledSession != null && !isHealthy) {
+            ReportManager.logDiscrete("Pooled SSH Session to \"" + hostName + "\" is no longer healthy, creating a new one.");
+        }
+        // connecting is done outside of the map, so that it doesn't block the other keys while waiting for the server
+        var newSession = sessionFactory.get();
+        if (newSession == null) {
+            return null;
+        }
+        try {
+            newSession.setServerAliveInterval(KEEP_ALIVE_INTERVAL);
+            newSession.setServerAliveCountMax(KEEP_ALIVE_COUNT_MAX);
+        } catch (JSchException jSchException) {
+            // keep-alive messages are only an optimization, the health check still guards against dead sessions
+            ReportManager.logDiscrete("Failed to enable SSH keep-alive messages. " + jSchException.getMessage());
+        }
+        var createdSession = new PooledSession(newSession);
+        createdSession.activeChannels.incrementAndGet();
+        var installedSession = sessions.compute(key, (ignored, currentSession) -> {
+            if (currentSession != null && currentSession != pooledSession && currentSession.session.isConnected()) {
+                // another thread connected a session while this one was connecting
+                currentSession.activeChannels.incrementAndGet();
+                currentSession.lastUsed = System.currentTimeMillis();
+                return currentSession;
+            }
+            if (currentSession != null) {
+                currentSession.session.disconnect();
+            }
+            return createdSession;
+        });
+        if (installedSession != createdSession) {
+            newSession.disconnect();
+        }
+        startIdleSessionEvictor();
+        return installedSession.session;
+    }
+
+    /**
+     * Marks the pooled session as in use, unless it was evicted or replaced since it was looked up.
+     */
+    private static boolean claim(Key key, PooledSession pooledSession) {
+        var currentSession = sessions.computeIfPresent(key, (ignored, existingSession) -> {
+            if (existingSession == pooledSession) {
+                existingSession.activeChannels.incrementAndGet();
+                existingSession.lastUsed = System.currentTimeMillis();
+            }
+            return existingSession;
+        });
+        return currentSession == pooledSession;
+    }
+
+    /**
+     * Hands a session back to the pool, it stays open until it is evicted for being idle or the pool is shut down.
+     *
+     * @param session the session that was returned by {@link #acquire(String, int, String, String, Supplier)}
+     */
+    public static void release(Session session) {
+        sessions.values().stream()
+                .filter(pooledSession -> pooledSession.session == session)
+                .findFirst()
+                .ifPresent(pooledSession -> {
+                    pooledSession.lastUsed = System.currentTimeMillis();
+                    pooledSession.activeChannels.decrementAndGet();
+                });
+    }
+
+    /**
+     * Disconnects all pooled sessions, should be called at engine teardown.
+     */
+    public static synchronized void shutdown() {
+        if (idleSessionEvictor != null) {
+            idleSessionEvictor.shutdownNow();
+            idleSessionEvictor = null;
+        }
+        sessions.values().forEach(pooledSession -> pooledSession.session.disconnect());
+        if (!sessions.isEmpty()) {
+            ReportManager.logDiscrete("Closed " + sessions.size() + " pooled SSH Session(s).");
+        }
+        sessions.clear();
+    }
+
+    /**
+     * @return the number of SSH sessions that are currently held open by the pool
+     */
+    public static int getNumberOfPooledSessions() {
+        return sessions.size();
+    }
+
+    private static synchronized void startIdleSessionEvictor() {
+        if (idleSessionEvictor != null) {
+            return;
+        }
+        var idleTimeout = TimeUnit.SECONDS.toMillis(SHAFT.Properties.timeouts.sshSessionIdleTimeout());
+        var evictionInterval = Math.max(1000, idleTimeout / 2);
+        idleSessionEvictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "SHAFT-SSH-Session-Evictor");
+            // must never keep the JVM alive after the execution is done
+            thread.setDaemon(true);
+            return thread;
+        });
+        idleSessionEvictor.scheduleWithFixedDelay(() -> evictIdleSessions(idleTimeout), evictionInterval, evictionInterval, TimeUnit.MILLISECONDS);
+    }
+
+    private static void evictIdleSessions(long idleTimeout) {
+        var now = System.currentTimeMillis();
+        sessions.forEach((key, pooledSession) -> sessions.computeIfPresent(key, (ignored, currentSession) -> {
+            if (currentSession.activeChannels.get() <= 0 && now - currentSession.lastUsed >= idleTimeout) {
+                currentSession.session.disconnect();
+                return null;
+            }
+            return currentSession;
+        }));
+    }
+
+    private record Key(String hostName, int portNumber, String username, String keyFilePath) {
+    }
+
+    private static final class PooledSession {
+        private final Session session;
+        private final AtomicInteger activeChannels = new AtomicInteger();
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        private PooledSession(Session session) {
+            this.session = session;
+        }
+
+        private boolean isHealthy() {
+            if (!session.isConnected()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - lastUsed < KEEP_ALIVE_INTERVAL) {
+                // recently used sessions are trusted to save a round trip
+                return true;
+            }
+            try {
+                session.sendKeepAliveMsg();
+                return session.isConnected();
+            } catch (Exception exception) {
+                return false;
+            }
+        }
+    }
+}
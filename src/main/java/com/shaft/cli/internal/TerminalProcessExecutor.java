@@ -0,0 +1,27 @@
+package com.shaft.cli.internal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The shared executor that drains the output streams of local terminal processes.
+ * Uses daemon platform threads, the JDK 21 build uses virtual threads instead.
+ */
+public class TerminalProcessExecutor {
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        var thread = new Thread(runnable, "SHAFT-Terminal-Process-" + threadCounter.incrementAndGet());
+        // must never keep the JVM alive after the execution is done
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private TerminalProcessExecutor() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    public static ExecutorService getExecutor() {
+        return executor;
+    }
+}
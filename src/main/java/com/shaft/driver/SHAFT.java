@@ -21,7 +21,6 @@ import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.ios.IOSDriver;
 import io.restassured.response.Response;
 import org.openqa.selenium.MutableCapabilities;
-import org.openqa.selenium.support.events.EventFiringDecorator;
 import org.sikuli.script.App;
 
 import java.io.InputStream;
@@ -134,7 +133,7 @@ public class SHAFT {
 //                    driverThreadLocal.set(new EventFiringDecorator<>(RemoteWebDriver.class, new WebDriverListener()).decorate(remoteWebDriver));
                 } else {
                     if(!SHAFT.Properties.flags.enableTrueNativeMode()){
-                        return new EventFiringDecorator<>(org.openqa.selenium.WebDriver.class, new WebDriverListener()).decorate(DriverFactoryHelper.getDriver());
+                        return WebDriverListener.getDecoratedDriver(DriverFactoryHelper.getDriver());
                     }
                     else{
                         return DriverFactoryHelper.getDriver();
@@ -0,0 +1,135 @@
+package com.shaft.driver.internal;
+
+import com.shaft.cli.TerminalActions;
+import com.shaft.cli.TerminalProcess;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots one Android emulator and one Appium server per worker using the self-managed Android SDK.
+ * <p>
+ * Every emulator is started from the same AVD in read-only mode, which allows several instances of the same AVD to run
+ * at the same time and boots each of them from the existing quick-boot snapshot instead of cold booting.
+ */
+public class AndroidEmulatorDeviceProvider implements AppiumDeviceProvider {
+    private static final int FIRST_EMULATOR_CONSOLE_PORT = 5554;
+    private static final long BOOT_POLLING_INTERVAL = 2; // seconds
+    private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(10);
+    private final String androidHome;
+    private final String avdName;
+    private final String appiumConfigFolder;
+    private final Duration bootTimeout;
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(HEALTH_CHECK_TIMEOUT).build();
+    private final Map<String, List<TerminalProcess>> deviceProcesses = new ConcurrentHashMap<>();
+
+    /**
+     * @param androidHome        the root of the self-managed Android SDK
+     * @param avdName            the AVD that all emulators are started from
+     * @param appiumConfigFolder the folder that contains the .appiumrc.json file
+     * @param bootTimeout        the maximum time to wait for an emulator and its Appium server to be ready
+     */
+    public AndroidEmulatorDeviceProvider(String androidHome, String avdName, String appiumConfigFolder, Duration bootTimeout) {
+        this.androidHome = androidHome;
+        this.avdName = avdName;
+        this.appiumConfigFolder = appiumConfigFolder;
+        this.bootTimeout = bootTimeout;
+    }
+
+    @Override
+    public AppiumDevicePool.Device boot(int index, AppiumDevicePool.DevicePorts ports) throws Exception {
+        // emulators take two consecutive ports, and their serial number is derived from the first one
+        var consolePort = FIRST_EMULATOR_CONSOLE_PORT + 2 * index;
+        var udid = "emulator-" + consolePort;
+        var processes = new ArrayList<TerminalProcess>();
+        deviceProcesses.put(udid, processes);
+        try {
+            var terminal = TerminalActions.getInstance(false, false);
+            processes.add(terminal.startTerminalCommand(Path.of(androidHome, "emulator", "emulator")
+                    + " -avd " + avdName + " -port " + consolePort
+                    + " -read-only -no-snapshot-save -no-window -gpu host -no-audio -no-boot-anim -camera-back none -camera-front none"));
+            var appiumServer = terminal.startTerminalCommand("appium --config " + Path.of(appiumConfigFolder, ".appiumrc.json")
+                    + " --port " + ports.appiumPort());
+            processes.add(appiumServer);
+
+            if (appiumServer.waitForOutput("listener started", bootTimeout).isEmpty()) {
+                throw new IllegalStateException("Appium server on port " + ports.appiumPort() + " did not start.");
+            }
+            waitForBootToComplete(udid);
+            return new AppiumDevicePool.Device(index, udid, "http://localhost:" + ports.appiumPort() + "/", ports);
+        } catch (Exception exception) {
+            deviceProcesses.remove(udid);
+            processes.forEach(TerminalProcess::kill);
+            throw exception;
+        }
+    }
+
+    @Override
+    public boolean isHealthy(AppiumDevicePool.Device device) {
+        var processes = deviceProcesses.get(device.udid());
+        if (processes == null || !processes.stream().allMatch(TerminalProcess::isAlive)) {
+            return false;
+        }
+        try {
+            var statusCode = httpClient.send(HttpRequest.newBuilder(URI.create(device.appiumServerUrl() + "status"))
+                    .timeout(HEALTH_CHECK_TIMEOUT).GET().build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+            return statusCode == 200 && "1".equals(getBootCompletedProperty(device.udid()));
+        } catch (IOException ioException) {
+            return false;
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void shutdown(AppiumDevicePool.Device device) {
+        try {
+            runAdb("-s", device.udid(), "emu", "kill");
+        } catch (Exception exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+        var processes = deviceProcesses.remove(device.udid());
+        if (processes != null) {
+            processes.forEach(TerminalProcess::kill);
+        }
+    }
+
+    private void waitForBootToComplete(String udid) throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + bootTimeout.toNanos();
+        while (!"1".equals(getBootCompletedProperty(udid))) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Emulator \"" + udid + "\" did not finish booting within " + bootTimeout.toSeconds() + " seconds.");
+            }
+            TimeUnit.SECONDS.sleep(BOOT_POLLING_INTERVAL);
+        }
+    }
+
+    private String getBootCompletedProperty(String udid) throws IOException, InterruptedException {
+        return runAdb("-s", udid, "shell", "getprop", "sys.boot_completed");
+    }
+
+    private String runAdb(String... arguments) throws IOException, InterruptedException {
+        var command = new ArrayList<String>();
+        command.add(Path.of(androidHome, "platform-tools", "adb").toString());
+        command.addAll(List.of(arguments));
+        var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        if (!process.waitFor(HEALTH_CHECK_TIMEOUT.toSeconds(), TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            return "";
+        }
+        return new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,217 @@
+package com.shaft.driver.internal;
+
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.net.PortProber;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * A pool of local devices, each driven by its own Appium server, that are leased to test threads.
+ * <p>
+ * All devices are booted in parallel, and every device gets its own Appium, UiAutomator2 system, Chromedriver, and MJPEG
+ * server ports, so parallel sessions never collide. A thread keeps the same device from {@link #lease(Duration)} until
+ * {@link #release()}. Released devices are health-checked in the background and returned to the pool, or shut down and
+ * replaced by a freshly booted device if they are no longer healthy.
+ * <p>
+ * Booting and health checks are delegated to an {@link AppiumDeviceProvider}, so the pool can be tested without real
+ * devices.
+ */
+public class AppiumDevicePool {
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private final AppiumDeviceProvider provider;
+    private final int size;
+    private final ExecutorService executor;
+    private final BlockingQueue<Device> availableDevices = new LinkedBlockingQueue<>();
+    private final Set<Device> bootedDevices = ConcurrentHashMap.newKeySet();
+    private final Set<Integer> reservedPorts = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<Device> leasedDevice = new ThreadLocal<>();
+    private volatile boolean isShutdown = false;
+
+    /**
+     * @param provider boots, checks, and shuts down the devices
+     * @param size     the number of devices to keep in the pool
+     */
+    public AppiumDevicePool(AppiumDeviceProvider provider, int size) {
+        this.provider = provider;
+        this.size = size;
+        this.executor = Executors.newFixedThreadPool(size, runnable -> {
+            var thread = new Thread(runnable, "SHAFT-Appium-Device-Pool-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Boots all the devices in parallel and blocks until every one of them is either ready or failed to boot.
+     *
+     * @return a self-reference to be used to chain actions
+     * @throws IllegalStateException if none of the devices could be booted
+     */
+    public AppiumDevicePool start() {
+        ReportManager.logDiscrete("Booting " + size + " devices in parallel...");
+        CompletableFuture.allOf(IntStream.range(0, size)
+                .mapToObj(index -> CompletableFuture.runAsync(() -> bootIntoPool(index), executor))
+                .toArray(CompletableFuture[]::new)).join();
+        if (availableDevices.isEmpty()) {
+            throw new IllegalStateException("None of the " + size + " devices could be booted.");
+        }
+        ReportManager.logDiscrete(availableDevices.size() + " of " + size + " devices are ready.");
+        return this;
+    }
+
+    /**
+     * Leases a device to the current thread, the same device is returned to the same thread until it's released.
+     *
+     * @param timeout the maximum time to wait for a device to become available
+     * @return the leased device
+     * @throws IllegalStateException if no device became available before the timeout expired
+     */
+    public Device lease(Duration timeout) {
+        var device = leasedDevice.get();
+        if (device != null) {
+            return device;
+        }
+        try {
+            device = availableDevices.poll(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        if (device == null) {
+            throw new IllegalStateException("No device became available within " + timeout.toSeconds() + " seconds.");
+        }
+        leasedDevice.set(device);
+        ReportManager.logDiscrete("Leased device \"" + device.udid() + "\" on Appium server \"" + device.appiumServerUrl() + "\".");
+        return device;
+    }
+
+    /**
+     * Releases the device that is leased to the current thread, if any. The device is health-checked in the background
+     * and either returned to the pool or replaced.
+     */
+    public void release() {
+        var device = leasedDevice.get();
+        if (device == null) {
+            return;
+        }
+        leasedDevice.remove();
+        try {
+            executor.execute(() -> recycle(device));
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            // the pool was shut down while the device was leased
+            shutdownDevice(device);
+        }
+    }
+
+    /**
+     * @return the number of devices that are ready to be leased right now
+     */
+    public int getNumberOfAvailableDevices() {
+        return availableDevices.size();
+    }
+
+    /**
+     * Shuts down every device in the pool, including the ones that are currently leased.
+     */
+    public void shutdown() {
+        isShutdown = true;
+        executor.shutdownNow();
+        availableDevices.clear();
+        bootedDevices.forEach(this::shutdownDevice);
+    }
+
+    private void bootIntoPool(int index) {
+        var ports = reservePorts();
+        try {
+            var device = provider.boot(index, ports);
+            bootedDevices.add(device);
+            if (isShutdown) {
+                shutdownDevice(device);
+            } else {
+                availableDevices.add(device);
+                ReportManager.logDiscrete("Device \"" + device.udid() + "\" is ready on Appium server \"" + device.appiumServerUrl() + "\".");
+            }
+        } catch (Exception exception) {
+            releasePorts(ports);
+            ReportManagerHelper.logDiscrete(exception);
+            ReportManager.logDiscrete("Failed to boot device #" + index + ".");
+        }
+    }
+
+    private void recycle(Device device) {
+        if (!isShutdown && provider.isHealthy(device)) {
+            availableDevices.add(device);
+            return;
+        }
+        ReportManager.logDiscrete("Device \"" + device.udid() + "\" is no longer healthy, replacing it...");
+        shutdownDevice(device);
+        if (!isShutdown) {
+            bootIntoPool(device.index());
+        }
+    }
+
+    private void shutdownDevice(Device device) {
+        if (bootedDevices.remove(device)) {
+            try {
+                provider.shutdown(device);
+            } catch (Exception exception) {
+                ReportManagerHelper.logDiscrete(exception);
+            }
+            releasePorts(device.ports());
+        }
+    }
+
+    private DevicePorts reservePorts() {
+        return new DevicePorts(reservePort(), reservePort(), reservePort(), reservePort());
+    }
+
+    private int reservePort() {
+        int port;
+        do {
+            port = PortProber.findFreePort();
+        } while (!reservedPorts.add(port));
+        return port;
+    }
+
+    private void releasePorts(DevicePorts ports) {
+        reservedPorts.removeAll(Set.of(ports.appiumPort(), ports.systemPort(), ports.chromedriverPort(), ports.mjpegServerPort()));
+    }
+
+    /**
+     * The ports that are reserved for a single device and its Appium server.
+     */
+    public record DevicePorts(int appiumPort, int systemPort, int chromedriverPort, int mjpegServerPort) {
+    }
+
+    /**
+     * A booted device and the Appium server that drives it.
+     *
+     * @param index           the zero-based index of the worker that the device was booted for
+     * @param udid            the unique device identifier, for example "emulator-5556"
+     * @param appiumServerUrl the URL of the Appium server that drives this device
+     * @param ports           the ports that are reserved for this device
+     */
+    public record Device(int index, String udid, String appiumServerUrl, DevicePorts ports) {
+        /**
+         * @return the capabilities that bind a new session to this device and its reserved ports
+         */
+        public Map<String, Object> getCapabilities() {
+            return Map.of("appium:udid", udid,
+                    "appium:systemPort", ports.systemPort(),
+                    "appium:chromedriverPort", ports.chromedriverPort(),
+                    "appium:mjpegServerPort", ports.mjpegServerPort());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.shaft.driver.internal;
+
+/**
+ * Boots, checks, and shuts down the devices that are managed by an {@link AppiumDevicePool}.
+ * <p>
+ * Implementations are called concurrently for different devices, but never concurrently for the same device.
+ */
+public interface AppiumDeviceProvider {
+    /**
+     * Boots a device along with the Appium server that will drive it, and blocks until both are ready.
+     *
+     * @param index the zero-based index of the worker that the device is booted for
+     * @param ports the unique ports that are reserved for this device
+     * @return the booted device
+     * @throws Exception if the device or its Appium server could not be started
+     */
+    AppiumDevicePool.Device boot(int index, AppiumDevicePool.DevicePorts ports) throws Exception;
+
+    /**
+     * @param device the target device
+     * @return true if the device and its Appium server can still be used for a new test
+     */
+    boolean isHealthy(AppiumDevicePool.Device device);
+
+    /**
+     * Stops the device and its Appium server, this must not throw even if the device is already gone.
+     *
+     * @param device the target device
+     */
+    void shutdown(AppiumDevicePool.Device device);
+}
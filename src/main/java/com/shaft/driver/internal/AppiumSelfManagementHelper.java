@@ -13,6 +13,7 @@ import org.apache.commons.lang3.SystemUtils;
 
 import java.io.File;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.LinkedList;
@@ -26,6 +27,11 @@ public class AppiumSelfManagementHelper {
     private final String nodeJsVersion = "v18.14.0";
     @Getter
     private static final boolean terminateAppiumContainersAfterExecution = false;
+    /**
+     * The pool of self-managed devices, or null if only a single device is self-managed
+     */
+    @Getter
+    private static AppiumDevicePool devicePool = null;
 
     private final String androidSelfManagedEnvironmentLocation = System.getProperty("user.home") + File.separator + ".shaft" + File.separator + "android" + File.separator;
     private final String subPathToBin = "cmdline-tools" + File.separator + "latest" + File.separator + "bin";
@@ -51,6 +57,13 @@ public class AppiumSelfManagementHelper {
 //                    throw new RuntimeException(e);
 //                }
         setupAndroidPackages();
+        var devicePoolSize = Properties.mobile.selfManagedDevicePoolSize();
+        if (devicePoolSize > 1) {
+            setupNPM();
+            setupAppiumComponents();
+            launchAndroidDevicePool(devicePoolSize);
+            return;
+        }
         launchAndroidEmulator();
 //                prepareAppiumSelfManagedEnvironment.shutdown();
 //            });
@@ -187,6 +200,27 @@ public class AppiumSelfManagementHelper {
         }
     }
 
+    @Step("Launching Android device pool")
+    private void launchAndroidDevicePool(int devicePoolSize) {
+        var bootTimeout = Duration.ofMinutes(SHAFT.Properties.timeouts.remoteServerInstanceCreationTimeout());
+        try {
+            devicePool = new AppiumDevicePool(new AndroidEmulatorDeviceProvider(System.getProperty("ANDROID_HOME"), getAvdName(),
+                    Properties.paths.properties(), bootTimeout), devicePoolSize).start();
+        } catch (Throwable throwable) {
+            FailureReporter.fail(AppiumSelfManagementHelper.class, "Failed to launch Android device pool.", throwable);
+        }
+    }
+
+    /**
+     * Shuts down all the emulators and Appium servers in the self-managed device pool, if any.
+     */
+    public static void shutdownDevicePool() {
+        if (devicePool != null) {
+            devicePool.shutdown();
+            devicePool = null;
+        }
+    }
+
     @Step("Setting up Node.js")
     private void setupNPM() {
         ReportManager.logDiscrete("Verifying NPM installation...");
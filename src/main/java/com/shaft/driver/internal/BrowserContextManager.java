@@ -0,0 +1,252 @@
+package com.shaft.driver.internal;
+
+import com.epam.healenium.SelfHealingDriver;
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.remote.CapabilityType;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Hosts many isolated driver sessions in a single local Chromium browser process, instead of starting a new browser for
+ * every session.
+ * <p>
+ * The first session starts the shared browser. Every leased session gets its own browser context, which has separate
+ * cookies, storage, and cache, and a new driver session that is attached to the shared browser and switched to the
+ * context's page, so that all the actions of that session are routed to it. Releasing a session disposes its context
+ * and keeps the browser running for the next one, which makes starting a session much faster and cheaper than starting
+ * a browser.
+ * <p>
+ * This mode is enabled using the sharedBrowserProcess property, and only applies to local Chrome and Edge executions.
+ * The attached sessions can see the pages of every context, so window handles must be read using
+ * {@link #getWindowHandles(WebDriver)}, which only returns the pages of the session's own context, and new windows and
+ * tabs must be opened using {@link #newWindow(WebDriver, WindowType)}, which opens them in the session's own context.
+ * <p>
+ * Mobile emulation and browser arguments apply to the whole browser process, so sessions that use mobile emulation, or
+ * different arguments than the ones the shared browser was started with, get a dedicated browser instead.
+ */
+public class BrowserContextManager {
+    private static final Map<WebDriver, String> browserContexts = new ConcurrentHashMap<>();
+    private static ChromiumDriver hostDriver;
+    private static String debuggerAddress;
+    private static List<?> hostArguments;
+
+    private BrowserContextManager() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return true if local Chromium sessions should be hosted by a shared browser process
+     */
+    public static boolean isEnabled() {
+        return SHAFT.Properties.web.sharedBrowserProcess()
+                && SHAFT.Properties.platform.executionAddress().equalsIgnoreCase("local");
+    }
+
+    /**
+     * Creates a new browser context in the shared browser, starting the browser first if needed, and attaches a new
+     * driver session to it.
+     *
+     * @param options       the options that are used to start the shared browser
+     * @param driverFactory starts a new driver session using the given options
+     * @return a driver session that is isolated in its own browser context
+     */
+    public static WebDriver lease(ChromiumOptions<?> options, Function<ChromiumOptions<?>, ChromiumDriver> driverFactory) {
+        var vendorOptions = getVendorOptions(options);
+        if (vendorOptions.get("mobileEmulation") != null) {
+            ReportManager.logDiscrete("Mobile emulation can't be applied to a context of the shared browser process, starting a dedicated browser instead.");
+            return driverFactory.apply(options);
+        }
+        List<?> arguments = vendorOptions.get("args") instanceof List<?> list ? list : List.of();
+        String browserContextId;
+        String targetId;
+        String address;
+        synchronized (BrowserContextManager.class) {
+            if (!isHostAlive()) {
+                ReportManager.logDiscrete("Starting the shared browser process...");
+                hostDriver = driverFactory.apply(options);
+                debuggerAddress = getDebuggerAddress(hostDriver, options);
+                hostArguments = arguments;
+            } else if (!arguments.equals(hostArguments)) {
+                ReportManager.logDiscrete("The browser arguments of this session are different from the ones of the shared browser process, starting a dedicated browser instead.");
+                return driverFactory.apply(options);
+            }
+            browserContextId = (String) hostDriver.executeCdpCommand("Target.createBrowserContext", Map.of("disposeOnDetach", false)).get("browserContextId");
+            targetId = (String) hostDriver.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank", "browserContextId", browserContextId)).get("targetId");
+            address = debuggerAddress;
+        }
+        try {
+            var contextDriver = driverFactory.apply(attachOptions(options, address));
+            // window handles are the target ids of the pages
+            contextDriver.switchTo().window(targetId);
+            browserContexts.put(contextDriver, browserContextId);
+            ReportManager.logDiscrete("Leased browser context \"" + browserContextId + "\" of the shared browser process.");
+            return contextDriver;
+        } catch (RuntimeException exception) {
+            disposeBrowserContext(browserContextId);
+            throw exception;
+        }
+    }
+
+    /**
+     * Quits a driver session and disposes its browser context, if it was leased from the shared browser.
+     *
+     * @param driver the driver session to release
+     * @return true if the session was leased and is now released, or false if the session wasn't leased
+     */
+    public static boolean release(WebDriver driver) {
+        if (driver instanceof SelfHealingDriver selfHealingDriver) {
+            driver = selfHealingDriver.getDelegate();
+        }
+        var browserContextId = browserContexts.remove(driver);
+        if (browserContextId == null) {
+            return false;
+        }
+        try {
+            // the attached session doesn't own the browser, so quitting it leaves the shared browser running
+            driver.quit();
+        } finally {
+            disposeBrowserContext(browserContextId);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the window handles of a driver session, limited to the pages of its browser context if the session was
+     * leased from the shared browser.
+     *
+     * @param driver the driver session
+     * @return the window handles that belong to this session
+     */
+    @SuppressWarnings("unchecked")
+    public static Set<String> getWindowHandles(WebDriver driver) {
+        var windowHandles = driver.getWindowHandles();
+        var delegate = driver instanceof SelfHealingDriver selfHealingDriver ? selfHealingDriver.getDelegate() : driver;
+        var browserContextId = browserContexts.get(delegate);
+        if (browserContextId == null || !(delegate instanceof HasCdp hasCdp)) {
+            return windowHandles;
+        }
+        try {
+            var targetInfos = (List<Map<String, Object>>) hasCdp.executeCdpCommand("Target.getTargets", Map.of()).get("targetInfos");
+            // window handles are the target ids of the pages
+            var contextTargetIds = targetInfos.stream()
+                    .filter(targetInfo -> browserContextId.equals(targetInfo.get("browserContextId")))
+                    .map(targetInfo -> String.valueOf(targetInfo.get("targetId")))
+                    .collect(Collectors.toSet());
+            return windowHandles.stream()
+                    .filter(contextTargetIds::contains)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+        } catch (WebDriverException | ClassCastException | NullPointerException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+            return windowHandles;
+        }
+    }
+
+    /**
+     * Opens a new window or tab and switches to it. Leased sessions open it in their own browser context, because
+     * windows that are opened using the driver would otherwise belong to the shared browser's default context.
+     *
+     * @param driver     the driver session
+     * @param windowType the type of the new window
+     * @return the driver, switched to the new window
+     */
+    public static WebDriver newWindow(WebDriver driver, WindowType windowType) {
+        var delegate = driver instanceof SelfHealingDriver selfHealingDriver ? selfHealingDriver.getDelegate() : driver;
+        var browserContextId = browserContexts.get(delegate);
+        if (browserContextId == null) {
+            return driver.switchTo().newWindow(windowType);
+        }
+        String targetId;
+        synchronized (BrowserContextManager.class) {
+            targetId = (String) hostDriver.executeCdpCommand("Target.createTarget", Map.of("url", "about:blank",
+                    "browserContextId", browserContextId, "newWindow", windowType == WindowType.WINDOW)).get("targetId");
+        }
+        // window handles are the target ids of the pages
+        return driver.switchTo().window(targetId);
+    }
+
+    /**
+     * Quits the shared browser process, if it was started.
+     */
+    public static void shutdown() {
+        synchronized (BrowserContextManager.class) {
+            if (hostDriver != null) {
+                try {
+                    hostDriver.quit();
+                } catch (WebDriverException webDriverException) {
+                    // the browser is already gone
+                }
+                hostDriver = null;
+                debuggerAddress = null;
+                hostArguments = null;
+            }
+        }
+    }
+
+    private static void disposeBrowserContext(String browserContextId) {
+        synchronized (BrowserContextManager.class) {
+            if (hostDriver != null) {
+                try {
+                    hostDriver.executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", browserContextId));
+                } catch (WebDriverException webDriverException) {
+                    ReportManagerHelper.logDiscrete(webDriverException);
+                }
+            }
+        }
+    }
+
+    private static boolean isHostAlive() {
+        if (hostDriver == null) {
+            return false;
+        }
+        try {
+            hostDriver.getWindowHandles();
+            return true;
+        } catch (WebDriverException webDriverException) {
+            hostDriver = null;
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String getDebuggerAddress(ChromiumDriver driver, ChromiumOptions<?> options) {
+        var vendorOptions = options instanceof EdgeOptions ? "ms:edgeOptions" : "goog:chromeOptions";
+        var capability = driver.getCapabilities().getCapability(vendorOptions);
+        if (capability instanceof Map<?, ?> map && map.get("debuggerAddress") != null) {
+            return String.valueOf(((Map<String, Object>) map).get("debuggerAddress"));
+        }
+        throw new WebDriverException("The shared browser process didn't report its debugger address.");
+    }
+
+    private static Map<?, ?> getVendorOptions(ChromiumOptions<?> options) {
+        var vendorOptions = options.asMap().get(options instanceof EdgeOptions ? "ms:edgeOptions" : "goog:chromeOptions");
+        return vendorOptions instanceof Map<?, ?> map ? map : Map.of();
+    }
+
+    private static ChromiumOptions<?> attachOptions(ChromiumOptions<?> options, String debuggerAddress) {
+        ChromiumOptions<?> attachOptions = options instanceof EdgeOptions ? new EdgeOptions() : new ChromeOptions();
+        attachOptions.setExperimentalOption("debuggerAddress", debuggerAddress);
+        for (var capabilityName : new String[]{CapabilityType.PAGE_LOAD_STRATEGY, CapabilityType.UNHANDLED_PROMPT_BEHAVIOUR, "timeouts"}) {
+            var capability = options.getCapability(capabilityName);
+            if (capability != null) {
+                attachOptions.setCapability(capabilityName, capability);
+            }
+        }
+        return attachOptions;
+    }
+}
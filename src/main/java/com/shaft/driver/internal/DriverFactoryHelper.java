@@ -6,7 +6,11 @@ import com.mysql.cj.util.StringUtils;
 import com.shaft.driver.DriverFactory.DriverType;
 import com.shaft.driver.SHAFT;
 import com.shaft.gui.browser.BrowserActions;
+import com.shaft.gui.browser.internal.NetworkRecorder;
+import com.shaft.gui.browser.internal.RequestBlocker;
 import com.shaft.gui.internal.video.RecordManager;
+import com.shaft.listeners.internal.WebDriverListener;
+import com.shaft.performance.internal.LightHouseGenerateReport;
 import com.shaft.properties.internal.Properties;
 import com.shaft.properties.internal.PropertiesHelper;
 import com.shaft.properties.internal.PropertyFileManager;
@@ -26,23 +30,28 @@ import lombok.*;
 import org.apache.logging.log4j.Level;
 import org.openqa.selenium.*;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
 import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.chromium.ChromiumOptions;
 import org.openqa.selenium.devtools.DevTools;
 import org.openqa.selenium.devtools.HasDevTools;
 import org.openqa.selenium.devtools.v116.network.Network;
 import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeDriverService;
 import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxDriverLogLevel;
 import org.openqa.selenium.firefox.FirefoxOptions;
 import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.firefox.GeckoDriverService;
 import org.openqa.selenium.ie.InternetExplorerDriver;
+import org.openqa.selenium.ie.InternetExplorerDriverService;
 import org.openqa.selenium.ie.InternetExplorerOptions;
 import org.openqa.selenium.logging.LogType;
 import org.openqa.selenium.logging.LoggingPreferences;
 import org.openqa.selenium.remote.*;
 import org.openqa.selenium.safari.SafariDriver;
+import org.openqa.selenium.safari.SafariDriverService;
 import org.openqa.selenium.safari.SafariOptions;
 import org.testng.Reporter;
 
@@ -129,14 +138,19 @@ public class DriverFactoryHelper {
             if (SHAFT.Properties.visuals.videoParamsScope().equals("DriverSession")) {
                 RecordManager.attachVideoRecording();
             }
+            RecordManager.discardLastEncodedRecording();
             try {
+                // audits need the browser, so they have to finish before it's closed
+                LightHouseGenerateReport.reportPendingAudits();
+                NetworkRecorder.stop();
+                RequestBlocker.attachBlockedRequests();
                 attachWebDriverLogs();
                 //if dockerized wdm.quit the relevant one
                 if (SHAFT.Properties.platform.executionAddress().toLowerCase().contains("dockerized")) {
                     var pathToRecording = webDriverManager.get().getDockerRecordingPath(driver);
                     webDriverManager.get().quit(driver);
                     RecordManager.attachVideoRecording(pathToRecording);
-                } else {
+                } else if (!BrowserContextManager.release(driver)) {
                     driver.quit();
                 }
             } catch (WebDriverException | NullPointerException e) {
@@ -144,8 +158,10 @@ public class DriverFactoryHelper {
             } catch (Exception e) {
                 ReportManagerHelper.logDiscrete(e);
             } finally {
+                WebDriverListener.discardDecoratedDriver(driver);
                 driver = null;
                 webDriverManager.remove();
+                releaseSelfManagedDevice();
                 ReportManager.log("Successfully Closed Driver.");
             }
         } else {
@@ -214,6 +230,7 @@ public class DriverFactoryHelper {
                     ffProfile.setPreference("browser.cache.offline.enable", false);
                     ffProfile.setPreference("network.http.use-cache", false);
                 }
+                RequestBlocker.configure(ffProfile, SHAFT.Properties.platform.driverProxySettings() && !proxyServerSettings.isBlank());
                 ffOptions.setProfile(ffProfile);
                 if (!SHAFT.Properties.platform.executionAddress().equalsIgnoreCase("local"))
                     ffOptions.setCapability(CapabilityType.PLATFORM_NAME, Properties.platform.targetPlatform());
@@ -458,17 +475,49 @@ public class DriverFactoryHelper {
         try {
             ReportManager.logDiscrete(WEB_DRIVER_MANAGER_MESSAGE);
             switch (driverType) {
-                case FIREFOX -> driver = new FirefoxDriver(ffOptions);
-                case IE -> driver = new InternetExplorerDriver(ieOptions);
+                case FIREFOX -> {
+                    var service = GeckoDriverService.createDefaultService();
+                    DriverResolutionCache.resolve(service, ffOptions);
+                    driver = new FirefoxDriver(service, ffOptions);
+                }
+                case IE -> {
+                    var service = InternetExplorerDriverService.createDefaultService();
+                    DriverResolutionCache.resolve(service, ieOptions);
+                    driver = new InternetExplorerDriver(service, ieOptions);
+                }
                 case CHROME -> {
-                    driver = new ChromeDriver(chOptions);
+                    if (BrowserContextManager.isEnabled()) {
+                        driver = BrowserContextManager.lease(chOptions, options -> {
+                            var service = ChromeDriverService.createServiceWithConfig((ChromeOptions) options);
+                            DriverResolutionCache.resolve(service, options);
+                            return new ChromeDriver(service, (ChromeOptions) options);
+                        });
+                    } else {
+                        var service = ChromeDriverService.createServiceWithConfig(chOptions);
+                        DriverResolutionCache.resolve(service, chOptions);
+                        driver = new ChromeDriver(service, chOptions);
+                    }
                     disableCacheEdgeAndChrome();
                 }
                 case EDGE -> {
-                    driver = new EdgeDriver(edOptions);
+                    if (BrowserContextManager.isEnabled()) {
+                        driver = BrowserContextManager.lease(edOptions, options -> {
+                            var service = EdgeDriverService.createServiceWithConfig((EdgeOptions) options);
+                            DriverResolutionCache.resolve(service, options);
+                            return new EdgeDriver(service, (EdgeOptions) options);
+                        });
+                    } else {
+                        var service = EdgeDriverService.createServiceWithConfig(edOptions);
+                        DriverResolutionCache.resolve(service, edOptions);
+                        driver = new EdgeDriver(service, edOptions);
+                    }
                     disableCacheEdgeAndChrome();
                 }
-                case SAFARI -> driver = new SafariDriver(sfOptions);
+                case SAFARI -> {
+                    var service = SafariDriverService.createDefaultService();
+                    DriverResolutionCache.resolve(service, sfOptions);
+                    driver = new SafariDriver(service, sfOptions);
+                }
                 default ->
                         failAction("Unsupported Driver Type \"" + JavaHelper.convertToSentenceCase(driverType.getValue()) + "\".");
             }
@@ -922,7 +971,16 @@ public class DriverFactoryHelper {
                     driverType = DriverType.APPIUM_MOBILE_NATIVE;
                 }
                 setDriverOptions(driverType, customDriverOptions);
-                createNewRemoteDriverInstance(driverType);
+                leaseSelfManagedDevice();
+                try {
+                    createNewRemoteDriverInstance(driverType);
+                } catch (RuntimeException | Error exception) {
+                    // closeDriver only releases the device of an open session, so a failed session would keep it leased
+                    if (driver == null) {
+                        releaseSelfManagedDevice();
+                    }
+                    throw exception;
+                }
             } else {
                 //desktop execution
                 setDriverOptions(driverType, customDriverOptions);
@@ -956,6 +1014,10 @@ public class DriverFactoryHelper {
             }
             // start session recording
             RecordManager.startVideoRecording(driver);
+            if (!isMobileNativeExecution()) {
+                RequestBlocker.applyIfEnabled(driver);
+                NetworkRecorder.startIfEnabled(driver);
+            }
         } catch (NullPointerException e) {
             FailureReporter.fail(DriverFactoryHelper.class, "Unhandled Exception with Driver Type \"" + JavaHelper.convertToSentenceCase(driverType.getValue()) + "\".", e);
         }
@@ -967,6 +1029,29 @@ public class DriverFactoryHelper {
         }
     }
 
+    private static void leaseSelfManagedDevice() {
+        var devicePool = AppiumSelfManagementHelper.getDevicePool();
+        if (devicePool != null) {
+            try {
+                var device = devicePool.lease(Duration.ofSeconds(remoteServerInstanceCreationTimeout));
+                if (appiumCapabilities == null) {
+                    appiumCapabilities = new DesiredCapabilities();
+                }
+                device.getCapabilities().forEach(appiumCapabilities::setCapability);
+                TARGET_HUB_URL = device.appiumServerUrl();
+            } catch (IllegalStateException illegalStateException) {
+                failAction("Failed to lease a self-managed device.", illegalStateException);
+            }
+        }
+    }
+
+    private static void releaseSelfManagedDevice() {
+        var devicePool = AppiumSelfManagementHelper.getDevicePool();
+        if (devicePool != null) {
+            devicePool.release();
+        }
+    }
+
     public static void initializeSystemProperties() {
         PropertiesHelper.postProcessing();
         TARGET_HUB_URL = (SHAFT.Properties.platform.executionAddress().trim().toLowerCase().startsWith("http")) ? SHAFT.Properties.platform.executionAddress() : "http://" + SHAFT.Properties.platform.executionAddress() + "/";
@@ -0,0 +1,166 @@
+package com.shaft.driver.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.MutableCapabilities;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.manager.SeleniumManagerOutput.Result;
+import org.openqa.selenium.remote.service.DriverFinder;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches the driver and browser binaries that Selenium Manager resolves for local sessions.
+ * <p>
+ * Entries are keyed by browser name, browser version, custom browser binary, operating system, and architecture, and
+ * are stored in a single file next to the Selenium Manager cache so that every JVM on the same machine shares them.
+ * Access to the file is guarded by a file lock, so parallel forks never read a partially written cache. A cache hit
+ * skips Selenium Manager entirely, which means no network lookups and a deterministic session creation time.
+ * <p>
+ * When {@code resolveDriversOffline} is enabled, cache misses are resolved by Selenium Manager in offline mode, using
+ * only the binaries that were already downloaded to this machine.
+ */
+public class DriverResolutionCache {
+    private static final Path CACHE_FILE = Path.of(System.getProperty("user.home"), ".cache", "selenium", "shaft-driver-resolution.properties");
+    private static final Path LOCK_FILE = CACHE_FILE.resolveSibling(CACHE_FILE.getFileName() + ".lock");
+    private static final String DRIVER_PATH_SUFFIX = ".driverPath";
+    private static final String BROWSER_PATH_SUFFIX = ".browserPath";
+    private static final String RESOLVED_AT_SUFFIX = ".resolvedAt";
+
+    private DriverResolutionCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Points the driver service to the driver binary and the browser options to the browser binary, using the cached
+     * resolution if there is a valid one and Selenium Manager otherwise.
+     *
+     * @param service the driver service that will be used to create the local session
+     * @param options the browser options that will be used to create the local session
+     * @throws SessionNotCreatedException if the binaries could not be resolved
+     */
+    public static void resolve(DriverService service, MutableCapabilities options) {
+        boolean isCacheEnabled = SHAFT.Properties.flags.cacheDriverResolution();
+        boolean isOffline = SHAFT.Properties.flags.resolveDriversOffline();
+        var cacheKey = getCacheKey(options);
+
+        if (isCacheEnabled || isOffline) {
+            var cachedResolution = read(cacheKey, isOffline);
+            if (cachedResolution != null) {
+                ReportManager.logDiscrete("Using cached driver binary \"" + cachedResolution.driverPath() + "\".");
+                apply(service, options, cachedResolution);
+                return;
+            }
+        }
+
+        Resolution resolution;
+        try {
+            Result result = DriverFinder.getPath(service, options, isOffline);
+            resolution = new Resolution(result.getDriverPath(), Objects.requireNonNullElse(result.getBrowserPath(), ""), System.currentTimeMillis());
+        } catch (WebDriverException exception) {
+            throw new SessionNotCreatedException("Failed to resolve the driver binary for \"" + cacheKey + "\"" + (isOffline ? " while offline." : "."), exception);
+        }
+        apply(service, options, resolution);
+        if (isCacheEnabled) {
+            write(cacheKey, resolution);
+        }
+    }
+
+    private static void apply(DriverService service, MutableCapabilities options, Resolution resolution) {
+        service.setExecutable(resolution.driverPath());
+        if (!resolution.browserPath().isBlank()) {
+            if (options instanceof ChromiumOptions<?> chromiumOptions) {
+                chromiumOptions.setBinary(resolution.browserPath());
+            } else if (options instanceof FirefoxOptions firefoxOptions) {
+                firefoxOptions.setBinary(resolution.browserPath());
+            }
+        }
+    }
+
+    private static String getCacheKey(Capabilities options) {
+        var customBinary = options.asMap().values().stream()
+                .filter(Map.class::isInstance)
+                .map(vendorOptions -> ((Map<?, ?>) vendorOptions).get("binary"))
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .findFirst()
+                .orElse("");
+        return String.join("|", options.getBrowserName(), Objects.requireNonNullElse(options.getBrowserVersion(), ""),
+                customBinary, System.getProperty("os.name"), System.getProperty("os.arch"));
+    }
+
+    private static synchronized Resolution read(String cacheKey, boolean ignoreTimeout) {
+        if (!Files.exists(CACHE_FILE)) {
+            return null;
+        }
+        try (var lockChannel = openLockChannel(); var ignored = lockChannel.lock(0, Long.MAX_VALUE, true)) {
+            var cache = new Properties();
+            try (InputStream inputStream = Files.newInputStream(CACHE_FILE)) {
+                cache.load(inputStream);
+            }
+            var driverPath = cache.getProperty(cacheKey + DRIVER_PATH_SUFFIX);
+            var resolvedAt = cache.getProperty(cacheKey + RESOLVED_AT_SUFFIX);
+            if (driverPath == null || resolvedAt == null) {
+                return null;
+            }
+            var resolution = new Resolution(driverPath, cache.getProperty(cacheKey + BROWSER_PATH_SUFFIX, ""), Long.parseLong(resolvedAt));
+            boolean isExpired = System.currentTimeMillis() - resolution.resolvedAt()
+                    > TimeUnit.SECONDS.toMillis(SHAFT.Properties.timeouts.driverResolutionCacheTimeout());
+            // binaries may have been removed or upgraded since they were cached
+            boolean areBinariesAvailable = Files.isRegularFile(Path.of(resolution.driverPath()))
+                    && (resolution.browserPath().isBlank() || Files.exists(Path.of(resolution.browserPath())));
+            return (ignoreTimeout || !isExpired) && areBinariesAvailable ? resolution : null;
+        } catch (IOException | RuntimeException exception) {
+            // a corrupted or unreadable cache is treated as a cache miss
+            ReportManagerHelper.logDiscrete(exception);
+            return null;
+        }
+    }
+
+    private static synchronized void write(String cacheKey, Resolution resolution) {
+        try {
+            Files.createDirectories(CACHE_FILE.getParent());
+            try (var lockChannel = openLockChannel(); var ignored = lockChannel.lock()) {
+                var cache = new Properties();
+                if (Files.exists(CACHE_FILE)) {
+                    try (InputStream inputStream = Files.newInputStream(CACHE_FILE)) {
+                        cache.load(inputStream);
+                    }
+                }
+                cache.setProperty(cacheKey + DRIVER_PATH_SUFFIX, resolution.driverPath());
+                cache.setProperty(cacheKey + BROWSER_PATH_SUFFIX, resolution.browserPath());
+                cache.setProperty(cacheKey + RESOLVED_AT_SUFFIX, String.valueOf(resolution.resolvedAt()));
+                try (OutputStream outputStream = Files.newOutputStream(CACHE_FILE)) {
+                    cache.store(outputStream, "SHAFT driver resolution cache");
+                }
+            }
+        } catch (IOException exception) {
+            // failing to cache a resolution must never fail the session
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private static FileChannel openLockChannel() throws IOException {
+        Files.createDirectories(LOCK_FILE.getParent());
+        return FileChannel.open(LOCK_FILE, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private record Resolution(String driverPath, String browserPath, long resolvedAt) {
+    }
+}
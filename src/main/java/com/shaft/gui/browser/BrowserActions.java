@@ -2,15 +2,20 @@ package com.shaft.gui.browser;
 
 import com.shaft.driver.DriverFactory;
 import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.BrowserContextManager;
 import com.shaft.driver.internal.DriverFactoryHelper;
 import com.shaft.driver.internal.WizardHelpers;
 import com.shaft.enums.internal.NavigationAction;
 import com.shaft.enums.internal.Screenshots;
 import com.shaft.gui.browser.internal.BrowserActionsHelper;
 import com.shaft.gui.browser.internal.JavaScriptWaitManager;
+import com.shaft.gui.browser.internal.NetworkRecorder;
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
 import com.shaft.gui.element.AlertActions;
 import com.shaft.gui.element.ElementActions;
 import com.shaft.gui.element.TouchActions;
+import com.shaft.gui.element.internal.ElementHandleCache;
+import com.shaft.gui.element.internal.PageSourceSnapshot;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.gui.internal.locator.LocatorBuilder;
 import com.shaft.gui.internal.locator.ShadowLocatorBuilder;
@@ -269,17 +274,20 @@ public class BrowserActions {
 
     public BrowserActions navigateToURL(String targetUrl, WindowType windowType) {
         var handleBeforeNavigation = DriverFactoryHelper.getDriver().getWindowHandle();
+        ElementHandleCache.clear();
+        PageSourceSnapshot.invalidate();
         try {
             switch (windowType) {
                 case TAB ->
-                        DriverFactoryHelper.getDriver().switchTo().newWindow(WindowType.TAB).navigate().to(targetUrl);
+                        BrowserContextManager.newWindow(DriverFactoryHelper.getDriver(), WindowType.TAB).navigate().to(targetUrl);
                 case WINDOW ->
-                        DriverFactoryHelper.getDriver().switchTo().newWindow(WindowType.WINDOW).navigate().to(targetUrl);
+                        BrowserContextManager.newWindow(DriverFactoryHelper.getDriver(), WindowType.WINDOW).navigate().to(targetUrl);
             }
             JavaScriptWaitManager.waitForLazyLoading();
             var handleAfterNavigation = DriverFactoryHelper.getDriver().getWindowHandle();
             if (!handleBeforeNavigation.equals(handleAfterNavigation)) {
                 ReportManager.logDiscrete("Old Tab Handle: \"" + handleBeforeNavigation + "\", New Tab handle : \"" + handleAfterNavigation + "\"");
+                PageLoadMetricsCollector.captureIfEnabled();
                 BrowserActionsHelper.passAction(DriverFactoryHelper.getDriver(), targetUrl);
             } else {
                 BrowserActionsHelper.failAction(DriverFactoryHelper.getDriver(), targetUrl);
@@ -307,6 +315,8 @@ public class BrowserActions {
         //reset scope in case user was stuck inside an iFrame
         LocatorBuilder.setIFrameLocator(null);
         ShadowLocatorBuilder.shadowDomLocator = null;
+        ElementHandleCache.clear();
+        PageSourceSnapshot.invalidate();
 
         String modifiedTargetUrl = targetUrl;
         var baseUrl = SHAFT.Properties.web.baseURL();
@@ -366,6 +376,7 @@ public class BrowserActions {
                 // it can contain line breaks for mocked HTML pages that are used for internal testing only
                 BrowserActionsHelper.confirmThatWebsiteIsNotDown(DriverFactoryHelper.getDriver(), modifiedTargetUrl);
             }
+            PageLoadMetricsCollector.captureIfEnabled();
             BrowserActionsHelper.passAction(DriverFactoryHelper.getDriver(), modifiedTargetUrl);
         } catch (Exception rootCauseException) {
             BrowserActionsHelper.failAction(DriverFactoryHelper.getDriver(), modifiedTargetUrl, rootCauseException);
@@ -434,6 +445,8 @@ public class BrowserActions {
     private BrowserActions performNavigationAction(NavigationAction navigationAction) {
         String initialURL;
         var newURL = "";
+        ElementHandleCache.clear();
+        PageSourceSnapshot.invalidate();
         try {
             initialURL = DriverFactoryHelper.getDriver().getCurrentUrl();
             switch (navigationAction) {
@@ -470,6 +483,8 @@ public class BrowserActions {
             try {
                 // TODO: handle session timeout while attempting to close empty window
                 String lastPageSource = DriverFactoryHelper.getDriver().getPageSource();
+                ElementHandleCache.clear();
+                PageSourceSnapshot.invalidate();
                 DriverFactory.closeAllDrivers();
                 BrowserActionsHelper.passAction(lastPageSource);
             } catch (WebDriverException rootCauseException) {
@@ -666,8 +681,10 @@ public class BrowserActions {
      */
     @SuppressWarnings("UnusedReturnValue")
     public BrowserActions switchToWindow(String nameOrHandle) {
-        if (DriverFactoryHelper.getDriver().getWindowHandles().contains(nameOrHandle)) {
+        if (BrowserContextManager.getWindowHandles(DriverFactoryHelper.getDriver()).contains(nameOrHandle)) {
             DriverFactoryHelper.getDriver().switchTo().window(nameOrHandle);
+            ElementHandleCache.clear();
+            PageSourceSnapshot.invalidate();
             BrowserActionsHelper.passAction(DriverFactoryHelper.getDriver(), nameOrHandle);
         } else {
             BrowserActionsHelper.failAction(DriverFactoryHelper.getDriver(), nameOrHandle);
@@ -822,10 +839,37 @@ public class BrowserActions {
         return this;
     }
 
+    /**
+     * Queues a Lighthouse audit of the current page. The audit runs in the background, and its report is attached once
+     * the driver is closed or {@link #assertLightHouseBudget()} is called.
+     */
     public void generateLightHouseReport() {
         new LightHouseGenerateReport(DriverFactoryHelper.getDriver()).generateLightHouseReport();
     }
 
+    /**
+     * Waits for all the Lighthouse audits that were queued by the current thread, attaches their reports, and asserts
+     * their metrics against the budget file that is defined by the lightHouseExecution.budgetFile property.
+     *
+     * @return a self-reference to be used to chain actions
+     */
+    public BrowserActions assertLightHouseBudget() {
+        LightHouseGenerateReport.assertPendingAuditsAreWithinBudget();
+        return this;
+    }
+
+    /**
+     * Attaches the network traffic that was recorded since the driver was started, or since this method was last called,
+     * as a HAR file together with a summary of the slowest requests and the largest responses. Recording continues to a
+     * new file. This requires the networkRecording property to be enabled.
+     *
+     * @return a self-reference to be used to chain actions
+     */
+    public BrowserActions attachNetworkRecording() {
+        NetworkRecorder.attachRecording();
+        return this;
+    }
+
     public BrowserActions waitForLazyLoading() {
         JavaScriptWaitManager.waitForLazyLoading();
         return this;
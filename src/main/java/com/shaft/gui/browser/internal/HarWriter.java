@@ -0,0 +1,236 @@
+package com.shaft.gui.browser.internal;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Streams network entries to a HAR 1.2 file as they arrive, so that recording a long session never holds more than a
+ * single entry in memory.
+ * <p>
+ * The writer only keeps the slowest and the largest entries it has seen, which are used to build a short summary of the
+ * recording once it's closed. An unclosed file is missing its closing brackets but is otherwise readable.
+ */
+public class HarWriter implements Closeable {
+    private static final String CREATOR = "SHAFT_Engine";
+    private final Path file;
+    private final BufferedWriter writer;
+    private final int summarySize;
+    private final PriorityQueue<Entry> slowestEntries;
+    private final PriorityQueue<Entry> largestEntries;
+    private int numberOfEntries = 0;
+    private long totalBodySize = 0;
+    private boolean isClosed = false;
+
+    /**
+     * Creates the HAR file and writes its header.
+     *
+     * @param file        the path to the HAR file, its parent directories are created if needed
+     * @param summarySize the number of slowest and largest entries to keep for the summary
+     * @throws IOException if the file could not be created
+     */
+    public HarWriter(Path file, int summarySize) throws IOException {
+        this.file = file;
+        this.summarySize = Math.max(1, summarySize);
+        this.slowestEntries = new PriorityQueue<>(Comparator.comparingDouble(Entry::time));
+        this.largestEntries = new PriorityQueue<>(Comparator.comparingLong(Entry::bodySize));
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+        var creator = new JsonObject();
+        creator.addProperty("name", CREATOR);
+        creator.addProperty("version", "1.0");
+        writer.write("{\"log\":{\"version\":\"1.2\",\"creator\":" + creator + ",\"pages\":[],\"entries\":[");
+    }
+
+    /**
+     * Appends an entry to the HAR file.
+     *
+     * @param entry the completed request and response
+     * @throws IOException if the entry could not be written
+     */
+    public synchronized void write(Entry entry) throws IOException {
+        if (isClosed) {
+            return;
+        }
+        if (numberOfEntries > 0) {
+            writer.write(",");
+        }
+        writer.newLine();
+        writer.write(entry.toJson().toString());
+        numberOfEntries++;
+        totalBodySize += Math.max(0, entry.bodySize());
+        keepTopEntry(slowestEntries, entry);
+        keepTopEntry(largestEntries, entry);
+    }
+
+    /**
+     * Writes the closing brackets of the HAR file and closes it, this does nothing if the writer is already closed.
+     *
+     * @throws IOException if the file could not be written
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        try (writer) {
+            writer.newLine();
+            writer.write("]}}");
+        }
+    }
+
+    /**
+     * @return the path to the HAR file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * @return the number of entries that were written so far
+     */
+    public synchronized int getNumberOfEntries() {
+        return numberOfEntries;
+    }
+
+    /**
+     * @return a human-readable summary of the slowest and the largest entries that were written so far
+     */
+    public synchronized String getSummary() {
+        var summary = new StringBuilder();
+        summary.append("Requests: ").append(numberOfEntries).append(", transferred: ").append(totalBodySize).append(" bytes");
+        appendTopEntries(summary, "Slowest requests:", slowestEntries, Entry::time, "ms");
+        appendTopEntries(summary, "Largest responses:", largestEntries, Entry::bodySize, "bytes");
+        return summary.toString();
+    }
+
+    private void keepTopEntry(PriorityQueue<Entry> topEntries, Entry entry) {
+        topEntries.add(entry);
+        if (topEntries.size() > summarySize) {
+            // the queue's head is the smallest of the kept entries
+            topEntries.poll();
+        }
+    }
+
+    private static void appendTopEntries(StringBuilder summary, String title, PriorityQueue<Entry> topEntries,
+                                         ToDoubleFunction<Entry> metric, String unit) {
+        List<Entry> entries = new ArrayList<>(topEntries);
+        entries.sort(Comparator.comparingDouble(metric).reversed());
+        summary.append(System.lineSeparator()).append(title);
+        entries.forEach(entry -> summary.append(System.lineSeparator())
+                .append(String.format(Locale.ROOT, "%12.0f %-5s  %d %s %s", metric.applyAsDouble(entry), unit,
+                        entry.status(), entry.method(), entry.url())));
+    }
+
+    /**
+     * A single request and its response, all timings are in milliseconds.
+     *
+     * @param startedDateTime the time the request was sent, in milliseconds since the epoch
+     * @param method          the request method
+     * @param url             the request URL
+     * @param httpVersion     the protocol that was used, or an empty string if it's unknown
+     * @param requestHeaders  the request headers
+     * @param status          the response status, or 0 if the request failed
+     * @param statusText      the response status text, or the failure reason if the request failed
+     * @param responseHeaders the response headers
+     * @param mimeType        the mime type of the response body
+     * @param bodySize        the number of bytes that were transferred for the response, or -1 if it's unknown
+     * @param content         the response body, or null if it wasn't captured
+     * @param isBase64Encoded true if the captured response body is base64 encoded
+     * @param waitTime        the time between sending the request and receiving the response headers
+     * @param receiveTime     the time between receiving the response headers and the end of the response body
+     * @param resourceType    the type of the resource as reported by the browser, or null if it's unknown
+     */
+    public record Entry(long startedDateTime, String method, String url, String httpVersion,
+                        Map<String, String> requestHeaders, int status, String statusText,
+                        Map<String, String> responseHeaders, String mimeType, long bodySize, String content,
+                        boolean isBase64Encoded, double waitTime, double receiveTime, String resourceType) {
+        /**
+         * @return the total time of the request
+         */
+        public double time() {
+            return Math.max(0, waitTime) + Math.max(0, receiveTime);
+        }
+
+        JsonObject toJson() {
+            var request = new JsonObject();
+            request.addProperty("method", method);
+            request.addProperty("url", url);
+            request.addProperty("httpVersion", httpVersion);
+            request.add("cookies", new JsonArray());
+            request.add("headers", toJson(requestHeaders));
+            request.add("queryString", new JsonArray());
+            request.addProperty("headersSize", -1);
+            request.addProperty("bodySize", -1);
+
+            var responseContent = new JsonObject();
+            responseContent.addProperty("size", Math.max(0, bodySize));
+            responseContent.addProperty("mimeType", mimeType == null ? "" : mimeType);
+            if (content != null) {
+                responseContent.addProperty("text", content);
+                if (isBase64Encoded) {
+                    responseContent.addProperty("encoding", "base64");
+                }
+            }
+            var response = new JsonObject();
+            response.addProperty("status", status);
+            response.addProperty("statusText", statusText == null ? "" : statusText);
+            response.addProperty("httpVersion", httpVersion);
+            response.add("cookies", new JsonArray());
+            response.add("headers", toJson(responseHeaders));
+            response.add("content", responseContent);
+            response.addProperty("redirectURL", responseHeaders.entrySet().stream()
+                    .filter(header -> header.getKey().equalsIgnoreCase("location"))
+                    .map(Map.Entry::getValue)
+                    .findFirst()
+                    .orElse(""));
+            response.addProperty("headersSize", -1);
+            response.addProperty("bodySize", bodySize);
+
+            var timings = new JsonObject();
+            timings.addProperty("send", 0);
+            timings.addProperty("wait", Math.max(0, waitTime));
+            timings.addProperty("receive", Math.max(0, receiveTime));
+
+            var entry = new JsonObject();
+            entry.addProperty("startedDateTime", Instant.ofEpochMilli(startedDateTime).toString());
+            entry.addProperty("time", time());
+            entry.add("request", request);
+            entry.add("response", response);
+            entry.add("cache", new JsonObject());
+            entry.add("timings", timings);
+            if (resourceType != null) {
+                entry.addProperty("_resourceType", resourceType);
+            }
+            return entry;
+        }
+
+        private static JsonArray toJson(Map<String, String> headers) {
+            var array = new JsonArray();
+            headers.forEach((name, value) -> {
+                var header = new JsonObject();
+                header.addProperty("name", name);
+                header.addProperty("value", value);
+                array.add(header);
+            });
+            return array;
+        }
+    }
+}
@@ -0,0 +1,364 @@
+package com.shaft.gui.browser.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.bidi.HasBiDi;
+import org.openqa.selenium.bidi.network.ResponseDetails;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v116.network.Network;
+import org.openqa.selenium.devtools.v116.network.model.Headers;
+import org.openqa.selenium.devtools.v116.network.model.LoadingFailed;
+import org.openqa.selenium.devtools.v116.network.model.LoadingFinished;
+import org.openqa.selenium.devtools.v116.network.model.RequestId;
+import org.openqa.selenium.devtools.v116.network.model.RequestWillBeSent;
+import org.openqa.selenium.devtools.v116.network.model.Response;
+import org.openqa.selenium.devtools.v116.network.model.ResponseReceived;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Records the network traffic of a browser session to a HAR file, using the Chrome DevTools Protocol {@code Network}
+ * domain on Chromium browsers and the WebDriver BiDi network module on the others.
+ * <p>
+ * Browser events are handed over to a single background thread that pairs requests with their responses and streams
+ * every completed entry to disk through a {@link HarWriter}, so that only the requests that are still in flight are
+ * held in memory. The recording is attached to the report together with a summary of its slowest requests and largest
+ * responses, either when the driver is closed or when {@link #attachRecording()} is called.
+ * <p>
+ * Recording is enabled using the networkRecording property, networkRecording.urlFilter limits it to the URLs that
+ * match a regular expression, and networkRecording.maximumBodySize enables capturing the response bodies that are up to
+ * that many bytes, which is only supported on Chromium browsers.
+ */
+public class NetworkRecorder {
+    private static final String RECORDINGS_FOLDER = "network-recordings/";
+    private static final int SUMMARY_SIZE = 10;
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static volatile NetworkRecorder activeRecorder;
+    private final ExecutorService eventProcessor;
+    private final Pattern urlFilter;
+    private final int maximumBodySize;
+    private final Map<String, PendingEntry> pendingEntries = new HashMap<>();
+    private DevTools devTools;
+    private HarWriter harWriter;
+    private volatile boolean isRecording = true;
+
+    private NetworkRecorder(String urlFilter, int maximumBodySize) throws IOException {
+        this.urlFilter = urlFilter.isBlank() ? null : Pattern.compile(urlFilter);
+        this.maximumBodySize = maximumBodySize;
+        this.harWriter = newHarWriter();
+        this.eventProcessor = Executors.newSingleThreadExecutor(runnable -> {
+            var thread = new Thread(runnable, "SHAFT-Network-Recorder-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts recording the network traffic of a new driver session if the networkRecording property is enabled. Failing
+     * to start the recording is logged and never fails the session.
+     *
+     * @param driver the driver of the new session
+     */
+    public static void startIfEnabled(WebDriver driver) {
+        if (!SHAFT.Properties.performance.recordNetworkTraffic()) {
+            return;
+        }
+        // a session that wasn't closed properly shouldn't keep recording
+        stop();
+        try {
+            var recorder = new NetworkRecorder(SHAFT.Properties.performance.networkRecordingUrlFilter(),
+                    SHAFT.Properties.performance.networkRecordingMaximumBodySize());
+            var augmentedDriver = driver instanceof RemoteWebDriver && !(driver instanceof HasDevTools) ? new Augmenter().augment(driver) : driver;
+            if (augmentedDriver instanceof HasDevTools hasDevTools) {
+                recorder.listenUsingDevTools(hasDevTools.getDevTools());
+            } else if (augmentedDriver instanceof HasBiDi) {
+                recorder.listenUsingBiDi(augmentedDriver);
+            } else {
+                recorder.discard();
+                ReportManager.logDiscrete("Network recording is not supported by the current browser.");
+                return;
+            }
+            activeRecorder = recorder;
+            ReportManager.logDiscrete("Recording network traffic to \"" + recorder.harWriter.getFile() + "\".");
+        } catch (Exception exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    /**
+     * Attaches everything that was recorded so far, and continues recording to a new file. Use this to get a separate
+     * recording per test when tests share the same driver session.
+     */
+    public static void attachRecording() {
+        var recorder = activeRecorder;
+        if (recorder != null) {
+            recorder.await(recorder.eventProcessor.submit(recorder::rotate));
+        }
+    }
+
+    /**
+     * Stops the current recording, if any, and attaches it to the report. This has to be called before the driver is
+     * quit.
+     */
+    public static void stop() {
+        var recorder = activeRecorder;
+        activeRecorder = null;
+        if (recorder != null) {
+            recorder.isRecording = false;
+            recorder.await(recorder.eventProcessor.submit(() -> recorder.finish(false)));
+            recorder.eventProcessor.shutdown();
+        }
+    }
+
+    private void listenUsingDevTools(DevTools devTools) {
+        this.devTools = devTools;
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        devTools.addListener(Network.requestWillBeSent(), event -> process(() -> onRequestWillBeSent(event)));
+        devTools.addListener(Network.responseReceived(), event -> process(() -> onResponseReceived(event)));
+        devTools.addListener(Network.loadingFinished(), event -> process(() -> onLoadingFinished(event)));
+        devTools.addListener(Network.loadingFailed(), event -> process(() -> onLoadingFailed(event)));
+    }
+
+    private void listenUsingBiDi(WebDriver driver) {
+        var bidiNetwork = new org.openqa.selenium.bidi.Network(driver);
+        bidiNetwork.onBeforeRequestSent(event -> process(() -> {
+            var request = event.getRequest();
+            start(request.getRequestId(), event.getTimestamp(), event.getTimestamp(), request.getMethod(), request.getUrl(), Map.of(), null);
+        }));
+        bidiNetwork.onResponseStarted(event -> process(() -> {
+            var pendingEntry = pendingEntries.get(event.getRequest().getRequestId());
+            if (pendingEntry != null) {
+                setResponse(pendingEntry, event, event.getTimestamp());
+            }
+        }));
+        bidiNetwork.onResponseCompleted(event -> process(() -> {
+            var pendingEntry = pendingEntries.remove(event.getRequest().getRequestId());
+            if (pendingEntry != null) {
+                if (pendingEntry.responseTimestamp < 0) {
+                    setResponse(pendingEntry, event, event.getTimestamp());
+                }
+                pendingEntry.bodySize = event.getResponseData().getBytesReceived();
+                complete(pendingEntry, event.getTimestamp());
+            }
+        }));
+    }
+
+    private void setResponse(PendingEntry pendingEntry, ResponseDetails event, double timestamp) {
+        var response = event.getResponseData();
+        pendingEntry.status = (int) response.getStatus();
+        pendingEntry.statusText = response.getStatusText();
+        pendingEntry.mimeType = response.getMimeType();
+        pendingEntry.responseTimestamp = timestamp;
+    }
+
+    private void onRequestWillBeSent(RequestWillBeSent event) {
+        var requestId = event.getRequestId().toString();
+        var timestamp = toMilliseconds(event.getTimestamp().toJson());
+        // a redirect reuses the request id, so the redirect response completes the previous hop first
+        event.getRedirectResponse().ifPresent(redirectResponse -> {
+            var redirectedEntry = pendingEntries.remove(requestId);
+            if (redirectedEntry != null) {
+                setResponse(redirectedEntry, redirectResponse, timestamp);
+                redirectedEntry.bodySize = redirectResponse.getEncodedDataLength().longValue();
+                complete(redirectedEntry, timestamp);
+            }
+        });
+        var request = event.getRequest();
+        start(requestId, toMilliseconds(event.getWallTime().toJson()), timestamp, request.getMethod(), request.getUrl(),
+                toMap(request.getHeaders()), event.getType().map(Object::toString).orElse(null));
+    }
+
+    private void onResponseReceived(ResponseReceived event) {
+        var pendingEntry = pendingEntries.get(event.getRequestId().toString());
+        if (pendingEntry != null) {
+            setResponse(pendingEntry, event.getResponse(), toMilliseconds(event.getTimestamp().toJson()));
+        }
+    }
+
+    private void onLoadingFinished(LoadingFinished event) {
+        var pendingEntry = pendingEntries.remove(event.getRequestId().toString());
+        if (pendingEntry != null) {
+            pendingEntry.bodySize = event.getEncodedDataLength().longValue();
+            if (maximumBodySize > 0 && pendingEntry.bodySize <= maximumBodySize) {
+                captureBody(pendingEntry, event.getRequestId());
+            }
+            complete(pendingEntry, toMilliseconds(event.getTimestamp().toJson()));
+        }
+    }
+
+    private void onLoadingFailed(LoadingFailed event) {
+        var pendingEntry = pendingEntries.remove(event.getRequestId().toString());
+        if (pendingEntry != null) {
+            pendingEntry.statusText = event.getErrorText();
+            complete(pendingEntry, toMilliseconds(event.getTimestamp().toJson()));
+        }
+    }
+
+    private void setResponse(PendingEntry pendingEntry, Response response, double timestamp) {
+        pendingEntry.status = response.getStatus();
+        pendingEntry.statusText = response.getStatusText();
+        pendingEntry.mimeType = response.getMimeType();
+        pendingEntry.httpVersion = response.getProtocol().orElse("");
+        pendingEntry.responseHeaders = toMap(response.getHeaders());
+        pendingEntry.responseTimestamp = timestamp;
+    }
+
+    private void captureBody(PendingEntry pendingEntry, RequestId requestId) {
+        try {
+            var body = devTools.send(Network.getResponseBody(requestId));
+            if (body.getBody().length() <= maximumBodySize * 4 / 3 + 4) {
+                pendingEntry.content = body.getBody();
+                pendingEntry.isBase64Encoded = body.getBase64Encoded();
+            }
+        } catch (RuntimeException exception) {
+            // the browser may have already evicted the body, for example after navigating away
+        }
+    }
+
+    private void start(String requestId, double startedDateTime, double timestamp, String method, String url,
+                       Map<String, String> requestHeaders, String resourceType) {
+        if (urlFilter == null || urlFilter.matcher(url).find()) {
+            pendingEntries.put(requestId, new PendingEntry((long) startedDateTime, timestamp, method, url, requestHeaders, resourceType));
+        }
+    }
+
+    private void complete(PendingEntry pendingEntry, double timestamp) {
+        var responseTimestamp = pendingEntry.responseTimestamp < 0 ? timestamp : pendingEntry.responseTimestamp;
+        try {
+            harWriter.write(new HarWriter.Entry(pendingEntry.startedDateTime, pendingEntry.method, pendingEntry.url,
+                    pendingEntry.httpVersion, pendingEntry.requestHeaders, pendingEntry.status, pendingEntry.statusText,
+                    pendingEntry.responseHeaders, pendingEntry.mimeType, pendingEntry.bodySize, pendingEntry.content,
+                    pendingEntry.isBase64Encoded, responseTimestamp - pendingEntry.timestamp, timestamp - responseTimestamp,
+                    pendingEntry.resourceType));
+        } catch (IOException ioException) {
+            ReportManagerHelper.logDiscrete(ioException);
+        }
+    }
+
+    private void process(Runnable event) {
+        if (isRecording) {
+            try {
+                eventProcessor.execute(event);
+            } catch (RejectedExecutionException rejectedExecutionException) {
+                // the recording was stopped while this event was being dispatched
+            }
+        }
+    }
+
+    private void rotate() {
+        finish(true);
+        try {
+            harWriter = newHarWriter();
+        } catch (IOException ioException) {
+            ReportManagerHelper.logDiscrete(ioException);
+            isRecording = false;
+        }
+    }
+
+    private void finish(boolean keepPendingEntries) {
+        if (!keepPendingEntries) {
+            // requests that never completed are still worth reporting, for example long polling requests
+            pendingEntries.values().forEach(pendingEntry -> complete(pendingEntry, pendingEntry.timestamp));
+            pendingEntries.clear();
+        }
+        try {
+            harWriter.close();
+        } catch (IOException ioException) {
+            ReportManagerHelper.logDiscrete(ioException);
+            return;
+        }
+        if (harWriter.getNumberOfEntries() == 0) {
+            return;
+        }
+        ReportManagerHelper.attach("Network Traffic", "Summary", harWriter.getSummary());
+        var attachmentSource = ReportManagerHelper.prepareAttachment("Network Traffic", "HAR", "application/json", ".har");
+        try (var harContent = Files.newInputStream(harWriter.getFile())) {
+            ReportManagerHelper.writePreparedAttachment(attachmentSource, harContent);
+        } catch (IOException ioException) {
+            ReportManagerHelper.logDiscrete(ioException);
+        }
+    }
+
+    private void discard() throws IOException {
+        harWriter.close();
+        Files.deleteIfExists(harWriter.getFile());
+        eventProcessor.shutdown();
+    }
+
+    private void await(Future<?> task) {
+        try {
+            task.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        } catch (Exception exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private static HarWriter newHarWriter() throws IOException {
+        var timestamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        var threadName = Thread.currentThread().getName().replaceAll("[^A-Za-z0-9_-]", "_");
+        return new HarWriter(Path.of(RECORDINGS_FOLDER, timestamp + "_" + threadName + ".har"), SUMMARY_SIZE);
+    }
+
+    private static double toMilliseconds(Number seconds) {
+        return seconds.doubleValue() * 1000;
+    }
+
+    private static Map<String, String> toMap(Headers headers) {
+        var map = new LinkedHashMap<String, String>();
+        if (headers != null) {
+            headers.toJson().forEach((name, value) -> map.put(name, String.valueOf(value)));
+        }
+        return map;
+    }
+
+    private static final class PendingEntry {
+        private final long startedDateTime;
+        private final double timestamp;
+        private final String method;
+        private final String url;
+        private final Map<String, String> requestHeaders;
+        private final String resourceType;
+        private String httpVersion = "";
+        private int status = 0;
+        private String statusText = "";
+        private Map<String, String> responseHeaders = Map.of();
+        private String mimeType = "";
+        private long bodySize = -1;
+        private String content;
+        private boolean isBase64Encoded;
+        private double responseTimestamp = -1;
+
+        private PendingEntry(long startedDateTime, double timestamp, String method, String url,
+                             Map<String, String> requestHeaders, String resourceType) {
+            this.startedDateTime = startedDateTime;
+            this.timestamp = timestamp;
+            this.method = method;
+            this.url = url;
+            this.requestHeaders = requestHeaders;
+            this.resourceType = resourceType;
+        }
+    }
+}
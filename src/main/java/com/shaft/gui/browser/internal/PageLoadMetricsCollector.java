@@ -0,0 +1,210 @@
+package com.shaft.gui.browser.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.DriverFactoryHelper;
+import com.shaft.tools.internal.support.JavaScriptHelper;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Pattern;
+
+/**
+ * Collects the navigation timing and Core Web Vitals of the current page using a single asynchronous script, so that
+ * every functional test that navigates can double as a lightweight page load regression probe.
+ * <p>
+ * When the pageLoadMetrics.capture property is enabled, the metrics are captured after every navigation, attached to
+ * the report, and aggregated per URL pattern. The aggregated summary is logged once the execution is finished. Metrics
+ * that the browser doesn't support, or that weren't recorded yet, are reported as {@link Double#NaN}.
+ */
+public class PageLoadMetricsCollector {
+    private static final Pattern NUMERIC_PATH_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final Pattern UUID_PATH_SEGMENT = Pattern.compile("/[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}(?=/|$)");
+    private static final ThreadLocal<Metrics> latestMetrics = new ThreadLocal<>();
+    private static final Map<String, Summary> summaries = new ConcurrentSkipListMap<>();
+
+    private PageLoadMetricsCollector() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Captures the metrics of the current page if the pageLoadMetrics.capture property is enabled, this never fails the
+     * navigation that triggered it.
+     */
+    public static void captureIfEnabled() {
+        if (SHAFT.Properties.performance.capturePageLoadMetrics() && !DriverFactoryHelper.isMobileNativeExecution()) {
+            try {
+                capture(DriverFactoryHelper.getDriver());
+            } catch (WebDriverException | ClassCastException exception) {
+                ReportManagerHelper.logDiscrete(exception);
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of the last navigation that was captured by the current thread, or captures them now if the
+     * browser has navigated away since then.
+     *
+     * @param driver the current driver instance
+     * @return the metrics of the current page
+     */
+    public static Metrics getLatest(WebDriver driver) {
+        var metrics = latestMetrics.get();
+        if (metrics != null && metrics.url().equals(driver.getCurrentUrl())) {
+            return metrics;
+        }
+        return capture(driver);
+    }
+
+    /**
+     * Captures the metrics of the current page, attaches them to the report, and adds them to the summary of their URL
+     * pattern.
+     *
+     * @param driver the current driver instance
+     * @return the metrics of the current page, which are all {@link Double#NaN} if the script didn't return any
+     */
+    public static Metrics capture(WebDriver driver) {
+        var scriptResult = ((JavascriptExecutor) driver).executeAsyncScript(JavaScriptHelper.PAGE_LOAD_METRICS.getValue());
+        if (!(scriptResult instanceof Map<?, ?> result)) {
+            // some pages replace or block the script's callback, which is not worth failing the navigation for
+            ReportManager.logDiscrete("Page load metrics are not available for \"" + driver.getCurrentUrl() + "\".");
+            return new Metrics(driver.getCurrentUrl(), Double.NaN, Double.NaN, Double.NaN, Double.NaN, Double.NaN,
+                    Double.NaN, Double.NaN, Double.NaN, 0, 0);
+        }
+        var metrics = new Metrics(String.valueOf(result.get("url")),
+                toDouble(result.get("timeToFirstByte")),
+                toDouble(result.get("firstContentfulPaint")),
+                toDouble(result.get("domContentLoaded")),
+                toDouble(result.get("pageLoadTime")),
+                toDouble(result.get("largestContentfulPaint")),
+                toDouble(result.get("cumulativeLayoutShift")),
+                toDouble(result.get("firstInputDelay")),
+                toDouble(result.get("interactionToNextPaint")),
+                (long) toDouble(result.get("resourceCount")),
+                (long) toDouble(result.get("resourceBytes")));
+        latestMetrics.set(metrics);
+        var urlPattern = toUrlPattern(metrics.url());
+        summaries.computeIfAbsent(urlPattern, pattern -> new Summary()).add(metrics);
+        ReportManagerHelper.attach("Page Load Metrics", urlPattern, metrics.toString());
+        return metrics;
+    }
+
+    /**
+     * Logs the aggregated metrics of every URL pattern that was captured during this execution.
+     */
+    public static void logSummary() {
+        if (!summaries.isEmpty()) {
+            ReportManager.logDiscrete(getSummary());
+        }
+    }
+
+    /**
+     * @return the average and worst metrics of every URL pattern that was captured during this execution
+     */
+    public static String getSummary() {
+        var summary = new StringBuilder("Page load metrics summary (average / worst):");
+        summaries.forEach((urlPattern, urlSummary) -> summary.append(System.lineSeparator()).append(urlPattern)
+                .append(System.lineSeparator()).append(urlSummary));
+        return summary.toString();
+    }
+
+    /**
+     * Removes the query, the fragment, and the path segments that look like identifiers from a URL, so that all the
+     * navigations to the same kind of page are aggregated together.
+     *
+     * @param url the URL of the page
+     * @return the URL pattern of the page
+     */
+    public static String toUrlPattern(String url) {
+        var pattern = url.split("[?#]", 2)[0];
+        pattern = UUID_PATH_SEGMENT.matcher(pattern).replaceAll("/{id}");
+        pattern = NUMERIC_PATH_SEGMENT.matcher(pattern).replaceAll("/{id}");
+        return pattern.endsWith("/") && pattern.length() > 1 ? pattern.substring(0, pattern.length() - 1) : pattern;
+    }
+
+    private static double toDouble(Object value) {
+        return value instanceof Number number ? number.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * The metrics of a single navigation, all timings are in milliseconds since the navigation started.
+     *
+     * @param url                    the URL of the page
+     * @param timeToFirstByte        the time until the first byte of the response was received
+     * @param firstContentfulPaint   the time until the first text or image was painted
+     * @param domContentLoaded       the time until the DOMContentLoaded event was handled
+     * @param pageLoadTime           the time until the load event was handled
+     * @param largestContentfulPaint the time until the largest text or image was painted
+     * @param cumulativeLayoutShift  the largest burst of unexpected layout shifts, this is a score rather than a timing
+     * @param firstInputDelay        the delay before the first user input was handled
+     * @param interactionToNextPaint the longest time between a user interaction and the next paint
+     * @param resourceCount          the number of resources that were loaded by the page
+     * @param resourceBytes          the number of bytes that were transferred to load these resources
+     */
+    public record Metrics(String url, double timeToFirstByte, double firstContentfulPaint, double domContentLoaded,
+                          double pageLoadTime, double largestContentfulPaint, double cumulativeLayoutShift,
+                          double firstInputDelay, double interactionToNextPaint, long resourceCount,
+                          long resourceBytes) {
+        @Override
+        public String toString() {
+            return String.join(System.lineSeparator(),
+                    "URL: " + url,
+                    format("Time to first byte", timeToFirstByte, "ms"),
+                    format("First contentful paint", firstContentfulPaint, "ms"),
+                    format("DOM content loaded", domContentLoaded, "ms"),
+                    format("Page load time", pageLoadTime, "ms"),
+                    format("Largest contentful paint", largestContentfulPaint, "ms"),
+                    format("Cumulative layout shift", cumulativeLayoutShift, ""),
+                    format("First input delay", firstInputDelay, "ms"),
+                    format("Interaction to next paint", interactionToNextPaint, "ms"),
+                    "Resources: " + resourceCount + " (" + resourceBytes + " bytes)");
+        }
+
+        private static String format(String name, double value, String unit) {
+            return name + ": " + (Double.isNaN(value) ? "not available" : String.format(Locale.ROOT, "%.3f %s", value, unit).trim());
+        }
+    }
+
+    /**
+     * The aggregated metrics of all the navigations to the same URL pattern.
+     */
+    private static class Summary {
+        private final Map<String, ToDoubleFunction<Metrics>> aggregatedMetrics = Map.of(
+                "Time to first byte (ms)", Metrics::timeToFirstByte,
+                "Page load time (ms)", Metrics::pageLoadTime,
+                "Largest contentful paint (ms)", Metrics::largestContentfulPaint,
+                "Cumulative layout shift", Metrics::cumulativeLayoutShift,
+                "Interaction to next paint (ms)", Metrics::interactionToNextPaint,
+                "Resource bytes", metrics -> metrics.resourceBytes());
+        private final Map<String, double[]> totals = new ConcurrentSkipListMap<>();
+        private int numberOfNavigations = 0;
+
+        private synchronized void add(Metrics metrics) {
+            numberOfNavigations++;
+            aggregatedMetrics.forEach((name, metric) -> {
+                var value = metric.applyAsDouble(metrics);
+                if (!Double.isNaN(value)) {
+                    // sum, count, and worst value
+                    var total = totals.computeIfAbsent(name, key -> new double[]{0, 0, Double.NEGATIVE_INFINITY});
+                    total[0] += value;
+                    total[1]++;
+                    total[2] = Math.max(total[2], value);
+                }
+            });
+        }
+
+        @Override
+        public synchronized String toString() {
+            var summary = new StringBuilder("  Navigations: ").append(numberOfNavigations);
+            totals.forEach((name, total) -> summary.append(System.lineSeparator())
+                    .append(String.format(Locale.ROOT, "  %s: %.3f / %.3f", name, total[0] / total[1], total[2])));
+            return summary.toString();
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.shaft.gui.browser.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.devtools.v116.emulation.Emulation;
+import org.openqa.selenium.devtools.v116.network.Network;
+import org.openqa.selenium.devtools.v116.network.model.BlockedReason;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.Browser;
+import org.openqa.selenium.remote.RemoteWebDriver;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Blocks the requests that web tests don't need, such as analytics, ads, chat widgets, and fonts, and optionally
+ * throttles the network and the CPU of the browser to simulate slower devices.
+ * <p>
+ * Requests are blocked using the blockedRequests.profiles property, a comma separated list of {@link Profile} names,
+ * and the blockedRequests.urlPatterns property, a comma separated list of URL patterns where {@code *} matches any
+ * number of characters. Throttling is configured using the throttling.network property, one of the {@link
+ * NetworkPreset} names, and the throttling.cpuRate property, the slowdown factor of the CPU.
+ * <p>
+ * Chromium browsers are configured through the DevTools protocol once the session is started, and the number of
+ * blocked requests per host is reported for every test. Firefox is configured through its profile preferences when the
+ * driver options are created, where images and fonts are disabled natively and URL patterns are routed to an
+ * unreachable proxy by a generated proxy auto-config script, without falling back to a direct connection. The script
+ * converts the URL patterns to regular expressions, so that {@code *} is the only wildcard like it is on Chromium.
+ * Firefox is configured to pass the full URL of secure requests to that script, so that patterns which match a path or
+ * a file extension apply to HTTPS as well.
+ * Throttling is only supported on Chromium browsers.
+ */
+public class RequestBlocker {
+    private static final String UNREACHABLE_PROXY = "PROXY 127.0.0.1:9";
+    private static final int MAXIMUM_NUMBER_OF_TRACKED_REQUESTS = 1000;
+    private static final Map<String, Integer> blockedRequestsPerHost = new TreeMap<>();
+
+    private RequestBlocker() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @return the URL patterns that should be blocked based on the current properties, without duplicates
+     */
+    public static List<String> getBlockedUrlPatterns() {
+        Set<String> patterns = new LinkedHashSet<>();
+        getBlockedProfiles().forEach(profile -> patterns.addAll(profile.urlPatterns));
+        patterns.addAll(split(SHAFT.Properties.web.blockedRequestsUrlPatterns()));
+        return new ArrayList<>(patterns);
+    }
+
+    private static List<Profile> getBlockedProfiles() {
+        var profiles = new ArrayList<Profile>();
+        split(SHAFT.Properties.web.blockedRequestsProfiles()).forEach(profileName -> Arrays.stream(Profile.values())
+                .filter(profile -> profile.name().equalsIgnoreCase(profileName))
+                .findFirst()
+                .ifPresentOrElse(profiles::add, () -> ReportManager.logDiscrete("Ignoring unsupported blocked requests profile \"" + profileName
+                        + "\", supported profiles are " + Arrays.toString(Profile.values()) + ".")));
+        return profiles;
+    }
+
+    /**
+     * @return true if any requests should be blocked or the browser should be throttled
+     */
+    public static boolean isEnabled() {
+        return !getBlockedUrlPatterns().isEmpty() || NetworkPreset.getCurrent() != NetworkPreset.NONE
+                || SHAFT.Properties.web.throttlingCpuRate() > 1;
+    }
+
+    /**
+     * Applies request blocking and throttling to a new Chromium session, this does nothing for other browsers because
+     * they are configured through {@link #configure(FirefoxProfile, boolean)} instead. Failing to apply them is logged and
+     * never fails the session.
+     *
+     * @param driver the driver of the new session
+     */
+    public static void applyIfEnabled(WebDriver driver) {
+        if (!isEnabled() || !(driver instanceof HasCapabilities hasCapabilities)
+                || Browser.FIREFOX.is(hasCapabilities.getCapabilities())) {
+            return;
+        }
+        try {
+            var augmentedDriver = driver instanceof RemoteWebDriver && !(driver instanceof HasDevTools) ? new Augmenter().augment(driver) : driver;
+            if (augmentedDriver instanceof HasDevTools hasDevTools) {
+                apply(hasDevTools.getDevTools());
+            }
+        } catch (RuntimeException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    /**
+     * Configures request blocking using Firefox preferences.
+     *
+     * @param firefoxProfile     the profile that will be used to start Firefox
+     * @param isProxyConfigured  true if a proxy is already configured, in which case URL patterns can't be blocked
+     */
+    public static void configure(FirefoxProfile firefoxProfile, boolean isProxyConfigured) {
+        var profiles = getBlockedProfiles();
+        if (profiles.contains(Profile.IMAGES)) {
+            firefoxProfile.setPreference("permissions.default.image", 2);
+        }
+        if (profiles.contains(Profile.FONTS)) {
+            firefoxProfile.setPreference("gfx.downloadable_fonts.enabled", false);
+        }
+        var patterns = getBlockedUrlPatterns();
+        if (patterns.isEmpty()) {
+            return;
+        }
+        if (isProxyConfigured) {
+            ReportManager.logDiscrete("Blocking URL patterns isn't supported on Firefox while a proxy is configured.");
+            return;
+        }
+        firefoxProfile.setPreference("network.proxy.type", 2);
+        firefoxProfile.setPreference("network.proxy.autoconfig_url", toProxyAutoConfigUrl(patterns));
+        // by default only the scheme and host of HTTPS URLs are passed to the script, so file extensions would never match
+        firefoxProfile.setPreference("network.proxy.autoconfig_url.include_path", true);
+        // otherwise Firefox retries requests directly once the unreachable proxy fails, which would not block anything
+        firefoxProfile.setPreference("network.proxy.failover_direct", false);
+    }
+
+    /**
+     * Attaches the number of requests that were blocked per host since this method was last called, if any.
+     */
+    public static void attachBlockedRequests() {
+        Map<String, Integer> blockedRequests;
+        synchronized (blockedRequestsPerHost) {
+            if (blockedRequestsPerHost.isEmpty()) {
+                return;
+            }
+            blockedRequests = new TreeMap<>(blockedRequestsPerHost);
+            blockedRequestsPerHost.clear();
+        }
+        var total = blockedRequests.values().stream().mapToInt(Integer::intValue).sum();
+        var report = new StringBuilder("Blocked requests: ").append(total);
+        blockedRequests.forEach((host, count) -> report.append(System.lineSeparator()).append(String.format("%6d  %s", count, host)));
+        ReportManagerHelper.attach("Blocked Requests", "Summary", report.toString());
+    }
+
+    /**
+     * Converts URL patterns to a proxy auto-config script that sends every matching request to an unreachable proxy.
+     *
+     * @param patterns the URL patterns to block
+     * @return the script as a data URL
+     */
+    static String toProxyAutoConfigUrl(List<String> patterns) {
+        // shExpMatch treats ? as a single character wildcard, so the patterns are converted to regular expressions instead
+        var script = "function FindProxyForURL(url, host) {"
+                + "var patterns = [" + patterns.stream().map(RequestBlocker::toRegularExpressionLiteral).collect(Collectors.joining(",")) + "];"
+                + "for (var i = 0; i < patterns.length; i++) {if (patterns[i].test(url)) {return '" + UNREACHABLE_PROXY + "';}}"
+                + "return 'DIRECT';}";
+        return "data:text/javascript," + URLEncoder.encode(script, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+
+    /**
+     * @param pattern a URL pattern where {@code *} matches any number of characters
+     * @return a JavaScript regular expression literal that matches the same URLs
+     */
+    private static String toRegularExpressionLiteral(String pattern) {
+        var regularExpression = new StringBuilder("/^");
+        for (var character : pattern.toCharArray()) {
+            if (character == '*') {
+                regularExpression.append(".*");
+            } else {
+                if ("\\^$.|?+()[]{}/".indexOf(character) >= 0) {
+                    regularExpression.append('\\');
+                }
+                regularExpression.append(character);
+            }
+        }
+        return regularExpression.append("$/").toString();
+    }
+
+    private static void apply(DevTools devTools) {
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(Network.enable(Optional.empty(), Optional.empty(), Optional.empty()));
+        var patterns = getBlockedUrlPatterns();
+        if (!patterns.isEmpty()) {
+            // only the hosts of the most recent requests are kept, to find out which hosts the blocked requests were for
+            Map<String, String> requestHosts = new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                    return size() > MAXIMUM_NUMBER_OF_TRACKED_REQUESTS;
+                }
+            };
+            devTools.addListener(Network.requestWillBeSent(), event -> {
+                synchronized (requestHosts) {
+                    requestHosts.put(event.getRequestId().toString(), toHost(event.getRequest().getUrl()));
+                }
+            });
+            devTools.addListener(Network.loadingFailed(), event -> {
+                if (event.getBlockedReason().filter(BlockedReason.INSPECTOR::equals).isPresent()) {
+                    String host;
+                    synchronized (requestHosts) {
+                        host = requestHosts.remove(event.getRequestId().toString());
+                    }
+                    synchronized (blockedRequestsPerHost) {
+                        blockedRequestsPerHost.merge(host == null ? "unknown" : host, 1, Integer::sum);
+                    }
+                }
+            });
+            devTools.send(Network.setBlockedURLs(patterns));
+            ReportManager.logDiscrete("Blocking " + patterns.size() + " URL pattern(s).");
+        }
+        var networkPreset = NetworkPreset.getCurrent();
+        if (networkPreset != NetworkPreset.NONE) {
+            devTools.send(Network.emulateNetworkConditions(networkPreset == NetworkPreset.OFFLINE, networkPreset.latency,
+                    networkPreset.downloadThroughput, networkPreset.uploadThroughput, Optional.empty()));
+            ReportManager.logDiscrete("Throttling the network using the \"" + networkPreset + "\" preset.");
+        }
+        var cpuRate = SHAFT.Properties.web.throttlingCpuRate();
+        if (cpuRate > 1) {
+            devTools.send(Emulation.setCPUThrottlingRate(cpuRate));
+            ReportManager.logDiscrete("Throttling the CPU by a factor of " + cpuRate + ".");
+        }
+    }
+
+    private static String toHost(String url) {
+        try {
+            var host = URI.create(url).getHost();
+            return host == null ? url : host;
+        } catch (IllegalArgumentException illegalArgumentException) {
+            return url;
+        }
+    }
+
+    private static List<String> split(String commaSeparatedValues) {
+        return Arrays.stream(commaSeparatedValues.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .toList();
+    }
+
+    /**
+     * The built-in groups of requests that can be blocked.
+     */
+    public enum Profile {
+        ANALYTICS("*google-analytics.com*", "*googletagmanager.com*", "*analytics.google.com*", "*segment.io*",
+                "*cdn.segment.com*", "*hotjar.com*", "*mixpanel.com*", "*amplitude.com*", "*clarity.ms*",
+                "*nr-data.net*", "*js-agent.newrelic.com*", "*fullstory.com*", "*connect.facebook.net*"),
+        ADS("*doubleclick.net*", "*googlesyndication.com*", "*googleadservices.com*", "*adservice.google.*",
+                "*amazon-adsystem.com*", "*adnxs.com*", "*criteo.com*", "*criteo.net*", "*taboola.com*",
+                "*outbrain.com*"),
+        CHAT("*intercom.io*", "*intercomcdn.com*", "*zdassets.com*", "*zopim.com*", "*drift.com*", "*driftt.com*",
+                "*livechatinc.com*", "*tawk.to*", "*crisp.chat*"),
+        FONTS(withExtensions("woff", "woff2", "ttf", "otf", "eot", "*fonts.googleapis.com*", "*fonts.gstatic.com*", "*use.typekit.net*")),
+        IMAGES(withExtensions("png", "jpg", "jpeg", "gif", "webp", "avif", "bmp", "ico")),
+        MEDIA(withExtensions("mp4", "webm", "ogg", "ogv", "mp3", "wav", "m3u8", "mpd"));
+
+        private final List<String> urlPatterns;
+
+        Profile(String... urlPatterns) {
+            this.urlPatterns = List.of(urlPatterns);
+        }
+
+        /**
+         * @param values file extensions, or URL patterns if they contain {@code *}
+         * @return URL patterns that match these file extensions with and without a query string
+         */
+        private static String[] withExtensions(String... values) {
+            return Arrays.stream(values)
+                    .flatMap(value -> value.contains("*") ? Stream.of(value) : Stream.of("*." + value, "*." + value + "?*"))
+                    .toArray(String[]::new);
+        }
+    }
+
+    /**
+     * The supported values of the throttling.network property, matching the presets of the Chrome DevTools.
+     */
+    public enum NetworkPreset {
+        NONE(0, -1, -1),
+        FAST_3G(562.5, 180_000, 84_375),
+        SLOW_3G(2_000, 50_000, 50_000),
+        OFFLINE(0, 0, 0);
+
+        private final double latency;
+        private final double downloadThroughput;
+        private final double uploadThroughput;
+
+        /**
+         * @param latency            the added round trip time in milliseconds
+         * @param downloadThroughput the maximum download speed in bytes per second, or -1 to disable
+         * @param uploadThroughput   the maximum upload speed in bytes per second, or -1 to disable
+         */
+        NetworkPreset(double latency, double downloadThroughput, double uploadThroughput) {
+            this.latency = latency;
+            this.downloadThroughput = downloadThroughput;
+            this.uploadThroughput = uploadThroughput;
+        }
+
+        private static NetworkPreset getCurrent() {
+            var preset = SHAFT.Properties.web.throttlingNetwork().replaceAll("[\\s_-]", "");
+            return Arrays.stream(values())
+                    .filter(value -> value.name().replace("_", "").equalsIgnoreCase(preset))
+                    .findFirst()
+                    .orElse(NONE);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.shaft.gui.element;
 
 import com.shaft.cli.FileActions;
 import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.BrowserContextManager;
 import com.shaft.driver.internal.DriverFactoryHelper;
 import com.shaft.driver.internal.WizardHelpers;
 import com.shaft.enums.internal.ClipboardAction;
@@ -9,10 +10,13 @@ import com.shaft.enums.internal.ElementAction;
 import com.shaft.gui.browser.BrowserActions;
 import com.shaft.gui.browser.internal.JavaScriptWaitManager;
 import com.shaft.gui.element.internal.ElementActionsHelper;
+import com.shaft.gui.element.internal.ElementHandleCache;
+import com.shaft.gui.element.internal.PageSourceSnapshot;
 import com.shaft.gui.element.internal.ElementInformation;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.gui.internal.locator.LocatorBuilder;
 import com.shaft.gui.waits.WaitActions;
+import com.shaft.tools.internal.support.JavaScriptHelper;
 import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 import com.shaft.validation.internal.WebDriverElementValidationsBuilder;
@@ -31,6 +35,7 @@ import org.sikuli.script.App;
 import java.nio.file.FileSystems;
 import java.time.Duration;
 import java.util.*;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
 @SuppressWarnings("unused")
@@ -456,6 +461,11 @@ public class ElementActions {
     public String getAttribute(By elementLocator, String attributeName) {
         ReportManager.logDiscrete("Attempting to getAttribute \"" + attributeName + "\" from elementLocator \"" + elementLocator + "\".");
         try {
+            var localElementAttribute = PageSourceSnapshot.getAttribute(DriverFactoryHelper.getDriver(), elementLocator, attributeName);
+            if (localElementAttribute != null) {
+                ElementActionsHelper.passAction(DriverFactoryHelper.getDriver(), elementLocator, Thread.currentThread().getStackTrace()[1].getMethodName(), localElementAttribute, null, ElementActionsHelper.formatLocatorToString(elementLocator));
+                return localElementAttribute;
+            }
             var elementInformation = ElementInformation.fromList(ElementActionsHelper.performActionAgainstUniqueElementIgnoringVisibility(DriverFactoryHelper.getDriver(), elementLocator, ElementAction.GET_ATTRIBUTE, attributeName));
             try {
                 String elementAttribute = elementInformation.getActionResult();
@@ -567,6 +577,11 @@ public class ElementActions {
      */
     public String getText(By elementLocator) {
         try {
+            var localElementText = PageSourceSnapshot.getText(DriverFactoryHelper.getDriver(), elementLocator);
+            if (localElementText != null) {
+                ElementActionsHelper.passAction(DriverFactoryHelper.getDriver(), elementLocator, Thread.currentThread().getStackTrace()[1].getMethodName(), localElementText, null, ElementActionsHelper.formatLocatorToString(elementLocator));
+                return localElementText;
+            }
             var elementInformation = ElementInformation.fromList(ElementActionsHelper.identifyUniqueElementIgnoringVisibility(DriverFactoryHelper.getDriver(), elementLocator));
             var elementName = elementInformation.getElementName();
             String elementText;
@@ -620,7 +635,7 @@ public class ElementActions {
      * @return list of window handles
      */
     public List<String> getWindowHandles() {
-        List<String> windowHandles = new ArrayList<>(DriverFactoryHelper.getDriver().getWindowHandles());
+        List<String> windowHandles = new ArrayList<>(BrowserContextManager.getWindowHandles(DriverFactoryHelper.getDriver()));
         ElementActionsHelper.passAction(DriverFactoryHelper.getDriver(), null, Thread.currentThread().getStackTrace()[1].getMethodName(), String.valueOf(windowHandles), null, null);
         return windowHandles;
     }
@@ -830,6 +845,7 @@ public class ElementActions {
                     ElementActionsHelper.identifyUniqueElement(DriverFactoryHelper.getDriver(), elementLocator));
 //                            .getFirstElement());
             LocatorBuilder.setIFrameLocator(elementInformation.getLocator());
+            ElementHandleCache.clear();
             // note to self: remove elementLocator in case of bug in screenshot manager
             boolean discreetLoggingState = ReportManagerHelper.getDiscreteLogging();
             ReportManagerHelper.setDiscreteLogging(true);
@@ -854,6 +870,7 @@ public class ElementActions {
         try {
             DriverFactoryHelper.getDriver().switchTo().defaultContent();
             LocatorBuilder.setIFrameLocator(null);
+            ElementHandleCache.clear();
             boolean discreetLoggingState = ReportManagerHelper.getDiscreteLogging();
             ReportManagerHelper.setDiscreteLogging(true);
             ElementActionsHelper.passAction(DriverFactoryHelper.getDriver(), null, Thread.currentThread().getStackTrace()[1].getMethodName(), null, null, null);
@@ -1213,12 +1230,45 @@ public class ElementActions {
     /**
      * Get any simple table rows' data that has
      * thead which include all the column labels and tbody which includes all table data
+     * <p>
+     * On web executions the whole table is read using a single JavaScript call, honoring colspan and rowspan,
+     * and falls back to reading the table cell by cell on native mobile executions.
      *
      * @param tableLocator the locator of the table which should be a table tag
      * @return List of Map format and each Map Object follows the following format (Key:column label, value: cell data)
      */
     public List<Map<String, String>> getTableRowsData(By tableLocator) {
+        return getTableRowsData(tableLocator, () -> false);
+    }
+
+    /**
+     * Get any paginated table rows' data that has
+     * thead which include all the column labels and tbody which includes all table data
+     * <p>
+     * Sample use would look like this:
+     * driver.element().getTableRowsData(tableLocator, () -> {
+     * if (driver.element().isElementDisplayed(nextPageButton)) { driver.element().click(nextPageButton); return true; }
+     * return false;
+     * });
+     *
+     * @param tableLocator       the locator of the table which should be a table tag
+     * @param navigateToNextPage a callback that is invoked after every page is read, it should load the next page of the table
+     *                           and return true, or return false if there are no more pages to read
+     * @return List of Map format and each Map Object follows the following format (Key:column label, value: cell data)
+     */
+    public List<Map<String, String>> getTableRowsData(By tableLocator, BooleanSupplier navigateToNextPage) {
         List<Map<String, String>> tableData = new ArrayList<>();
+        do {
+            var pageData = getTablePageRowsData(tableLocator);
+            if (pageData == null) {
+                return null;
+            }
+            tableData.addAll(pageData);
+        } while (!tableData.isEmpty() && navigateToNextPage.getAsBoolean());
+        return tableData;
+    }
+
+    private List<Map<String, String>> getTablePageRowsData(By tableLocator) {
         // Wait for the table to be present and visible
         WebDriverWait wait = new WebDriverWait(DriverFactoryHelper.getDriver(), Duration.ofSeconds(10));
 
@@ -1228,33 +1278,61 @@ public class ElementActions {
             ElementActionsHelper.failAction(DriverFactoryHelper.getDriver(), tableLocator, throwable);
             return null;
         }
-        WebElement table = DriverFactoryHelper.getDriver().findElement(tableLocator);
         try {
             //Wait until any row is loaded because some websites use lazy loading,
             //and you need to wait for rows to be loaded
-            wait.until(ExpectedConditions.visibilityOfElementLocated(By.cssSelector("tbody tr")));
+            wait.until(ExpectedConditions.visibilityOfNestedElementsLocatedBy(tableLocator, By.cssSelector("tbody tr")));
         } catch (Exception e) {
             ReportManager.logDiscrete("Table\"" + tableLocator + "\" is empty");
             //Will return empty list to be used in case you want to assert if the table is empty
             return new ArrayList<>();
         }
+        WebElement table = DriverFactoryHelper.getDriver().findElement(tableLocator);
+
+        if (DriverFactoryHelper.isMobileNativeExecution()) {
+            return getTableRowsDataCellByCell(table);
+        }
+
+        try {
+            var tableContent = (Map<?, ?>) ((JavascriptExecutor) DriverFactoryHelper.getDriver()).executeScript(JavaScriptHelper.TABLE_GET_ROWS_DATA.getValue(), table);
+            var headers = (List<?>) tableContent.get("headers");
+            var rows = (List<?>) tableContent.get("rows");
+            List<Map<String, String>> tableData = new ArrayList<>();
+            for (Object row : rows) {
+                var cells = (List<?>) row;
+                Map<String, String> rowData = new LinkedHashMap<>();
+                for (int cellIndex = 0; cellIndex < cells.size(); cellIndex++) {
+                    String columnName = cellIndex < headers.size() ? String.valueOf(headers.get(cellIndex)) : "Column " + (cellIndex + 1);
+                    rowData.put(columnName, String.valueOf(cells.get(cellIndex)));
+                }
+                tableData.add(rowData);
+            }
+            ReportManager.logDiscrete("Read " + tableData.size() + " rows from table \"" + tableLocator + "\".");
+            return tableData;
+        } catch (WebDriverException | ClassCastException exception) {
+            // javascript is not supported or the script returned an unexpected structure
+            ReportManagerHelper.logDiscrete(exception);
+            return getTableRowsDataCellByCell(table);
+        }
+    }
+
+    private List<Map<String, String>> getTableRowsDataCellByCell(WebElement table) {
+        List<Map<String, String>> tableData = new ArrayList<>();
         List<WebElement> rows = table.findElement(By.tagName("tbody")).findElements(By.tagName("tr"));
         List<WebElement> headerCells = table.findElement(By.tagName("thead")).findElements(By.tagName("th"));
+        List<String> headers = new ArrayList<>();
+        headerCells.forEach(headerCell -> headers.add(headerCell.getText()));
 
         //extract the data into a List of Maps
         for (WebElement row : rows) {
-            WebElement currentRow = wait.until(ExpectedConditions.visibilityOf(row));
             List<WebElement> cells = row.findElements(By.tagName("td"));
-            Map<String, String> rowData = new HashMap<>();
+            Map<String, String> rowData = new LinkedHashMap<>();
             for (int cellIndex = 0; cellIndex < cells.size(); cellIndex++) {
-                String columnName = headerCells.get(cellIndex).getText();
-                String cellValue = cells.get(cellIndex).getText();
-                rowData.put(columnName, cellValue);
+                String columnName = cellIndex < headers.size() ? headers.get(cellIndex) : "Column " + (cellIndex + 1);
+                rowData.put(columnName, cells.get(cellIndex).getText());
             }
-
             tableData.add(rowData);
         }
-
         return tableData;
     }
 
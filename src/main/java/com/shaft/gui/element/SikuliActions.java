@@ -6,6 +6,7 @@ import com.shaft.gui.browser.internal.JavaScriptWaitManager;
 import com.shaft.gui.element.internal.ElementActionsHelper;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.gui.internal.video.RecordManager;
+import com.shaft.tools.internal.support.LazySubsystem;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 import org.apache.commons.io.IOUtils;
 import org.sikuli.basics.Settings;
@@ -20,15 +21,14 @@ import java.util.List;
 
 @SuppressWarnings("unused")
 public class SikuliActions {
+    private static final LazySubsystem SIKULI = LazySubsystem.of("SikuliX", SikuliActions::configureSikuliEngine);
     private Screen screen;
     private App applicationWindow;
 
     public SikuliActions() {
-        initializeSikuliEngineForCurrentScreen();
     }
 
     public SikuliActions(App applicationWindow) {
-        initializeSikuliEngineForCurrentScreen();
         this.applicationWindow = applicationWindow;
     }
 
@@ -68,9 +68,9 @@ public class SikuliActions {
             element = prepareElementPattern(targetElement);
             clearAndType(element, text);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, formatTextForReport(text), rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, formatTextForReport(text), rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(text));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(text));
         return this;
     }
 
@@ -98,11 +98,11 @@ public class SikuliActions {
         Pattern element = null;
         try {
             element = prepareElementPattern(targetElement);
-            screen.wait(element).type(text);
+            getScreen().wait(element).type(text);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, formatTextForReport(text), rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, formatTextForReport(text), rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(text));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(text));
         return this;
     }
 
@@ -134,10 +134,10 @@ public class SikuliActions {
             element = prepareElementPattern(targetElement);
             clearAndType(element, text);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, formatTextForReport(text), rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, formatTextForReport(text), rootCauseException);
         }
         //noinspection SuspiciousRegexArgument
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(text).replaceAll(".", "•"));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(text).replaceAll(".", "•"));
         return this;
     }
 
@@ -162,12 +162,12 @@ public class SikuliActions {
         String elementText = null;
         try {
             element = prepareElementPattern(targetElement);
-            elementText = screen.wait(element).getText();
-            screen.wait(element).click();
+            elementText = getScreen().wait(element).getText();
+            getScreen().wait(element).click();
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, elementText, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, elementText, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(elementText));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(elementText));
         return this;
     }
 
@@ -192,11 +192,11 @@ public class SikuliActions {
         String elementText = null;
         try {
             element = prepareElementPattern(targetElement);
-            elementText = screen.wait(element).getText().replace("\n", "").trim();
+            elementText = getScreen().wait(element).getText().replace("\n", "").trim();
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, null, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, null, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(elementText));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(elementText));
         return elementText;
     }
 
@@ -221,12 +221,12 @@ public class SikuliActions {
         String elementText = null;
         try {
             element = prepareElementPattern(targetElement);
-            elementText = screen.wait(element).getText().replace("\n", "").trim();
-            screen.wait(element).hover(element);
+            elementText = getScreen().wait(element).getText().replace("\n", "").trim();
+            getScreen().wait(element).hover(element);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, elementText, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, elementText, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(elementText));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(elementText));
         return this;
     }
 
@@ -251,12 +251,12 @@ public class SikuliActions {
         String elementText = null;
         try {
             element = prepareElementPattern(targetElement);
-            elementText = screen.wait(element).getText().replace("\n", "").trim();
-            screen.wait(element).doubleClick(element);
+            elementText = getScreen().wait(element).getText().replace("\n", "").trim();
+            getScreen().wait(element).doubleClick(element);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, elementText, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, elementText, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(elementText));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(elementText));
         return this;
     }
 
@@ -281,12 +281,12 @@ public class SikuliActions {
         String elementText = null;
         try {
             element = prepareElementPattern(targetElement);
-            elementText = screen.wait(element).getText().replace("\n", "").trim();
-            screen.wait(element).rightClick(element);
+            elementText = getScreen().wait(element).getText().replace("\n", "").trim();
+            getScreen().wait(element).rightClick(element);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, element, elementText, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, element, elementText, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, element, formatTextForReport(elementText));
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, element, formatTextForReport(elementText));
         return this;
     }
 
@@ -315,28 +315,28 @@ public class SikuliActions {
         try {
             draggableElementPattern = prepareElementPattern(draggableElement);
             targetElementPattern = prepareElementPattern(targetElement);
-            elementText = screen.wait(draggableElementPattern).getText().replace("\n", "").trim();
-            screen.wait(draggableElementPattern).dragDrop(draggableElementPattern, targetElementPattern);
+            elementText = getScreen().wait(draggableElementPattern).getText().replace("\n", "").trim();
+            getScreen().wait(draggableElementPattern).dragDrop(draggableElementPattern, targetElementPattern);
         } catch (IOException | FindFailed rootCauseException) {
-            ElementActionsHelper.failAction(screen, applicationWindow, draggableElementPattern, elementText, rootCauseException);
+            ElementActionsHelper.failAction(getScreen(), applicationWindow, draggableElementPattern, elementText, rootCauseException);
         }
-        ElementActionsHelper.passAction(screen, applicationWindow, draggableElementPattern, elementText);
+        ElementActionsHelper.passAction(getScreen(), applicationWindow, draggableElementPattern, elementText);
         return this;
     }
 
     private void clearAndType(Pattern element, String text) throws FindFailed {
-        String elementText = screen.wait(element).getText().replace("\n", "").trim();
+        String elementText = getScreen().wait(element).getText().replace("\n", "").trim();
         if (!elementText.isEmpty()) {
             //clear
             Collections.singletonList(elementText.toCharArray()).forEach(character -> {
                 try {
-                    screen.wait(element).type(element, Key.BACKSPACE);
+                    getScreen().wait(element).type(element, Key.BACKSPACE);
                 } catch (FindFailed findFailed) {
                     ReportManagerHelper.logDiscrete(findFailed);
                 }
             });
         }
-        screen.wait(element).type(text);
+        getScreen().wait(element).type(text);
     }
 
     private byte[] readImageFromFile(String pathToTargetElementImage) {
@@ -359,18 +359,31 @@ public class SikuliActions {
         return elementPattern;
     }
 
-    private void initializeSikuliEngineForCurrentScreen() {
-        if (DriverFactoryHelper.isWebExecution()) {
-            JavaScriptWaitManager.waitForLazyLoading();
-        }
+    private static void configureSikuliEngine() {
         Settings.setShowActions(false);
         Settings.ActionLogs = true;
         Settings.InfoLogs = true;
         Settings.DebugLogs = true;
         Settings.LogTime = true;
-        screen = new Screen();
-        screen.setAutoWaitTimeout(SHAFT.Properties.timeouts.defaultElementIdentificationTimeout());
-        RecordManager.startVideoRecording();
+    }
+
+    /**
+     * The screen is only initialized once the first action is performed, so creating an instance is cheap and doesn't
+     * require a display until it's actually used.
+     *
+     * @return the screen that this instance acts on
+     */
+    private synchronized Screen getScreen() {
+        if (screen == null) {
+            SIKULI.initialize();
+            if (DriverFactoryHelper.isWebExecution()) {
+                JavaScriptWaitManager.waitForLazyLoading();
+            }
+            screen = new Screen();
+            screen.setAutoWaitTimeout(SHAFT.Properties.timeouts.defaultElementIdentificationTimeout());
+            RecordManager.startVideoRecording();
+        }
+        return screen;
     }
 
     private String formatTextForReport(String text) {
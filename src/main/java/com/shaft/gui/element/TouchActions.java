@@ -6,6 +6,8 @@ import com.shaft.driver.SHAFT;
 import com.shaft.driver.internal.DriverFactoryHelper;
 import com.shaft.driver.internal.WizardHelpers;
 import com.shaft.gui.element.internal.ElementActionsHelper;
+import com.shaft.gui.element.internal.ElementIdentificationWait;
+import com.shaft.gui.element.internal.ScreenFingerprint;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.ReportManagerHelper;
@@ -29,7 +31,9 @@ import static java.util.Arrays.asList;
 
 @SuppressWarnings({"unused"})
 public class TouchActions {
-    private static final int DEFAULT_NUMBER_OF_ATTEMPTS_TO_SCROLL_TO_ELEMENT = 5;
+    // guards against endless feeds, where every swipe loads new content
+    private static final int MAXIMUM_NUMBER_OF_SWIPES = 100;
+    private static final Duration ELEMENT_PRESENCE_CHECK_TIMEOUT = Duration.ofMillis(300);
     private static final boolean CAPTURE_CLICKED_ELEMENT_TEXT = SHAFT.Properties.reporting.captureElementName();
 
     public TouchActions(WebDriver driver) {
@@ -617,76 +621,92 @@ public class TouchActions {
 
     @SuppressWarnings("unchecked")
     private List<Object> attemptToSwipeElementIntoViewInNativeApp(By scrollableElementLocator, String targetElementImage, SwipeDirection swipeDirection) {
-        boolean isElementFound = false;
-        boolean canStillScroll = true;
         var isDiscrete = ReportManagerHelper.getDiscreteLogging();
         ReportManagerHelper.setDiscreteLogging(true);
-        List<Object> visualIdentificationObjects;
+        var scrollableArea = getScrollableArea(scrollableElementLocator);
+        String previousScreenFingerprint = null;
+        int numberOfSwipes = 0;
 
-        // force SHAFT back into the loop even if canStillScroll is false, or ignore it completely for the first 5 scroll attempts
-        int blindScrollingAttempts = 0;
-
-        do {
-            // appium native device
-            // Wait for element presence and get the needed data
-            visualIdentificationObjects = ElementActionsHelper.waitForElementPresence(DriverFactoryHelper.getDriver(), targetElementImage);
-            List<Integer> coordinates = (List<Integer>) visualIdentificationObjects.get(2);
-
-            if (!Collections.emptyList().equals(coordinates)) {
-                // element is already on screen
-                isElementFound = true;
-                ReportManager.logDiscrete("Element found on screen.");
-            } else {
-                // for the animated GIF:
-                ElementActionsHelper.takeScreenshot(DriverFactoryHelper.getDriver(), null, "swipeElementIntoView", null, true);
-                canStillScroll = attemptW3cCompliantActionsScroll(swipeDirection, scrollableElementLocator, null);
-                if (!canStillScroll){
-                    // check if element can be found after scrolling to the end of the page
-                    visualIdentificationObjects = ElementActionsHelper.waitForElementPresence(DriverFactoryHelper.getDriver(), targetElementImage);
-                    coordinates = (List<Integer>) visualIdentificationObjects.get(2);
-                    if(!Collections.emptyList().equals(coordinates)) {
-                        isElementFound = true;
-                        ReportManager.logDiscrete("Element found on screen.");
-                    }
-                }
+        // appium native device
+        // Wait for element presence and get the needed data
+        var visualIdentificationObjects = ElementActionsHelper.waitForElementPresence(DriverFactoryHelper.getDriver(), targetElementImage);
+        while (Collections.emptyList().equals(visualIdentificationObjects.get(2)) && numberOfSwipes < MAXIMUM_NUMBER_OF_SWIPES) {
+            var screenFingerprint = ScreenFingerprint.of(DriverFactoryHelper.getDriver().getPageSource());
+            if (screenFingerprint.equals(previousScreenFingerprint)) {
+                ReportManager.logDiscrete("The last swipe didn't change the screen, reached the end of the scrollable area.");
+                break;
             }
-            blindScrollingAttempts++;
-        } while (Boolean.FALSE.equals(isElementFound) && (blindScrollingAttempts < DEFAULT_NUMBER_OF_ATTEMPTS_TO_SCROLL_TO_ELEMENT || Boolean.TRUE.equals(canStillScroll)));
+            previousScreenFingerprint = screenFingerprint;
+            // for the animated GIF:
+            ElementActionsHelper.takeScreenshot(DriverFactoryHelper.getDriver(), null, "swipeElementIntoView", null, true);
+            attemptW3cCompliantActionsScroll(swipeDirection, scrollableElementLocator, null, scrollableArea);
+            numberOfSwipes++;
+            visualIdentificationObjects = ElementActionsHelper.waitForElementPresence(DriverFactoryHelper.getDriver(), targetElementImage);
+        }
+        if (!Collections.emptyList().equals(visualIdentificationObjects.get(2))) {
+            ReportManager.logDiscrete("Element found on screen.");
+        }
         ReportManagerHelper.setDiscreteLogging(isDiscrete);
         return visualIdentificationObjects;
     }
 
     private boolean attemptToSwipeElementIntoViewInNativeApp(By scrollableElementLocator, By targetElementLocator, SwipeDirection swipeDirection) {
-        boolean isElementFound = false;
-        boolean canStillScroll = true;
         var isDiscrete = ReportManagerHelper.getDiscreteLogging();
         ReportManagerHelper.setDiscreteLogging(true);
-
-        // force SHAFT back into the loop even if canStillScroll is false, or ignore it completely for the first 5 scroll attempts
-        int blindScrollingAttempts = 0;
-
-        do {
-            // appium native device
-            if (ElementActionsHelper.waitForElementPresenceWithReducedTimeout(DriverFactoryHelper.getDriver(), targetElementLocator) > 0) {
-                // element is already on screen
-                isElementFound = true;
-                ReportManager.logDiscrete("Element found on screen.");
-            } else {
-                // for the animated GIF:
-                ElementActionsHelper.takeScreenshot(DriverFactoryHelper.getDriver(), null, "swipeElementIntoView", null, true);
-                canStillScroll = attemptW3cCompliantActionsScroll(swipeDirection, scrollableElementLocator, targetElementLocator);
-                if (!canStillScroll && ElementActionsHelper.waitForElementPresenceWithReducedTimeout(DriverFactoryHelper.getDriver(), targetElementLocator) > 0) {
-                    // element was found after scrolling to the end of the page
-                    isElementFound = true;
-                    ReportManager.logDiscrete("Element found on screen.");
-                }
+        var scrollableArea = getScrollableArea(scrollableElementLocator);
+        String previousScreenFingerprint = null;
+        int numberOfSwipes = 0;
+
+        // appium native device
+        boolean isElementFound = isElementDisplayedOnScreen(targetElementLocator);
+        while (!isElementFound && numberOfSwipes < MAXIMUM_NUMBER_OF_SWIPES) {
+            // the page source is much cheaper than a screenshot comparison, and ignores animations and scroll bars
+            var screenFingerprint = ScreenFingerprint.of(DriverFactoryHelper.getDriver().getPageSource());
+            if (screenFingerprint.equals(previousScreenFingerprint)) {
+                ReportManager.logDiscrete("The last swipe didn't change the screen, reached the end of the scrollable area.");
+                break;
             }
-            blindScrollingAttempts++;
-        } while (Boolean.FALSE.equals(isElementFound) && (blindScrollingAttempts < DEFAULT_NUMBER_OF_ATTEMPTS_TO_SCROLL_TO_ELEMENT || Boolean.TRUE.equals(canStillScroll)));
+            previousScreenFingerprint = screenFingerprint;
+            // for the animated GIF:
+            ElementActionsHelper.takeScreenshot(DriverFactoryHelper.getDriver(), null, "swipeElementIntoView", null, true);
+            attemptW3cCompliantActionsScroll(swipeDirection, scrollableElementLocator, targetElementLocator, scrollableArea);
+            numberOfSwipes++;
+            isElementFound = isElementDisplayedOnScreen(targetElementLocator);
+        }
+        if (isElementFound) {
+            ReportManager.logDiscrete("Element found on screen.");
+        }
         ReportManagerHelper.setDiscreteLogging(isDiscrete);
         return isElementFound;
     }
 
+    /**
+     * Checks whether the target element is currently displayed, without waiting for the default element identification
+     * timeout, and without changing it.
+     */
+    private boolean isElementDisplayedOnScreen(By targetElementLocator) {
+        try {
+            return ElementIdentificationWait.fluentWait(DriverFactoryHelper.getDriver(), ELEMENT_PRESENCE_CHECK_TIMEOUT)
+                    .ignoring(WebDriverException.class)
+                    .until(driver -> {
+                        var elements = driver.findElements(targetElementLocator);
+                        return !elements.isEmpty() && elements.get(0).isDisplayed();
+                    });
+        } catch (TimeoutException timeoutException) {
+            return false;
+        }
+    }
+
+    /**
+     * Swipe distances are derived from this rect, it's read once per swipeElementIntoView call instead of once per swipe.
+     */
+    private Rectangle getScrollableArea(By scrollableElementLocator) {
+        if (scrollableElementLocator != null) {
+            return ((WebElement) ElementActionsHelper.identifyUniqueElement(DriverFactoryHelper.getDriver(), scrollableElementLocator).get(1)).getRect();
+        }
+        return new Rectangle(new Point(0, 0), DriverFactoryHelper.getDriver().manage().window().getSize());
+    }
+
     private void attemptUISelectorScroll(SwipeDirection swipeDirection, int scrollableElementInstanceNumber) {
         ReportManager.logDiscrete("Swiping to find Element using UiSelector.");
         int scrollingSpeed = 100;
@@ -698,7 +718,7 @@ public class TouchActions {
         ElementActionsHelper.getElementsCount(DriverFactoryHelper.getDriver(), androidUIAutomator);
     }
 
-    private boolean attemptW3cCompliantActionsScroll(SwipeDirection swipeDirection, By scrollableElementLocator, By targetElementLocator) {
+    private boolean attemptW3cCompliantActionsScroll(SwipeDirection swipeDirection, By scrollableElementLocator, By targetElementLocator, Rectangle scrollableArea) {
         var logMessage = "Swiping to find Element using W3C Compliant Actions. SwipeDirection \"" + swipeDirection + "\"";
         if (targetElementLocator != null) {
             logMessage += ", TargetElementLocator \"" + targetElementLocator + "\"";
@@ -709,14 +729,14 @@ public class TouchActions {
         logMessage += ".";
         ReportManager.logDiscrete(logMessage);
 
-        Dimension screenSize = DriverFactoryHelper.getDriver().manage().window().getSize();
+        Dimension screenSize = scrollableArea.getDimension();
         boolean canScrollMore = true;
 
         var scrollParameters = new HashMap<>();
 
         if (scrollableElementLocator != null) {
             //scrolling inside an element
-            Rectangle elementRectangle = ((WebElement) ElementActionsHelper.identifyUniqueElement(DriverFactoryHelper.getDriver(), scrollableElementLocator).get(1)).getRect();
+            Rectangle elementRectangle = scrollableArea;
             scrollParameters.putAll(ImmutableMap.of(
                     "height", elementRectangle.getHeight() * 90 / 100
             ));
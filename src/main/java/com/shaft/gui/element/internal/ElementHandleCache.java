@@ -0,0 +1,164 @@
+package com.shaft.gui.element.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.gui.internal.locator.LocatorBuilder;
+import com.shaft.gui.internal.locator.ShadowLocatorBuilder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Caches the resolved handles of uniquely identified elements for the current driver session.
+ * <p>
+ * Entries are keyed by the locator and the iFrame/shadow DOM context it was resolved in, and are invalidated on navigation,
+ * window or frame switching, and whenever the cached handle turns out to be stale.
+ * Fetching the element rect doubles as the liveness probe, so a cache hit costs a single WebDriver call instead of a full lookup.
+ * Enabled by setting cacheElementHandles to true.
+ */
+public class ElementHandleCache {
+    private static final AtomicReference<CachedSession> currentSession = new AtomicReference<>();
+
+    private ElementHandleCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static boolean isEnabled() {
+        return SHAFT.Properties.flags.cacheElementHandles();
+    }
+
+    /**
+     * Returns a copy of the cached element information if the cached handle is still attached to the DOM.
+     *
+     * @param driver         the current instance of Selenium WebDriver
+     * @param elementLocator the locator of the webElement under test
+     * @return the cached element information with a fresh element rect, or null in case of a cache miss
+     */
+    static ElementInformation getLiveElement(WebDriver driver, By elementLocator) {
+        if (!isEnabled() || elementLocator == null) {
+            return null;
+        }
+        var key = Key.of(elementLocator);
+        var cachedElementInformation = getElements(driver).get(key);
+        if (cachedElementInformation == null) {
+            return null;
+        }
+        var elementInformation = copyOf(cachedElementInformation);
+        try {
+            elementInformation.setElementRect(elementInformation.getFirstElement().getRect());
+        } catch (WebDriverException webDriverException) {
+            // stale element reference, or the element belongs to a different browsing context
+            getElements(driver).remove(key);
+            return null;
+        }
+        return elementInformation;
+    }
+
+    /**
+     * Caches the element information of a uniquely identified element.
+     *
+     * @param driver             the current instance of Selenium WebDriver
+     * @param elementInformation the information of the element that was just identified
+     */
+    static void put(WebDriver driver, ElementInformation elementInformation) {
+        if (!isEnabled()
+                || elementInformation.getLocator() == null
+                || elementInformation.getFirstElement() == null
+                || elementInformation.getNumberOfFoundElements() != 1) {
+            return;
+        }
+        getElements(driver).put(Key.of(elementInformation.getLocator()), copyOf(elementInformation));
+    }
+
+    /**
+     * Counts the elements that match the target locator using a single lookup if a handle is cached for it, and keeps
+     * the cached handle if it is still the only match instead of evicting it.
+     *
+     * @param driver         the current instance of Selenium WebDriver
+     * @param elementLocator the locator of the webElement under test
+     * @return the number of matching elements, or zero if there was no cached handle to revalidate
+     */
+    static int revalidate(WebDriver driver, By elementLocator) {
+        if (!isEnabled() || elementLocator == null) {
+            return 0;
+        }
+        var key = Key.of(elementLocator);
+        var cachedElementInformation = getElements(driver).get(key);
+        if (cachedElementInformation == null) {
+            return 0;
+        }
+        if (key.iFrameLocator() != null || key.shadowDomLocator() != null) {
+            // counting inside a frame or a shadow root needs the full lookup, which caches a fresh handle
+            getElements(driver).remove(key);
+            return 0;
+        }
+        try {
+            var elements = driver.findElements(elementLocator);
+            if (elements.size() == 1 && elements.get(0).equals(cachedElementInformation.getFirstElement())) {
+                return 1;
+            }
+            getElements(driver).remove(key);
+            return elements.size();
+        } catch (WebDriverException webDriverException) {
+            getElements(driver).remove(key);
+            return 0;
+        }
+    }
+
+    /**
+     * Removes the cached handle of the target locator in the current context, if any.
+     *
+     * @param elementLocator the locator of the webElement under test
+     */
+    public static void invalidate(By elementLocator) {
+        var session = currentSession.get();
+        if (session != null && elementLocator != null) {
+            session.elements().remove(Key.of(elementLocator));
+        }
+    }
+
+    /**
+     * Removes all the cached handles, should be called whenever the current page, window, or frame changes.
+     */
+    public static void clear() {
+        var session = currentSession.get();
+        if (session != null) {
+            session.elements().clear();
+        }
+    }
+
+    private static Map<Key, ElementInformation> getElements(WebDriver driver) {
+        var session = currentSession.get();
+        if (session == null || session.driver() != driver) {
+            // handles are only valid for the session that resolved them
+            session = new CachedSession(driver, new ConcurrentHashMap<>());
+            currentSession.set(session);
+        }
+        return session.elements();
+    }
+
+    private static ElementInformation copyOf(ElementInformation elementInformation) {
+        var copy = new ElementInformation();
+        copy.setNumberOfFoundElements(elementInformation.getNumberOfFoundElements());
+        copy.setFirstElement(elementInformation.getFirstElement());
+        copy.setLocator(elementInformation.getLocator());
+        copy.setOuterHTML(elementInformation.getOuterHTML());
+        copy.setInnerHTML(elementInformation.getInnerHTML());
+        copy.setElementName(elementInformation.getElementName());
+        copy.setElementRect(elementInformation.getElementRect());
+        return copy;
+    }
+
+    private record Key(By locator, By iFrameLocator, By shadowDomLocator) {
+        private static Key of(By elementLocator) {
+            var shadowDomLocator = ShadowLocatorBuilder.cssSelector == elementLocator ? ShadowLocatorBuilder.shadowDomLocator : null;
+            return new Key(elementLocator, LocatorBuilder.getIFrameLocator(), shadowDomLocator);
+        }
+    }
+
+    private record CachedSession(WebDriver driver, Map<Key, ElementInformation> elements) {
+    }
+}
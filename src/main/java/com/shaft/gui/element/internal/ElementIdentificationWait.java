@@ -0,0 +1,175 @@
+package com.shaft.gui.element.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.DriverFactoryHelper;
+import com.shaft.gui.internal.locator.LocatorBuilder;
+import com.shaft.gui.internal.locator.ShadowLocatorBuilder;
+import com.shaft.tools.internal.support.JavaScriptHelper;
+import com.shaft.tools.io.ReportManager;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.ui.FluentWait;
+import org.openqa.selenium.support.ui.Sleeper;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Waits used while identifying elements.
+ * <p>
+ * Web sessions that miss the element on the first attempt are notified by an injected MutationObserver as soon as a
+ * matching node is attached to the DOM, while all other sessions fall back to polling with an adaptive back-off (fast
+ * early, slower later, with jitter).
+ */
+public class ElementIdentificationWait {
+    private static final long MINIMUM_POLLING_DELAY = 25; // milliseconds
+    private static final long MAXIMUM_POLLING_DELAY = 1000; // milliseconds
+    private static final double POLLING_DELAY_MULTIPLIER = 1.5;
+    private static final double POLLING_DELAY_JITTER = 0.2;
+    private static final long SCRIPT_TIMEOUT_MARGIN = 1000; // milliseconds
+
+    private ElementIdentificationWait() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Creates a fluent wait that polls using an adaptive back-off instead of a fixed polling delay.
+     *
+     * @param input   the input value to pass to the evaluated conditions, usually the current driver
+     * @param timeout how long to wait for the evaluated condition to be true
+     * @param <T>     the input type for each condition used with this instance
+     * @return a new fluent wait instance
+     */
+    public static <T> FluentWait<T> fluentWait(T input, Duration timeout) {
+        return new FluentWait<>(input, Clock.systemDefaultZone(), new AdaptiveSleeper())
+                .withTimeout(timeout);
+    }
+
+    /**
+     * Creates a fluent wait that polls for an element using an adaptive back-off. The first attempt is made right away,
+     * and only if it misses does the wait install a MutationObserver that resumes polling as soon as a matching node is
+     * attached, so elements that are already present cost a single lookup.
+     *
+     * @param driver         the current instance of Selenium WebDriver
+     * @param elementLocator the locator of the webElement under test
+     * @param timeout        how long to wait for the evaluated condition to be true
+     * @return a new fluent wait instance
+     */
+    public static FluentWait<WebDriver> fluentWait(WebDriver driver, By elementLocator, Duration timeout) {
+        return new FluentWait<>(driver, Clock.systemDefaultZone(), new ObservingSleeper(driver, elementLocator, System.currentTimeMillis() + timeout.toMillis()))
+                .withTimeout(timeout);
+    }
+
+    /**
+     * Calculates the delay before the next polling attempt.
+     *
+     * @param attempt the zero-based index of the attempt that just failed
+     * @return the delay to wait before the next attempt
+     */
+    static Duration getPollingDelay(int attempt) {
+        var delay = Math.min(MINIMUM_POLLING_DELAY * Math.pow(POLLING_DELAY_MULTIPLIER, attempt), MAXIMUM_POLLING_DELAY);
+        var jitter = 1 + ThreadLocalRandom.current().nextDouble(-POLLING_DELAY_JITTER, POLLING_DELAY_JITTER);
+        return Duration.ofMillis(Math.max(MINIMUM_POLLING_DELAY, Math.round(delay * jitter)));
+    }
+
+    /**
+     * Blocks until an element matching the target locator is attached to the DOM, or the timeout expires.
+     * The browser notifies the engine as soon as the element appears, so no findElement calls are made while waiting.
+     *
+     * @param driver          the current instance of Selenium WebDriver
+     * @param elementLocator  the locator of the webElement under test
+     * @param timeoutInMillis the maximum time to wait
+     * @return FOUND if the element was attached, NOT_FOUND if the timeout expired,
+     * and UNSUPPORTED if the current session or locator cannot be observed
+     */
+    public static ObserverResult waitForElementPresenceUsingMutationObserver(WebDriver driver, By elementLocator, long timeoutInMillis) {
+        if (!SHAFT.Properties.flags.waitForElementPresenceUsingMutationObserver()
+                || !DriverFactoryHelper.isWebExecution()
+                || DriverFactoryHelper.isMobileWebExecution()
+                || !(driver instanceof JavascriptExecutor)
+                || LocatorBuilder.getIFrameLocator() != null
+                || (ShadowLocatorBuilder.shadowDomLocator != null && ShadowLocatorBuilder.cssSelector == elementLocator)
+                || !(elementLocator instanceof By.Remotable remotableLocator)) {
+            return ObserverResult.UNSUPPORTED;
+        }
+
+        var parameters = remotableLocator.getRemoteParameters();
+        String strategy;
+        switch (parameters.using()) {
+            case "css selector", "tag name" -> strategy = "css";
+            case "xpath" -> strategy = "xpath";
+            default -> {
+                return ObserverResult.UNSUPPORTED;
+            }
+        }
+
+        // each script call must resolve before the session's script timeout, so long waits are split into slices
+        var maximumSliceDuration = Math.max(SCRIPT_TIMEOUT_MARGIN, SHAFT.Properties.timeouts.scriptExecutionTimeout() * 1000L - SCRIPT_TIMEOUT_MARGIN);
+        var deadline = System.currentTimeMillis() + timeoutInMillis;
+        try {
+            do {
+                var sliceDuration = Math.min(maximumSliceDuration, Math.max(0, deadline - System.currentTimeMillis()));
+                var isFound = ((JavascriptExecutor) driver).executeAsyncScript(JavaScriptHelper.ELEMENT_WAIT_FOR_PRESENCE.getValue(),
+                        strategy, String.valueOf(parameters.value()), sliceDuration);
+                if (Boolean.TRUE.equals(isFound)) {
+                    return ObserverResult.FOUND;
+                }
+            } while (System.currentTimeMillis() < deadline);
+            return ObserverResult.NOT_FOUND;
+        } catch (WebDriverException webDriverException) {
+            // invalid selectors, page navigation, and browsers that don't support async scripts are handled by polling
+            ReportManager.logDiscrete(() -> "Failed to wait for element presence using a MutationObserver, falling back to polling. " + webDriverException.getMessage().split("\n")[0]);
+            return ObserverResult.UNSUPPORTED;
+        }
+    }
+
+    public enum ObserverResult {
+        FOUND, NOT_FOUND, UNSUPPORTED
+    }
+
+    /**
+     * A sleeper that ignores the fixed polling interval of the fluent wait and backs off between attempts instead.
+     * A new instance must be used for every wait as it tracks the number of attempts.
+     */
+    private static class AdaptiveSleeper implements Sleeper {
+        private int attempt = 0;
+
+        @Override
+        public void sleep(Duration duration) throws InterruptedException {
+            Thread.sleep(getPollingDelay(attempt++).toMillis());
+        }
+    }
+
+    /**
+     * A sleeper that waits for the element using a MutationObserver after the first missed attempt, and backs off
+     * between the remaining attempts if the session or locator cannot be observed.
+     */
+    private static class ObservingSleeper extends AdaptiveSleeper {
+        private final WebDriver driver;
+        private final By elementLocator;
+        private final long deadline;
+        private boolean isObserved = false;
+
+        private ObservingSleeper(WebDriver driver, By elementLocator, long deadline) {
+            this.driver = driver;
+            this.elementLocator = elementLocator;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void sleep(Duration duration) throws InterruptedException {
+            if (!isObserved) {
+                isObserved = true;
+                var observerResult = waitForElementPresenceUsingMutationObserver(driver, elementLocator, Math.max(0, deadline - System.currentTimeMillis()));
+                if (!ObserverResult.UNSUPPORTED.equals(observerResult)) {
+                    // the element was attached, or the timeout expired and the next attempt reports the failure
+                    return;
+                }
+            }
+            super.sleep(duration);
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.shaft.gui.element.internal;
+
+import com.epam.healenium.SelfHealingDriver;
+import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.DriverFactoryHelper;
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the locators that were healed by Healenium, so that each broken locator is only healed once.
+ * <p>
+ * Entries are keyed by the URL pattern of the page and the original locator, and hold the healed XPath and the DOM path
+ * of the healed element. A broken locator is resolved using its healed XPath in a single script call, which also
+ * verifies that the element is still at the same DOM path, instead of repeating the tree comparison. Entries that fail
+ * the verification are dropped and healed again. Working locators are only sent through Healenium once per execution to
+ * refresh its baseline, and are then found directly.
+ * <p>
+ * The cache is stored in the healingCacheFolderPath folder, which is under target/ by default, so that it is reused by
+ * later executions until the project is cleaned, and the healed locators are listed at the end of the execution so that
+ * they can be fixed. Enabled by setting heal-enabled and local-healing-cache
+ * to true, and only applies to web executions.
+ */
+public class LocatorHealingCache {
+    private static final String CACHE_FILE_NAME = "locator-healing-cache.properties";
+    private static final String HEALED_LOCATOR_SUFFIX = ".healedLocator";
+    private static final String DOM_PATH_SUFFIX = ".domPath";
+    private static final String HEALED_AT_SUFFIX = ".healedAt";
+    private static final String DOM_PATH_FUNCTION = """
+            function domPath(element) {
+                var segments = [];
+                for (; element && element.nodeType === Node.ELEMENT_NODE; element = element.parentNode) {
+                    var index = 1;
+                    for (var sibling = element.previousElementSibling; sibling; sibling = sibling.previousElementSibling) {
+                        if (sibling.nodeName === element.nodeName) {
+                            index++;
+                        }
+                    }
+                    segments.unshift(element.nodeName.toLowerCase() + '[' + index + ']');
+                }
+                return '/' + segments.join('/');
+            }
+            """;
+    private static final String GET_DOM_PATH_SCRIPT = DOM_PATH_FUNCTION + "return domPath(arguments[0]);";
+    private static final String FIND_VERIFIED_ELEMENT_SCRIPT = DOM_PATH_FUNCTION + """
+            var element = document.evaluate(arguments[0], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;
+            return element && domPath(element) === arguments[1] ? element : null;
+            """;
+    private static final Set<String> baselinedLocators = ConcurrentHashMap.newKeySet();
+    private static final Set<String> usedHealings = ConcurrentHashMap.newKeySet();
+    private static Map<String, Healing> healings;
+    private static Path loadedCacheFile;
+
+    private LocatorHealingCache() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static boolean isEnabled(WebDriver driver) {
+        return driver instanceof SelfHealingDriver
+                && SHAFT.Properties.healenium.localHealingCache()
+                && DriverFactoryHelper.isWebExecution();
+    }
+
+    /**
+     * Finds an element using the original locator, or the healed locator if the original one is broken, and only asks
+     * Healenium to heal the locator if it wasn't healed before or its healed locator no longer matches.
+     *
+     * @param driver         the current instance of Healenium's self-healing driver
+     * @param elementLocator the locator of the webElement under test
+     * @return the element that was found
+     * @throws NoSuchElementException if the element could not be found nor healed
+     */
+    public static WebElement findElement(WebDriver driver, By elementLocator) {
+        var delegate = ((SelfHealingDriver) driver).getDelegate();
+        var originalLocator = elementLocator.toString();
+        WebElement element;
+        try {
+            element = delegate.findElement(elementLocator);
+        } catch (NoSuchElementException noSuchElementException) {
+            return findBrokenElement(driver, delegate, elementLocator);
+        }
+        if (baselinedLocators.add(originalLocator)) {
+            // healenium needs to see every working locator once to keep its baseline up to date
+            element = driver.findElement(elementLocator);
+            if (getHealings().values().stream().anyMatch(healing -> healing.originalLocator().equals(originalLocator))) {
+                // the locator was fixed since it was healed
+                remove(getKey(delegate, originalLocator));
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Counts the elements that match the original locator without going through Healenium, and counts a healed
+     * element as a unique match.
+     *
+     * @param driver         the current instance of Healenium's self-healing driver
+     * @param elementLocator the locator of the webElement under test, which was already found
+     * @return the number of matching elements
+     */
+    static int getElementsCount(WebDriver driver, By elementLocator) {
+        return Math.max(1, ((SelfHealingDriver) driver).getDelegate().findElements(elementLocator).size());
+    }
+
+    /**
+     * Lists the locators that were healed so far, so that they can be fixed in the code.
+     */
+    public static synchronized void logHealedLocators() {
+        if (healings == null || healings.isEmpty()) {
+            return;
+        }
+        var report = new StringBuilder("Healed locators that should be fixed (page | original locator | healed locator):");
+        new TreeMap<>(healings).forEach((key, healing) -> report.append(System.lineSeparator())
+                .append(usedHealings.contains(key) ? "* " : "  ")
+                .append(healing.urlPattern()).append(" | ")
+                .append(healing.originalLocator()).append(" | ")
+                .append(healing.healedLocator()));
+        report.append(System.lineSeparator()).append("Locators marked with * were used during this execution.");
+        ReportManager.log(report.toString());
+    }
+
+    private static WebElement findBrokenElement(WebDriver driver, WebDriver delegate, By elementLocator) {
+        var key = getKey(delegate, elementLocator.toString());
+        var healing = getHealings().get(key);
+        if (healing != null) {
+            var element = (WebElement) ((JavascriptExecutor) delegate).executeScript(FIND_VERIFIED_ELEMENT_SCRIPT, healing.healedLocator(), healing.domPath());
+            if (element != null) {
+                usedHealings.add(key);
+                return element;
+            }
+            // the page changed again since the locator was healed
+            remove(key);
+        }
+        // throws NoSuchElementException if the locator cannot be healed
+        var healedElement = driver.findElement(elementLocator);
+        var domPath = (String) ((JavascriptExecutor) delegate).executeScript(GET_DOM_PATH_SCRIPT, healedElement);
+        var healedLocator = ElementActionsHelper.suggestNewXpathUsingJavascript(delegate, healedElement);
+        if (healedLocator == null || healedLocator.isBlank()) {
+            healedLocator = domPath;
+        }
+        put(key, new Healing(key.substring(0, key.indexOf(' ')), elementLocator.toString(), healedLocator, domPath, Instant.now().toString()));
+        usedHealings.add(key);
+        ReportManager.logDiscrete("Cached the healed locator \"" + healedLocator + "\" for \"" + elementLocator + "\".");
+        return healedElement;
+    }
+
+    private static String getKey(WebDriver delegate, String originalLocator) {
+        // URL patterns never contain spaces, so the first space separates them from the locator
+        return PageLoadMetricsCollector.toUrlPattern(delegate.getCurrentUrl()) + " " + originalLocator;
+    }
+
+    private static Path getCacheFile() {
+        return Path.of(SHAFT.Properties.paths.healingCache(), CACHE_FILE_NAME);
+    }
+
+    private static synchronized Map<String, Healing> getHealings() {
+        var cacheFile = getCacheFile();
+        if (healings != null && cacheFile.equals(loadedCacheFile)) {
+            return healings;
+        }
+        // the cache is reloaded if the healingCacheFolderPath property was changed
+        healings = new ConcurrentHashMap<>();
+        loadedCacheFile = cacheFile;
+        if (!Files.exists(cacheFile)) {
+            return healings;
+        }
+        var cache = new Properties();
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            cache.load(inputStream);
+        } catch (IOException | IllegalArgumentException exception) {
+            // a corrupted or unreadable cache is treated as an empty cache
+            ReportManagerHelper.logDiscrete(exception);
+            return healings;
+        }
+        cache.stringPropertyNames().stream()
+                .filter(name -> name.endsWith(HEALED_LOCATOR_SUFFIX))
+                .map(name -> name.substring(0, name.length() - HEALED_LOCATOR_SUFFIX.length()))
+                .filter(key -> key.indexOf(' ') > 0 && cache.getProperty(key + DOM_PATH_SUFFIX) != null)
+                .forEach(key -> healings.put(key, new Healing(key.substring(0, key.indexOf(' ')), key.substring(key.indexOf(' ') + 1),
+                        cache.getProperty(key + HEALED_LOCATOR_SUFFIX), cache.getProperty(key + DOM_PATH_SUFFIX),
+                        cache.getProperty(key + HEALED_AT_SUFFIX, ""))));
+        return healings;
+    }
+
+    private static synchronized void put(String key, Healing healing) {
+        getHealings().put(key, healing);
+        store();
+    }
+
+    private static synchronized void remove(String key) {
+        if (getHealings().remove(key) != null) {
+            usedHealings.remove(key);
+            store();
+        }
+    }
+
+    private static void store() {
+        var cache = new Properties();
+        healings.forEach((key, healing) -> {
+            cache.setProperty(key + HEALED_LOCATOR_SUFFIX, healing.healedLocator());
+            cache.setProperty(key + DOM_PATH_SUFFIX, healing.domPath());
+            cache.setProperty(key + HEALED_AT_SUFFIX, healing.healedAt());
+        });
+        try {
+            Files.createDirectories(getCacheFile().getParent());
+            try (OutputStream outputStream = Files.newOutputStream(getCacheFile())) {
+                cache.store(outputStream, "SHAFT locator healing cache");
+            }
+        } catch (IOException exception) {
+            // failing to persist a healed locator must never fail the action
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private record Healing(String urlPattern, String originalLocator, String healedLocator, String domPath, String healedAt) {
+    }
+}
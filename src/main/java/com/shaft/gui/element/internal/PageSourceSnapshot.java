@@ -0,0 +1,284 @@
+package com.shaft.gui.element.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.driver.internal.DriverFactoryHelper;
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates native mobile locators locally against a parsed snapshot of the Appium page source.
+ * <p>
+ * The page source is fetched once per screen state and parsed into an in-memory DOM, so read-only lookups such as
+ * counts, texts, and attributes take microseconds instead of one server-side XPath evaluation each. Interactions still
+ * need a server element, so XPath locators are mapped to the resource id or accessibility id of the matching node
+ * whenever that is unique on the current screen.
+ * <p>
+ * The snapshot is invalidated by every action that may change the screen, by every server lookup that finds an element
+ * which didn't match anything locally, and after pageSourceSnapshotTimeout seconds. Locators that don't match anything
+ * locally are evaluated by the server until then, so waiting for an element doesn't re-fetch the page source on every
+ * attempt. Enabled by setting evaluateNativeLocatorsLocally to true.
+ */
+public class PageSourceSnapshot {
+    private static final AtomicReference<Snapshot> currentSnapshot = new AtomicReference<>();
+
+    private PageSourceSnapshot() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static boolean isEnabled() {
+        return SHAFT.Properties.flags.evaluateNativeLocatorsLocally() && DriverFactoryHelper.isMobileNativeExecution();
+    }
+
+    /**
+     * @param driver         the current instance of Appium driver
+     * @param elementLocator the locator of the element under test
+     * @return the number of matching elements in the current screen, or -1 if the locator can't be evaluated locally,
+     * zero means that the locator should be evaluated by the server because the snapshot may be outdated
+     */
+    static int getElementsCount(WebDriver driver, By elementLocator) {
+        var matchingElements = findElements(driver, elementLocator);
+        return matchingElements == null ? -1 : matchingElements.size();
+    }
+
+    /**
+     * @param driver         the current instance of Appium driver
+     * @param elementLocator the locator of the element under test
+     * @return the text of the uniquely matching element, or null if it can't be read locally
+     */
+    public static String getText(WebDriver driver, By elementLocator) {
+        var element = findUniqueElement(driver, elementLocator);
+        if (element == null) {
+            return null;
+        }
+        if (element.hasAttribute("text")) {
+            // android
+            return element.getAttribute("text");
+        }
+        // ios returns the value, or the label if the value is empty
+        var value = element.getAttribute("value");
+        return value.isEmpty() ? element.getAttribute("label") : value;
+    }
+
+    /**
+     * @param driver         the current instance of Appium driver
+     * @param elementLocator the locator of the element under test
+     * @param attributeName  the target attribute
+     * @return the attribute value of the uniquely matching element, or null if it can't be read locally
+     */
+    public static String getAttribute(WebDriver driver, By elementLocator, String attributeName) {
+        var element = findUniqueElement(driver, elementLocator);
+        return element != null && element.hasAttribute(attributeName) ? element.getAttribute(attributeName) : null;
+    }
+
+    /**
+     * Maps an XPath locator to an equivalent locator that is cheaper to evaluate on the server, if the matching node
+     * has a resource id or accessibility id that is unique on the current screen.
+     *
+     * @param driver         the current instance of Appium driver
+     * @param elementLocator the locator of the element under test
+     * @return the cheaper locator, or the same locator if there is none
+     */
+    static By getServerLocator(WebDriver driver, By elementLocator) {
+        var parameters = getParameters(elementLocator);
+        if (parameters == null || !"xpath".equals(parameters[0])) {
+            return elementLocator;
+        }
+        var element = findUniqueElement(driver, elementLocator);
+        if (element == null) {
+            return elementLocator;
+        }
+        var document = element.getOwnerDocument();
+        synchronized (document) {
+            var resourceId = element.getAttribute("resource-id");
+            if (!resourceId.isEmpty() && filter(document, node -> node.getAttribute("resource-id").equals(resourceId)).size() == 1) {
+                return AppiumBy.id(resourceId);
+            }
+            var accessibilityAttribute = element.hasAttribute("content-desc") ? "content-desc" : "name";
+            var accessibilityId = element.getAttribute(accessibilityAttribute);
+            if (!accessibilityId.isEmpty() && filter(document, node -> node.getAttribute(accessibilityAttribute).equals(accessibilityId)).size() == 1) {
+                return AppiumBy.accessibilityId(accessibilityId);
+            }
+        }
+        return elementLocator;
+    }
+
+    /**
+     * Discards the current snapshot unless the action that was just performed is read-only. Actions whose name starts
+     * with "get" or "is" are considered read-only.
+     *
+     * @param actionName the name of the action that was just performed
+     */
+    public static void invalidateUnlessReadOnly(String actionName) {
+        if (actionName == null || !(actionName.startsWith("get") || actionName.startsWith("is"))) {
+            invalidate();
+        }
+    }
+
+    /**
+     * Discards the current snapshot, should be called whenever the current screen may have changed.
+     */
+    public static void invalidate() {
+        currentSnapshot.set(null);
+    }
+
+    /**
+     * Discards the current snapshot if the server found an element that didn't match anything locally, because the
+     * screen has changed since the snapshot was taken.
+     *
+     * @param elementLocator the locator that was just found by the server
+     */
+    static void invalidateIfMissedLocally(By elementLocator) {
+        var snapshot = currentSnapshot.get();
+        var parameters = elementLocator == null ? null : getParameters(elementLocator);
+        if (snapshot == null || parameters == null) {
+            return;
+        }
+        synchronized (snapshot.document()) {
+            var matchingElements = snapshot.results().get(parameters[0] + ":" + parameters[1]);
+            if (matchingElements != null && matchingElements.isEmpty()) {
+                currentSnapshot.compareAndSet(snapshot, null);
+            }
+        }
+    }
+
+    private static Element findUniqueElement(WebDriver driver, By elementLocator) {
+        var matchingElements = findElements(driver, elementLocator);
+        return matchingElements != null && matchingElements.size() == 1 ? matchingElements.get(0) : null;
+    }
+
+    private static List<Element> findElements(WebDriver driver, By elementLocator) {
+        if (!isEnabled() || elementLocator == null) {
+            return null;
+        }
+        var parameters = getParameters(elementLocator);
+        if (parameters == null) {
+            return null;
+        }
+        var snapshot = getSnapshot(driver);
+        if (snapshot == null) {
+            return null;
+        }
+        synchronized (snapshot.document()) {
+            // a local miss is remembered, so the server keeps evaluating this locator until it finds a match
+            return snapshot.findElements(parameters[0], parameters[1]);
+        }
+    }
+
+    private static String[] getParameters(By elementLocator) {
+        if (!(elementLocator instanceof By.Remotable remotableLocator)) {
+            return null;
+        }
+        var parameters = remotableLocator.getRemoteParameters();
+        return switch (parameters.using()) {
+            case "xpath", "id", "accessibility id", "class name" ->
+                    new String[]{parameters.using(), String.valueOf(parameters.value())};
+            default -> null;
+        };
+    }
+
+    private static Snapshot getSnapshot(WebDriver driver) {
+        var snapshot = currentSnapshot.get();
+        if (snapshot != null && snapshot.driver() == driver
+                && System.currentTimeMillis() - snapshot.createdAt() < TimeUnit.SECONDS.toMillis(SHAFT.Properties.timeouts.pageSourceSnapshotTimeout())) {
+            return snapshot;
+        }
+        try {
+            snapshot = new Snapshot(driver, parse(driver.getPageSource()), System.currentTimeMillis(), new HashMap<>());
+        } catch (WebDriverException | IllegalArgumentException exception) {
+            return null;
+        }
+        currentSnapshot.set(snapshot);
+        return snapshot;
+    }
+
+    private static Document parse(String pageSource) {
+        try {
+            var documentBuilderFactory = DocumentBuilderFactory.newInstance();
+            documentBuilderFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            documentBuilderFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            // lazily expanded nodes are not safe to read from multiple threads
+            documentBuilderFactory.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+            return documentBuilderFactory.newDocumentBuilder().parse(new InputSource(new StringReader(pageSource)));
+        } catch (Exception exception) {
+            throw new IllegalArgumentException("Failed to parse the page source.", exception);
+        }
+    }
+
+    private static List<Element> filter(Document document, Predicate<Element> predicate) {
+        var elements = new ArrayList<Element>();
+        var nodes = document.getElementsByTagName("*");
+        for (int i = 0; i < nodes.getLength(); i++) {
+            var element = (Element) nodes.item(i);
+            if (predicate.test(element)) {
+                elements.add(element);
+            }
+        }
+        return elements;
+    }
+
+    private record Snapshot(WebDriver driver, Document document, long createdAt, Map<String, List<Element>> results) {
+        /**
+         * @return the matching elements, or null if the locator is not supported locally
+         */
+        private List<Element> findElements(String using, String value) {
+            var key = using + ":" + value;
+            if (results.containsKey(key)) {
+                return results.get(key);
+            }
+            var matchingElements = switch (using) {
+                case "xpath" -> evaluateXPath(value);
+                // ids without a package are resolved against the current app package by UiAutomator2
+                case "id" -> filter(element -> element.getAttribute("resource-id").equals(value)
+                        || element.getAttribute("resource-id").endsWith(":id/" + value)
+                        || (!element.hasAttribute("resource-id") && element.getAttribute("name").equals(value)));
+                case "accessibility id" -> filter(element -> element.hasAttribute("content-desc")
+                        ? element.getAttribute("content-desc").equals(value)
+                        : element.getAttribute("name").equals(value));
+                case "class name" -> filter(element -> element.getTagName().equals(value));
+                default -> null;
+            };
+            results.put(key, matchingElements);
+            return matchingElements;
+        }
+
+        private List<Element> evaluateXPath(String xpath) {
+            try {
+                var nodes = (NodeList) XPathFactory.newInstance().newXPath().evaluate(xpath, document, XPathConstants.NODESET);
+                var elements = new ArrayList<Element>(nodes.getLength());
+                for (int i = 0; i < nodes.getLength(); i++) {
+                    if (nodes.item(i) instanceof Element element) {
+                        elements.add(element);
+                    }
+                }
+                return elements;
+            } catch (XPathExpressionException xPathExpressionException) {
+                // unsupported by the local XPath 1.0 engine, let the server evaluate it
+                return null;
+            }
+        }
+
+        private List<Element> filter(Predicate<Element> predicate) {
+            return PageSourceSnapshot.filter(document, predicate);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.shaft.gui.element.internal;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Set;
+
+/**
+ * Fingerprints the visible hierarchy of a native mobile screen.
+ * <p>
+ * Only the element types, positions, and texts of the Android (UiAutomator2) or iOS (XCUITest) page source are hashed,
+ * so two fingerprints are equal if and only if the visible content didn't move or change, regardless of focus,
+ * selection, or other state attributes. This makes it a cheap way to tell whether a swipe made any progress.
+ */
+public class ScreenFingerprint {
+    private static final Set<String> FINGERPRINT_ATTRIBUTES = Set.of(
+            // android
+            "bounds", "text", "content-desc", "resource-id",
+            // ios
+            "x", "y", "width", "height", "name", "label", "value");
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+    private ScreenFingerprint() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param pageSource the page source of the current native mobile screen
+     * @return a hex encoded SHA-256 hash of the visible hierarchy
+     */
+    public static String of(String pageSource) {
+        var digest = getDigest();
+        try {
+            var reader = XML_INPUT_FACTORY.createXMLStreamReader(new StringReader(pageSource));
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                        update(digest, reader.getLocalName());
+                        for (int i = 0; i < reader.getAttributeCount(); i++) {
+                            if (FINGERPRINT_ATTRIBUTES.contains(reader.getAttributeLocalName(i))) {
+                                update(digest, reader.getAttributeLocalName(i));
+                                update(digest, reader.getAttributeValue(i));
+                            }
+                        }
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException xmlStreamException) {
+            // not a valid hierarchy, fall back to hashing the raw page source
+            digest.reset();
+            update(digest, pageSource);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        // separator, so that adjacent values can't be shifted into each other
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            // SHA-256 is guaranteed to be available in every JVM
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+    }
+
+    private static XMLInputFactory createXmlInputFactory() {
+        var xmlInputFactory = XMLInputFactory.newInstance();
+        xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return xmlInputFactory;
+    }
+}
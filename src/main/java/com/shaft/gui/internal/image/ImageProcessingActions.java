@@ -11,6 +11,7 @@ import com.assertthat.selenium_shutterbug.utils.image.UnableToCompareImagesExcep
 import com.shaft.cli.FileActions;
 import com.shaft.driver.SHAFT;
 import com.shaft.driver.internal.DriverFactoryHelper;
+import com.shaft.tools.internal.support.LazySubsystem;
 import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.FailureReporter;
 import com.shaft.tools.io.internal.ReportManagerHelper;
@@ -54,6 +55,7 @@ public class ImageProcessingActions {
 //            CV_THRESH_BINARY_INV = 1;
 
     private static String aiFolderPath = "";
+    private static final LazySubsystem OPENCV = LazySubsystem.of("OpenCV", ImageProcessingActions::loadOpenCVNativeLibraries);
 
     private ImageProcessingActions() {
         throw new IllegalStateException("Utility class");
@@ -141,7 +143,7 @@ public class ImageProcessingActions {
     public static byte[] highlightElementInScreenshot(byte[] targetScreenshot,
                                                       org.openqa.selenium.Rectangle elementLocation, Color highlightColor) {
 
-//        loadOpenCV();
+        loadOpenCV();
         Mat img = Imgcodecs.imdecode(new MatOfByte(targetScreenshot), Imgcodecs.IMREAD_COLOR);
 
         int outlineThickness = 5;
@@ -240,6 +242,7 @@ public class ImageProcessingActions {
     }
 
     private static List<Integer> attemptToFindImageUsingOpenCV(String referenceImagePath, byte[] currentPageScreenshot, int attemptNumber) {
+        loadOpenCV();
         if (currentPageScreenshot == null || Arrays.equals(currentPageScreenshot, new byte[]{})) {
             //target image is empty, force fail comparison
             ReportManager.log("Failed to identify the element using AI; target screenshot is empty.");
@@ -569,7 +572,15 @@ public class ImageProcessingActions {
 
     }
 
+    /**
+     * Loads the OpenCV native libraries, unless they were already loaded. This is called automatically before any image
+     * processing action that needs OpenCV, so suites that never use it don't pay the cost of loading it.
+     */
     public static void loadOpenCV() {
+        OPENCV.initialize();
+    }
+
+    private static void loadOpenCVNativeLibraries() {
         var libName = "";
         try {
             //https://github.com/openpnp/opencv#api
@@ -320,6 +320,10 @@ public class ScreenshotManager {
                     int elementCount = ElementActionsHelper.getElementsCount(driver, elementLocator, RETRIES_BEFORE_THROWING_ELEMENT_NOT_FOUND_EXCEPTION);
                     boolean isRelativeLocator = elementLocator instanceof RelativeLocator.RelativeBy;
                     if ((!isRelativeLocator && elementCount == 1) || (isRelativeLocator && elementCount >= 1)) {
+                        if (!"JavaScript".equals(SHAFT.Properties.visuals.screenshotParamsHighlightMethod())) {
+                            // switches the highlight method to JavaScript if OpenCV cannot be loaded
+                            ImageProcessingActions.loadOpenCV();
+                        }
                         if ("JavaScript".equals(SHAFT.Properties.visuals.screenshotParamsHighlightMethod())) {
                             element = ((WebElement) ElementActionsHelper.identifyUniqueElementIgnoringVisibility(driver, elementLocator).get(1));
                             js = (JavascriptExecutor) driver;
@@ -11,27 +11,23 @@ import io.appium.java_client.android.AndroidDriver;
 import io.appium.java_client.android.AndroidStartScreenRecordingOptions;
 import io.appium.java_client.ios.IOSDriver;
 import io.appium.java_client.ios.IOSStartScreenRecordingOptions;
-import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
-import ws.schild.jave.Encoder;
-import ws.schild.jave.EncoderException;
-import ws.schild.jave.MultimediaObject;
-import ws.schild.jave.encode.AudioAttributes;
-import ws.schild.jave.encode.EncodingAttributes;
-import ws.schild.jave.encode.VideoAttributes;
 
 import java.io.*;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
 
 import static com.automation.remarks.video.RecordingUtils.doVideoProcessing;
 
 public class RecordManager {
     private static final ThreadLocal<IVideoRecorder> recorder = new ThreadLocal<>();
+    // a device recording is in progress on the current thread's session for as long as this is set
     private static final ThreadLocal<WebDriver> videoDriver = new ThreadLocal<>();
-    private static boolean isRecordingStarted = false;
+    private static final ThreadLocal<CompletableFuture<Path>> lastEncodedRecording = new ThreadLocal<>();
 
     private RecordManager() {
         throw new IllegalStateException("Utility class");
@@ -41,18 +37,17 @@ public class RecordManager {
     @SuppressWarnings("SpellCheckingInspection")
     public static void startVideoRecording(WebDriver driver) {
         if (Boolean.TRUE.equals(SHAFT.Properties.visuals.videoParamsRecordVideo())
-                && !isRecordingStarted
+                && videoDriver.get() == null
                 && driver != null
                 && DriverFactoryHelper.isMobileNativeExecution()) {
-            videoDriver.set(driver);
             try {
                 if (driver instanceof AndroidDriver androidDriver) {
                     androidDriver.startRecordingScreen(new AndroidStartScreenRecordingOptions().withVideoSize("540x960").withBitRate(2000000).withTimeLimit(Duration.ofMinutes(30)));
                 } else if (driver instanceof IOSDriver iosDriver) {
                     iosDriver.startRecordingScreen(new IOSStartScreenRecordingOptions().withVideoType("libx264").withVideoQuality(IOSStartScreenRecordingOptions.VideoQuality.MEDIUM).withTimeLimit(Duration.ofMinutes(30)));
                 }
+                videoDriver.set(driver);
                 ReportManager.logDiscrete("Started recording device screen");
-                isRecordingStarted = true;
             } catch (WebDriverException exception) {
                 ReportManager.logDiscrete("Failed to start recording device screen");
             }
@@ -83,35 +78,92 @@ public class RecordManager {
         }
     }
 
+    /**
+     * Stops the current recording and attaches it to the current test. Local recordings are linked to the report right
+     * away, and are encoded and written in the background.
+     */
     public static void attachVideoRecording() {
-        ReportManagerHelper.attach("Video Recording", ReportManagerHelper.getTestMethodName(), getVideoRecording());
+        // a recording that was never read by getVideoRecordingFilePath is not kept beyond the next one
+        lastEncodedRecording.remove();
+        String testMethodName = ReportManagerHelper.getTestMethodName();
+        if (Boolean.TRUE.equals(SHAFT.Properties.visuals.videoParamsRecordVideo()) && recorder.get() != null) {
+            var rawRecording = stopLocalRecording(testMethodName);
+            if (rawRecording != null) {
+                var isEncodingRequired = VideoEncoder.isEncodingRequired(rawRecording);
+                var preparedMimeType = isEncodingRequired ? "video/mp4" : VideoEncoder.getMimeType(rawRecording);
+                var attachmentSource = ReportManagerHelper.prepareAttachment("Video Recording", testMethodName,
+                        preparedMimeType, isEncodingRequired ? ".mp4" : getFileExtension(rawRecording));
+                lastEncodedRecording.set(VideoEncoder.submit(rawRecording, encodedRecording -> {
+                    try (InputStream inputStream = Files.newInputStream(encodedRecording)) {
+                        var mimeType = VideoEncoder.getMimeType(encodedRecording);
+                        if (mimeType.equals(preparedMimeType)) {
+                            ReportManagerHelper.writePreparedAttachment(attachmentSource, inputStream);
+                        } else {
+                            // encoding failed, so the raw recording is attached with its own type instead
+                            ReportManagerHelper.writePreparedAttachment(attachmentSource, inputStream, mimeType, getFileExtension(encodedRecording));
+                        }
+                    } catch (IOException e) {
+                        ReportManagerHelper.logDiscrete(e);
+                    }
+                }));
+            }
+        } else {
+            ReportManagerHelper.attach("Video Recording", testMethodName, getVideoRecording());
+        }
     }
 
+    /**
+     * Waits for the last recording of the current thread to be encoded.
+     *
+     * @return the path to the last encoded recording of the current thread, or an empty string if there is none
+     */
     public static String getVideoRecordingFilePath() {
+        var encodedRecording = lastEncodedRecording.get();
+        lastEncodedRecording.remove();
+        if (encodedRecording == null) {
+            return "";
+        }
         try {
-            String tempFilePath = "target/tempVideoFile/";
-            FileUtils.copyInputStreamToFile(getVideoRecording(), new File(tempFilePath));
-            return tempFilePath;
-        } catch (IOException e) {
+            return encodedRecording.join().toString();
+        } catch (RuntimeException e) {
             ReportManagerHelper.logDiscrete(e);
             return "";
         }
     }
 
+    /**
+     * Forgets the last recording of the current thread, must be called when the thread's driver session ends.
+     */
+    public static void discardLastEncodedRecording() {
+        lastEncodedRecording.remove();
+    }
+
+    /**
+     * Blocks until all the local recordings are encoded and attached, must be called before generating the reports.
+     */
+    public static void awaitPendingEncodings() {
+        VideoEncoder.awaitPendingEncodings();
+        ReportManagerHelper.updateReplacedAttachments();
+    }
+
+    private static String getFileExtension(Path recording) {
+        return recording.toString().substring(recording.toString().lastIndexOf('.'));
+    }
+
     public static InputStream getVideoRecording() {
         InputStream inputStream = null;
         String pathToRecording;
         String testMethodName = ReportManagerHelper.getTestMethodName();
 
         if (Boolean.TRUE.equals(SHAFT.Properties.visuals.videoParamsRecordVideo()) && recorder.get() != null) {
-            pathToRecording = doVideoProcessing(ReportManagerHelper.isCurrentTestPassed(), recorder.get().stopAndSave(System.currentTimeMillis() + "_" + testMethodName));
-            try {
-                inputStream = new FileInputStream(encodeRecording(pathToRecording));
-            } catch (FileNotFoundException e) {
-                ReportManagerHelper.logDiscrete(e);
-//                inputStream = new ByteArrayInputStream(new byte[0]);
+            var rawRecording = stopLocalRecording(testMethodName);
+            if (rawRecording != null) {
+                try {
+                    inputStream = Files.newInputStream(VideoEncoder.encode(rawRecording));
+                } catch (IOException e) {
+                    ReportManagerHelper.logDiscrete(e);
+                }
             }
-            recorder.remove();
 
         } else if (Boolean.TRUE.equals(SHAFT.Properties.visuals.videoParamsRecordVideo()) && videoDriver.get() != null) {
             String base64EncodedRecording = "";
@@ -122,29 +174,17 @@ public class RecordManager {
             }
             inputStream = new ByteArrayInputStream(Base64.getDecoder().decode(base64EncodedRecording));
             videoDriver.remove();
-            isRecordingStarted = false;
         }
         return inputStream;
     }
 
-    @SuppressWarnings("SpellCheckingInspection")
-    private static File encodeRecording(String pathToRecording) {
-        File source = new File(pathToRecording);
-        File target = new File(pathToRecording.replace("avi", "mp4"));
+    private static Path stopLocalRecording(String testMethodName) {
         try {
-
-            AudioAttributes audio = new AudioAttributes();
-            audio.setCodec("libvorbis");
-            VideoAttributes video = new VideoAttributes();
-            EncodingAttributes attrs = new EncodingAttributes();
-            attrs.setOutputFormat("mp4");
-            attrs.setAudioAttributes(audio);
-            attrs.setVideoAttributes(video);
-            Encoder encoder = new Encoder();
-            encoder.encode(new MultimediaObject(source), target, attrs);
-        } catch (EncoderException e) {
-            ReportManagerHelper.logDiscrete(e);
+            var pathToRecording = doVideoProcessing(ReportManagerHelper.isCurrentTestPassed(), recorder.get().stopAndSave(System.currentTimeMillis() + "_" + testMethodName));
+            // recordings of passed tests are discarded unless all recordings are kept
+            return pathToRecording == null || pathToRecording.isBlank() ? null : Path.of(pathToRecording);
+        } finally {
+            recorder.remove();
         }
-        return target;
     }
 }
@@ -0,0 +1,182 @@
+package com.shaft.gui.internal.video;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import ws.schild.jave.Encoder;
+import ws.schild.jave.EncoderException;
+import ws.schild.jave.MultimediaObject;
+import ws.schild.jave.encode.AudioAttributes;
+import ws.schild.jave.encode.EncodingAttributes;
+import ws.schild.jave.encode.VideoAttributes;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Encodes local video recordings to MP4 on a bounded background executor, so that encoding is kept off the critical
+ * path of the test that was recorded.
+ * <p>
+ * The executor uses half the available processors, and once its queue is full new recordings are encoded on the
+ * calling thread, which keeps the backlog and the disk usage bounded. {@link #awaitPendingEncodings()} must be called
+ * before the reports are generated, so that every recording is written before it's needed.
+ * <p>
+ * The codec, bitrate, and frame rate are selected using the videoParams_encodingPreset property, see {@link Preset}.
+ */
+public class VideoEncoder {
+    private static final int NUMBER_OF_ENCODING_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final ExecutorService encodingExecutor = new ThreadPoolExecutor(NUMBER_OF_ENCODING_THREADS, NUMBER_OF_ENCODING_THREADS,
+            0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(NUMBER_OF_ENCODING_THREADS * 4), runnable -> {
+        var thread = new Thread(runnable, "SHAFT-Video-Encoder-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+    private static final Queue<CompletableFuture<Path>> pendingEncodings = new ConcurrentLinkedQueue<>();
+
+    private VideoEncoder() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param rawRecording the path to the recording as it was saved by the recorder
+     * @return true if the recording will be encoded, or false if it will be passed through as is
+     */
+    static boolean isEncodingRequired(Path rawRecording) {
+        return Preset.getCurrent() != Preset.NONE && !rawRecording.toString().toLowerCase().endsWith(".mp4");
+    }
+
+    /**
+     * @param recording the path to a recording
+     * @return the mime type of the recording, based on its file extension
+     */
+    static String getMimeType(Path recording) {
+        var fileName = recording.toString().toLowerCase();
+        if (fileName.endsWith(".avi")) {
+            return "video/x-msvideo";
+        } else if (fileName.endsWith(".webm")) {
+            return "video/webm";
+        }
+        return "video/mp4";
+    }
+
+    /**
+     * Queues a recording for encoding.
+     *
+     * @param rawRecording the path to the recording as it was saved by the recorder
+     * @param onEncoded    called from the encoding thread with the path to the encoded recording
+     * @return a future that completes with the path to the encoded recording
+     */
+    static CompletableFuture<Path> submit(Path rawRecording, Consumer<Path> onEncoded) {
+        pendingEncodings.removeIf(CompletableFuture::isDone);
+        var encoding = CompletableFuture.supplyAsync(() -> encode(rawRecording), encodingExecutor)
+                .thenApply(encodedRecording -> {
+                    onEncoded.accept(encodedRecording);
+                    return encodedRecording;
+                });
+        pendingEncodings.add(encoding);
+        return encoding;
+    }
+
+    /**
+     * Blocks until all the queued recordings are encoded and attached.
+     */
+    public static void awaitPendingEncodings() {
+        if (pendingEncodings.isEmpty()) {
+            return;
+        }
+        ReportManager.logDiscrete("Waiting for " + pendingEncodings.size() + " video recording(s) to finish encoding...");
+        CompletableFuture<Path> encoding;
+        while ((encoding = pendingEncodings.poll()) != null) {
+            try {
+                encoding.join();
+            } catch (RuntimeException exception) {
+                ReportManagerHelper.logDiscrete(exception);
+            }
+        }
+    }
+
+    /**
+     * Encodes a recording synchronously using the current preset.
+     *
+     * @param rawRecording the path to the recording as it was saved by the recorder
+     * @return the path to the encoded recording, or the raw recording if encoding isn't required or failed
+     */
+    @SuppressWarnings("SpellCheckingInspection")
+    static Path encode(Path rawRecording) {
+        if (!isEncodingRequired(rawRecording)) {
+            return rawRecording;
+        }
+        var preset = Preset.getCurrent();
+        var target = Path.of(rawRecording.toString().replace("avi", "mp4"));
+        try {
+            AudioAttributes audio = new AudioAttributes();
+            audio.setCodec("libvorbis");
+            VideoAttributes video = new VideoAttributes();
+            if (preset.codec != null) {
+                video.setCodec(preset.codec);
+                video.setBitRate(preset.bitRate);
+                video.setFrameRate(preset.frameRate);
+            }
+            EncodingAttributes attrs = new EncodingAttributes();
+            attrs.setOutputFormat("mp4");
+            attrs.setAudioAttributes(audio);
+            attrs.setVideoAttributes(video);
+            new Encoder().encode(new MultimediaObject(rawRecording.toFile()), target.toFile(), attrs);
+            return target;
+        } catch (EncoderException exception) {
+            // attaching the raw recording is better than attaching nothing
+            ReportManagerHelper.logDiscrete(exception);
+            return rawRecording;
+        }
+    }
+
+    /**
+     * The supported values of the videoParams_encodingPreset property.
+     */
+    enum Preset {
+        /**
+         * Let the encoder pick the codec and bitrate for the MP4 container.
+         */
+        DEFAULT(null, null, null),
+        /**
+         * H.264 at 10 frames per second and 1 Mbps, encodes much faster than the default.
+         */
+        FAST("libx264", 1_000_000, 10),
+        /**
+         * H.264 at 5 frames per second and 256 Kbps, produces the smallest files.
+         */
+        SMALL("libx264", 256_000, 5),
+        /**
+         * Skip encoding and attach the raw recordings as they are.
+         */
+        NONE(null, null, null);
+
+        private final String codec;
+        private final Integer bitRate;
+        private final Integer frameRate;
+
+        Preset(String codec, Integer bitRate, Integer frameRate) {
+            this.codec = codec;
+            this.bitRate = bitRate;
+            this.frameRate = frameRate;
+        }
+
+        private static Preset getCurrent() {
+            var preset = SHAFT.Properties.visuals.videoParamsEncodingPreset();
+            return Arrays.stream(values())
+                    .filter(value -> value.name().equalsIgnoreCase(preset))
+                    .findFirst()
+                    .orElse(DEFAULT);
+        }
+    }
+}
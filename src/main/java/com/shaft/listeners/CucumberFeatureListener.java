@@ -17,6 +17,7 @@ package com.shaft.listeners;
 
 import com.shaft.cli.FileActions;
 import com.shaft.driver.SHAFT;
+import com.shaft.gui.browser.internal.RequestBlocker;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.gui.internal.video.RecordManager;
 import com.shaft.listeners.internal.TestNGListenerHelper;
@@ -34,7 +35,6 @@ import io.qameta.allure.cucumber7jvm.AllureCucumber7Jvm;
 import io.qameta.allure.cucumber7jvm.testsourcemodel.TestSourcesModelProxy;
 import io.qameta.allure.model.Status;
 import io.qameta.allure.model.*;
-import lombok.Getter;
 import org.testng.Reporter;
 
 import java.io.ByteArrayInputStream;
@@ -64,18 +64,13 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
 
     private static final String TXT_EXTENSION = ".txt";
     private static final String TEXT_PLAIN = "text/plain";
-    @Getter
-    private static String lastStartedScenarioName;
-    @Getter
-    private static Boolean isLastFinishedStepOK;
+    // scenarios may run in parallel, so the last started scenario and finished step are tracked for each thread
+    private static final ThreadLocal<String> lastStartedScenarioName = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> isLastFinishedStepOK = new ThreadLocal<>();
     private final AllureLifecycle lifecycle;
-    private final ConcurrentHashMap<String, String> scenarioUuids = new ConcurrentHashMap<>();
     private final TestSourcesModelProxy testSources = new TestSourcesModelProxy();
-    private final ThreadLocal<Feature> currentFeature = new InheritableThreadLocal<>();
-    private final ThreadLocal<URI> currentFeatureFile = new InheritableThreadLocal<>();
-    private final ThreadLocal<TestCase> currentTestCase = new InheritableThreadLocal<>();
-    private final ThreadLocal<String> currentContainer = new InheritableThreadLocal<>();
-    private final ThreadLocal<Boolean> forbidTestCaseStatusChange = new InheritableThreadLocal<>();
+    // the state of each running scenario, keyed by its test case id, as events of parallel scenarios are interleaved
+    private final ConcurrentHashMap<UUID, ScenarioState> runningScenarios = new ConcurrentHashMap<>();
     private final EventHandler<TestSourceRead> featureStartedHandler = this::handleFeatureStartedHandler;
     private final EventHandler<TestRunFinished> featureFinishedHandler = this::handleFeatureFinishedHandler;
     private final EventHandler<TestCaseStarted> caseStartedHandler = this::handleTestCaseStarted;
@@ -97,6 +92,20 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
         // end of custom code
     }
 
+    /**
+     * @return the name of the last scenario that was started by the current thread
+     */
+    public static String getLastStartedScenarioName() {
+        return lastStartedScenarioName.get();
+    }
+
+    /**
+     * @return whether the last step that was finished by the current thread was successful
+     */
+    public static Boolean getIsLastFinishedStepOK() {
+        return isLastFinishedStepOK.get();
+    }
+
     /*
     Event Handlers
      */
@@ -130,34 +139,29 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
     }
 
     private void handleTestCaseStarted(final TestCaseStarted event) {
-        currentFeatureFile.set(event.getTestCase().getUri());
-        currentFeature.set(testSources.getFeature(currentFeatureFile.get()));
-        currentTestCase.set(event.getTestCase());
-        currentContainer.set(UUID.randomUUID().toString());
-        forbidTestCaseStatusChange.set(false);
-
-        new LinkedList<>(currentTestCase.get().getTags());
-
-        final Feature feature = currentFeature.get();
+        final TestCase testCase = event.getTestCase();
+        final Feature feature = testSources.getFeature(testCase.getUri());
+        final ScenarioState scenario = new ScenarioState(testCase, feature);
+        runningScenarios.put(testCase.getId(), scenario);
 
-        final String name = currentTestCase.get().getName();
+        final String name = testCase.getName();
         final String featureName = feature.getName();
 
         final TestResult result = new TestResult()
-                .setUuid(getTestCaseUuid(currentTestCase.get()))
-                .setHistoryId(getHistoryId(currentTestCase.get()))
+                .setUuid(scenario.uuid)
+                .setHistoryId(getHistoryId(testCase))
                 .setFullName(featureName + ": " + name)
                 .setName(name);
 
         final Scenario scenarioDefinition =
                 testSources.getScenarioDefinition(
-                        currentFeatureFile.get(),
-                        currentTestCase.get().getLocation().getLine()
+                        testCase.getUri(),
+                        testCase.getLocation().getLine()
                 );
 
         if (scenarioDefinition.getExamples() != null) {
             result.setParameters(
-                    getExamplesAsParameters(scenarioDefinition, currentTestCase.get())
+                    getExamplesAsParameters(scenarioDefinition, testCase)
             );
         }
 
@@ -172,22 +176,21 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
 
         final TestResultContainer resultContainer = new TestResultContainer()
                 .setName(String.format("%s: %s", scenarioDefinition.getKeyword(), scenarioDefinition.getName()))
-                .setUuid(getTestContainerUuid())
-                .setChildren(Collections.singletonList(getTestCaseUuid(currentTestCase.get())));
+                .setUuid(scenario.containerUuid)
+                .setChildren(Collections.singletonList(scenario.uuid));
 
         lifecycle.scheduleTestCase(result);
-        lifecycle.startTestContainer(getTestContainerUuid(), resultContainer);
-        lifecycle.startTestCase(getTestCaseUuid(currentTestCase.get()));
+        lifecycle.startTestContainer(scenario.containerUuid, resultContainer);
+        lifecycle.startTestCase(scenario.uuid);
 
         // custom code
         ReportManagerHelper.setFeatureName(featureName);
-        lastStartedScenarioName = scenarioDefinition.getName();
-        ReportManagerHelper.setTestCaseName(lastStartedScenarioName);
+        lastStartedScenarioName.set(scenarioDefinition.getName());
+        ReportManagerHelper.setTestCaseName(scenarioDefinition.getName());
         ReportManagerHelper.setTestCaseDescription(scenarioDefinition.getDescription());
         if (SHAFT.Properties.reporting.generateExtentReports()) {
             ReportManagerHelper.extentReportsCreateTest(feature.getName(), feature.getDescription());
         }
-        var testCase = event.getTestCase();
         var cleanScenarioSteps = new StringBuilder();
         testCase.getTestSteps().forEach(testStep -> {
             if (testStep instanceof PickleStepTestStep pickleStepTestStep) {
@@ -196,23 +199,29 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
                         .append(System.lineSeparator());
             }
         });
-        ReportManagerHelper.logScenarioInformation(scenarioDefinition.getKeyword(), lastStartedScenarioName, cleanScenarioSteps.toString());
+        ReportManagerHelper.logScenarioInformation(scenarioDefinition.getKeyword(), scenarioDefinition.getName(), cleanScenarioSteps.toString());
     }
 
     private void handleTestCaseFinished(final TestCaseFinished event) {
+        final ScenarioState scenario = runningScenarios.remove(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
         //custom code
         if (Reporter.getCurrentTestResult() == null) {
             // running in native Cucumber mode
             if (SHAFT.Properties.visuals.videoParamsScope().equals("TestMethod")) {
                 RecordManager.attachVideoRecording();
             }
+            RequestBlocker.attachBlockedRequests();
             ScreenshotManager.attachAnimatedGif();
+            ReportManagerHelper.flushDiscreteLogBuffer(io.cucumber.plugin.event.Status.PASSED.equals(event.getResult().getStatus()));
             // configuration method attachment is not added to the report (Allure ->
             // threadContext.getCurrent(); -> empty)
-            ReportManagerHelper.attachTestLog(lastStartedScenarioName,
+            ReportManagerHelper.attachTestLog(scenario.testCase.getName(),
                     TestNGListenerHelper.createTestLog(Reporter.getOutput()));
         } else {
-            ReportManagerHelper.attachTestLog(lastStartedScenarioName,
+            ReportManagerHelper.attachTestLog(scenario.testCase.getName(),
                     TestNGListenerHelper.createTestLog(Reporter.getOutput()));
         }
         // resetting scope and config
@@ -221,63 +230,71 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
 //        }
         // end of custom code
 
-        final String uuid = getTestCaseUuid(event.getTestCase());
+        final String uuid = scenario.uuid;
         final Optional<StatusDetails> details = getStatusDetails(event.getResult().getError());
         details.ifPresent(statusDetails -> lifecycle.updateTestCase(
                 uuid,
                 testResult -> testResult.setStatusDetails(statusDetails)
         ));
         lifecycle.stopTestCase(uuid);
-        lifecycle.stopTestContainer(getTestContainerUuid());
+        lifecycle.stopTestContainer(scenario.containerUuid);
         lifecycle.writeTestCase(uuid);
-        lifecycle.writeTestContainer(getTestContainerUuid());
+        lifecycle.writeTestContainer(scenario.containerUuid);
     }
 
     private void handleTestStepStarted(final TestStepStarted event) {
+        final ScenarioState scenario = runningScenarios.get(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
         if (event.getTestStep() instanceof final PickleStepTestStep pickleStep) {
             final String stepKeyword = Optional.ofNullable(
-                    testSources.getKeywordFromSource(currentFeatureFile.get(), pickleStep.getStep().getLine())
+                    testSources.getKeywordFromSource(scenario.testCase.getUri(), pickleStep.getStep().getLine())
             ).orElse("UNDEFINED");
 
             final StepResult stepResult = new StepResult()
                     .setName(String.format("%s %s", stepKeyword, pickleStep.getStep().getText()))
                     .setStart(System.currentTimeMillis());
 
-            lifecycle.startStep(getTestCaseUuid(currentTestCase.get()), getStepUuid(pickleStep), stepResult);
+            lifecycle.startStep(scenario.uuid, getStepUuid(scenario, pickleStep), stepResult);
 
             final StepArgument stepArgument = pickleStep.getStep().getArgument();
             if (stepArgument instanceof final DataTableArgument dataTableArgument) {
                 createDataTableAttachment(dataTableArgument);
             }
         } else if (event.getTestStep() instanceof HookTestStep) {
-            initHook((HookTestStep) event.getTestStep());
+            initHook(scenario, (HookTestStep) event.getTestStep());
         }
 
     }
 
-    private void initHook(final HookTestStep hook) {
+    private void initHook(final ScenarioState scenario, final HookTestStep hook) {
 
         final FixtureResult hookResult = new FixtureResult()
                 .setName(hook.getCodeLocation())
                 .setStart(System.currentTimeMillis());
 
         if (hook.getHookType() == HookType.BEFORE) {
-            lifecycle.startPrepareFixture(getTestContainerUuid(), getHookStepUuid(hook), hookResult);
+            lifecycle.startPrepareFixture(scenario.containerUuid, getHookStepUuid(scenario, hook), hookResult);
         } else {
-            lifecycle.startTearDownFixture(getTestContainerUuid(), getHookStepUuid(hook), hookResult);
+            lifecycle.startTearDownFixture(scenario.containerUuid, getHookStepUuid(scenario, hook), hookResult);
         }
 
     }
 
     private void handleTestStepFinished(final TestStepFinished event) {
+        final ScenarioState scenario = runningScenarios.get(event.getTestCase().getId());
+        if (scenario == null) {
+            return;
+        }
         if (event.getTestStep() instanceof HookTestStep) {
-            handleHookStep(event);
+            handleHookStep(scenario, event);
         } else {
-            handlePickleStep(event);
+            handlePickleStep(scenario, event);
         }
 
         //custom code
-        isLastFinishedStepOK = event.getResult().getStatus().isOk();
+        isLastFinishedStepOK.set(event.getResult().getStatus().isOk());
     }
 
     private void handleWriteEvent(final WriteEvent event) {
@@ -297,21 +314,13 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
     Utility Methods
      */
 
-    private String getTestContainerUuid() {
-        return currentContainer.get();
-    }
-
-    private String getTestCaseUuid(final TestCase testCase) {
-        return scenarioUuids.computeIfAbsent(getHistoryId(testCase), it -> UUID.randomUUID().toString());
-    }
-
-    private String getStepUuid(final PickleStepTestStep step) {
-        return currentFeature.get().getName() + getTestCaseUuid(currentTestCase.get())
+    private String getStepUuid(final ScenarioState scenario, final PickleStepTestStep step) {
+        return scenario.feature.getName() + scenario.uuid
                 + step.getStep().getText() + step.getStep().getLine();
     }
 
-    private String getHookStepUuid(final HookTestStep step) {
-        return currentFeature.get().getName() + getTestCaseUuid(currentTestCase.get())
+    private String getHookStepUuid(final ScenarioState scenario, final HookTestStep step) {
+        return scenario.feature.getName() + scenario.uuid
                 + step.getHookType().toString() + step.getCodeLocation();
     }
 
@@ -399,9 +408,9 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
         return dataTableCsv;
     }
 
-    private void handleHookStep(final TestStepFinished event) {
+    private void handleHookStep(final ScenarioState scenario, final TestStepFinished event) {
         final HookTestStep hookStep = (HookTestStep) event.getTestStep();
-        final String uuid = getHookStepUuid(hookStep);
+        final String uuid = getHookStepUuid(scenario, hookStep);
         final FixtureResult fixtureResult = new FixtureResult().setStatus(translateTestCaseStatus(event.getResult()));
 
         if (!Status.PASSED.equals(fixtureResult.getStatus())) {
@@ -416,11 +425,11 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
 
             if (hookStep.getHookType() == HookType.BEFORE) {
                 testResult.setStatus(Status.SKIPPED);
-                updateTestCaseStatus(testResult.getStatus());
-                forbidTestCaseStatusChange.set(true);
+                updateTestCaseStatus(scenario, testResult.getStatus());
+                scenario.forbidTestCaseStatusChange = true;
             } else {
                 testResult.setStatus(Status.BROKEN);
-                updateTestCaseStatus(testResult.getStatus());
+                updateTestCaseStatus(scenario, testResult.getStatus());
             }
             fixtureResult.setStatusDetails(statusDetails);
         }
@@ -430,44 +439,44 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
         lifecycle.stopFixture(uuid);
     }
 
-    private void handlePickleStep(final TestStepFinished event) {
+    private void handlePickleStep(final ScenarioState scenario, final TestStepFinished event) {
 
         final Status stepStatus = translateTestCaseStatus(event.getResult());
         final StatusDetails statusDetails;
         if (event.getResult().getStatus() == io.cucumber.plugin.event.Status.UNDEFINED) {
-            updateTestCaseStatus(Status.PASSED);
+            updateTestCaseStatus(scenario, Status.PASSED);
 
             statusDetails =
                     getStatusDetails(new IllegalStateException("Undefined Step. Please add step definition"))
                             .orElse(new StatusDetails());
-            lifecycle.updateTestCase(getTestCaseUuid(currentTestCase.get()), scenarioResult ->
+            lifecycle.updateTestCase(scenario.uuid, scenarioResult ->
                     scenarioResult
                             .setStatusDetails(statusDetails));
         } else {
             statusDetails =
                     getStatusDetails(event.getResult().getError())
                             .orElse(new StatusDetails());
-            updateTestCaseStatus(stepStatus);
+            updateTestCaseStatus(scenario, stepStatus);
         }
 
         if (!Status.PASSED.equals(stepStatus) && stepStatus != null) {
-            forbidTestCaseStatusChange.set(true);
+            scenario.forbidTestCaseStatusChange = true;
         }
 
-        lifecycle.updateStep(getStepUuid((PickleStepTestStep) event.getTestStep()),
+        lifecycle.updateStep(getStepUuid(scenario, (PickleStepTestStep) event.getTestStep()),
                 stepResult -> stepResult.setStatus(stepStatus).setStatusDetails(statusDetails));
-        lifecycle.stopStep(getStepUuid((PickleStepTestStep) event.getTestStep()));
+        lifecycle.stopStep(getStepUuid(scenario, (PickleStepTestStep) event.getTestStep()));
     }
 
-    private void updateTestCaseStatus(final Status status) {
-        if (!forbidTestCaseStatusChange.get()) {
-            lifecycle.updateTestCase(getTestCaseUuid(currentTestCase.get()),
+    private void updateTestCaseStatus(final ScenarioState scenario, final Status status) {
+        if (!scenario.forbidTestCaseStatusChange) {
+            lifecycle.updateTestCase(scenario.uuid,
                     result -> result.setStatus(status));
         }
     }
 
     // custom code
-    private void handleTestSourceParsed(TestSourceParsed event) {
+    private synchronized void handleTestSourceParsed(TestSourceParsed event) {
         event.getNodes().forEach(node -> {
             Optional<io.cucumber.core.gherkin.Feature> feature = getFeature(event.getUri());
             if (feature.isPresent()) {
@@ -494,4 +503,20 @@ public class CucumberFeatureListener extends AllureCucumber7Jvm {
             }
         });
     }
-}
+
+    /**
+     * The state of a running scenario, which is only updated by the events of that scenario.
+     */
+    private static final class ScenarioState {
+        private final TestCase testCase;
+        private final Feature feature;
+        private final String uuid = UUID.randomUUID().toString();
+        private final String containerUuid = UUID.randomUUID().toString();
+        private volatile boolean forbidTestCaseStatusChange = false;
+
+        private ScenarioState(final TestCase testCase, final Feature feature) {
+            this.testCase = testCase;
+            this.feature = feature;
+        }
+    }
+}
\ No newline at end of file
@@ -1,12 +1,21 @@
 package com.shaft.listeners;
 
+import com.shaft.cli.internal.SSHSessionPool;
 import com.shaft.driver.SHAFT;
-import com.shaft.gui.internal.image.ImageProcessingActions;
+import com.shaft.driver.internal.AppiumSelfManagementHelper;
+import com.shaft.driver.internal.BrowserContextManager;
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
+import com.shaft.gui.browser.internal.RequestBlocker;
+import com.shaft.gui.element.internal.LocatorHealingCache;
+import com.shaft.gui.internal.video.RecordManager;
 import com.shaft.listeners.internal.JiraHelper;
 import com.shaft.listeners.internal.JunitListenerHelper;
 import com.shaft.listeners.internal.TestNGListenerHelper;
+import com.shaft.performance.internal.LighthouseAuditRunner;
 import com.shaft.properties.internal.PropertiesHelper;
 import com.shaft.tools.internal.security.GoogleTink;
+import com.shaft.tools.internal.support.LazySubsystem;
+import com.shaft.tools.internal.tms.XrayPublishingQueue;
 import com.shaft.tools.io.internal.ExecutionSummaryReport;
 import com.shaft.tools.io.internal.ProjectStructureManager;
 import com.shaft.tools.io.internal.ReportManagerHelper;
@@ -38,6 +47,7 @@ public class JunitListener implements LauncherSessionListener {
 
                 @Override
                 public void executionSkipped(TestIdentifier testIdentifier, String reason) {
+                    ReportManagerHelper.flushDiscreteLogBuffer(true);
                     afterInvocation();
                     onTestSkipped(testIdentifier, reason);
                 }
@@ -50,6 +60,10 @@ public class JunitListener implements LauncherSessionListener {
 
                 @Override
                 public void executionFinished(TestIdentifier testIdentifier, TestExecutionResult testExecutionResult) {
+                    if (testIdentifier.isTest()) {
+                        RequestBlocker.attachBlockedRequests();
+                    }
+                    ReportManagerHelper.flushDiscreteLogBuffer(TestExecutionResult.Status.SUCCESSFUL.equals(testExecutionResult.getStatus()));
                     afterInvocation();
                     if (testIdentifier.isTest()) {
                         switch (testExecutionResult.getStatus()) {
@@ -72,29 +86,30 @@ public class JunitListener implements LauncherSessionListener {
 
     private void engineSetup() {
         ReportManagerHelper.setDiscreteLogging(true);
-        PropertiesHelper.initialize();
+        LazySubsystem.profile("Properties", PropertiesHelper::initialize);
         SHAFT.Properties.reporting.set().disableLogging(true);
         Allure.getLifecycle();
         Reporter.setEscapeHtml(false);
-        ProjectStructureManager.initialize(ProjectStructureManager.RunType.JUNIT);
+        LazySubsystem.profile("Project structure", () -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.JUNIT));
         TestNGListenerHelper.configureJVMProxy();
-        GoogleTink.initialize();
-        GoogleTink.decrypt();
+        LazySubsystem.profile("Google Tink", () -> {
+            GoogleTink.initialize();
+            GoogleTink.decrypt();
+        });
         SHAFT.Properties.reporting.set().disableLogging(false);
 
         ReportManagerHelper.logEngineVersion();
-        ImageProcessingActions.loadOpenCV();
-
         ReportManagerHelper.initializeAllureReportingEnvironment();
-        ReportManagerHelper.initializeExtentReportingEnvironment();
         ReportManagerHelper.cleanExecutionSummaryReportDirectory();
 
         ReportManagerHelper.setDiscreteLogging(SHAFT.Properties.reporting.alwaysLogDiscreetly());
         ReportManagerHelper.setDebugMode(SHAFT.Properties.reporting.debugMode());
+        LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
     }
 
     private void engineTeardown() {
         ReportManagerHelper.setDiscreteLogging(true);
+        RecordManager.awaitPendingEncodings();
         JiraHelper.reportExecutionStatusToJira();
         GoogleTink.encrypt();
         ReportManagerHelper.generateAllureReportArchive();
@@ -102,6 +117,14 @@ public class JunitListener implements LauncherSessionListener {
         ReportManagerHelper.openExtentReportAfterExecution();
         long executionEndTime = System.currentTimeMillis();
         ExecutionSummaryReport.generateExecutionSummaryReport(passedTests.size(), failedTests.size(), skippedTests.size(), executionStartTime, executionEndTime);
+        PageLoadMetricsCollector.logSummary();
+        LocatorHealingCache.logHealedLocators();
+        LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
+        SSHSessionPool.shutdown();
+        LighthouseAuditRunner.shutdownInstance();
+        XrayPublishingQueue.shutdownInstance();
+        BrowserContextManager.shutdown();
+        AppiumSelfManagementHelper.shutdownDevicePool();
         ReportManagerHelper.logEngineClosure();
     }
 
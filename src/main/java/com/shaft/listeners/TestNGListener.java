@@ -1,13 +1,22 @@
 package com.shaft.listeners;
 
+import com.shaft.cli.internal.SSHSessionPool;
 import com.shaft.driver.SHAFT;
-import com.shaft.gui.internal.image.ImageProcessingActions;
+import com.shaft.driver.internal.AppiumSelfManagementHelper;
+import com.shaft.driver.internal.BrowserContextManager;
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
+import com.shaft.gui.element.internal.LocatorHealingCache;
+import com.shaft.gui.browser.internal.RequestBlocker;
+import com.shaft.gui.internal.video.RecordManager;
 import com.shaft.listeners.internal.CucumberHelper;
 import com.shaft.listeners.internal.JiraHelper;
 import com.shaft.listeners.internal.RetryAnalyzer;
 import com.shaft.listeners.internal.TestNGListenerHelper;
+import com.shaft.performance.internal.LighthouseAuditRunner;
 import com.shaft.properties.internal.PropertiesHelper;
 import com.shaft.tools.internal.security.GoogleTink;
+import com.shaft.tools.internal.support.LazySubsystem;
+import com.shaft.tools.internal.tms.XrayPublishingQueue;
 import com.shaft.tools.io.internal.ExecutionSummaryReport;
 import com.shaft.tools.io.internal.IssueReporter;
 import com.shaft.tools.io.internal.ProjectStructureManager;
@@ -58,29 +67,31 @@ public class TestNGListener implements IAlterSuiteListener, IAnnotationTransform
 
     public static void engineSetup(ProjectStructureManager.RunType runType) {
         ReportManagerHelper.setDiscreteLogging(true);
-        PropertiesHelper.initialize();
+        LazySubsystem.profile("Properties", PropertiesHelper::initialize);
         SHAFT.Properties.reporting.set().disableLogging(true);
         Allure.getLifecycle();
         Reporter.setEscapeHtml(false);
-        switch (runType) {
-            case TESTNG -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.TESTNG);
-            case CUCUMBER -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.CUCUMBER);
-            case JUNIT -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.JUNIT);
-        }
+        LazySubsystem.profile("Project structure", () -> {
+            switch (runType) {
+                case TESTNG -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.TESTNG);
+                case CUCUMBER -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.CUCUMBER);
+                case JUNIT -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.JUNIT);
+            }
+        });
         TestNGListenerHelper.configureJVMProxy();
-        GoogleTink.initialize();
-        GoogleTink.decrypt();
+        LazySubsystem.profile("Google Tink", () -> {
+            GoogleTink.initialize();
+            GoogleTink.decrypt();
+        });
         SHAFT.Properties.reporting.set().disableLogging(false);
 
         ReportManagerHelper.logEngineVersion();
-        ImageProcessingActions.loadOpenCV();
-
         ReportManagerHelper.initializeAllureReportingEnvironment();
-        ReportManagerHelper.initializeExtentReportingEnvironment();
         ReportManagerHelper.cleanExecutionSummaryReportDirectory();
 
         ReportManagerHelper.setDiscreteLogging(SHAFT.Properties.reporting.alwaysLogDiscreetly());
         ReportManagerHelper.setDebugMode(SHAFT.Properties.reporting.debugMode());
+        LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
     }
 
     /**
@@ -184,8 +195,12 @@ public class TestNGListener implements IAlterSuiteListener, IAnnotationTransform
     @Override
     public void afterInvocation(IInvokedMethod iInvokedMethod, ITestResult iTestResult, ITestContext iTestContext) {
 //        if (isTestNGRun()) {
+            if (iInvokedMethod.isTestMethod()) {
+                RequestBlocker.attachBlockedRequests();
+            }
             IssueReporter.updateTestStatusInCaseOfVerificationFailure(iTestResult);
             IssueReporter.updateIssuesLog(iTestResult);
+            ReportManagerHelper.flushDiscreteLogBuffer(iTestResult.getStatus() == ITestResult.SUCCESS);
             TestNGListenerHelper.updateConfigurationMethodLogs(iTestResult);
             TestNGListenerHelper.logFinishedTestInformation(iTestResult);
             ReportManagerHelper.setDiscreteLogging(SHAFT.Properties.reporting.alwaysLogDiscreetly());
@@ -199,6 +214,7 @@ public class TestNGListener implements IAlterSuiteListener, IAnnotationTransform
     public void onExecutionFinish() {
 //        if (isTestNGRun()) {
             ReportManagerHelper.setDiscreteLogging(true);
+            RecordManager.awaitPendingEncodings();
             JiraHelper.reportExecutionStatusToJira();
             GoogleTink.encrypt();
             ReportManagerHelper.generateAllureReportArchive();
@@ -206,6 +222,14 @@ public class TestNGListener implements IAlterSuiteListener, IAnnotationTransform
             ReportManagerHelper.openExtentReportAfterExecution();
             long executionEndTime = System.currentTimeMillis();
             ExecutionSummaryReport.generateExecutionSummaryReport(passedTests.size(), failedTests.size(), skippedTests.size(), executionStartTime, executionEndTime);
+            PageLoadMetricsCollector.logSummary();
+            LocatorHealingCache.logHealedLocators();
+            LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
+            SSHSessionPool.shutdown();
+            LighthouseAuditRunner.shutdownInstance();
+            XrayPublishingQueue.shutdownInstance();
+            BrowserContextManager.shutdown();
+            AppiumSelfManagementHelper.shutdownDevicePool();
             ReportManagerHelper.logEngineClosure();
 //        }
     }
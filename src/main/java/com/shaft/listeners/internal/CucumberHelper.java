@@ -1,10 +1,18 @@
 package com.shaft.listeners.internal;
 
+import com.shaft.cli.internal.SSHSessionPool;
 import com.shaft.driver.DriverFactory;
 import com.shaft.driver.SHAFT;
-import com.shaft.gui.internal.image.ImageProcessingActions;
+import com.shaft.driver.internal.AppiumSelfManagementHelper;
+import com.shaft.driver.internal.BrowserContextManager;
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
+import com.shaft.gui.element.internal.LocatorHealingCache;
+import com.shaft.gui.internal.video.RecordManager;
+import com.shaft.performance.internal.LighthouseAuditRunner;
 import com.shaft.properties.internal.PropertiesHelper;
 import com.shaft.tools.internal.security.GoogleTink;
+import com.shaft.tools.internal.support.LazySubsystem;
+import com.shaft.tools.internal.tms.XrayPublishingQueue;
 import com.shaft.tools.io.internal.CheckpointCounter;
 import com.shaft.tools.io.internal.ProjectStructureManager;
 import com.shaft.tools.io.internal.ReportHelper;
@@ -37,25 +45,25 @@ public class CucumberHelper {
     }
 
     public static void shaftSetup() {
-        PropertiesHelper.initialize();
+        LazySubsystem.profile("Properties", PropertiesHelper::initialize);
         SHAFT.Properties.reporting.set().disableLogging(true);
-        ProjectStructureManager.initialize(ProjectStructureManager.RunType.CUCUMBER);
+        LazySubsystem.profile("Project structure", () -> ProjectStructureManager.initialize(ProjectStructureManager.RunType.CUCUMBER));
         TestNGListenerHelper.configureJVMProxy();
-        GoogleTink.initialize();
-        GoogleTink.decrypt();
+        LazySubsystem.profile("Google Tink", () -> {
+            GoogleTink.initialize();
+            GoogleTink.decrypt();
+        });
         SHAFT.Properties.reporting.set().disableLogging(false);
 
         ReportManagerHelper.logEngineVersion();
-        ImageProcessingActions.loadOpenCV();
-
         ReportManagerHelper.initializeAllureReportingEnvironment();
-        ReportManagerHelper.initializeExtentReportingEnvironment();
 
         ReportHelper.attachImportantLinks();
         ReportHelper.attachPropertyFiles();
 
         ReportManagerHelper.setDiscreteLogging(SHAFT.Properties.reporting.alwaysLogDiscreetly());
         ReportManagerHelper.setDebugMode(SHAFT.Properties.reporting.debugMode());
+        LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
         //set cucumber options
         System.setProperty("cucumber.options",
                 " --dry-run " + SHAFT.Properties.cucumber.cucumberExecutionDryRun() +
@@ -82,10 +90,19 @@ public class CucumberHelper {
             ReportHelper.attachIssuesLog();
 
             ReportManagerHelper.setDiscreteLogging(true);
+            RecordManager.awaitPendingEncodings();
             JiraHelper.reportExecutionStatusToJira();
             GoogleTink.encrypt();
             ReportManagerHelper.generateAllureReportArchive();
             ReportManagerHelper.openAllureReportAfterExecution();
+            PageLoadMetricsCollector.logSummary();
+            LocatorHealingCache.logHealedLocators();
+            LazySubsystem.logStartupProfile(SHAFT.Properties.reporting.debugMode());
+            SSHSessionPool.shutdown();
+            LighthouseAuditRunner.shutdownInstance();
+            XrayPublishingQueue.shutdownInstance();
+            BrowserContextManager.shutdown();
+            AppiumSelfManagementHelper.shutdownDevicePool();
             ReportManagerHelper.logEngineClosure();
         }
     }
@@ -1,7 +1,8 @@
 package com.shaft.listeners.internal;
 
+import com.shaft.cli.FileActions;
 import com.shaft.driver.SHAFT;
-import com.shaft.tools.internal.tms.XrayIntegrationHelper;
+import com.shaft.tools.internal.tms.XrayPublishingQueue;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 import io.qameta.allure.*;
 import org.testng.IInvokedMethod;
@@ -11,25 +12,17 @@ import org.testng.ITestResult;
 import java.lang.annotation.Annotation;
 import java.util.List;
 
-import static com.shaft.tools.internal.tms.XrayIntegrationHelper.createIssue;
-import static com.shaft.tools.internal.tms.XrayIntegrationHelper.link2Tickets;
-
 public class JiraHelper {
     public static void reportExecutionStatusToJira() {
-        if (SHAFT.Properties.jira.isEnabled() && SHAFT.Properties.jira.reportTestCasesExecution()) {
-            try {
+        if (SHAFT.Properties.jira.isEnabled()) {
+            // starting the queue also publishes the results that previous executions left in the spool
+            var publishingQueue = XrayPublishingQueue.getInstance();
+            if (SHAFT.Properties.jira.reportTestCasesExecution()) {
                 var reportPath = SHAFT.Properties.jira.reportPath();
-                if (reportPath.contains("testng-results.xml")) {
-                    XrayIntegrationHelper.importTestNGResults(reportPath);
-                } else if (reportPath.contains("cucumber.json")) {
-                    XrayIntegrationHelper.importCucumberResults(reportPath);
+                if (reportPath.contains("testng-results.xml") || reportPath.contains("cucumber.json")) {
+                    publishingQueue.importExecution(FileActions.getInstance().getAbsolutePath(reportPath),
+                            SHAFT.Properties.jira.executionName(), SHAFT.Properties.jira.executionDescription());
                 }
-
-                XrayIntegrationHelper.renameTestExecutionSuit(SHAFT.Properties.jira.executionName(),
-                        SHAFT.Properties.jira.executionDescription());
-
-            } catch (Exception e) {
-                ReportManagerHelper.logDiscrete(e);
             }
         }
     }
@@ -66,10 +59,9 @@ public class JiraHelper {
         if (!iTestResult.isSuccess()
                 && SHAFT.Properties.jira.isEnabled()
                 && SHAFT.Properties.jira.reportBugs()) {
-            String bugID = createIssue(attachments, ReportManagerHelper.getTestMethodName(), logText);
-            if (bugID != null
-                    && iTestNGMethod.isTest() && iTestNGMethod.getConstructorOrMethod().getMethod().isAnnotationPresent(TmsLink.class))
-                link2Tickets(bugID, iTestNGMethod.getConstructorOrMethod().getMethod().getAnnotation(TmsLink.class).value());
+            var linkedTicketID = iTestNGMethod.isTest() && iTestNGMethod.getConstructorOrMethod().getMethod().isAnnotationPresent(TmsLink.class)
+                    ? iTestNGMethod.getConstructorOrMethod().getMethod().getAnnotation(TmsLink.class).value() : null;
+            XrayPublishingQueue.getInstance().reportBug(ReportManagerHelper.getTestMethodName(), logText, attachments, linkedTicketID);
         }
     }
 }
@@ -211,9 +211,12 @@ public class TestNGListenerHelper {
             String attachment;
             if (SHAFT.Properties.visuals.videoParamsScope().equals("TestMethod")) {
                 RecordManager.attachVideoRecording();
-                attachment = RecordManager.getVideoRecordingFilePath();
-                if (!attachment.isEmpty())
-                    attachments.add(attachment);
+                // waits for the recording to be encoded, so it's only done if the recording will be reported as a bug
+                if (!iTestResult.isSuccess() && SHAFT.Properties.jira.isEnabled() && SHAFT.Properties.jira.reportBugs()) {
+                    attachment = RecordManager.getVideoRecordingFilePath();
+                    if (!attachment.isEmpty())
+                        attachments.add(attachment);
+                }
             }
             attachment = ScreenshotManager.attachAnimatedGif();
             if (!attachment.isEmpty())
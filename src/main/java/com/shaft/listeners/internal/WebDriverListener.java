@@ -2,6 +2,7 @@ package com.shaft.listeners.internal;
 
 import com.shaft.driver.SHAFT;
 import com.shaft.driver.internal.DriverFactoryHelper;
+import com.shaft.gui.element.internal.ElementIdentificationWait;
 import com.shaft.gui.internal.image.ScreenshotManager;
 import com.shaft.tools.internal.support.JavaHelper;
 import com.shaft.tools.io.ReportManager;
@@ -10,169 +11,219 @@ import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.FluentWait;
 import org.openqa.selenium.support.ui.WebDriverWait;
 
+import java.lang.ref.WeakReference;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.net.URL;
 import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.function.Function;
 
 import static com.shaft.gui.element.internal.ElementActionsHelper.getExpectedExceptions;
 
-public class WebDriverListener implements org.openqa.selenium.support.events.WebDriverListener, io.appium.java_client.proxy.MethodCallListener {
-    private static final double DEFAULT_ELEMENT_IDENTIFICATION_TIMEOUT = SHAFT.Properties.timeouts.defaultElementIdentificationTimeout();
-    private static final int ELEMENT_IDENTIFICATION_POLLING_DELAY = 100; // milliseconds
-
-    // Global
-
-    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
-//        ReportManager.log(JavaHelper.convertToSentenceCase(method.getName() )+ " action performed.");
-    }
-
-    public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
-        ReportManager.log(JavaHelper.convertToSentenceCase(method.getName()) + " action failed.");
-        ReportManagerHelper.attach(ScreenshotManager.captureScreenShot(DriverFactoryHelper.getDriver(), method.getName(), false));
-        ReportManagerHelper.logDiscrete(e);
-    }
-
-    // WebDriver
-
-    public void afterGet(WebDriver driver, String url) {
-        ReportManager.log("Navigate to \"" + url + "\".");
-    }
-
-    public void afterGetCurrentUrl(String result, WebDriver driver) {
-        ReportManager.log("Current url is: \"" + result + "\".");
-    }
-
-    public void afterGetTitle(WebDriver driver, String result) {
-        ReportManager.log("Current Window Title is: \"" + result + "\".");
-    }
-
-    public void beforeFindElement(WebDriver driver, By locator) {
-        if (SHAFT.Properties.flags.respectBuiltInWaitsInNativeMode()) {
-            try {
-                new FluentWait<>(driver)
-                        .withTimeout(Duration.ofMillis((long) DEFAULT_ELEMENT_IDENTIFICATION_TIMEOUT))
-                        .pollingEvery(Duration.ofMillis(ELEMENT_IDENTIFICATION_POLLING_DELAY))
-                        .ignoreAll(getExpectedExceptions(false))
-                        .until(nestedDriver -> nestedDriver.findElement(locator));
-            } catch (org.openqa.selenium.TimeoutException timeoutException) {
-                // In case the element was not found / not visible and the timeout expired
-                ReportManager.logDiscrete(timeoutException.getMessage() + " || " + timeoutException.getCause().getMessage().substring(0, timeoutException.getCause().getMessage().indexOf("\n")));
-                throw timeoutException;
+/**
+ * Decorates the native WebDriver instance that is exposed to users through {@link SHAFT.GUI.WebDriver#getDriver()}.
+ * <p>
+ * The decorated driver is built once per session and cached by the identity of the native driver, so threads that
+ * alternate between drivers don't rebuild it, and a driver that was quit without going through its decorator doesn't
+ * stay reachable. Intercepted calls are dispatched by method name instead of
+ * the reflective listener lookup done by the EventFiringDecorator, and every event is recorded into a small per-thread
+ * buffer which is only reported according to the configured nativeModeReportingLevel (Steps, Discrete, or FailuresOnly).
+ */
+public class WebDriverListener extends WebDriverDecorator<WebDriver> {
+    private static final int MAXIMUM_NUMBER_OF_RECORDED_EVENTS = 50;
+    private static final ThreadLocal<Deque<String>> recordedEvents = ThreadLocal.withInitial(ArrayDeque::new);
+    // the decorator references the native driver, so it's only held weakly to let the native driver be collected
+    private static final Map<WebDriver, WeakReference<WebDriver>> decoratedDrivers = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private final ReportingLevel reportingLevel;
+    private final boolean respectBuiltInWaitsInNativeMode;
+    private final long elementIdentificationTimeout; // milliseconds
+
+    private WebDriverListener() {
+        super(WebDriver.class);
+        reportingLevel = ReportingLevel.fromString(SHAFT.Properties.reporting.nativeModeReportingLevel());
+        respectBuiltInWaitsInNativeMode = SHAFT.Properties.flags.respectBuiltInWaitsInNativeMode();
+        elementIdentificationTimeout = (long) (SHAFT.Properties.timeouts.defaultElementIdentificationTimeout() * 1000L);
+    }
+
+    /**
+     * Returns the decorated instance of the target driver, the decorator is only built once per driver session.
+     *
+     * @param driver the current native driver instance
+     * @return the decorated driver instance
+     */
+    public static WebDriver getDecoratedDriver(WebDriver driver) {
+        synchronized (decoratedDrivers) {
+            var reference = decoratedDrivers.get(driver);
+            var decoratedDriver = reference == null ? null : reference.get();
+            if (decoratedDriver == null) {
+                decoratedDriver = new WebDriverListener().decorate(driver);
+                decoratedDrivers.put(driver, new WeakReference<>(decoratedDriver));
             }
+            return decoratedDriver;
         }
     }
 
-    public void afterClose(WebDriver driver) {
-            ReportManager.log("Successfully Closed Driver.");
-    }
-
-    public void afterQuit(WebDriver driver) {
-            ReportManager.log("Successfully Quit Driver.");
+    /**
+     * Discards the decorated instance of the target driver, to be called when the driver is quit.
+     *
+     * @param driver the native driver instance that is being quit
+     */
+    public static void discardDecoratedDriver(WebDriver driver) {
+        decoratedDrivers.remove(driver);
     }
 
-    // WebElement
-
-    public void beforeClick(WebElement element) {
-        if (SHAFT.Properties.flags.respectBuiltInWaitsInNativeMode()) {
-            try {
-                (new WebDriverWait(DriverFactoryHelper.getDriver(), Duration.ofMillis((long) DEFAULT_ELEMENT_IDENTIFICATION_TIMEOUT)))
-                        .until(ExpectedConditions.elementToBeClickable(element));
-            } catch (org.openqa.selenium.TimeoutException timeoutException) {
-                ReportManagerHelper.logDiscrete(timeoutException);
-                throw timeoutException;
+    @Override
+    public void beforeCall(Decorated<?> target, Method method, Object[] args) {
+        var original = target.getOriginal();
+        if (original instanceof WebDriver driver) {
+            if ("findElement".equals(method.getName()) && respectBuiltInWaitsInNativeMode) {
+                waitForElementPresence(driver, (By) args[0]);
             }
-        }
-        try {
-            ReportManager.log("Click " + getElementName(element) + ".");
-        } catch (Exception throwable) {
-            ReportManager.log("Click.");
+        } else if (original instanceof WebElement element) {
+            switch (method.getName()) {
+                case "click" -> {
+                    if (respectBuiltInWaitsInNativeMode) {
+                        waitForElementToBeClickable(element);
+                    }
+                    record(elementName -> "Click " + elementName + ".", element);
+                }
+                case "submit" -> record(elementName -> "Submit " + elementName + ".", element);
+                case "clear" -> record(elementName -> "Clear " + elementName + ".", element);
+                case "sendKeys" -> {
+                    var keysToSend = new StringBuilder();
+                    Arrays.stream((CharSequence[]) args[0]).forEach(keysToSend::append);
+                    record(elementName -> "Type \"" + keysToSend + "\" into " + elementName + ".", element);
+                }
+                default -> {
+                    // not reported
+                }
+            }
+        } else if (original instanceof Alert && "sendKeys".equals(method.getName())) {
+            record("Type \"" + args[0] + "\" into Alert.");
         }
     }
 
-    public void beforeSubmit(WebElement element) {
-        try {
-            ReportManager.log("Submit " + getElementName(element) + ".");
-        } catch (Exception throwable) {
-            ReportManager.log("Submit.");
+    @Override
+    public void afterCall(Decorated<?> target, Method method, Object[] args, Object result) {
+        var original = target.getOriginal();
+        if (original instanceof WebDriver driver) {
+            switch (method.getName()) {
+                case "get" -> record("Navigate to \"" + args[0] + "\".");
+                case "getCurrentUrl" -> record("Current url is: \"" + result + "\".");
+                case "getTitle" -> record("Current Window Title is: \"" + result + "\".");
+                case "close" -> record("Successfully Closed Driver.");
+                case "quit" -> {
+                    record("Successfully Quit Driver.");
+                    discardDecoratedDriver(driver);
+                    recordedEvents.remove();
+                }
+                default -> {
+                    // not reported
+                }
+            }
+        } else if (original instanceof WebElement element) {
+            switch (method.getName()) {
+                case "getAttribute" ->
+                        record(elementName -> "Get Attribute \"" + args[0] + "\" from " + elementName + ", value is \"" + result + "\".", element);
+                case "getText" ->
+                        record(elementName -> "Get Text from " + elementName + ", text is \"" + result + "\".", element);
+                default -> {
+                    // not reported
+                }
+            }
+        } else if (original instanceof WebDriver.Navigation) {
+            switch (method.getName()) {
+                case "to" -> record("Navigate to url \"" + args[0] + "\".");
+                case "back" -> record("Navigate back.");
+                case "forward" -> record("Navigate forward.");
+                case "refresh" -> record("Refresh current page.");
+                default -> {
+                    // not reported
+                }
+            }
+        } else if (original instanceof WebDriver.Window && "maximize".equals(method.getName())) {
+            record("Maximize Current Window.");
         }
     }
 
-    public void beforeSendKeys(WebElement element, CharSequence... keysToSend) {
-        var stringBuilder = new StringBuilder();
-        Arrays.stream(keysToSend).toList().forEach(stringBuilder::append);
-        try {
-            ReportManager.log("Type \"" + stringBuilder + "\" into " + getElementName(element) + ".");
-        } catch (Exception throwable) {
-            ReportManager.log("Type \"" + stringBuilder + "\".");
+    @Override
+    public Object onError(Decorated<?> target, Method method, Object[] args, InvocationTargetException e) throws Throwable {
+        var message = JavaHelper.convertToSentenceCase(method.getName()) + " action failed.";
+        if (ReportingLevel.FAILURES_ONLY.equals(reportingLevel)) {
+            // the recorded events are only worth the reporting cost when something goes wrong
+            var events = recordedEvents.get();
+            if (!events.isEmpty()) {
+                ReportManagerHelper.attach("Native WebDriver Events", "Last " + events.size() + " events", String.join(System.lineSeparator(), events));
+                events.clear();
+            }
         }
+        ReportManager.log(message);
+        ReportManagerHelper.attach(ScreenshotManager.captureScreenShot(DriverFactoryHelper.getDriver(), method.getName(), false));
+        ReportManagerHelper.logDiscrete(e);
+        throw e.getTargetException();
     }
 
-    public void beforeClear(WebElement element) {
+    private void waitForElementPresence(WebDriver driver, By locator) {
         try {
-            ReportManager.log("Clear " + getElementName(element) + ".");
-        } catch (Exception throwable) {
-            ReportManager.log("Clear.");
+            ElementIdentificationWait.fluentWait(driver, locator, Duration.ofMillis(elementIdentificationTimeout))
+                    .ignoreAll(getExpectedExceptions(false))
+                    .until(nestedDriver -> nestedDriver.findElement(locator));
+        } catch (org.openqa.selenium.TimeoutException timeoutException) {
+            // In case the element was not found / not visible and the timeout expired
+            ReportManager.logDiscrete(timeoutException.getMessage() + " || " + timeoutException.getCause().getMessage().substring(0, timeoutException.getCause().getMessage().indexOf("\n")));
+            throw timeoutException;
         }
     }
 
-    public void afterGetAttribute(WebElement element, String name, String result) {
+    private void waitForElementToBeClickable(WebElement element) {
         try {
-            ReportManager.log("Get Attribute \"" + name + "\" from " + getElementName(element) + ", value is \"" + result + "\".");
-        } catch (Exception throwable) {
-            ReportManager.log("Get Attribute \"" + name + "\", value is \"" + result + "\".");
+            (new WebDriverWait(DriverFactoryHelper.getDriver(), Duration.ofMillis(elementIdentificationTimeout)))
+                    .until(ExpectedConditions.elementToBeClickable(element));
+        } catch (org.openqa.selenium.TimeoutException timeoutException) {
+            ReportManagerHelper.logDiscrete(timeoutException);
+            throw timeoutException;
         }
     }
 
-    public void afterGetText(WebElement element, String result) {
-        try {
-            ReportManager.log("Get Text from " + getElementName(element) + ", text is \"" + result + "\".");
-        } catch (Exception throwable) {
-            ReportManager.log("Get Text, text is :\"" + result + "\".");
+    private void record(Function<String, String> message, WebElement element) {
+        // fetching the accessible name costs an extra WebDriver call, so it is only done when the event will be reported as a step
+        String elementName;
+        if (ReportingLevel.STEPS.equals(reportingLevel)) {
+            try {
+                elementName = getElementName(element);
+            } catch (Exception throwable) {
+                elementName = "element";
+            }
+        } else {
+            elementName = "element " + element;
         }
+        record(message.apply(elementName));
     }
 
-    // Navigation
-
-    public void afterTo(WebDriver.Navigation navigation, String url) {
-        ReportManager.log("Navigate to url \"" + url + "\".");
-    }
-
-    public void afterTo(WebDriver.Navigation navigation, URL url) {
-        ReportManager.log("Navigate to url \"" + url + "\".");
-    }
-
-    public void afterBack(WebDriver.Navigation navigation) {
-        ReportManager.log("Navigate back.");
-    }
-
-    public void afterForward(WebDriver.Navigation navigation) {
-        ReportManager.log("Navigate forward.");
-    }
-
-    public void afterRefresh(WebDriver.Navigation navigation) {
-        ReportManager.log("Refresh current page.");
-    }
-
-    // Alert
-
-    public void beforeSendKeys(Alert alert, String text) {
-            ReportManager.log("Type \"" + text + "\" into Alert.");
-    }
-
-    // Options
-
-    // Timeouts
-
-    // Window
-
-    public void afterMaximize(WebDriver.Window window) {
-        ReportManager.log("Maximize Current Window.");
+    private void record(String message) {
+        var events = recordedEvents.get();
+        if (events.size() >= MAXIMUM_NUMBER_OF_RECORDED_EVENTS) {
+            events.removeFirst();
+        }
+        events.addLast(message);
+        switch (reportingLevel) {
+            case STEPS -> ReportManager.log(message);
+            case DISCRETE -> ReportManager.logDiscrete(message);
+            case FAILURES_ONLY -> {
+                // only reported in case of failure
+            }
+        }
     }
 
     private String getElementName(WebElement element) {
@@ -183,4 +234,16 @@ public class WebDriverListener implements org.openqa.selenium.support.events.Web
             return "\"" + accessibleName + "\"";
         }
     }
-}
\ No newline at end of file
+
+    private enum ReportingLevel {
+        STEPS, DISCRETE, FAILURES_ONLY;
+
+        private static ReportingLevel fromString(String level) {
+            return switch (level.trim().toLowerCase()) {
+                case "discrete" -> DISCRETE;
+                case "failuresonly" -> FAILURES_ONLY;
+                default -> STEPS;
+            };
+        }
+    }
+}
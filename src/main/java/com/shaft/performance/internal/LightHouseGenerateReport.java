@@ -3,17 +3,27 @@ package com.shaft.performance.internal;
 import com.shaft.cli.FileActions;
 import com.shaft.cli.TerminalActions;
 import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.FailureReporter;
 import com.shaft.tools.io.internal.ReportManagerHelper;
+import com.shaft.validation.Validations;
 import org.apache.commons.lang3.SystemUtils;
 import org.openqa.selenium.WebDriver;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Properties;
 
 public class LightHouseGenerateReport {
+    private static final List<String> BUDGET_METRICS = List.of("performanceScore", "largestContentfulPaint", "totalBlockingTime", "cumulativeLayoutShift");
     final WebDriver driver;
     int PortNum;
     String PageName;
@@ -21,35 +31,127 @@ public class LightHouseGenerateReport {
         this.driver = driver;
         }
 
+    /**
+     * Queues a Lighthouse audit of the current page, the audit runs in the background and its report is attached once
+     * {@link #reportPendingAudits()} is called.
+     */
     public void generateLightHouseReport() {
         PortNum = SHAFT.Properties.performance.port();
         PageName = getPageName();
 
-        String commandToGenerateLightHouseReport;
         if (SHAFT.Properties.performance.isEnabled()) {
             createLighthouseReportFolderInProjectDirectory();
-            writeNodeScriptFileInProjectDirectory();
+            var reportPath = Path.of("lighthouse-reports", PageName + ".html").toAbsolutePath().toString();
+            LighthouseAuditRunner.getInstance().submit(new LighthouseAuditRunner.Job(driver.getCurrentUrl(), PortNum, reportPath));
+            ReportManager.logDiscrete("Queued Lighthouse audit for \"" + driver.getCurrentUrl() + "\".");
+        }
+    }
+
+    /**
+     * Waits for all the audits that were queued by the current thread, and attaches their reports.
+     *
+     * @return the results of these audits
+     */
+    public static List<LighthouseAuditRunner.Result> reportPendingAudits() {
+        if (!LighthouseAuditRunner.hasPendingAudits()) {
+            return List.of();
+        }
+        var results = LighthouseAuditRunner.getInstance().awaitPendingAudits();
+        for (var result : results) {
+            if (!result.isSuccessful()) {
+                SHAFT.Report.report("Failed to generate Lighthouse Report for \"" + result.url() + "\": " + result.error());
+                continue;
+            }
+            SHAFT.Report.report("Lighthouse Report Generated successfully for \"" + result.url() + "\". Performance score: " + result.performanceScore()
+                    + ", LCP: " + result.largestContentfulPaint() + "ms, TBT: " + result.totalBlockingTime() + "ms, CLS: " + result.cumulativeLayoutShift());
+            SHAFT.Report.attach("LightHouse HTML", "Report", FileActions.getInstance().readFile(result.reportPath()));
+            if (SHAFT.Properties.reporting.openLighthouseReportWhileExecution()) {
+                var pageName = Path.of(result.reportPath()).getFileName().toString().replace(".html", "");
+                writeReportPathToFilesInProjectDirectory(pageName);
+                openLighthouseReportWhileExecution();
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Waits for all the audits that were queued by the current thread, attaches their reports, and asserts that every
+     * one of them is within the budget that is defined in the lightHouseExecution.budgetFile properties file.
+     * <p>
+     * The budget file may define performanceScore as a minimum, and largestContentfulPaint, totalBlockingTime, and
+     * cumulativeLayoutShift as maximums. Metrics that are not defined are not asserted.
+     */
+    public static void assertPendingAuditsAreWithinBudget() {
+        // the budget is read first, so that a missing or invalid budget file fails without waiting for the audits
+        var budget = readBudget();
+        assertWithinBudget(budget, reportPendingAudits());
+    }
+
+    /**
+     * Reads the budget file that is configured in the lightHouseExecution.budgetFile property, and fails if it's
+     * missing or if any of its metrics is not a number.
+     *
+     * @return the budget thresholds, by metric name
+     */
+    public static Map<String, Double> readBudget() {
+        var budgetFile = SHAFT.Properties.performance.budgetFile();
+        if (budgetFile.isBlank()) {
+            FailureReporter.fail("No Lighthouse budget file was configured, please set the \"lightHouseExecution.budgetFile\" property.");
+        }
+        var properties = new Properties();
+        try (var budgetReader = Files.newBufferedReader(Path.of(budgetFile))) {
+            properties.load(budgetReader);
+        } catch (IOException ioException) {
+            FailureReporter.fail(LightHouseGenerateReport.class, "Failed to read the Lighthouse budget file \"" + budgetFile + "\".", ioException);
+        }
+        var budget = new LinkedHashMap<String, Double>();
+        for (var metric : BUDGET_METRICS) {
+            var threshold = properties.getProperty(metric);
+            if (threshold == null || threshold.isBlank()) {
+                continue;
+            }
+            try {
+                budget.put(metric, Double.parseDouble(threshold.trim()));
+            } catch (NumberFormatException numberFormatException) {
+                FailureReporter.fail("Invalid Lighthouse budget for \"" + metric + "\" in \"" + budgetFile + "\": \"" + threshold.trim() + "\" is not a number.");
+            }
+        }
+        return budget;
+    }
 
-            if (SystemUtils.IS_OS_WINDOWS) {
-                commandToGenerateLightHouseReport = ("cmd.exe /c node GenerateLHScript.js --url=\"" + driver.getCurrentUrl() + "\" --port=" + PortNum + " --reportName=" + PageName + " ");
-            } else {
-                commandToGenerateLightHouseReport = ("node GenerateLHScript.js --url=\"" + driver.getCurrentUrl() + "\" --port=" + PortNum + " --reportName=" + PageName + " ");
+    /**
+     * Asserts that every one of the audit results is successful and within the budget.
+     *
+     * @param budget  the budget thresholds, by metric name, as returned by {@link #readBudget()}
+     * @param results the audit results to assert
+     */
+    public static void assertWithinBudget(Map<String, Double> budget, List<LighthouseAuditRunner.Result> results) {
+        for (var result : results) {
+            if (!result.isSuccessful()) {
+                FailureReporter.fail("Lighthouse audit failed for \"" + result.url() + "\": " + result.error());
             }
-            commandToGenerateLightHouseReport = commandToGenerateLightHouseReport.replace("&", "N898");
-            //TerminalActions.getInstance(true, true).performTerminalCommand(commandToGenerateLightHouseReport);
-            (new TerminalActions()).performTerminalCommand(commandToGenerateLightHouseReport);
-            writeReportPathToFilesInProjectDirectory(PageName);
-             openLighthouseReportWhileExecution();
-            SHAFT.Report.report("Lighthouse Report Generated successfully");
-            SHAFT.Report.attach("LightHouse HTML", "Report",  FileActions.getInstance().readFile("lighthouse-reports/"+PageName+".html"));
+            assertWithinBudget(budget, "performanceScore", result.performanceScore(), result.url(), true);
+            assertWithinBudget(budget, "largestContentfulPaint", result.largestContentfulPaint(), result.url(), false);
+            assertWithinBudget(budget, "totalBlockingTime", result.totalBlockingTime(), result.url(), false);
+            assertWithinBudget(budget, "cumulativeLayoutShift", result.cumulativeLayoutShift(), result.url(), false);
         }
     }
 
+    private static void assertWithinBudget(Map<String, Double> budget, String metric, double actualValue, String url, boolean isMinimum) {
+        var threshold = budget.get(metric);
+        if (threshold == null) {
+            return;
+        }
+        var numberValidation = Validations.assertThat().number(actualValue);
+        var validation = isMinimum ? numberValidation.isGreaterThanOrEquals(threshold) : numberValidation.isLessThanOrEquals(threshold);
+        validation.withCustomReportMessage("Lighthouse " + metric + " of \"" + url + "\" is within its budget of " + threshold).perform();
+    }
+
     public void createLighthouseReportFolderInProjectDirectory() {
            FileActions.getInstance().createFolder("lighthouse-reports");
     }
 
-    public  void openLighthouseReportWhileExecution() {
+    public static void openLighthouseReportWhileExecution() {
             String commandToOpenLighthouseReport;
             if (SHAFT.Properties.reporting.openLighthouseReportWhileExecution()) {
                 if (SystemUtils.IS_OS_WINDOWS) {
@@ -63,7 +165,7 @@ public class LightHouseGenerateReport {
             }
     }
 
-    public void writeReportPathToFilesInProjectDirectory(String pageName) {
+    public static void writeReportPathToFilesInProjectDirectory(String pageName) {
     List<String> commandsToServeLHReport;
         commandsToServeLHReport = List.of(
                 "import open from 'open';\n" +
@@ -73,81 +175,6 @@ public class LightHouseGenerateReport {
         FileActions.getInstance().writeToFile("", "OpenLHReport.js", commandsToServeLHReport);
     }
 
-    public void writeNodeScriptFileInProjectDirectory() {
-        List<String> commandsToServeLHReport;
-        if (SystemUtils.IS_OS_WINDOWS) {
-            commandsToServeLHReport = List.of("""
-                import puppeteer from 'puppeteer';
-                import fs from 'fs';
-                import lighthouse from 'lighthouse';
-                import optimist from 'optimist';
-                var argv =optimist.argv;
-                import open from 'open';
-                import path from 'path';
-                const __dirname = path.resolve();
-                 import desktopConfig from 'lighthouse/core/config/desktop-config.js';
-                // -------- Configs ----------
-                  var text = argv.url;
-                  var Url = text.replaceAll("N898", "&");
-                  var Port = argv.port;
-                  var LogLevel='info';
-                  var OutputType='html'; // html , json
-                  var ReportName=argv.reportName;
-                //----------------------------
-                (async() => {
-                  // Use Puppeteer to connect to the opened session by port
-                  const browserURL = 'http://127.0.0.1:'+Port;
-                  const browser = await puppeteer.connect({browserURL});
-                  // Lighthouse connect to the opened page and generate the report.
-                  const options = {logLevel:LogLevel ,output: OutputType, port:Port};
-                  const runnerResult = await lighthouse(Url,options,desktopConfig);
-                  // `Genrate the report output as HTML or JSON
-                  const reportHtml = runnerResult.report;
-                  // save the report in node.js path
-                  fs.writeFileSync(__dirname +'/lighthouse-reports/'+ReportName+'.'+OutputType, reportHtml);
-                  // Disconnect from the session
-                  await browser.disconnect();
-                })();"""); }
-        else {
-            commandsToServeLHReport = List.of("""
-                    import puppeteer from 'puppeteer';
-                    import fs from 'fs';
-                    import lighthouse from 'lighthouse';
-                    import optimist from 'optimist';
-                    var argv =optimist.argv;
-                    import open from 'open';
-                    import path from 'path';
-                    const __dirname = path.resolve();
-                    import desktopConfig from 'lighthouse/lighthouse-core/config/desktop-config.js';
-                    // -------- Configs ----------
-                       var text = argv.url;
-                       var Url = text.replaceAll( "N898 ",  "& ");
-                       //Url=Url.replace( "'&' ",  "& ");
-                       var Port = argv.port;
-                       var LogLevel='info';
-                       var OutputType='html'; argv.outputType; // html , json
-                       var ReportName=argv.reportName;
-                    //----------------------------
-                    (async() => {
-                       // Use Puppeteer to connect to the opened session by port
-                       const browserURL = 'http://127.0.0.1:'+Port;
-                       const browser = await puppeteer.connect({browserURL});
-                       // open new tab to Fix Lighthouse issue in MacOS as it run on same tab
-                       const newTab = browser.newPage(browserURL);
-                       //Lighthouse connect to the opened page and generate the report.
-                       const options = {logLevel:LogLevel ,output: OutputType, port:Port};
-                       const runnerResult = await lighthouse(Url,options,desktopConfig);
-                       // `Genrate the report output as HTML or JSON
-                       const reportHtml = runnerResult.report;
-                       // save the report in node.js path
-                       fs.writeFileSync(__dirname +'/lighthouse-reports/'+ReportName+'.'+OutputType, reportHtml);
-                       // Disconnect from the session
-                       await browser.disconnect();
-                     })();""");
-        }
-        FileActions.getInstance().writeToFile("", "GenerateLHScript.js", commandsToServeLHReport);
-    }
-
     public String getPageName(){
         String Pagename;
         String CurrentUrl;
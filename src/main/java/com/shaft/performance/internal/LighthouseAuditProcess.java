@@ -0,0 +1,24 @@
+package com.shaft.performance.internal;
+
+/**
+ * A long-lived process that runs Lighthouse audits one at a time, used by the {@link LighthouseAuditRunner}.
+ * <p>
+ * Each worker of the runner owns a single process and reuses it for all of its audits. A process that fails an audit is
+ * closed and replaced, so implementations don't need to recover from their own failures.
+ */
+public interface LighthouseAuditProcess extends AutoCloseable {
+    /**
+     * Audits a single page and blocks until the audit is complete.
+     *
+     * @param job the page to audit
+     * @return the collected metrics
+     * @throws Exception if the audit could not be completed
+     */
+    LighthouseAuditRunner.Result audit(LighthouseAuditRunner.Job job) throws Exception;
+
+    /**
+     * Stops the process, this must not throw even if the process is already gone.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,177 @@
+package com.shaft.performance.internal;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs Lighthouse audits as queued jobs on a pool of background workers, so that auditing a page doesn't block the test
+ * that requested it.
+ * <p>
+ * Every worker lazily starts its own {@link LighthouseAuditProcess} and reuses it for all of its audits, which avoids
+ * paying the Node.js and Lighthouse startup cost for every page. Audits are tracked per test thread, and
+ * {@link #awaitPendingAudits()} returns the results of all the audits that the current thread requested.
+ * <p>
+ * Audits run in new tabs of the browser under test, so the audits of one browser are run one at a time, in the order
+ * they were requested. Workers only run in parallel when they audit browsers that listen on different remote debugging
+ * ports.
+ */
+public class LighthouseAuditRunner {
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static volatile LighthouseAuditRunner instance;
+    private final Supplier<LighthouseAuditProcess> processFactory;
+    private final ExecutorService executor;
+    private final ThreadLocal<LighthouseAuditProcess> workerProcess = new ThreadLocal<>();
+    private final Set<LighthouseAuditProcess> processes = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<List<CompletableFuture<Result>>> pendingAudits = ThreadLocal.withInitial(ArrayList::new);
+    private final Map<Integer, CompletableFuture<Result>> lastAuditPerPort = new ConcurrentHashMap<>();
+
+    /**
+     * @param processFactory  starts a new audit process, called at most once per worker unless a process fails
+     * @param numberOfWorkers the maximum number of audits that run at the same time
+     */
+    public LighthouseAuditRunner(Supplier<LighthouseAuditProcess> processFactory, int numberOfWorkers) {
+        this.processFactory = processFactory;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, numberOfWorkers), runnable -> {
+            var thread = new Thread(runnable, "SHAFT-Lighthouse-Worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return the shared runner, which uses Node.js worker processes and lightHouseExecution.workers workers
+     */
+    public static LighthouseAuditRunner getInstance() {
+        if (instance == null) {
+            synchronized (LighthouseAuditRunner.class) {
+                if (instance == null) {
+                    instance = new LighthouseAuditRunner(NodeLighthouseAuditProcess::start, SHAFT.Properties.performance.workers());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * @return true if the shared runner has audits that were requested by the current thread and not yet awaited
+     */
+    public static boolean hasPendingAudits() {
+        var runner = instance;
+        return runner != null && !runner.pendingAudits.get().isEmpty();
+    }
+
+    /**
+     * Stops the shared runner and all of its audit processes, if it was started.
+     */
+    public static void shutdownInstance() {
+        synchronized (LighthouseAuditRunner.class) {
+            if (instance != null) {
+                instance.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Queues a page to be audited in the background.
+     *
+     * @param job the page to audit
+     * @return a future that completes with the audit result, failed audits complete with a result that holds the error
+     */
+    public CompletableFuture<Result> submit(Job job) {
+        // every audit of the same browser waits for the previous one, failed audits complete normally
+        var audit = lastAuditPerPort.compute(job.port(), (port, previousAudit) -> previousAudit == null
+                ? CompletableFuture.supplyAsync(() -> run(job), executor)
+                : previousAudit.thenApplyAsync(previousResult -> run(job), executor));
+        audit.whenComplete((result, throwable) -> lastAuditPerPort.remove(job.port(), audit));
+        pendingAudits.get().add(audit);
+        return audit;
+    }
+
+    /**
+     * Blocks until all the audits that were requested by the current thread are complete.
+     *
+     * @return the results of these audits, in the order they were requested
+     */
+    public List<Result> awaitPendingAudits() {
+        var audits = pendingAudits.get();
+        pendingAudits.remove();
+        return audits.stream().map(CompletableFuture::join).toList();
+    }
+
+    /**
+     * Stops all the workers and their audit processes, pending audits are abandoned.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+        processes.forEach(LighthouseAuditProcess::close);
+        processes.clear();
+    }
+
+    private Result run(Job job) {
+        var process = workerProcess.get();
+        try {
+            if (process == null) {
+                process = processFactory.get();
+                workerProcess.set(process);
+                processes.add(process);
+            }
+            return process.audit(job);
+        } catch (Exception exception) {
+            ReportManagerHelper.logDiscrete(exception);
+            if (process != null) {
+                // the process may be in an unknown state, so the next audit on this worker starts a fresh one
+                process.close();
+                processes.remove(process);
+                workerProcess.remove();
+            }
+            return Result.failed(job, exception);
+        }
+    }
+
+    /**
+     * A page to be audited.
+     *
+     * @param url        the URL of the page
+     * @param port       the remote debugging port of the browser that will load the page
+     * @param reportPath the path where the HTML report will be saved
+     */
+    public record Job(String url, int port, String reportPath) {
+    }
+
+    /**
+     * The metrics that were collected by a single audit.
+     *
+     * @param url                    the URL of the audited page
+     * @param reportPath             the path to the HTML report
+     * @param performanceScore       the Lighthouse performance score, from 0 to 100
+     * @param largestContentfulPaint the largest contentful paint in milliseconds
+     * @param totalBlockingTime      the total blocking time in milliseconds
+     * @param cumulativeLayoutShift  the cumulative layout shift score
+     * @param error                  the reason the audit failed, or null if it succeeded
+     */
+    public record Result(String url, String reportPath, double performanceScore, double largestContentfulPaint,
+                         double totalBlockingTime, double cumulativeLayoutShift, String error) {
+        static Result failed(Job job, Throwable throwable) {
+            return new Result(job.url(), job.reportPath(), 0, 0, 0, 0, String.valueOf(throwable.getMessage()));
+        }
+
+        /**
+         * @return true if the audit completed and the metrics are valid
+         */
+        public boolean isSuccessful() {
+            return error == null;
+        }
+    }
+}
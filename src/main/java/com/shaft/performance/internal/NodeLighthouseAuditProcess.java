@@ -0,0 +1,169 @@
+package com.shaft.performance.internal;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.shaft.cli.FileActions;
+import org.apache.commons.lang3.SystemUtils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs Lighthouse audits in a single long-lived Node.js process.
+ * <p>
+ * The worker script imports Lighthouse once, then reads one JSON job per line from its standard input, audits the page
+ * in a new tab of the browser that is listening on the job's remote debugging port, saves the HTML report, and writes
+ * one JSON result per line to its standard output.
+ */
+public class NodeLighthouseAuditProcess implements LighthouseAuditProcess {
+    private static final String WORKER_SCRIPT = "LighthouseAuditWorker.mjs";
+    private static final String WORKER_LOG = "lighthouse-reports/worker.log";
+    private static final Duration AUDIT_TIMEOUT = Duration.ofMinutes(3);
+    private static final AtomicLong jobCounter = new AtomicLong();
+    private static boolean isWorkerScriptWritten = false;
+    private final Process process;
+    private final BufferedWriter input;
+    private final BufferedReader output;
+
+    private NodeLighthouseAuditProcess() throws IOException {
+        writeWorkerScript();
+        var command = SystemUtils.IS_OS_WINDOWS ? List.of("cmd.exe", "/c", "node", WORKER_SCRIPT) : List.of("node", WORKER_SCRIPT);
+        process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.appendTo(new File(WORKER_LOG)))
+                .start();
+        input = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a new Node.js audit process
+     * @throws UncheckedIOException if Node.js could not be started
+     */
+    public static NodeLighthouseAuditProcess start() {
+        try {
+            return new NodeLighthouseAuditProcess();
+        } catch (IOException ioException) {
+            throw new UncheckedIOException("Failed to start the Lighthouse worker, please make sure that Node.js is installed.", ioException);
+        }
+    }
+
+    @Override
+    public LighthouseAuditRunner.Result audit(LighthouseAuditRunner.Job job) throws IOException {
+        var id = jobCounter.incrementAndGet();
+        var request = new JsonObject();
+        request.addProperty("id", id);
+        request.addProperty("url", job.url());
+        request.addProperty("port", job.port());
+        request.addProperty("reportPath", job.reportPath());
+        input.write(request.toString());
+        input.newLine();
+        input.flush();
+
+        // a hanging audit kills the process, which unblocks the read below
+        var watchdog = CompletableFuture.runAsync(process::destroyForcibly,
+                CompletableFuture.delayedExecutor(AUDIT_TIMEOUT.toSeconds(), TimeUnit.SECONDS));
+        try {
+            String line;
+            while ((line = output.readLine()) != null) {
+                var response = parse(line);
+                if (response != null && response.has("id") && response.get("id").getAsLong() == id) {
+                    if (response.has("error")) {
+                        throw new IOException("Lighthouse failed to audit \"" + job.url() + "\": " + response.get("error").getAsString());
+                    }
+                    return new LighthouseAuditRunner.Result(job.url(), job.reportPath(),
+                            response.get("performanceScore").getAsDouble(),
+                            response.get("largestContentfulPaint").getAsDouble(),
+                            response.get("totalBlockingTime").getAsDouble(),
+                            response.get("cumulativeLayoutShift").getAsDouble(),
+                            null);
+                }
+            }
+            throw new IOException("The Lighthouse worker exited while auditing \"" + job.url() + "\", please check \"" + WORKER_LOG + "\".");
+        } finally {
+            watchdog.cancel(false);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            input.close();
+        } catch (IOException ioException) {
+            // the process is already gone
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException interruptedException) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static JsonObject parse(String line) {
+        try {
+            var element = JsonParser.parseString(line);
+            return element.isJsonObject() ? element.getAsJsonObject() : null;
+        } catch (JsonSyntaxException jsonSyntaxException) {
+            // anything else that is printed by Lighthouse or its dependencies
+            return null;
+        }
+    }
+
+    private static synchronized void writeWorkerScript() {
+        if (isWorkerScriptWritten) {
+            return;
+        }
+        FileActions.getInstance().writeToFile("", WORKER_SCRIPT, List.of("""
+                import fs from 'fs';
+                import readline from 'readline';
+                import puppeteer from 'puppeteer';
+                import lighthouse from 'lighthouse';
+                let desktopConfig;
+                try {
+                  desktopConfig = (await import('lighthouse/core/config/desktop-config.js')).default;
+                } catch {
+                  desktopConfig = (await import('lighthouse/lighthouse-core/config/desktop-config.js')).default;
+                }
+                const jobs = readline.createInterface({input: process.stdin});
+                for await (const line of jobs) {
+                  const job = JSON.parse(line);
+                  let browser;
+                  try {
+                    // every audit runs in its own tab, so it never navigates away from the page under test
+                    browser = await puppeteer.connect({browserURL: 'http://127.0.0.1:' + job.port});
+                    const page = await browser.newPage();
+                    const runnerResult = await lighthouse(job.url, {logLevel: 'error', output: 'html', port: job.port}, desktopConfig, page);
+                    await page.close();
+                    fs.writeFileSync(job.reportPath, runnerResult.report);
+                    const audits = runnerResult.lhr.audits;
+                    console.log(JSON.stringify({
+                      id: job.id,
+                      performanceScore: Math.round((runnerResult.lhr.categories.performance.score || 0) * 100),
+                      largestContentfulPaint: audits['largest-contentful-paint'].numericValue,
+                      totalBlockingTime: audits['total-blocking-time'].numericValue,
+                      cumulativeLayoutShift: audits['cumulative-layout-shift'].numericValue
+                    }));
+                  } catch (error) {
+                    console.log(JSON.stringify({id: job.id, error: String(error)}));
+                  } finally {
+                    if (browser) await browser.disconnect();
+                  }
+                }"""));
+        isWorkerScriptWritten = true;
+    }
+}
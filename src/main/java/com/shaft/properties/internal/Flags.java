@@ -49,6 +49,30 @@ public interface Flags extends EngineProperties {
     @DefaultValue("true")
     boolean respectBuiltInWaitsInNativeMode();
 
+    @Key("waitForElementPresenceUsingMutationObserver")
+    @DefaultValue("true")
+    boolean waitForElementPresenceUsingMutationObserver();
+
+    @Key("cacheElementHandles")
+    @DefaultValue("false")
+    boolean cacheElementHandles();
+
+    @Key("evaluateNativeLocatorsLocally")
+    @DefaultValue("false")
+    boolean evaluateNativeLocatorsLocally();
+
+    @Key("reuseSSHSessions")
+    @DefaultValue("true")
+    boolean reuseSSHSessions();
+
+    @Key("cacheDriverResolution")
+    @DefaultValue("true")
+    boolean cacheDriverResolution();
+
+    @Key("resolveDriversOffline")
+    @DefaultValue("false")
+    boolean resolveDriversOffline();
+
     @Key("forceCheckStatusOfRemoteServer")
     @DefaultValue("false")
     boolean forceCheckStatusOfRemoteServer();
@@ -135,6 +159,36 @@ public interface Flags extends EngineProperties {
             return this;
         }
 
+        public SetProperty waitForElementPresenceUsingMutationObserver(boolean value) {
+            setProperty("waitForElementPresenceUsingMutationObserver", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty cacheElementHandles(boolean value) {
+            setProperty("cacheElementHandles", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty evaluateNativeLocatorsLocally(boolean value) {
+            setProperty("evaluateNativeLocatorsLocally", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty reuseSSHSessions(boolean value) {
+            setProperty("reuseSSHSessions", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty cacheDriverResolution(boolean value) {
+            setProperty("cacheDriverResolution", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty resolveDriversOffline(boolean value) {
+            setProperty("resolveDriversOffline", String.valueOf(value));
+            return this;
+        }
+
         public SetProperty clickUsingJavascriptWhenWebDriverClickFails(boolean value) {
             setProperty("clickUsingJavascriptWhenWebDriverClickFails", String.valueOf(value));
             return this;
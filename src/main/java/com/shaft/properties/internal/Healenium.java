@@ -28,6 +28,10 @@ public interface Healenium extends EngineProperties {
     @DefaultValue("false")
     boolean healEnabled();
 
+    @Key("local-healing-cache")
+    @DefaultValue("false")
+    boolean localHealingCache();
+
     @Key("serverHost")
     @DefaultValue("localhost")
     String serverHost();
@@ -60,6 +64,11 @@ public interface Healenium extends EngineProperties {
             return this;
         }
 
+        public SetProperty localHealingCache(boolean value) {
+            setProperty("local-healing-cache", String.valueOf(value));
+            return this;
+        }
+
         public SetProperty serverHost(String value) {
             setProperty("serverHost", value);
             return this;
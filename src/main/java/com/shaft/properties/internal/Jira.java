@@ -68,6 +68,18 @@ public interface Jira extends EngineProperties {
     @DefaultValue("{}")
     String allureLinkCustomPattern();
 
+    @Key("publishing.threads")
+    @DefaultValue("4")
+    int publishingThreads();
+
+    @Key("publishing.timeout")
+    @DefaultValue("60")
+    int publishingTimeout();
+
+    @Key("publishing.spoolFolderPath")
+    @DefaultValue("xray-spool/")
+    String publishingSpoolFolderPath();
+
     default SetProperty set() {
         return new SetProperty();
     }
@@ -138,6 +150,21 @@ public interface Jira extends EngineProperties {
             return this;
         }
 
+        public SetProperty publishingThreads(int value) {
+            setProperty("publishing.threads", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty publishingTimeout(int value) {
+            setProperty("publishing.timeout", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty publishingSpoolFolderPath(String value) {
+            setProperty("publishing.spoolFolderPath", value);
+            return this;
+        }
+
     }
 
 }
@@ -20,6 +20,10 @@ public interface Mobile extends EngineProperties {
     @DefaultValue("31")
     int selfManagedAndroidSDKVersion();
 
+    @Key("selfManagedDevicePoolSize")
+    @DefaultValue("1")
+    int selfManagedDevicePoolSize();
+
     @Key("mobile_platformName")
     @DefaultValue("")
     String platformName();
@@ -80,6 +84,11 @@ public interface Mobile extends EngineProperties {
             return this;
         }
 
+        public SetProperty selfManagedDevicePoolSize(int value) {
+            setProperty("selfManagedDevicePoolSize", String.valueOf(value));
+            return this;
+        }
+
         public SetProperty selfManaged(boolean value) {
             setProperty("selfManaged", String.valueOf(value));
             return this;
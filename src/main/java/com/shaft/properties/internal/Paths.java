@@ -55,6 +55,10 @@ public interface Paths extends EngineProperties {
     @DefaultValue("src/test/resources/META-INF/services/")
     String services();
 
+    @Key("healingCacheFolderPath")
+    @DefaultValue("target/healingCache/")
+    String healingCache();
+
     private static void setProperty(String key, String value) {
         var updatedProps = new java.util.Properties();
         updatedProps.setProperty(key, value);
@@ -119,5 +123,10 @@ public interface Paths extends EngineProperties {
             return this;
         }
 
+        public SetProperty healingCache(String value) {
+            setProperty("healingCacheFolderPath", value);
+            return this;
+        }
+
     }
 }
@@ -28,6 +28,30 @@ public interface Performance extends EngineProperties {
     @DefaultValue("8888")
     int port();
 
+    @Key("lightHouseExecution.workers")
+    @DefaultValue("1")
+    int workers();
+
+    @Key("lightHouseExecution.budgetFile")
+    @DefaultValue("")
+    String budgetFile();
+
+    @Key("pageLoadMetrics.capture")
+    @DefaultValue("false")
+    boolean capturePageLoadMetrics();
+
+    @Key("networkRecording")
+    @DefaultValue("false")
+    boolean recordNetworkTraffic();
+
+    @Key("networkRecording.urlFilter")
+    @DefaultValue("")
+    String networkRecordingUrlFilter();
+
+    @Key("networkRecording.maximumBodySize")
+    @DefaultValue("0")
+    int networkRecordingMaximumBodySize();
+
     default SetProperty set() {
         return new SetProperty();
     }
@@ -43,5 +67,35 @@ public interface Performance extends EngineProperties {
             setProperty("lightHouseExecution.port", String.valueOf(value));
             return this;
         }
+
+        public SetProperty workers(int value) {
+            setProperty("lightHouseExecution.workers", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty budgetFile(String value) {
+            setProperty("lightHouseExecution.budgetFile", value);
+            return this;
+        }
+
+        public SetProperty capturePageLoadMetrics(boolean value) {
+            setProperty("pageLoadMetrics.capture", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty recordNetworkTraffic(boolean value) {
+            setProperty("networkRecording", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty networkRecordingUrlFilter(String value) {
+            setProperty("networkRecording.urlFilter", value);
+            return this;
+        }
+
+        public SetProperty networkRecordingMaximumBodySize(int value) {
+            setProperty("networkRecording.maximumBodySize", String.valueOf(value));
+            return this;
+        }
     }
 }
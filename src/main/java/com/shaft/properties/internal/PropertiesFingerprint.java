@@ -0,0 +1,91 @@
+package com.shaft.properties.internal;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * Calculates content fingerprints for properties folders, used to skip extracting and parsing property files that did
+ * not change since the last run.
+ * <p>
+ * Entries are always hashed in the order of their names, so the same files produce the same fingerprint regardless of
+ * the order in which the file system or the jar lists them.
+ */
+public final class PropertiesFingerprint {
+    private PropertiesFingerprint() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * @param content the content to be hashed
+     * @return the lowercase hexadecimal SHA-256 checksum of the content
+     */
+    public static String of(byte[] content) {
+        return HexFormat.of().formatHex(newDigest().digest(content));
+    }
+
+    /**
+     * Hashes the names and contents of all the files directly under a folder.
+     *
+     * @param folder the target folder
+     * @return the fingerprint of the folder, or an empty string if the folder doesn't exist
+     * @throws IOException if any file could not be read
+     */
+    public static String ofFolder(Path folder) throws IOException {
+        if (!Files.isDirectory(folder)) {
+            return "";
+        }
+        List<Path> files;
+        try (Stream<Path> children = Files.list(folder)) {
+            files = children.filter(Files::isRegularFile)
+                    .filter(file -> file.getFileName().toString().endsWith(".properties"))
+                    .sorted(Comparator.comparing(file -> file.getFileName().toString()))
+                    .toList();
+        }
+        var digest = newDigest();
+        for (var file : files) {
+            digest.update(file.getFileName().toString().getBytes(StandardCharsets.UTF_8));
+            digest.update(Files.readAllBytes(file));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * Hashes the names, sizes, and CRC-32 values of all the files under a folder inside a jar. The values are read from
+     * the central directory of the jar, so none of the entries need to be decompressed.
+     *
+     * @param jarFile     the jar file
+     * @param entryPrefix the name of the folder entry inside the jar, for example "properties/default/"
+     * @return the fingerprint of the folder, or an empty string if the jar has no files under that folder
+     */
+    public static String ofJarFolder(JarFile jarFile, String entryPrefix) {
+        var entries = jarFile.stream()
+                .filter(entry -> !entry.isDirectory() && entry.getName().startsWith(entryPrefix))
+                .sorted(Comparator.comparing(JarEntry::getName))
+                .toList();
+        if (entries.isEmpty()) {
+            return "";
+        }
+        var digest = newDigest();
+        entries.forEach(entry -> digest.update((entry.getName() + ":" + entry.getSize() + ":" + entry.getCrc() + "\n").getBytes(StandardCharsets.UTF_8)));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException noSuchAlgorithmException) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(noSuchAlgorithmException);
+        }
+    }
+}
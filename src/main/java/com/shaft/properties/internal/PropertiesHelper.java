@@ -10,12 +10,19 @@ import org.apache.commons.lang3.SystemUtils;
 import org.openqa.selenium.remote.Browser;
 
 import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Arrays;
 
 public class PropertiesHelper {
     private static final String DEFAULT_PROPERTIES_FOLDER_PATH = "src/main/resources/properties/default";
     private static final String TARGET_PROPERTIES_FOLDER_PATH = DEFAULT_PROPERTIES_FOLDER_PATH.replace("/default", "");
+    private static final String DEFAULT_PROPERTIES_FINGERPRINT_FILE_NAME = ".fingerprint";
 
     public static void initialize() {
         //initialize default properties
@@ -115,11 +122,15 @@ public class PropertiesHelper {
 
         boolean isExternalRun = propertiesFolderPath.contains("file:");
 
-        // always override default properties
-        if (isExternalRun) {
-            FileActions.getInstance().copyFolderFromJar(propertiesFolderPath, DEFAULT_PROPERTIES_FOLDER_PATH);
-        } else {
-            FileActions.getInstance().copyFolder(propertiesFolderPath, DEFAULT_PROPERTIES_FOLDER_PATH);
+        // always override default properties, unless the extracted copy is identical to the embedded one
+        var embeddedDefaultsFingerprint = getEmbeddedDefaultsFingerprint(propertiesFolderPath, isExternalRun);
+        if (!isExtractedDefaultsCopyCurrent(embeddedDefaultsFingerprint)) {
+            if (isExternalRun) {
+                FileActions.getInstance().copyFolderFromJar(propertiesFolderPath, DEFAULT_PROPERTIES_FOLDER_PATH);
+            } else {
+                FileActions.getInstance().copyFolder(propertiesFolderPath, DEFAULT_PROPERTIES_FOLDER_PATH);
+            }
+            saveDefaultsFingerprint(embeddedDefaultsFingerprint);
         }
 
         // override target properties only if they do not exist
@@ -136,6 +147,50 @@ public class PropertiesHelper {
                 });
     }
 
+    private static String getEmbeddedDefaultsFingerprint(String propertiesFolderPath, boolean isExternalRun) {
+        try {
+            if (isExternalRun) {
+                var jarConnection = (JarURLConnection) URI.create(propertiesFolderPath.replace("file:", "jar:file:")).toURL().openConnection();
+                return PropertiesFingerprint.ofJarFolder(jarConnection.getJarFile(), jarConnection.getEntryName());
+            }
+            return PropertiesFingerprint.ofFolder(Path.of(propertiesFolderPath));
+        } catch (Exception exception) {
+            // an unknown fingerprint always triggers a fresh extraction
+            return "";
+        }
+    }
+
+    private static boolean isExtractedDefaultsCopyCurrent(String embeddedDefaultsFingerprint) {
+        var fingerprintFile = Path.of(DEFAULT_PROPERTIES_FOLDER_PATH, DEFAULT_PROPERTIES_FINGERPRINT_FILE_NAME);
+        if (embeddedDefaultsFingerprint.isEmpty() || !Files.isRegularFile(fingerprintFile)) {
+            return false;
+        }
+        try {
+            // the extracted files are hashed as well, so a modified or deleted default file is always restored
+            var savedFingerprints = Files.readAllLines(fingerprintFile);
+            return savedFingerprints.size() == 2
+                    && savedFingerprints.get(0).equals(embeddedDefaultsFingerprint)
+                    && savedFingerprints.get(1).equals(PropertiesFingerprint.ofFolder(Path.of(DEFAULT_PROPERTIES_FOLDER_PATH)));
+        } catch (IOException ioException) {
+            return false;
+        }
+    }
+
+    private static void saveDefaultsFingerprint(String embeddedDefaultsFingerprint) {
+        if (embeddedDefaultsFingerprint.isEmpty()) {
+            return;
+        }
+        try {
+            var fingerprintFile = Path.of(DEFAULT_PROPERTIES_FOLDER_PATH, DEFAULT_PROPERTIES_FINGERPRINT_FILE_NAME);
+            // parallel forks may extract the defaults at the same time, so the file is replaced atomically
+            var temporaryFile = Files.createTempFile(fingerprintFile.getParent(), DEFAULT_PROPERTIES_FINGERPRINT_FILE_NAME, ".tmp");
+            Files.writeString(temporaryFile, embeddedDefaultsFingerprint + "\n" + PropertiesFingerprint.ofFolder(Path.of(DEFAULT_PROPERTIES_FOLDER_PATH)));
+            Files.move(temporaryFile, fingerprintFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ioException) {
+            // the defaults will simply be extracted again on the next run
+        }
+    }
+
     private static void attachPropertyFiles() {
         ReportManager.logDiscrete("Reading properties directory: " + TARGET_PROPERTIES_FOLDER_PATH);
         FileUtils.listFiles(new File(TARGET_PROPERTIES_FOLDER_PATH), new String[]{"properties"},
@@ -7,21 +7,28 @@ import lombok.Getter;
 import org.apache.commons.io.FileUtils;
 import org.openqa.selenium.MutableCapabilities;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Files;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 public final class PropertyFileManager {
 
     @Getter
     private static final String CUSTOM_PROPERTIES_FOLDER_PATH = "src/main/resources/properties";
 
+    // parsed files are keyed by the fingerprint of their content, so unchanged files are only ever parsed once
+    private static final Map<String, Map<String, String>> PARSED_PROPERTY_FILES = new ConcurrentHashMap<>();
+
     private PropertyFileManager() {
         throw new IllegalStateException("Utility class");
     }
@@ -58,7 +65,6 @@ public final class PropertyFileManager {
         if (propertiesFolderPath != null) {
             ReportManager.logDiscrete("Reading properties directory: " + propertiesFolderPath);
             try {
-                java.util.Properties properties = new java.util.Properties();
                 if (propertiesFolderPath.contains(".jar")) {
                     // unpacks default properties to target folder
                     URL url = URI.create(propertiesFolderPath.substring(0, propertiesFolderPath.indexOf("!"))).toURL();
@@ -66,16 +72,17 @@ public final class PropertyFileManager {
                     propertiesFolderPath = "target/resources/properties/default/";
                 }
                 // reading regular files
-                Collection<File> propertiesFilesList;
                 if (FileActions.getInstance().doesFileExist(propertiesFolderPath)) {
-                    propertiesFilesList = FileUtils.listFiles(new File(propertiesFolderPath), new String[]{"properties"},
+                    Collection<File> propertiesFilesList = FileUtils.listFiles(new File(propertiesFolderPath), new String[]{"properties"},
                             false);
-                    File propertyFile;
-                    for (int i = 0; i < propertiesFilesList.size(); i++) {
-                        propertyFile = (File) (propertiesFilesList.toArray())[i];
+                    Map<String, String> mergedProperties = new LinkedHashMap<>();
+                    for (File propertyFile : propertiesFilesList) {
                         ReportManager.logDiscrete("Loading properties file: " + propertyFile);
-                        loadPropertiesFileIntoSystemProperties(properties, propertyFile);
+                        // the first file to define a property wins, same as when each file was loaded on its own
+                        parsePropertiesFile(propertyFile).forEach(mergedProperties::putIfAbsent);
                     }
+                    // system properties always override the values from the properties files
+                    mergedProperties.forEach(System.getProperties()::putIfAbsent);
                 } else {
                     ReportManager.logDiscrete(
                             "The desired propertiesFolderPath directory doesn't exist. ["
@@ -87,16 +94,23 @@ public final class PropertyFileManager {
         }
     }
 
-    private static void loadPropertiesFileIntoSystemProperties(java.util.Properties properties, File propertyFile) {
+    private static Map<String, String> parsePropertiesFile(File propertyFile) {
         try {
-            properties.load(new FileInputStream(propertyFile));
-            // load properties from the properties file
-            properties.putAll(System.getProperties());
-            // override properties file with system properties
-            System.getProperties().putAll(properties);
-            // reset system properties
+            var content = Files.readAllBytes(propertyFile.toPath());
+            return PARSED_PROPERTY_FILES.computeIfAbsent(PropertiesFingerprint.of(content), fingerprint -> {
+                var properties = new java.util.Properties();
+                try {
+                    properties.load(new ByteArrayInputStream(content));
+                } catch (IOException e) {
+                    ReportManagerHelper.logDiscrete(e);
+                }
+                Map<String, String> parsedProperties = new LinkedHashMap<>();
+                properties.forEach((key, value) -> parsedProperties.put(String.valueOf(key), String.valueOf(value)));
+                return Collections.unmodifiableMap(parsedProperties);
+            });
         } catch (IOException e) {
             ReportManagerHelper.logDiscrete(e);
+            return Map.of();
         }
     }
 
@@ -73,6 +73,14 @@ public interface Reporting extends EngineProperties {
     @DefaultValue("false")
     boolean openExtentReportAfterExecution();
 
+    @Key("nativeModeReportingLevel")
+    @DefaultValue("Steps")
+    String nativeModeReportingLevel();
+
+    @Key("discreteLogBufferSize")
+    @DefaultValue("0")
+    int discreteLogBufferSize();
+
     @Key("disableLogging")
     @DefaultValue("true")
     boolean disableLogging();
@@ -143,6 +151,16 @@ public interface Reporting extends EngineProperties {
             return this;
         }
 
+        public SetProperty nativeModeReportingLevel(String value) {
+            setProperty("nativeModeReportingLevel", value);
+            return this;
+        }
+
+        public SetProperty discreteLogBufferSize(int value) {
+            setProperty("discreteLogBufferSize", String.valueOf(value));
+            return this;
+        }
+
         public SetProperty disableLogging(boolean value) {
             setProperty("disableLogging", String.valueOf(value));
             return this;
@@ -60,6 +60,18 @@ public interface Timeouts extends EngineProperties {
     @DefaultValue("30")
     int dockerCommandTimeout();
 
+    @Key("sshSessionIdleTimeout")
+    @DefaultValue("60")
+    int sshSessionIdleTimeout();
+
+    @Key("driverResolutionCacheTimeout")
+    @DefaultValue("86400")
+    int driverResolutionCacheTimeout();
+
+    @Key("pageSourceSnapshotTimeout")
+    @DefaultValue("5")
+    int pageSourceSnapshotTimeout();
+
     @Key("databaseLoginTimeout")
     @DefaultValue("30")
     int databaseLoginTimeout();
@@ -148,6 +160,21 @@ public interface Timeouts extends EngineProperties {
             return this;
         }
 
+        public SetProperty sshSessionIdleTimeout(int value) {
+            setProperty("sshSessionIdleTimeout", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty driverResolutionCacheTimeout(int value) {
+            setProperty("driverResolutionCacheTimeout", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty pageSourceSnapshotTimeout(int value) {
+            setProperty("pageSourceSnapshotTimeout", String.valueOf(value));
+            return this;
+        }
+
         public SetProperty databaseLoginTimeout(int value) {
             setProperty("databaseLoginTimeout", String.valueOf(value));
             return this;
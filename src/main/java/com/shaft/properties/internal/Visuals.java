@@ -68,6 +68,10 @@ public interface Visuals extends EngineProperties {
     @DefaultValue("DriverSession")
     String videoParamsScope();
 
+    @Key("videoParams_encodingPreset")
+    @DefaultValue("Default")
+    String videoParamsEncodingPreset();
+
     @Key("whenToTakePageSourceSnapshot")
     @DefaultValue("Never")
     String whenToTakePageSourceSnapshot();
@@ -143,6 +147,11 @@ public interface Visuals extends EngineProperties {
             return this;
         }
 
+        public SetProperty videoParamsEncodingPreset(String value) {
+            setProperty("videoParams_encodingPreset", value);
+            return this;
+        }
+
         public SetProperty whenToTakePageSourceSnapshot(String value) {
             setProperty("whenToTakePageSourceSnapshot", value);
             return this;
@@ -64,6 +64,26 @@ public interface Web extends EngineProperties {
     @DefaultValue("1080")
     int browserWindowHeight();
 
+    @Key("blockedRequests.profiles")
+    @DefaultValue("")
+    String blockedRequestsProfiles();
+
+    @Key("blockedRequests.urlPatterns")
+    @DefaultValue("")
+    String blockedRequestsUrlPatterns();
+
+    @Key("throttling.network")
+    @DefaultValue("None")
+    String throttlingNetwork();
+
+    @Key("throttling.cpuRate")
+    @DefaultValue("1")
+    int throttlingCpuRate();
+
+    @Key("sharedBrowserProcess")
+    @DefaultValue("false")
+    boolean sharedBrowserProcess();
+
     default SetProperty set() {
         return new SetProperty();
     }
@@ -131,6 +151,31 @@ public interface Web extends EngineProperties {
             setProperty("browserWindowHeight", String.valueOf(value));
             return this;
         }
+
+        public SetProperty blockedRequestsProfiles(String value) {
+            setProperty("blockedRequests.profiles", value);
+            return this;
+        }
+
+        public SetProperty blockedRequestsUrlPatterns(String value) {
+            setProperty("blockedRequests.urlPatterns", value);
+            return this;
+        }
+
+        public SetProperty throttlingNetwork(String value) {
+            setProperty("throttling.network", value);
+            return this;
+        }
+
+        public SetProperty throttlingCpuRate(int value) {
+            setProperty("throttling.cpuRate", String.valueOf(value));
+            return this;
+        }
+
+        public SetProperty sharedBrowserProcess(boolean value) {
+            setProperty("sharedBrowserProcess", String.valueOf(value));
+            return this;
+        }
     }
 
 }
@@ -1,14 +1,19 @@
 package com.shaft.tools.internal.security;
 
 import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.BinaryKeysetReader;
+import com.google.crypto.tink.BinaryKeysetWriter;
 import com.google.crypto.tink.CleartextKeysetHandle;
 import com.google.crypto.tink.JsonKeysetReader;
+import com.google.crypto.tink.KeyTemplates;
 import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.StreamingAead;
 import com.google.crypto.tink.daead.DeterministicAeadConfig;
 import com.google.crypto.tink.hybrid.HybridConfig;
 import com.google.crypto.tink.integration.awskms.AwsKmsClient;
 import com.google.crypto.tink.integration.gcpkms.GcpKmsClient;
 import com.google.crypto.tink.prf.PrfConfig;
+import com.google.crypto.tink.proto.OutputPrefixType;
 import com.google.crypto.tink.signature.SignatureConfig;
 import com.google.crypto.tink.streamingaead.StreamingAeadConfig;
 import com.shaft.cli.FileActions;
@@ -17,11 +22,17 @@ import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.FailureReporter;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.security.GeneralSecurityException;
-import java.util.Optional;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.*;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 public class GoogleTink {
     static final byte[] aad = "This is SHAFT_Engine".getBytes();
@@ -31,7 +42,20 @@ public class GoogleTink {
     static String credentialPath;
     static KeysetHandle keysetHandle;
     static Aead aead;
-
+    // encrypted files start with this header, followed by a byte that identifies how they were encrypted
+    private static final byte[] HEADER = "SHAFT_TINK".getBytes(StandardCharsets.US_ASCII);
+    private static final byte PLAINTEXT_FORMAT = 0;
+    private static final byte AEAD_FORMAT = 1;
+    private static final byte STREAMING_AEAD_FORMAT = 2;
+    // larger files are encrypted using streaming AEAD, so they are never fully loaded into memory
+    private static final long STREAMING_THRESHOLD = 1024 * 1024;
+    private static final String STREAMING_KEY_TEMPLATE = "AES256_GCM_HKDF_1MB";
+    private static final int MAXIMUM_WRAPPED_KEYSET_LENGTH = 64 * 1024;
+    private static final int MAXIMUM_PARALLEL_FILES = Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), 8));
+    private static final Path MANIFEST_FILE = Path.of("target", "tink-manifest.properties");
+    private static final String ENCRYPTED_STATE = "encrypted";
+    private static final String PLAINTEXT_STATE = "plaintext";
+    private static Properties manifest;
 
     public static void initialize() {
         keysetFilename = SHAFT.Properties.tinkey.keysetFilename();
@@ -65,7 +89,8 @@ public class GoogleTink {
             SHAFT.Properties.reporting.set().disableLogging(true);
             var filesList = FileActions.getInstance().getFileList(relativeFolderPath);
             SHAFT.Properties.reporting.set().disableLogging(false);
-            filesList.forEach(file -> encrypt(file.getParent() + File.separator, file.getName()));
+            processInParallel(filesList, file -> internal_encryptFile(file.toPath()));
+            saveManifest();
             ReportManager.log("Successfully Encrypted the test data directory \"" + relativeFolderPath + "\".");
         }
     }
@@ -77,35 +102,266 @@ public class GoogleTink {
             SHAFT.Properties.reporting.set().disableLogging(true);
             var filesList = FileActions.getInstance().getFileList(relativeFolderPath);
             SHAFT.Properties.reporting.set().disableLogging(false);
-            filesList.forEach(file -> decrypt(file.getParent() + File.separator, file.getName()));
+            processInParallel(filesList, file -> internal_decryptFile(file.toPath()));
+            saveManifest();
             ReportManager.log("Successfully Decrypted the test data directory \"" + relativeFolderPath + "\".");
         }
     }
 
     public static void encrypt(String relativeFolderPath, String targetFileName) {
-        byte[] ciphertext;
+        internal_encryptFile(Path.of(relativeFolderPath, targetFileName));
+        saveManifest();
+    }
+
+    public static void decrypt(String relativeFolderPath, String targetFileName) {
+        internal_decryptFile(Path.of(relativeFolderPath, targetFileName));
+        saveManifest();
+    }
+
+    private static void internal_encryptFile(Path file) {
+        var targetFileName = file.getFileName().toString();
         try {
-            ciphertext = internal_encrypt(FileActions.getInstance().readFileAsByteArray(relativeFolderPath + targetFileName));
-            FileActions.getInstance().writeToFile(relativeFolderPath, targetFileName, ciphertext);
+            if (isUnchangedSince(file, ENCRYPTED_STATE) || readFormat(file) != PLAINTEXT_FORMAT) {
+                ReportManager.logDiscrete("Skipped Encrypting \"" + targetFileName + "\" because it is already encrypted.");
+                return;
+            }
+            String checksum;
+            if (Files.size(file) > STREAMING_THRESHOLD) {
+                checksum = replaceContent(file, (input, output) -> internal_encryptStream(input, output));
+            } else {
+                var ciphertext = internal_encrypt(Files.readAllBytes(file));
+                checksum = replaceContent(file, (input, output) -> {
+                    output.write(HEADER);
+                    output.write(AEAD_FORMAT);
+                    output.write(ciphertext);
+                });
+            }
+            updateManifest(file, ENCRYPTED_STATE, checksum);
             ReportManager.log("Successfully Encrypted \"" + targetFileName + "\".");
-        } catch (GeneralSecurityException e) {
+        } catch (GeneralSecurityException | IOException e) {
             FailureReporter.fail(GoogleTink.class, "Failed to Encrypt \"" + targetFileName + "\".", e);
         }
     }
 
-    public static void decrypt(String relativeFolderPath, String targetFileName) {
-        byte[] decryptedText;
+    private static void internal_decryptFile(Path file) {
+        var targetFileName = file.getFileName().toString();
         try {
-            decryptedText = internal_decrypt(FileActions.getInstance().readFileAsByteArray(relativeFolderPath + targetFileName));
-            FileActions.getInstance().writeToFile(relativeFolderPath, targetFileName, decryptedText);
+            if (isUnchangedSince(file, PLAINTEXT_STATE)) {
+                ReportManager.logDiscrete("Skipped Decrypting \"" + targetFileName + "\" because it is already in plaintext.");
+                return;
+            }
+            String checksum = switch (readFormat(file)) {
+                case STREAMING_AEAD_FORMAT -> replaceContent(file, (input, output) -> {
+                    input.skipNBytes(HEADER.length + 1);
+                    internal_decryptStream(input, output);
+                });
+                case AEAD_FORMAT -> {
+                    var ciphertext = Files.readAllBytes(file);
+                    var plaintext = internal_decrypt(Arrays.copyOfRange(ciphertext, HEADER.length + 1, ciphertext.length));
+                    yield replaceContent(file, (input, output) -> output.write(plaintext));
+                }
+                default -> {
+                    if (!mayBeLegacyCiphertext(file)) {
+                        ReportManager.logDiscrete("Skipped Decrypting \"" + targetFileName + "\" because it is already in plaintext.");
+                        updateManifest(file, PLAINTEXT_STATE, null);
+                        return;
+                    }
+                    // files that were encrypted before the header was introduced
+                    var plaintext = internal_decrypt(Files.readAllBytes(file));
+                    yield replaceContent(file, (input, output) -> output.write(plaintext));
+                }
+            };
+            updateManifest(file, PLAINTEXT_STATE, checksum);
             ReportManager.log("Successfully Decrypted \"" + targetFileName + "\".");
-        } catch (GeneralSecurityException e) {
+        } catch (GeneralSecurityException | IOException e) {
             ReportManagerHelper.logDiscrete(e);
             ReportManager.log("Failed to Decrypt \"" + targetFileName + "\". It may already be in plaintext.");
 //            FailureReporter.fail(GoogleTink.class,"Failed to Decrypt \""+targetFileName+"\".", e);
         }
     }
 
+    private static void processInParallel(Collection<File> files, Consumer<File> action) {
+        var executor = Executors.newFixedThreadPool(MAXIMUM_PARALLEL_FILES);
+        try {
+            var tasks = files.stream().map(file -> executor.submit(() -> action.accept(file))).toList();
+            for (var task : tasks) {
+                try {
+                    task.get();
+                } catch (ExecutionException executionException) {
+                    // failures are reported by the worker, so they are rethrown as they are
+                    if (executionException.getCause() instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    } else if (executionException.getCause() instanceof Error error) {
+                        throw error;
+                    }
+                    throw new IllegalStateException(executionException.getCause());
+                }
+            }
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static byte readFormat(Path file) throws IOException {
+        var header = new byte[HEADER.length + 1];
+        try (var input = Files.newInputStream(file)) {
+            if (input.readNBytes(header, 0, header.length) == header.length
+                    && Arrays.equals(header, 0, HEADER.length, HEADER, 0, HEADER.length)
+                    && (header[HEADER.length] == AEAD_FORMAT || header[HEADER.length] == STREAMING_AEAD_FORMAT)) {
+                return header[HEADER.length];
+            }
+        }
+        return PLAINTEXT_FORMAT;
+    }
+
+    /**
+     * Files that were encrypted before the header was introduced start with the Tink output prefix of one of the keys in
+     * the keyset, unless the keyset has raw keys, so other files can be skipped without being loaded into memory.
+     */
+    private static boolean mayBeLegacyCiphertext(Path file) throws IOException {
+        var prefix = new byte[5];
+        try (var input = Files.newInputStream(file)) {
+            if (input.readNBytes(prefix, 0, prefix.length) < prefix.length) {
+                return false;
+            }
+        }
+        var keyId = ByteBuffer.wrap(prefix, 1, 4).getInt();
+        return keysetHandle.getKeysetInfo().getKeyInfoList().stream()
+                .anyMatch(keyInfo -> keyInfo.getOutputPrefixType() == OutputPrefixType.RAW
+                        || ((prefix[0] == 0 || prefix[0] == 1) && keyInfo.getKeyId() == keyId));
+    }
+
+    /**
+     * Writes the new content to a temporary file next to the target file and then replaces it, so that the target file
+     * is never left partially written.
+     *
+     * @return the SHA-256 checksum of the new content
+     */
+    private static String replaceContent(Path file, ContentWriter contentWriter) throws IOException, GeneralSecurityException {
+        var temporaryFile = Files.createTempFile(file.toAbsolutePath().getParent(), "." + file.getFileName(), ".tmp");
+        try {
+            var digest = newDigest();
+            try (var input = new BufferedInputStream(Files.newInputStream(file));
+                 var output = new BufferedOutputStream(new DigestOutputStream(Files.newOutputStream(temporaryFile), digest))) {
+                contentWriter.write(input, output);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            return HexFormat.of().formatHex(digest.digest());
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static void internal_encryptStream(InputStream plaintext, OutputStream output) throws IOException, GeneralSecurityException {
+        // every file gets its own streaming key, which is wrapped by the configured keyset and stored before the ciphertext
+        var streamingKeysetHandle = KeysetHandle.generateNew(KeyTemplates.get(STREAMING_KEY_TEMPLATE));
+        var wrappedKeyset = new ByteArrayOutputStream();
+        streamingKeysetHandle.writeWithAssociatedData(BinaryKeysetWriter.withOutputStream(wrappedKeyset), aead, aad);
+        var dataOutput = new DataOutputStream(output);
+        dataOutput.write(HEADER);
+        dataOutput.write(STREAMING_AEAD_FORMAT);
+        dataOutput.writeInt(wrappedKeyset.size());
+        wrappedKeyset.writeTo(dataOutput);
+        try (var ciphertext = streamingKeysetHandle.getPrimitive(StreamingAead.class).newEncryptingStream(dataOutput, aad)) {
+            plaintext.transferTo(ciphertext);
+        }
+    }
+
+    private static void internal_decryptStream(InputStream ciphertext, OutputStream output) throws IOException, GeneralSecurityException {
+        var dataInput = new DataInputStream(ciphertext);
+        var wrappedKeysetLength = dataInput.readInt();
+        if (wrappedKeysetLength <= 0 || wrappedKeysetLength > MAXIMUM_WRAPPED_KEYSET_LENGTH) {
+            throw new GeneralSecurityException("Invalid streaming key length \"" + wrappedKeysetLength + "\".");
+        }
+        var wrappedKeyset = new byte[wrappedKeysetLength];
+        dataInput.readFully(wrappedKeyset);
+        var streamingKeysetHandle = KeysetHandle.readWithAssociatedData(BinaryKeysetReader.withBytes(wrappedKeyset), aead, aad);
+        try (var plaintext = streamingKeysetHandle.getPrimitive(StreamingAead.class).newDecryptingStream(dataInput, aad)) {
+            plaintext.transferTo(output);
+        }
+    }
+
+    /**
+     * Checks the manifest to find out if the file is still in the given state since it was last encrypted or decrypted.
+     * The size and modification time are compared first, and the checksum is only calculated if the modification time
+     * changed, which happens when files are checked out again.
+     */
+    private static boolean isUnchangedSince(Path file, String state) throws IOException {
+        var entry = getManifest().getProperty(getManifestKey(file));
+        if (entry == null) {
+            return false;
+        }
+        var values = entry.split(",", -1);
+        if (values.length != 4 || !state.equals(values[0]) || Long.parseLong(values[1]) != Files.size(file)) {
+            return false;
+        }
+        var lastModified = Files.getLastModifiedTime(file).toMillis();
+        if (Long.parseLong(values[2]) == lastModified) {
+            return true;
+        }
+        if (values[3].isEmpty()) {
+            return false;
+        }
+        var digest = newDigest();
+        try (var input = new DigestInputStream(Files.newInputStream(file), digest)) {
+            input.transferTo(OutputStream.nullOutputStream());
+        }
+        var isUnchanged = values[3].equals(HexFormat.of().formatHex(digest.digest()));
+        if (isUnchanged) {
+            getManifest().setProperty(getManifestKey(file), String.join(",", state, values[1], String.valueOf(lastModified), values[3]));
+        }
+        return isUnchanged;
+    }
+
+    private static void updateManifest(Path file, String state, String checksum) {
+        try {
+            getManifest().setProperty(getManifestKey(file), String.join(",", state, String.valueOf(Files.size(file)),
+                    String.valueOf(Files.getLastModifiedTime(file).toMillis()), checksum == null ? "" : checksum));
+        } catch (IOException e) {
+            ReportManagerHelper.logDiscrete(e);
+        }
+    }
+
+    private static String getManifestKey(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    private static synchronized Properties getManifest() {
+        if (manifest == null) {
+            manifest = new Properties();
+            if (Files.exists(MANIFEST_FILE)) {
+                try (var input = Files.newInputStream(MANIFEST_FILE)) {
+                    manifest.load(input);
+                } catch (IOException | IllegalArgumentException e) {
+                    // a corrupted manifest only means that the files will be checked again
+                    ReportManagerHelper.logDiscrete(e);
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static synchronized void saveManifest() {
+        try {
+            Files.createDirectories(MANIFEST_FILE.getParent());
+            try (var output = Files.newOutputStream(MANIFEST_FILE)) {
+                getManifest().store(output, "SHAFT test data encryption manifest");
+            }
+        } catch (IOException e) {
+            ReportManagerHelper.logDiscrete(e);
+        }
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     private static KeysetHandle internal_loadKeyset() throws IOException, GeneralSecurityException {
         if (!"".equals(masterKeyUri)) {
             // working with encrypted keyset https://developers.google.com/tink/generate-encrypted-keyset
@@ -125,4 +381,9 @@ public class GoogleTink {
         //  AEAD (Authenticated Encryption with Associated Data)
         return aead.decrypt(ciphertext, aad);
     }
+
+    @FunctionalInterface
+    private interface ContentWriter {
+        void write(InputStream input, OutputStream output) throws IOException, GeneralSecurityException;
+    }
 }
@@ -286,6 +286,172 @@ public enum JavaScriptHelper {
                 window.lastelem.style.backgroundColor = currentbackgroundColorStyle;
                 return getXPath(window.lastelem);
             }"""),
+    ELEMENT_WAIT_FOR_PRESENCE("""
+            var strategy = arguments[0];
+            var selector = arguments[1];
+            var timeout = arguments[2];
+            var callback = arguments[arguments.length - 1];
+
+            function isPresent() {
+                if (strategy === 'xpath') {
+                    return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue !== null;
+                }
+                return document.querySelector(selector) !== null;
+            }
+
+            if (isPresent()) {
+                callback(true);
+                return;
+            }
+
+            /** resolve as soon as a matching node is attached, or once the timeout expires
+             **/
+            var done = false;
+            var timer = null;
+            var observer = new MutationObserver(function () {
+                if (!done && isPresent()) {
+                    finish(true);
+                }
+            });
+
+            function finish(result) {
+                done = true;
+                observer.disconnect();
+                clearTimeout(timer);
+                callback(result);
+            }
+
+            observer.observe(document.documentElement || document, {childList: true, subtree: true, attributes: true});
+            timer = setTimeout(function () {
+                if (!done) {
+                    finish(isPresent());
+                }
+            }, timeout);"""),
+    PAGE_LOAD_METRICS("""
+            var callback = arguments[arguments.length - 1];
+            var entries = {'largest-contentful-paint': [], 'layout-shift': [], 'first-input': [], 'event': []};
+            var supportedEntryTypes = (window.PerformanceObserver && PerformanceObserver.supportedEntryTypes) || [];
+
+            /** buffered observers replay the entries that were recorded before this script was injected
+             **/
+            var observers = Object.keys(entries).filter(function (type) {
+                return supportedEntryTypes.indexOf(type) !== -1;
+            }).map(function (type) {
+                var observer = new PerformanceObserver(function (list) {
+                    entries[type] = entries[type].concat(list.getEntries());
+                });
+                var options = {type: type, buffered: true};
+                if (type === 'event') {
+                    options.durationThreshold = 16;
+                }
+                observer.observe(options);
+                return observer;
+            });
+
+            function lastValue(list, valueOf) {
+                return list.length > 0 ? valueOf(list[list.length - 1]) : null;
+            }
+
+            setTimeout(function () {
+                observers.forEach(function (observer) {
+                    observer.disconnect();
+                });
+                var navigation = performance.getEntriesByType('navigation')[0];
+                var firstContentfulPaint = performance.getEntriesByName('first-contentful-paint')[0];
+
+                /** cumulative layout shift is the largest burst of unexpected shifts, as defined by web.dev/cls
+                 **/
+                var cumulativeLayoutShift = 0, sessionValue = 0, sessionStart = 0, sessionEnd = 0;
+                entries['layout-shift'].forEach(function (shift) {
+                    if (shift.hadRecentInput) {
+                        return;
+                    }
+                    if (sessionValue > 0 && shift.startTime - sessionEnd < 1000 && shift.startTime - sessionStart < 5000) {
+                        sessionValue += shift.value;
+                    } else {
+                        sessionValue = shift.value;
+                        sessionStart = shift.startTime;
+                    }
+                    sessionEnd = shift.startTime;
+                    cumulativeLayoutShift = Math.max(cumulativeLayoutShift, sessionValue);
+                });
+
+                var interactionToNextPaint = null;
+                entries['event'].forEach(function (event) {
+                    if (event.interactionId) {
+                        interactionToNextPaint = Math.max(interactionToNextPaint || 0, event.duration);
+                    }
+                });
+
+                var resources = performance.getEntriesByType('resource');
+                callback({
+                    url: location.href,
+                    timeToFirstByte: navigation ? navigation.responseStart : null,
+                    firstContentfulPaint: firstContentfulPaint ? firstContentfulPaint.startTime : null,
+                    domContentLoaded: navigation ? navigation.domContentLoadedEventEnd : null,
+                    pageLoadTime: navigation && navigation.loadEventEnd > 0 ? navigation.loadEventEnd : null,
+                    largestContentfulPaint: lastValue(entries['largest-contentful-paint'], function (entry) {
+                        return entry.startTime;
+                    }),
+                    cumulativeLayoutShift: supportedEntryTypes.indexOf('layout-shift') !== -1 ? cumulativeLayoutShift : null,
+                    firstInputDelay: lastValue(entries['first-input'], function (entry) {
+                        return entry.processingStart - entry.startTime;
+                    }),
+                    interactionToNextPaint: interactionToNextPaint,
+                    resourceCount: resources.length,
+                    resourceBytes: resources.reduce(function (total, resource) {
+                        return total + (resource.transferSize || 0);
+                    }, 0)
+                });
+            }, 50);"""),
+    TABLE_GET_ROWS_DATA("""
+            /** expands a list of rows into a grid while honoring colspan and rowspan
+             **/
+            function toGrid(rows) {
+                var grid = [];
+                for (var r = 0; r < rows.length; r++) {
+                    grid[r] = grid[r] || [];
+                    var column = 0;
+                    var cells = rows[r].cells;
+                    for (var c = 0; c < cells.length; c++) {
+                        while (grid[r][column] !== undefined) {
+                            column++;
+                        }
+                        var text = (cells[c].innerText || cells[c].textContent || '').trim();
+                        var colspan = Math.max(cells[c].colSpan || 1, 1);
+                        var rowspan = Math.max(cells[c].rowSpan || 1, 1);
+                        for (var y = 0; y < rowspan && r + y < rows.length; y++) {
+                            grid[r + y] = grid[r + y] || [];
+                            for (var x = 0; x < colspan; x++) {
+                                grid[r + y][column + x] = text;
+                            }
+                        }
+                        column += colspan;
+                    }
+                }
+                for (var i = 0; i < grid.length; i++) {
+                    for (var j = 0; j < grid[i].length; j++) {
+                        if (grid[i][j] === undefined) grid[i][j] = '';
+                    }
+                }
+                return grid;
+            }
+
+            var table = arguments[0];
+            var headerRows = table.tHead ? Array.prototype.slice.call(table.tHead.rows) : [];
+            var bodyRows = [];
+            for (var b = 0; b < table.tBodies.length; b++) {
+                bodyRows = bodyRows.concat(Array.prototype.slice.call(table.tBodies[b].rows));
+            }
+            if (headerRows.length === 0 && bodyRows.length > 0 && bodyRows[0].querySelector('th')) {
+                headerRows = [bodyRows.shift()];
+            }
+
+            /** the last header row wins for every column, grouped headers are carried down through colspan
+             **/
+            var headerGrid = toGrid(headerRows);
+            var headers = headerGrid.length > 0 ? headerGrid[headerGrid.length - 1] : [];
+            return {headers: headers, rows: toGrid(bodyRows)};"""),
     ELEMENT_SCROLL_TO_VIEWPORT(
             "(function(){'use strict';var api;api=function(x,y){var elm,scrollX,scrollY,newX,newY;scrollX=window.pageXOffset;scrollY=window.pageYOffset;window.scrollTo(x,y);newX=x-window.pageXOffset;newY=y-window.pageYOffset;elm=this.elementFromPoint(newX,newY);window.scrollTo(scrollX,scrollY);return elm;};this.document.elementFromAbsolutePoint=api;}).call(this);return document.elementFromAbsolutePoint(arguments[0], arguments[1]);"),
     WINDOW_FOCUS("window.focus();"), WINDOW_RESET_LOCATION("window.moveTo(0,0);"),
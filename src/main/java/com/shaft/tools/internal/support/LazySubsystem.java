@@ -0,0 +1,109 @@
+package com.shaft.tools.internal.support;
+
+import com.shaft.tools.io.ReportManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An engine subsystem that is initialized on its first real use instead of during engine setup.
+ * <p>
+ * Initialization happens exactly once even when the subsystem is first used by several threads at the same time, and
+ * the subsystems it depends on are always initialized before it. Every initialization, along with the eager setup
+ * steps that are timed using {@link #profile(String, Runnable)}, is recorded in a startup profile that is logged in
+ * debug mode.
+ */
+public final class LazySubsystem {
+    private static final Map<String, Long> startupProfile = new ConcurrentHashMap<>();
+    private static final ConcurrentLinkedQueue<String> initializationOrder = new ConcurrentLinkedQueue<>();
+
+    private final String name;
+    private final Runnable initializer;
+    private final List<LazySubsystem> dependencies;
+    private volatile boolean initialized = false;
+
+    private LazySubsystem(String name, Runnable initializer, List<LazySubsystem> dependencies) {
+        this.name = name;
+        this.initializer = initializer;
+        this.dependencies = dependencies;
+    }
+
+    /**
+     * @param name         the name of the subsystem as it should appear in the startup profile
+     * @param initializer  the action that initializes the subsystem, it is executed at most once
+     * @param dependencies the subsystems that must be initialized before this one
+     * @return a new subsystem that is not yet initialized
+     */
+    public static LazySubsystem of(String name, Runnable initializer, LazySubsystem... dependencies) {
+        return new LazySubsystem(name, initializer, List.of(dependencies));
+    }
+
+    /**
+     * Runs an eager setup step and records how long it took in the startup profile.
+     *
+     * @param name the name of the setup step as it should appear in the startup profile
+     * @param step the setup step
+     */
+    public static void profile(String name, Runnable step) {
+        var startTime = System.nanoTime();
+        try {
+            step.run();
+        } finally {
+            record(name, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Logs every subsystem and setup step that was initialized so far, in order, along with how long each one took.
+     * Nothing is logged unless debug mode is enabled.
+     *
+     * @param debugMode the current value of the debug mode flag
+     */
+    public static void logStartupProfile(boolean debugMode) {
+        if (!debugMode || initializationOrder.isEmpty()) {
+            return;
+        }
+        var profile = new StringBuilder("Engine startup profile:");
+        long totalTime = 0;
+        for (var entry : initializationOrder) {
+            var duration = startupProfile.get(entry);
+            totalTime += duration;
+            profile.append(System.lineSeparator()).append(String.format("%6d ms  %s", duration, entry));
+        }
+        profile.append(System.lineSeparator()).append(String.format("%6d ms  %s", totalTime, "Total"));
+        ReportManager.logDiscrete(profile.toString());
+    }
+
+    private static void record(String name, long durationInNanoseconds) {
+        if (startupProfile.putIfAbsent(name, TimeUnit.NANOSECONDS.toMillis(durationInNanoseconds)) == null) {
+            initializationOrder.add(name);
+        }
+    }
+
+    /**
+     * Initializes the dependencies of this subsystem and then the subsystem itself, unless it was already initialized.
+     * A failed initialization is not attempted again, the initializer is expected to handle its own failures.
+     */
+    public void initialize() {
+        if (initialized) {
+            return;
+        }
+        dependencies.forEach(LazySubsystem::initialize);
+        synchronized (this) {
+            if (!initialized) {
+                try {
+                    profile(name, initializer);
+                } finally {
+                    initialized = true;
+                }
+            }
+        }
+    }
+
+    public boolean isInitialized() {
+        return initialized;
+    }
+}
@@ -9,12 +9,12 @@ import com.shaft.driver.SHAFT;
 import com.shaft.tools.io.ReportManager;
 import com.shaft.tools.io.internal.ReportManagerHelper;
 import io.restassured.config.RestAssuredConfig;
-import io.restassured.config.SSLConfig;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.specification.RequestSpecification;
 
 import java.io.File;
+import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
@@ -22,24 +22,38 @@ import java.util.Base64;
 import java.util.Calendar;
 import java.util.List;
 
-import static io.restassured.RestAssured.*;
+import static io.restassured.RestAssured.config;
+import static io.restassured.RestAssured.given;
 import static io.restassured.config.EncoderConfig.encoderConfig;
 
 
 public class XrayIntegrationHelper {
 
-    private static final String authType = SHAFT.Properties.jira.authType() + " ";
-    private static final String _ProjectKey = SHAFT.Properties.jira.projectKey();
-    private static String _JiraAuthorization = SHAFT.Properties.jira.authorization();
     private static String _TestExecutionID = null;
 
-    private static void setup() {
-        baseURI = SHAFT.Properties.jira.url();
+    private static RequestSpecification request() {
+        return request(config());
+    }
+
+    private static RequestSpecification request(RestAssuredConfig restAssuredConfig) {
+        var authType = SHAFT.Properties.jira.authType() + " ";
+        var authorization = SHAFT.Properties.jira.authorization();
         if (authType.equals("Basic "))
-            _JiraAuthorization = Base64.getEncoder().encodeToString(_JiraAuthorization.getBytes());
-        given()
-                .config(RestAssuredConfig.config().sslConfig(SSLConfig.sslConfig().allowAllHostnames()))
-                .relaxedHTTPSValidation();
+            authorization = Base64.getEncoder().encodeToString(authorization.getBytes());
+        return given()
+                .config(restAssuredConfig)
+                .relaxedHTTPSValidation()
+                .baseUri(SHAFT.Properties.jira.url())
+                .header("Authorization", authType + authorization);
+    }
+
+    private static Response verify(Response response, int... expectedStatusCodes) {
+        for (int expectedStatusCode : expectedStatusCodes) {
+            if (response.statusCode() == expectedStatusCode) {
+                return response;
+            }
+        }
+        throw new RequestFailedException(response.statusCode(), response.asString());
     }
 
     /**
@@ -48,26 +62,11 @@ public class XrayIntegrationHelper {
      * @param filepath > the report relative path
      */
     public static void importCucumberResults(String filepath) throws Exception {
-
-        setup();
         String reportPath = FileActions.getInstance().getAbsolutePath(filepath);
         ReportManager.logDiscrete("uploading file: " + reportPath);
         ReportManager.logDiscrete("Length: " + new File(reportPath).length());
-
-        Gson gson = new GsonBuilder().setPrettyPrinting().create();
-        JsonElement je = JsonParser.parseString(new String(Files.readAllBytes(Paths.get(reportPath))));
-        String prettyJsonString = gson.toJson(je);
-
         try {
-            Response response = given()
-                    .contentType("application/json")
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .body(prettyJsonString)
-                    .expect().statusCode(200)
-                    .when()
-                    .post("/rest/raven/1.0/import/execution/cucumber").then().extract().response();
-
-            _TestExecutionID = response.jsonPath().get("testExecIssue.key").toString();
+            _TestExecutionID = postCucumberResults(reportPath);
             ReportManager.logDiscrete("ExecutionID: " + _TestExecutionID);
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
@@ -81,25 +80,9 @@ public class XrayIntegrationHelper {
      * @param executionDescription > The execution Description mentioned in JiraXray.properties
      */
     public static void renameTestExecutionSuit(String executionName, String executionDescription) {
-
         if (_TestExecutionID == null) return;
-        setup();
-        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
-
-        String body = "{\r\n    \"fields\" : {\r\n       " +
-                " \"summary\": " +
-                "\"Execution results " + executionName + " | " + sdf.format(Calendar.getInstance().getTime()) + "\",\r\n        " +
-                "\"description\": " +
-                "\"" + executionDescription + "\"\r\n    }\r\n}";
         try {
-            given()
-                    .contentType("application/json")
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .body(body)
-                    .expect().statusCode(204)
-                    .when()
-                    .put("/rest/api/2/issue/" + _TestExecutionID).then().extract().response();
-
+            putExecutionSummary(_TestExecutionID, executionName, executionDescription);
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
         }
@@ -111,23 +94,12 @@ public class XrayIntegrationHelper {
      * @param filepath > the report relative path
      */
     public static void importTestNGResults(String filepath) {
-        setup();
         String reportPath = FileActions.getInstance().getAbsolutePath(filepath);
         ReportManager.logDiscrete("uploading file: " + reportPath);
         ReportManager.logDiscrete("Length: " + new File(reportPath).length());
         try {
-            Response response = given()
-                    .config(config().encoderConfig(encoderConfig().encodeContentTypeAs("multipart/form-data", ContentType.TEXT)))
-                    .relaxedHTTPSValidation().contentType("multipart/form-data")
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .multiPart(new File(reportPath))
-                    .when()
-                    .post("/rest/raven/1.0/import/execution/testng?projectKey=" + _ProjectKey)
-                    .then().log().all().extract().response();
-
-            _TestExecutionID = response.jsonPath().get("testExecIssue.key").toString();
+            _TestExecutionID = postTestNGResults(reportPath);
             ReportManager.logDiscrete("ExecutionID: " + _TestExecutionID);
-
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
         }
@@ -142,48 +114,11 @@ public class XrayIntegrationHelper {
      * @return String bugID
      */
     public static String createIssue(List<String> files, String testCaseName, String description) {
-        setup();
         try {
-            String issueRequestBody = """
-                    {
-                      "fields":{
-                        "project":{
-                          "key":"${PROJECT_KEY}"
-                        },
-                        "summary":"${BUG_SUMMERY}",
-                        "description":"Reported By SHAFT Automation Engine|| Execution Log ${BUG_DESCRIPTION}",
-                        "assignee":{
-                          "name":"${ASSIGNEE_NAME}"
-                        },
-                        "issuetype":{
-                          "name":"Bug"
-                        }
-                      }
-                    }
-                    """;
-            Response response = given()
-                    .config(config().encoderConfig(encoderConfig().encodeContentTypeAs("application/json", ContentType.JSON)))
-                    .relaxedHTTPSValidation().contentType("application/json")
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .when()
-                    .body(issueRequestBody
-                            .replace("${PROJECT_KEY}", _ProjectKey)
-                            .replace("${BUG_SUMMERY}", "Execution Bug: " + testCaseName)
-                            .replace("${BUG_DESCRIPTION}", description
-                                    .replaceAll("[^a-zA-Z0-9.?=*$%@#&!<>|\\{\\}\\[\\]\"' /]", "")
-                                    .replaceAll("\"", "'")
-                            )
-                            .replace("${ASSIGNEE_NAME}", SHAFT.Properties.jira.assignee())
-                    )
-                    .post("/rest/api/2/issue")
-                    .then().log().all().extract().response();
-
-            String id = response.jsonPath().get("key").toString();
-
+            String id = postIssue(testCaseName, description, null);
             ReportManager.logDiscrete("BugID: " + id);
             attachFilesToIssue(id, files);
             return id;
-
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
             return null;
@@ -196,21 +131,10 @@ public class XrayIntegrationHelper {
      * @param issueID -> the created bug ID.
      * @param files   -> list of the failed testcase attachments.
      */
-    @SuppressWarnings("SpellCheckingInspection")
     public static void attachFilesToIssue(String issueID, List<String> files) {
-        setup();
         try {
-            RequestSpecification req = given()
-                    .relaxedHTTPSValidation().contentType(ContentType.MULTIPART)
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .header("X-Atlassian-Token", "nocheck");
-            for (String file : files)
-                req.multiPart("file", new File(file));
-
             ReportManager.logDiscrete("BugID: " + issueID);
-            req.when()
-                    .post("/rest/api/2/issue/" + issueID + "/attachments")
-                    .then().log().all().extract().response();
+            postAttachments(issueID, files);
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
         }
@@ -223,36 +147,169 @@ public class XrayIntegrationHelper {
      * @param linkedToID -> the one to be linked to.
      */
     public static void link2Tickets(String ticketID, String linkedToID) {
-        setup();
         try {
-            String linkJIRATicketRequestBody = """
-                    {
-                       "update":{
-                         "issuelinks":[
-                           {
-                             "add":{
-                               "type":{
-                                 "name":"Relates"
-                               },
-                               "outwardIssue":{
-                                 "key":"${TICKET_ID}"
-                               }
-                             }
-                           }
-                         ]
-                       }
-                     }
-                    """;
-            given()
-                    .config(config().encoderConfig(encoderConfig().encodeContentTypeAs("application/json", ContentType.JSON)))
-                    .relaxedHTTPSValidation().contentType("application/json")
-                    .header("Authorization", authType + _JiraAuthorization)
-                    .when()
-                    .body(linkJIRATicketRequestBody.replace("${TICKET_ID}", linkedToID))
-                    .put("/rest/api/2/issue/" + ticketID)
-                    .then().log().all().extract().response();
+            putIssueLink(ticketID, linkedToID);
         } catch (Exception e) {
             ReportManagerHelper.logDiscrete(e);
         }
     }
-}
\ No newline at end of file
+
+    /*
+    Requests that throw a RequestFailedException instead of logging their failures, so that they can be retried
+     */
+
+    static String postCucumberResults(String reportPath) throws IOException {
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        JsonElement je = JsonParser.parseString(new String(Files.readAllBytes(Paths.get(reportPath))));
+        String prettyJsonString = gson.toJson(je);
+
+        Response response = request()
+                .contentType("application/json")
+                .body(prettyJsonString)
+                .when()
+                .post("/rest/raven/1.0/import/execution/cucumber").then().extract().response();
+        return verify(response, 200).jsonPath().get("testExecIssue.key").toString();
+    }
+
+    static String postTestNGResults(String reportPath) {
+        Response response = request(config().encoderConfig(encoderConfig().encodeContentTypeAs("multipart/form-data", ContentType.TEXT)))
+                .contentType("multipart/form-data")
+                .multiPart(new File(reportPath))
+                .when()
+                .post("/rest/raven/1.0/import/execution/testng?projectKey=" + SHAFT.Properties.jira.projectKey())
+                .then().log().ifError().extract().response();
+        return verify(response, 200).jsonPath().get("testExecIssue.key").toString();
+    }
+
+    static void putExecutionSummary(String executionID, String executionName, String executionDescription) {
+        SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+
+        String body = "{\r\n    \"fields\" : {\r\n       " +
+                " \"summary\": " +
+                "\"Execution results " + executionName + " | " + sdf.format(Calendar.getInstance().getTime()) + "\",\r\n        " +
+                "\"description\": " +
+                "\"" + executionDescription + "\"\r\n    }\r\n}";
+        Response response = request()
+                .contentType("application/json")
+                .body(body)
+                .when()
+                .put("/rest/api/2/issue/" + executionID).then().extract().response();
+        verify(response, 204);
+    }
+
+    /**
+     * @param label the idempotency label of the issue, or null if the issue doesn't need one
+     */
+    static String postIssue(String testCaseName, String description, String label) {
+        String issueRequestBody = """
+                {
+                  "fields":{
+                    "project":{
+                      "key":"${PROJECT_KEY}"
+                    },
+                    "summary":"${BUG_SUMMERY}",
+                    "description":"Reported By SHAFT Automation Engine|| Execution Log ${BUG_DESCRIPTION}",
+                    "assignee":{
+                      "name":"${ASSIGNEE_NAME}"
+                    },${LABELS}
+                    "issuetype":{
+                      "name":"Bug"
+                    }
+                  }
+                }
+                """;
+        Response response = request(config().encoderConfig(encoderConfig().encodeContentTypeAs("application/json", ContentType.JSON)))
+                .contentType("application/json")
+                .when()
+                .body(issueRequestBody
+                        .replace("${PROJECT_KEY}", SHAFT.Properties.jira.projectKey())
+                        .replace("${BUG_SUMMERY}", "Execution Bug: " + testCaseName)
+                        .replace("${BUG_DESCRIPTION}", description
+                                .replaceAll("[^a-zA-Z0-9.?=*$%@#&!<>|\\{\\}\\[\\]\"' /]", "")
+                                .replaceAll("\"", "'")
+                        )
+                        .replace("${ASSIGNEE_NAME}", SHAFT.Properties.jira.assignee())
+                        .replace("${LABELS}", label == null ? "" : "\n    \"labels\":[\"" + label + "\"],")
+                )
+                .post("/rest/api/2/issue")
+                .then().log().ifError().extract().response();
+        return verify(response, 200, 201).jsonPath().get("key").toString();
+    }
+
+    /**
+     * @return the key of the first issue that has this label, or null if there is none
+     */
+    static String findIssueByLabel(String label) {
+        Response response = request()
+                .queryParam("jql", "labels = \"" + label + "\"")
+                .queryParam("fields", "key")
+                .queryParam("maxResults", 1)
+                .when()
+                .get("/rest/api/2/search")
+                .then().log().ifError().extract().response();
+        List<String> keys = verify(response, 200).jsonPath().getList("issues.key");
+        return keys == null || keys.isEmpty() ? null : keys.get(0);
+    }
+
+    @SuppressWarnings("SpellCheckingInspection")
+    static void postAttachments(String issueID, List<String> files) {
+        RequestSpecification req = request()
+                .contentType(ContentType.MULTIPART)
+                .header("X-Atlassian-Token", "nocheck");
+        for (String file : files)
+            req.multiPart("file", new File(file));
+
+        Response response = req.when()
+                .post("/rest/api/2/issue/" + issueID + "/attachments")
+                .then().log().ifError().extract().response();
+        verify(response, 200);
+    }
+
+    static void putIssueLink(String ticketID, String linkedToID) {
+        String linkJIRATicketRequestBody = """
+                {
+                   "update":{
+                     "issuelinks":[
+                       {
+                         "add":{
+                           "type":{
+                             "name":"Relates"
+                           },
+                           "outwardIssue":{
+                             "key":"${TICKET_ID}"
+                           }
+                         }
+                       }
+                     ]
+                   }
+                 }
+                """;
+        Response response = request(config().encoderConfig(encoderConfig().encodeContentTypeAs("application/json", ContentType.JSON)))
+                .contentType("application/json")
+                .when()
+                .body(linkJIRATicketRequestBody.replace("${TICKET_ID}", linkedToID))
+                .put("/rest/api/2/issue/" + ticketID)
+                .then().log().ifError().extract().response();
+        verify(response, 200, 204);
+    }
+
+    /**
+     * Thrown when Jira or Xray respond with an unexpected status code.
+     */
+    static class RequestFailedException extends RuntimeException {
+        private final int statusCode;
+
+        RequestFailedException(int statusCode, String responseBody) {
+            super("Unexpected status code \"" + statusCode + "\": " + responseBody);
+            this.statusCode = statusCode;
+        }
+
+        /**
+         * @return true if the same request may succeed later, which is the case for timeouts, throttling and server
+         * errors. Authentication and authorization failures won't succeed until the credentials are fixed
+         */
+        boolean isRetryable() {
+            return statusCode == 408 || statusCode == 429 || statusCode >= 500;
+        }
+    }
+}
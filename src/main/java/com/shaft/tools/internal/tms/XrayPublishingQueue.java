@@ -0,0 +1,512 @@
+package com.shaft.tools.internal.tms;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Publishes bugs and execution results to Jira and Xray on a pool of background workers, so that a slow or unavailable
+ * Jira server doesn't block the tests or the end of the execution.
+ * <p>
+ * Every job is saved to the spool folder before it is published, and saved again after each of its steps, so that a
+ * job that was interrupted resumes from its last completed step. Failed requests are retried with an exponential
+ * back-off when the failure is temporary, and jobs that are still pending when the queue shuts down stay in the spool
+ * and are published by the next execution. Jobs that Jira rejects are moved to the failed folder of the spool.
+ * <p>
+ * Every job is claimed by locking its lock file before it's published, so that executions which share the spool
+ * folder, such as parallel forks, never publish the same job twice. The locks are released by the operating system if
+ * an execution is killed, so the jobs it was publishing are picked up by the next execution. The attachments of bugs
+ * and the execution reports are copied to the spool, because the folders they are generated in are cleaned by the next
+ * execution. The default spool folder is outside the target folder for the same reason, so that it survives a clean
+ * build, and should be ignored by version control.
+ * <p>
+ * Bugs are labeled with their job id, which is used to find a bug that was created by an interrupted attempt instead of
+ * creating it again, and their attachments are uploaded in batches.
+ */
+public class XrayPublishingQueue {
+    private static final int MAX_ATTEMPTS = 8;
+    private static final long BASE_RETRY_DELAY_MILLIS = 1000;
+    private static final long MAX_RETRY_DELAY_MILLIS = 30_000;
+    private static final int MAX_FILES_PER_BATCH = 10;
+    private static final long MAX_BYTES_PER_BATCH = 20L * 1024 * 1024;
+    private static final String LABEL_PREFIX = "shaft-";
+    private static final String JOB_FILE_EXTENSION = ".json";
+    private static final String LOCK_FILE_EXTENSION = ".lock";
+    private static final String ATTACHMENTS_FOLDER_SUFFIX = "-attachments";
+    private static final String FAILED_FOLDER_NAME = "failed";
+    private static final AtomicInteger threadCounter = new AtomicInteger();
+    private static final Gson gson = new Gson();
+    private static volatile XrayPublishingQueue instance;
+    private final Path spoolFolder;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Set<String> pendingJobs = ConcurrentHashMap.newKeySet();
+    private final Map<String, FileLock> claimedJobs = new ConcurrentHashMap<>();
+
+    /**
+     * @param spoolFolder     the folder where pending jobs are saved, jobs that are already in it are published again
+     * @param numberOfWorkers the maximum number of jobs that are published at the same time
+     */
+    public XrayPublishingQueue(Path spoolFolder, int numberOfWorkers) {
+        this.spoolFolder = spoolFolder;
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, numberOfWorkers), runnable -> {
+            var thread = new Thread(runnable, "SHAFT-Xray-Worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        resubmitSpooledJobs();
+    }
+
+    /**
+     * @return the shared queue, which uses the jira publishing properties
+     */
+    public static XrayPublishingQueue getInstance() {
+        if (instance == null) {
+            synchronized (XrayPublishingQueue.class) {
+                if (instance == null) {
+                    instance = new XrayPublishingQueue(Path.of(SHAFT.Properties.jira.publishingSpoolFolderPath()),
+                            SHAFT.Properties.jira.publishingThreads());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Waits up to publishing.timeout seconds for the shared queue to publish its pending jobs, then stops it, if it
+     * was started.
+     */
+    public static void shutdownInstance() {
+        synchronized (XrayPublishingQueue.class) {
+            if (instance != null) {
+                instance.shutdown(Duration.ofSeconds(SHAFT.Properties.jira.publishingTimeout()));
+                instance = null;
+            }
+        }
+    }
+
+    /**
+     * Queues a bug to be created for a failed test. The attachments are copied to the spool, so that they can be
+     * uploaded by the next execution if this one doesn't get to it.
+     *
+     * @param testCaseName   the failed test case name
+     * @param description    the failed test case execution log
+     * @param files          the failed test case attachments
+     * @param linkedTicketID the ticket that the bug should be linked to, or null
+     */
+    public void reportBug(String testCaseName, String description, List<String> files, String linkedTicketID) {
+        var job = new Job(JobType.BUG);
+        job.testCaseName = testCaseName;
+        job.description = description;
+        job.files = spoolAttachments(job, files == null ? List.of() : files);
+        job.linkedTicketID = linkedTicketID;
+        enqueue(job);
+    }
+
+    /**
+     * Queues an execution report to be imported to Xray and renamed. The report is copied to the spool, so that it
+     * can be overwritten by the next execution.
+     *
+     * @param reportPath           the path to the testng-results.xml or cucumber.json report
+     * @param executionName        the name of the test execution
+     * @param executionDescription the description of the test execution
+     */
+    public void importExecution(String reportPath, String executionName, String executionDescription) {
+        var job = new Job(JobType.EXECUTION);
+        var report = Path.of(reportPath);
+        var spooledReport = spoolFolder.resolve(job.id + "-" + report.getFileName());
+        try {
+            Files.createDirectories(spoolFolder);
+            Files.copy(report, spooledReport, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+            return;
+        }
+        job.reportPath = spooledReport.toString();
+        job.executionName = executionName;
+        job.executionDescription = executionDescription;
+        enqueue(job);
+    }
+
+    /**
+     * Waits for the pending jobs to be published, then stops the workers. Jobs that are still pending stay in the
+     * spool.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if all the jobs were published, or moved to the failed folder, before the timeout
+     */
+    public boolean shutdown(Duration timeout) {
+        var deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (pendingJobs) {
+            long remaining;
+            while (!pendingJobs.isEmpty() && (remaining = deadline - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(pendingJobs, remaining);
+                } catch (InterruptedException interruptedException) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        executor.shutdownNow();
+        // the jobs that are still pending are left for the next execution
+        claimedJobs.keySet().forEach(this::releaseClaim);
+        var unpublishedJobs = pendingJobs.size();
+        if (unpublishedJobs > 0) {
+            ReportManager.logDiscrete(unpublishedJobs + " Jira results were not published yet, they were kept in \""
+                    + spoolFolder + "\" and will be published by the next execution.");
+        }
+        return unpublishedJobs == 0;
+    }
+
+    private List<String> spoolAttachments(Job job, List<String> files) {
+        List<String> spooledFiles = new ArrayList<>();
+        var attachmentsFolder = getAttachmentsFolder(job);
+        for (var file : files) {
+            var source = Path.of(file);
+            if (!Files.isRegularFile(source)) {
+                continue;
+            }
+            try {
+                // the index keeps attachments that have the same file name apart
+                var spooledFile = Files.createDirectories(attachmentsFolder).resolve(spooledFiles.size() + "-" + source.getFileName());
+                Files.copy(source, spooledFile, StandardCopyOption.REPLACE_EXISTING);
+                spooledFiles.add(spooledFile.toString());
+            } catch (IOException exception) {
+                ReportManagerHelper.logDiscrete(exception);
+            }
+        }
+        return spooledFiles;
+    }
+
+    private void enqueue(Job job) {
+        if (!claim(job.id)) {
+            ReportManager.logDiscrete("Failed to claim the " + job.type.name().toLowerCase() + " \"" + job.id + "\", it will be published by the next execution.");
+        }
+        try {
+            save(job);
+        } catch (IOException exception) {
+            // the job can still be published, it just won't survive a crash
+            ReportManagerHelper.logDiscrete(exception);
+        }
+        submit(job, 0);
+    }
+
+    private void submit(Job job, long delayMillis) {
+        pendingJobs.add(job.id);
+        try {
+            executor.schedule(() -> publish(job), delayMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException rejectedExecutionException) {
+            // the queue is shutting down, so the job stays in the spool
+            finish(job);
+        }
+    }
+
+    private void publish(Job job) {
+        try {
+            switch (job.type) {
+                case BUG -> publishBug(job);
+                case EXECUTION -> publishExecution(job);
+            }
+            Files.deleteIfExists(getJobFile(job));
+            FileUtils.deleteQuietly(getAttachmentsFolder(job).toFile());
+            finish(job);
+        } catch (Exception exception) {
+            job.attempts++;
+            if (!isTemporary(exception)) {
+                ReportManager.logDiscrete("Jira rejected the " + job.type.name().toLowerCase() + " \"" + job.id
+                        + "\", it was moved to the failed folder of the spool.");
+                ReportManagerHelper.logDiscrete(exception);
+                moveToFailedFolder(job);
+                finish(job);
+            } else if (job.attempts >= MAX_ATTEMPTS) {
+                ReportManager.logDiscrete("Failed to publish the " + job.type.name().toLowerCase() + " \"" + job.id
+                        + "\" after " + job.attempts + " attempts, it will be published by the next execution.");
+                ReportManagerHelper.logDiscrete(exception);
+                saveQuietly(job);
+                finish(job);
+            } else {
+                saveQuietly(job);
+                submit(job, getRetryDelayMillis(job.attempts));
+            }
+        }
+    }
+
+    private void publishBug(Job job) throws IOException {
+        var label = LABEL_PREFIX + job.id;
+        if (job.issueID == null && job.isIssueRequested) {
+            // the previous attempt may have created the bug before it failed
+            job.issueID = XrayIntegrationHelper.findIssueByLabel(label);
+        }
+        if (job.issueID == null) {
+            job.isIssueRequested = true;
+            save(job);
+            job.issueID = XrayIntegrationHelper.postIssue(job.testCaseName, job.description, label);
+            save(job);
+            ReportManager.logDiscrete("BugID: " + job.issueID);
+        }
+        var batches = getAttachmentBatches(job.files);
+        for (int batch = job.uploadedBatches; batch < batches.size(); batch++) {
+            XrayIntegrationHelper.postAttachments(job.issueID, batches.get(batch));
+            job.uploadedBatches = batch + 1;
+            save(job);
+        }
+        if (job.linkedTicketID != null && !job.isLinked) {
+            XrayIntegrationHelper.putIssueLink(job.issueID, job.linkedTicketID);
+            job.isLinked = true;
+            save(job);
+        }
+    }
+
+    private void publishExecution(Job job) throws IOException {
+        if (job.executionID == null) {
+            job.executionID = job.reportPath.endsWith(".json")
+                    ? XrayIntegrationHelper.postCucumberResults(job.reportPath)
+                    : XrayIntegrationHelper.postTestNGResults(job.reportPath);
+            save(job);
+            ReportManager.logDiscrete("ExecutionID: " + job.executionID);
+        }
+        XrayIntegrationHelper.putExecutionSummary(job.executionID, job.executionName, job.executionDescription);
+        Files.deleteIfExists(Path.of(job.reportPath));
+    }
+
+    /**
+     * Splits the files into batches of up to 10 files and 20 MB, a single file that is larger than that is uploaded
+     * on its own. Files that no longer exist are skipped.
+     */
+    static List<List<String>> getAttachmentBatches(List<String> files) {
+        List<List<String>> batches = new ArrayList<>();
+        List<String> batch = new ArrayList<>();
+        long batchSize = 0;
+        for (var file : files) {
+            if (!new File(file).isFile()) {
+                continue;
+            }
+            var size = new File(file).length();
+            if (!batch.isEmpty() && (batch.size() == MAX_FILES_PER_BATCH || batchSize + size > MAX_BYTES_PER_BATCH)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchSize = 0;
+            }
+            batch.add(file);
+            batchSize += size;
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static boolean isTemporary(Exception exception) {
+        if (exception instanceof XrayIntegrationHelper.RequestFailedException requestFailedException) {
+            return requestFailedException.isRetryable();
+        }
+        // rest assured rethrows connection failures without wrapping them
+        return exception instanceof IOException;
+    }
+
+    private static long getRetryDelayMillis(int attempts) {
+        var delay = Math.min(MAX_RETRY_DELAY_MILLIS, BASE_RETRY_DELAY_MILLIS << Math.min(attempts - 1, 16));
+        // jitter spreads the retries of jobs that failed together
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    private void finish(Job job) {
+        releaseClaim(job.id);
+        synchronized (pendingJobs) {
+            pendingJobs.remove(job.id);
+            pendingJobs.notifyAll();
+        }
+    }
+
+    private void resubmitSpooledJobs() {
+        if (!Files.isDirectory(spoolFolder)) {
+            return;
+        }
+        List<Path> jobFiles;
+        try (Stream<Path> files = Files.list(spoolFolder)) {
+            jobFiles = files.filter(file -> file.getFileName().toString().endsWith(JOB_FILE_EXTENSION)).toList();
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+            return;
+        }
+        for (var jobFile : jobFiles) {
+            var fileName = jobFile.getFileName().toString();
+            var jobId = fileName.substring(0, fileName.length() - JOB_FILE_EXTENSION.length());
+            if (!claim(jobId)) {
+                // another execution is publishing this job
+                continue;
+            }
+            try {
+                // the job may have been published by another execution since the spool was listed
+                var job = Files.exists(jobFile) ? gson.fromJson(Files.readString(jobFile, StandardCharsets.UTF_8), Job.class) : null;
+                if (job != null && jobId.equals(job.id) && job.type != null) {
+                    ReportManager.logDiscrete("Publishing the spooled " + job.type.name().toLowerCase() + " \"" + job.id + "\".");
+                    submit(job, 0);
+                } else {
+                    releaseClaim(jobId);
+                }
+            } catch (IOException | JsonParseException exception) {
+                ReportManagerHelper.logDiscrete(exception);
+                releaseClaim(jobId);
+            }
+        }
+    }
+
+    private Path getJobFile(Job job) {
+        return spoolFolder.resolve(job.id + JOB_FILE_EXTENSION);
+    }
+
+    private Path getAttachmentsFolder(Job job) {
+        return spoolFolder.resolve(job.id + ATTACHMENTS_FOLDER_SUFFIX);
+    }
+
+    /**
+     * Locks the lock file of a job, the lock is held until the job is finished or the queue is shut down.
+     *
+     * @return true if the job was claimed, or false if another execution or queue has already claimed it
+     */
+    private boolean claim(String jobId) {
+        FileChannel channel = null;
+        try {
+            Files.createDirectories(spoolFolder);
+            channel = FileChannel.open(spoolFolder.resolve(jobId + LOCK_FILE_EXTENSION), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            var lock = channel.tryLock();
+            if (lock != null) {
+                claimedJobs.put(jobId, lock);
+                return true;
+            }
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        } catch (OverlappingFileLockException exception) {
+            // another queue of this execution has claimed it
+        }
+        closeQuietly(channel);
+        return false;
+    }
+
+    private void releaseClaim(String jobId) {
+        var lock = claimedJobs.remove(jobId);
+        if (lock == null) {
+            return;
+        }
+        try {
+            lock.release();
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+        closeQuietly(lock.channel());
+        try {
+            // the lock file is kept while the job is still spooled, so that every execution locks the same file
+            if (!Files.exists(spoolFolder.resolve(jobId + JOB_FILE_EXTENSION))) {
+                Files.deleteIfExists(spoolFolder.resolve(jobId + LOCK_FILE_EXTENSION));
+            }
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private static void closeQuietly(FileChannel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException exception) {
+                ReportManagerHelper.logDiscrete(exception);
+            }
+        }
+    }
+
+    private void save(Job job) throws IOException {
+        Files.createDirectories(spoolFolder);
+        var temporaryFile = spoolFolder.resolve(job.id + JOB_FILE_EXTENSION + ".tmp");
+        Files.writeString(temporaryFile, gson.toJson(job), StandardCharsets.UTF_8);
+        Files.move(temporaryFile, getJobFile(job), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void saveQuietly(Job job) {
+        try {
+            save(job);
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private void moveToFailedFolder(Job job) {
+        try {
+            var failedFolder = Files.createDirectories(spoolFolder.resolve(FAILED_FOLDER_NAME));
+            save(job);
+            Files.move(getJobFile(job), failedFolder.resolve(getJobFile(job).getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            if (job.reportPath != null && Files.exists(Path.of(job.reportPath))) {
+                Files.move(Path.of(job.reportPath), failedFolder.resolve(Path.of(job.reportPath).getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (Files.isDirectory(getAttachmentsFolder(job))) {
+                FileUtils.moveDirectoryToDirectory(getAttachmentsFolder(job).toFile(), failedFolder.toFile(), true);
+            }
+        } catch (IOException exception) {
+            ReportManagerHelper.logDiscrete(exception);
+        }
+    }
+
+    private enum JobType {
+        BUG, EXECUTION
+    }
+
+    /**
+     * A spooled job, along with the progress that was made publishing it.
+     */
+    private static final class Job {
+        private String id;
+        private JobType type;
+        private int attempts;
+        // bug
+        private String testCaseName;
+        private String description;
+        private List<String> files;
+        private String linkedTicketID;
+        private boolean isIssueRequested;
+        private String issueID;
+        private int uploadedBatches;
+        private boolean isLinked;
+        // execution
+        private String reportPath;
+        private String executionName;
+        private String executionDescription;
+        private String executionID;
+
+        @SuppressWarnings("unused")
+        private Job() {
+            // used by gson
+        }
+
+        private Job(JobType type) {
+            this.id = UUID.randomUUID().toString();
+            this.type = type;
+        }
+    }
+}
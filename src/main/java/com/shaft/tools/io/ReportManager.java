@@ -2,6 +2,8 @@ package com.shaft.tools.io;
 
 import org.apache.logging.log4j.Level;
 
+import java.util.function.Supplier;
+
 import static com.shaft.tools.io.internal.ReportManagerHelper.*;
 
 public class ReportManager {
@@ -17,7 +19,7 @@ public class ReportManager {
      */
     public static void log(String logText) {
         if (getDiscreteLogging() && !logText.toLowerCase().contains("failed") && isInternalStep()) {
-            createLogEntry(logText, Level.INFO);
+            createDiscreteLogEntry(() -> logText, Level.INFO);
         } else {
             writeStepToReport(logText);
         }
@@ -29,7 +31,17 @@ public class ReportManager {
      * @param logText the text that will be logged by action
      */
     public static void logDiscrete(String logText) {
-        createLogEntry(logText, Level.INFO);
+        createDiscreteLogEntry(() -> logText, Level.INFO);
+    }
+
+    /**
+     * Creates a custom log entry that will not be added as a step in the execution report, but you can see it in the attached execution log txt file.
+     * The log text is only built if it will actually be written, which makes this suitable for expensive messages.
+     *
+     * @param logText a supplier of the text that will be logged by action
+     */
+    public static void logDiscrete(Supplier<String> logText) {
+        createDiscreteLogEntry(logText, Level.INFO);
     }
 
 }
\ No newline at end of file
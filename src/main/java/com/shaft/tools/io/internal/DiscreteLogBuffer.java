@@ -0,0 +1,68 @@
+package com.shaft.tools.io.internal;
+
+import com.shaft.driver.SHAFT;
+import org.apache.logging.log4j.Level;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.function.Supplier;
+
+/**
+ * Holds the discrete log entries of the current test in a bounded in-memory ring buffer.
+ * <p>
+ * Entries are only formatted when the buffer is drained, which happens when the current test fails or is retried.
+ * The buffer of a passing test is simply dropped, so green runs skip both the log I/O and the formatting cost.
+ * Enabled by setting discreteLogBufferSize to a value greater than zero.
+ */
+public class DiscreteLogBuffer {
+    private static final String TIMESTAMP_FORMAT = "dd-MM-yyyy HH:mm:ss.SSSS aaa";
+    private static final ThreadLocal<Deque<Entry>> entries = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private DiscreteLogBuffer() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    static boolean isEnabled() {
+        return SHAFT.Properties.reporting != null && SHAFT.Properties.reporting.discreteLogBufferSize() > 0;
+    }
+
+    static void add(Supplier<String> logText, Level logLevel) {
+        if (SHAFT.Properties.reporting.disableLogging()) {
+            return;
+        }
+        var buffer = entries.get();
+        while (buffer.size() >= SHAFT.Properties.reporting.discreteLogBufferSize()) {
+            buffer.removeFirst();
+        }
+        buffer.addLast(new Entry(System.currentTimeMillis(), logLevel, logText));
+    }
+
+    static String drain() {
+        var buffer = entries.get();
+        var log = new StringBuilder();
+        var dateFormat = new SimpleDateFormat(TIMESTAMP_FORMAT);
+        buffer.forEach(entry -> {
+            String logText;
+            try {
+                logText = String.valueOf(entry.logText().get()).trim();
+            } catch (Exception exception) {
+                logText = "Failed to format log entry: " + exception.getMessage();
+            }
+            log.append("[").append(entry.logLevel()).append("] ")
+                    .append(logText)
+                    .append(" @").append(dateFormat.format(new Date(entry.timestamp())))
+                    .append(System.lineSeparator());
+        });
+        buffer.clear();
+        return log.toString();
+    }
+
+    static void clear() {
+        entries.get().clear();
+    }
+
+    private record Entry(long timestamp, Level logLevel, Supplier<String> logText) {
+    }
+}
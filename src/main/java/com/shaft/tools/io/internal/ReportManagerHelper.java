@@ -8,6 +8,9 @@ import com.aventstack.extentreports.markuputils.MarkupHelper;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
 import com.aventstack.extentreports.reporter.configuration.Theme;
 import com.aventstack.extentreports.reporter.configuration.ViewName;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
 import com.shaft.api.RestActions;
 import com.shaft.cli.FileActions;
 import com.shaft.cli.TerminalActions;
@@ -15,6 +18,7 @@ import com.shaft.driver.SHAFT;
 import com.shaft.listeners.CucumberFeatureListener;
 import com.shaft.properties.internal.PropertyFileManager;
 import com.shaft.tools.internal.support.JavaHelper;
+import com.shaft.tools.internal.support.LazySubsystem;
 import com.shaft.tools.io.ReportManager;
 import io.qameta.allure.Allure;
 import io.qameta.allure.Step;
@@ -33,9 +37,14 @@ import org.testng.Reporter;
 import java.io.*;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Getter
@@ -54,7 +63,8 @@ public class ReportManagerHelper {
     private static boolean discreteLogging = false;
     @Getter
     private static int totalNumberOfTests = 0;
-    private static int testCasesCounter = 0;
+    private static final AtomicInteger testCasesCounter = new AtomicInteger();
+    private static final Map<String, ReplacedAttachment> replacedAttachments = new ConcurrentHashMap<>();
     private static boolean debugMode = false;
     private static int openIssuesForFailedTestsCounter = 0;
     @Getter
@@ -67,12 +77,18 @@ public class ReportManagerHelper {
     private static List<List<String>> listOfOpenIssuesForFailedTests = new ArrayList<>();
     private static List<List<String>> listOfOpenIssuesForPassedTests = new ArrayList<>();
     private static List<List<String>> listOfNewIssuesForFailedTests = new ArrayList<>();
-    private static String featureName = "";
+    private static final ThreadLocal<String> featureName = ThreadLocal.withInitial(() -> "");
     private static final ThreadLocal<ExtentTest> extentTest = new ThreadLocal<>();
     private static Logger logger;
     @Getter
     private static String extentReportFileName = "";
     private static boolean generateExtentReports = true;
+    private static final LazySubsystem ALLURE_RESULTS = LazySubsystem.of("Allure results", ReportManagerHelper::prepareAllureResultsDirectory);
+    private static final LazySubsystem ALLURE_COMMAND_LINE = LazySubsystem.of("Allure command line", () -> {
+        downloadAndExtractAllureBinaries();
+        writeGenerateReportShellFilesToProjectDirectory();
+    }, ALLURE_RESULTS);
+    private static final LazySubsystem EXTENT_REPORTS = LazySubsystem.of("Extent Reports", ReportManagerHelper::prepareExtentReports);
 
     private ReportManagerHelper() {
         throw new IllegalStateException("Utility class");
@@ -184,13 +200,19 @@ public class ReportManagerHelper {
         ReportManagerHelper.debugMode = debugMode;
     }
 
+    /**
+     * Cleans the allure-results directory and writes the environment details to it. The allure command line and the
+     * report generation scripts are only prepared once the report is generated at the end of the execution.
+     */
     public static void initializeAllureReportingEnvironment() {
+        ALLURE_RESULTS.initialize();
+    }
+
+    private static void prepareAllureResultsDirectory() {
         ReportManager.logDiscrete("Initializing Allure Reporting Environment...");
         ReportHelper.disableLogging();
         allureResultsFolderPath = SHAFT.Properties.paths.allureResults();
         cleanAllureResultsDirectory();
-        downloadAndExtractAllureBinaries();
-        writeGenerateReportShellFilesToProjectDirectory();
         writeEnvironmentVariablesToAllureResultsDirectory();
         ReportHelper.enableLogging();
     }
@@ -223,13 +245,13 @@ public class ReportManagerHelper {
 
     public static void logTestInformation(String className, String testMethodName,
                                           String testDescription) {
-        testCasesCounter++;
+        var testCaseNumber = testCasesCounter.incrementAndGet();
         StringBuilder reportMessage = new StringBuilder();
 
         if (totalNumberOfTests > 0) {
             reportMessage.append("Starting Execution: ");
             reportMessage.append("'");
-            reportMessage.append(testCasesCounter);
+            reportMessage.append(testCaseNumber);
             reportMessage.append(" out of ");
             reportMessage.append(totalNumberOfTests);
             reportMessage.append("' test cases in the current suite");
@@ -247,9 +269,8 @@ public class ReportManagerHelper {
     }
 
     public static void logScenarioInformation(String keyword, String name, String steps) {
-        testCasesCounter++;
-        createImportantReportEntry("Starting Execution: \"" + testCasesCounter + " out of " + totalNumberOfTests
-                + "\" scenarios in the \"" + featureName + "\" feature"
+        createImportantReportEntry("Starting Execution: \"" + testCasesCounter.incrementAndGet() + " out of " + totalNumberOfTests
+                + "\" scenarios in the \"" + featureName.get() + "\" feature"
                 + System.lineSeparator() + keyword + " Name: \"" + name
                 + "\"" + System.lineSeparator() + keyword + " Steps:" + System.lineSeparator() + steps);
     }
@@ -309,6 +330,96 @@ public class ReportManagerHelper {
         }
     }
 
+    /**
+     * Links a new attachment to the current test right away, its content is written later using
+     * {@link #writePreparedAttachment(String, InputStream)}. Used for attachments that are still being generated in the
+     * background, such as video recordings.
+     *
+     * @param attachmentType the type of this attachment
+     * @param attachmentName the name of this attachment
+     * @param mimeType       the mime type of the attachment content
+     * @param fileExtension  the file extension of the attachment content, including the leading dot
+     * @return the source that identifies the attachment content
+     */
+    public static String prepareAttachment(String attachmentType, String attachmentName, String mimeType, String fileExtension) {
+        String attachmentDescription = attachmentType + " - " + attachmentName;
+        var attachmentSource = Allure.getLifecycle().prepareAttachment(attachmentDescription, mimeType, fileExtension);
+        createLogEntry("Successfully created attachment '" + attachmentDescription + "'", Level.INFO);
+        return attachmentSource;
+    }
+
+    /**
+     * Writes the content of an attachment that was linked using {@link #prepareAttachment(String, String, String, String)}.
+     *
+     * @param attachmentSource  the source that was returned when the attachment was prepared
+     * @param attachmentContent the content of this attachment
+     */
+    public static void writePreparedAttachment(String attachmentSource, InputStream attachmentContent) {
+        Allure.getLifecycle().writeAttachment(attachmentSource, attachmentContent);
+    }
+
+    /**
+     * Writes the content of a prepared attachment whose type turned out to be different from the one it was prepared
+     * with. The content is written under a new source that matches its type, and the test results are pointed to it by
+     * {@link #updateReplacedAttachments()}.
+     *
+     * @param attachmentSource  the source that was returned when the attachment was prepared
+     * @param attachmentContent the content of this attachment
+     * @param mimeType          the actual mime type of the attachment content
+     * @param fileExtension     the actual file extension of the attachment content, including the leading dot
+     */
+    public static void writePreparedAttachment(String attachmentSource, InputStream attachmentContent, String mimeType, String fileExtension) {
+        var replacementSource = attachmentSource.substring(0, attachmentSource.lastIndexOf('.')) + fileExtension;
+        Allure.getLifecycle().writeAttachment(replacementSource, attachmentContent);
+        replacedAttachments.put(attachmentSource, new ReplacedAttachment(replacementSource, mimeType));
+    }
+
+    /**
+     * Points the written test results to the replaced attachments, must be called after the test results are written
+     * and before the reports are generated.
+     */
+    public static void updateReplacedAttachments() {
+        if (replacedAttachments.isEmpty()) {
+            return;
+        }
+        try (var resultFiles = Files.list(Path.of(SHAFT.Properties.paths.allureResults()))) {
+            resultFiles.filter(file -> file.toString().endsWith("-result.json") || file.toString().endsWith("-container.json"))
+                    .forEach(ReportManagerHelper::updateReplacedAttachments);
+        } catch (IOException | UncheckedIOException e) {
+            logDiscrete(e);
+        }
+        replacedAttachments.clear();
+    }
+
+    private static void updateReplacedAttachments(Path resultFile) {
+        try {
+            var result = Files.readString(resultFile);
+            if (replacedAttachments.keySet().stream().noneMatch(result::contains)) {
+                return;
+            }
+            var json = JsonParser.parseString(result);
+            replaceAttachmentSources(json);
+            Files.writeString(resultFile, new Gson().toJson(json));
+        } catch (IOException | RuntimeException e) {
+            logDiscrete(e);
+        }
+    }
+
+    private static void replaceAttachmentSources(JsonElement element) {
+        if (element.isJsonArray()) {
+            element.getAsJsonArray().forEach(ReportManagerHelper::replaceAttachmentSources);
+        } else if (element.isJsonObject()) {
+            var object = element.getAsJsonObject();
+            var source = object.get("source");
+            var replacedAttachment = source != null && source.isJsonPrimitive() ? replacedAttachments.get(source.getAsString()) : null;
+            if (replacedAttachment != null) {
+                object.addProperty("source", replacedAttachment.source());
+                object.addProperty("type", replacedAttachment.mimeType());
+            }
+            object.entrySet().forEach(entry -> replaceAttachmentSources(entry.getValue()));
+        }
+    }
+
     public static void attach(List<Object> screenshot) {
         attach((String) screenshot.get(0), (String) screenshot.get(1), (InputStream) screenshot.get(2));
     }
@@ -360,6 +471,7 @@ public class ReportManagerHelper {
     public static void openAllureReportAfterExecution() {
         String commandToOpenAllureReport;
         if (Boolean.TRUE.equals(SHAFT.Properties.reporting.openAllureReportAfterExecution())) {
+            ALLURE_COMMAND_LINE.initialize();
             if (SystemUtils.IS_OS_WINDOWS) {
                 commandToOpenAllureReport = ("generate_allure_report.bat");
             } else {
@@ -370,6 +482,8 @@ public class ReportManagerHelper {
     }
 
     public static void generateAllureReportArchive() {
+        // the report generation scripts are expected to be in the project directory after every execution
+        ALLURE_COMMAND_LINE.initialize();
         if (Boolean.TRUE.equals(SHAFT.Properties.reporting.generateAllureReportArchive())) {
             ReportManager.logDiscrete("Generating Allure Report Archive...");
             ReportHelper.disableLogging();
@@ -411,8 +525,8 @@ public class ReportManagerHelper {
 
     public static void setTestCaseName(String scenarioName) {
         Allure.getLifecycle().updateTestCase(testResult -> testResult.setName(scenarioName));
-        if (!"".equals(featureName)) {
-            Allure.getLifecycle().updateTestCase(testResult -> testResult.setFullName(featureName + ": " + scenarioName));
+        if (!"".equals(featureName.get())) {
+            Allure.getLifecycle().updateTestCase(testResult -> testResult.setFullName(featureName.get() + ": " + scenarioName));
         }
     }
 
@@ -434,10 +548,18 @@ public class ReportManagerHelper {
     }
 
     public static void setFeatureName(String featureName) {
-        ReportManagerHelper.featureName = featureName;
+        ReportManagerHelper.featureName.set(featureName);
     }
 
+    /**
+     * Prepares the Extent report, unless it was already prepared. This is called automatically once the first test is
+     * created, so executions that never report a test don't pay the cost of preparing it.
+     */
     public static void initializeExtentReportingEnvironment() {
+        EXTENT_REPORTS.initialize();
+    }
+
+    private static void prepareExtentReports() {
         generateExtentReports = SHAFT.Properties.reporting.generateExtentReports();
         if (generateExtentReports) {
             ReportManager.logDiscrete("Initializing Extent Reporting Environment...");
@@ -473,6 +595,7 @@ public class ReportManagerHelper {
 
 
     public static void extentReportsCreateTest(String testName, String testDescription) {
+        EXTENT_REPORTS.initialize();
         if (extentReport.equals(new ExtentReports())) {
             if (testDescription.isEmpty()) {
                 extentTest.set(extentReport.createTest(testName));
@@ -513,7 +636,7 @@ public class ReportManagerHelper {
     }
 
     public static void extentReportsFlush() {
-        if (generateExtentReports) {
+        if (EXTENT_REPORTS.isInitialized() && generateExtentReports) {
             extentReport.flush();
         }
     }
@@ -549,6 +672,41 @@ public class ReportManagerHelper {
         }
     }
 
+    /**
+     * Creates a discrete log entry, the log text is only formatted if it will be written.
+     * In case the discrete log buffer is enabled the entry is held in memory, and is only written if the current test fails.
+     *
+     * @param logText  a supplier of the text that will be logged
+     * @param logLevel Level.ERROR, TRACE, INFO, WARN, DEBUG, FATAL
+     */
+    public static void createDiscreteLogEntry(Supplier<String> logText, Level logLevel) {
+        if (DiscreteLogBuffer.isEnabled()) {
+            DiscreteLogBuffer.add(logText, logLevel);
+        } else {
+            createLogEntry(logText.get(), logLevel);
+        }
+    }
+
+    /**
+     * Attaches the buffered discrete log entries of the current test in case it failed or was retried, and drops them otherwise.
+     *
+     * @param isTestPassed true if the current test (or configuration method) passed
+     */
+    public static void flushDiscreteLogBuffer(boolean isTestPassed) {
+        if (!DiscreteLogBuffer.isEnabled()) {
+            return;
+        }
+        if (isTestPassed) {
+            DiscreteLogBuffer.clear();
+            return;
+        }
+        var discreteLog = DiscreteLogBuffer.drain();
+        if (!discreteLog.isBlank()) {
+            createAttachment(SHAFT_ENGINE_LOGS_ATTACHMENT_TYPE, "Discrete log buffer", new ByteArrayInputStream(discreteLog.getBytes()));
+            attachCodeBlockToExtentReport("text/plain", new ByteArrayInputStream(discreteLog.getBytes()));
+        }
+    }
+
     private static void createLogEntry(String logText, boolean addToConsoleLog) {
         if (!SHAFT.Properties.reporting.disableLogging()) {
             String timestamp = (new SimpleDateFormat(TIMESTAMP_FORMAT)).format(new Date(System.currentTimeMillis()));
@@ -992,11 +1150,14 @@ public class ReportManagerHelper {
     public static void log(String logText, List<List<Object>> attachments) {
         if (!SHAFT.Properties.reporting.disableLogging()) {
             if (!logText.toLowerCase().contains("failed") && getDiscreteLogging() && isInternalStep()) {
-                createLogEntry(logText, Level.INFO);
+                createDiscreteLogEntry(() -> logText, Level.INFO);
                 if (attachments != null && !attachments.isEmpty() && (attachments.size() > 1 || (attachments.get(0) != null && !attachments.get(0).isEmpty()))) {
                     attachments.forEach(attachment -> {
                         if (attachment != null && !attachment.isEmpty()) {
-                            if (attachment.get(2) instanceof String) {
+                            if (attachment.get(2) instanceof String && DiscreteLogBuffer.isEnabled()) {
+                                // text attachments of internal steps, such as page source dumps, are only written if the test fails
+                                createDiscreteLogEntry(() -> attachment.get(0) + " - " + attachment.get(1) + System.lineSeparator() + attachment.get(2), Level.INFO);
+                            } else if (attachment.get(2) instanceof String) {
                                 attachAsStep(attachment.get(0).toString(), attachment.get(1).toString(),
                                         new ByteArrayInputStream(attachment.get(2).toString().getBytes()));
                             } else {
@@ -1101,11 +1262,11 @@ public class ReportManagerHelper {
     }
 
     public static void logDiscrete(Throwable t) {
-        createLogEntry(formatStackTraceToLogEntry(t), Level.ERROR);
+        createDiscreteLogEntry(() -> formatStackTraceToLogEntry(t), Level.ERROR);
     }
 
     public static void logDiscrete(Throwable t, org.apache.logging.log4j.Level logLevel) {
-        createLogEntry(formatStackTraceToLogEntry(t), logLevel);
+        createDiscreteLogEntry(() -> formatStackTraceToLogEntry(t), logLevel);
     }
 
     /**
@@ -1115,7 +1276,7 @@ public class ReportManagerHelper {
      * @param logLevel Level.ERROR, TRACE, INFO, WARN, DEBUG, FATAL
      */
     public static void logDiscrete(String logText, org.apache.logging.log4j.Level logLevel) {
-        createLogEntry(logText, logLevel);
+        createDiscreteLogEntry(() -> logText, logLevel);
     }
 
     public static String getExecutionDuration(long startTime, long endTime) {
@@ -1143,4 +1304,6 @@ public class ReportManagerHelper {
         return duration;
     }
 
+    private record ReplacedAttachment(String source, String mimeType) {
+    }
 }
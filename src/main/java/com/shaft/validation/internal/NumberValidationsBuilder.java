@@ -25,6 +25,14 @@ public class NumberValidationsBuilder {
         this.reportMessageBuilder = validationsBuilder.reportMessageBuilder;
     }
 
+    public NumberValidationsBuilder(WebDriverBrowserValidationsBuilder webDriverBrowserValidationsBuilder) {
+        this.validationCategory = webDriverBrowserValidationsBuilder.validationCategory;
+        this.validationMethod = webDriverBrowserValidationsBuilder.validationMethod;
+        this.actualValue = webDriverBrowserValidationsBuilder.actualValue;
+
+        this.reportMessageBuilder = webDriverBrowserValidationsBuilder.reportMessageBuilder;
+    }
+
     public NumberValidationsBuilder(RestValidationsBuilder restValidationsBuilder) {
         this.validationCategory = restValidationsBuilder.validationCategory;
         this.validationMethod = restValidationsBuilder.validationMethod;
@@ -1,14 +1,18 @@
 package com.shaft.validation.internal;
 
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
 import com.shaft.validation.ValidationEnums;
 import org.openqa.selenium.WebDriver;
 
+import java.util.function.ToDoubleFunction;
+
 public class WebDriverBrowserValidationsBuilder {
     protected final ValidationEnums.ValidationCategory validationCategory;
     protected final WebDriver driver;
 
     protected String validationMethod;
     protected String browserAttribute;
+    protected Object actualValue;
 
     protected final StringBuilder reportMessageBuilder;
 
@@ -57,4 +61,55 @@ public class WebDriverBrowserValidationsBuilder {
         return new NativeValidationsBuilder(this);
     }
 
-}
\ No newline at end of file
+    /**
+     * Use this to check against the page load time of the current page, in milliseconds since the navigation started
+     *
+     * @return a NumberValidationsBuilder object to continue building your validation
+     */
+    public NumberValidationsBuilder pageLoadTime() {
+        return pageLoadMetric("page load time", PageLoadMetricsCollector.Metrics::pageLoadTime);
+    }
+
+    /**
+     * Use this to check against the time to first byte of the current page, in milliseconds since the navigation started
+     *
+     * @return a NumberValidationsBuilder object to continue building your validation
+     */
+    public NumberValidationsBuilder timeToFirstByte() {
+        return pageLoadMetric("time to first byte", PageLoadMetricsCollector.Metrics::timeToFirstByte);
+    }
+
+    /**
+     * Use this to check against the largest contentful paint of the current page, in milliseconds since the navigation started
+     *
+     * @return a NumberValidationsBuilder object to continue building your validation
+     */
+    public NumberValidationsBuilder largestContentfulPaint() {
+        return pageLoadMetric("largest contentful paint", PageLoadMetricsCollector.Metrics::largestContentfulPaint);
+    }
+
+    /**
+     * Use this to check against the cumulative layout shift score of the current page
+     *
+     * @return a NumberValidationsBuilder object to continue building your validation
+     */
+    public NumberValidationsBuilder cumulativeLayoutShift() {
+        return pageLoadMetric("cumulative layout shift", PageLoadMetricsCollector.Metrics::cumulativeLayoutShift);
+    }
+
+    /**
+     * Use this to check against the interaction to next paint of the current page, in milliseconds
+     *
+     * @return a NumberValidationsBuilder object to continue building your validation
+     */
+    public NumberValidationsBuilder interactionToNextPaint() {
+        return pageLoadMetric("interaction to next paint", PageLoadMetricsCollector.Metrics::interactionToNextPaint);
+    }
+
+    private NumberValidationsBuilder pageLoadMetric(String metricName, ToDoubleFunction<PageLoadMetricsCollector.Metrics> metric) {
+        this.validationMethod = "comparativeRelationBetweenNumbers";
+        this.actualValue = metric.applyAsDouble(PageLoadMetricsCollector.getLatest(driver));
+        reportMessageBuilder.append(metricName).append(" \"").append(actualValue).append("\" ");
+        return new NumberValidationsBuilder(this);
+    }
+}
@@ -0,0 +1,67 @@
+package com.shaft.gui.internal.video;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.validation.Validations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class VideoEncoderTests {
+    private String encodingPreset;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        encodingPreset = SHAFT.Properties.visuals.videoParamsEncodingPreset();
+    }
+
+    @Test
+    public void onlyNonMp4RecordingsShouldBeEncoded() {
+        SHAFT.Properties.visuals.set().videoParamsEncodingPreset("FAST");
+        Validations.assertThat().object(VideoEncoder.isEncodingRequired(Path.of("recording.avi"))).isEqualTo(true).perform();
+        Validations.assertThat().object(VideoEncoder.isEncodingRequired(Path.of("recording.MP4"))).isEqualTo(false).perform();
+
+        SHAFT.Properties.visuals.set().videoParamsEncodingPreset("none");
+        Validations.assertThat().object(VideoEncoder.isEncodingRequired(Path.of("recording.avi"))).isEqualTo(false).perform();
+    }
+
+    @Test
+    public void mimeTypeShouldFollowTheFileExtension() {
+        Validations.assertThat().object(VideoEncoder.getMimeType(Path.of("recording.avi"))).isEqualTo("video/x-msvideo").perform();
+        Validations.assertThat().object(VideoEncoder.getMimeType(Path.of("recording.webm"))).isEqualTo("video/webm").perform();
+        Validations.assertThat().object(VideoEncoder.getMimeType(Path.of("recording.mp4"))).isEqualTo("video/mp4").perform();
+    }
+
+    @Test
+    public void everySubmittedRecordingShouldBeAttachedBeforeTheReportsAreGenerated() throws IOException {
+        SHAFT.Properties.visuals.set().videoParamsEncodingPreset("NONE");
+        var folder = Files.createTempDirectory("recordings");
+        var attachedRecordings = ConcurrentHashMap.<Path>newKeySet();
+        var submittedRecordings = new ArrayList<Path>();
+        var encodings = new ArrayList<CompletableFuture<Path>>();
+        // more recordings than the executor can queue, so some of them are encoded on the calling thread
+        for (int i = 0; i < Runtime.getRuntime().availableProcessors() * 4; i++) {
+            var recording = Files.writeString(folder.resolve("recording-" + i + ".avi"), "frames");
+            submittedRecordings.add(recording);
+            encodings.add(VideoEncoder.submit(recording, attachedRecordings::add));
+        }
+        VideoEncoder.awaitPendingEncodings();
+
+        Validations.assertThat().object(Set.copyOf(submittedRecordings)).isEqualTo(Set.copyOf(attachedRecordings)).perform();
+        Validations.assertThat().object(encodings.stream().allMatch(CompletableFuture::isDone)).isEqualTo(true).perform();
+        // the raw recordings are passed through as they are when encoding is skipped
+        Validations.assertThat().object(encodings.get(0).join()).isEqualTo(submittedRecordings.get(0)).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SHAFT.Properties.visuals.set().videoParamsEncodingPreset(encodingPreset);
+    }
+}
@@ -0,0 +1,108 @@
+package mockito;
+
+import com.shaft.driver.internal.BrowserContextManager;
+import com.shaft.validation.Validations;
+import org.openqa.selenium.ImmutableCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.*;
+
+public class BrowserContextManagerTests {
+    private final ChromiumDriver hostDriver = mock();
+    private final ChromiumDriver contextDriver = mock();
+
+    @Test
+    public void leasedSessionShouldOnlySeeThePagesOfItsOwnContext() {
+        when(hostDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("goog:chromeOptions", Map.of("debuggerAddress", "localhost:9222")));
+        when(hostDriver.executeCdpCommand(eq("Target.createBrowserContext"), anyMap())).thenReturn(Map.of("browserContextId", "context-1"));
+        when(hostDriver.executeCdpCommand(eq("Target.createTarget"), anyMap())).thenReturn(Map.of("targetId", "page-1"));
+        when(contextDriver.switchTo()).thenReturn(mock(WebDriver.TargetLocator.class));
+        when(contextDriver.getWindowHandles()).thenReturn(Set.of("host-page", "page-1", "popup-1", "page-2"));
+        when(contextDriver.executeCdpCommand(eq("Target.getTargets"), anyMap())).thenReturn(Map.of("targetInfos", List.of(
+                Map.of("targetId", "host-page", "type", "page", "browserContextId", "default-context"),
+                Map.of("targetId", "page-1", "type", "page", "browserContextId", "context-1"),
+                Map.of("targetId", "popup-1", "type", "page", "browserContextId", "context-1"),
+                Map.of("targetId", "page-2", "type", "page", "browserContextId", "context-2"))));
+        var startedDrivers = new ArrayDeque<>(List.of(hostDriver, contextDriver));
+
+        var leasedDriver = BrowserContextManager.lease(new ChromeOptions(), options -> startedDrivers.poll());
+
+        Validations.assertThat().object(BrowserContextManager.getWindowHandles(leasedDriver)).isEqualTo(Set.of("page-1", "popup-1")).perform();
+        Validations.assertThat().object(BrowserContextManager.release(leasedDriver)).isEqualTo(true).perform();
+        verify(contextDriver).quit();
+        verify(hostDriver).executeCdpCommand("Target.disposeBrowserContext", Map.of("browserContextId", "context-1"));
+    }
+
+    @Test
+    public void sessionsThatWereNotLeasedShouldSeeAllTheirWindows() {
+        when(contextDriver.getWindowHandles()).thenReturn(Set.of("page-1", "page-2"));
+
+        Validations.assertThat().object(BrowserContextManager.getWindowHandles(contextDriver)).isEqualTo(Set.of("page-1", "page-2")).perform();
+        Validations.assertThat().object(BrowserContextManager.release(contextDriver)).isEqualTo(false).perform();
+        verify(contextDriver, never()).executeCdpCommand(anyString(), anyMap());
+    }
+
+    @Test
+    public void newWindowsOfLeasedSessionsShouldBeOpenedInTheirOwnContext() {
+        when(hostDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("goog:chromeOptions", Map.of("debuggerAddress", "localhost:9222")));
+        when(hostDriver.executeCdpCommand(eq("Target.createBrowserContext"), anyMap())).thenReturn(Map.of("browserContextId", "context-1"));
+        when(hostDriver.executeCdpCommand(eq("Target.createTarget"), anyMap())).thenReturn(Map.of("targetId", "page-1"), Map.of("targetId", "tab-1"));
+        WebDriver.TargetLocator targetLocator = mock();
+        when(contextDriver.switchTo()).thenReturn(targetLocator);
+        when(targetLocator.window(anyString())).thenReturn(contextDriver);
+        var startedDrivers = new ArrayDeque<>(List.of(hostDriver, contextDriver));
+        var leasedDriver = BrowserContextManager.lease(new ChromeOptions(), options -> startedDrivers.poll());
+
+        var switchedDriver = BrowserContextManager.newWindow(leasedDriver, WindowType.TAB);
+
+        Validations.assertThat().object(switchedDriver).isEqualTo(contextDriver).perform();
+        verify(hostDriver).executeCdpCommand("Target.createTarget", Map.of("url", "about:blank", "browserContextId", "context-1", "newWindow", false));
+        verify(targetLocator).window("tab-1");
+        verify(targetLocator, never()).newWindow(any());
+    }
+
+    @Test
+    public void sessionsWithMobileEmulationShouldGetADedicatedBrowser() {
+        var options = new ChromeOptions();
+        options.setExperimentalOption("mobileEmulation", Map.of("deviceName", "Pixel 7"));
+
+        var driver = BrowserContextManager.lease(options, startedOptions -> contextDriver);
+
+        Validations.assertThat().object(driver).isEqualTo(contextDriver).perform();
+        Validations.assertThat().object(BrowserContextManager.release(driver)).isEqualTo(false).perform();
+        verify(contextDriver, never()).executeCdpCommand(anyString(), anyMap());
+    }
+
+    @Test
+    public void sessionsWithDifferentArgumentsShouldGetADedicatedBrowser() {
+        when(hostDriver.getCapabilities()).thenReturn(new ImmutableCapabilities("goog:chromeOptions", Map.of("debuggerAddress", "localhost:9222")));
+        when(hostDriver.getWindowHandles()).thenReturn(Set.of("host-page"));
+        when(hostDriver.executeCdpCommand(eq("Target.createBrowserContext"), anyMap())).thenReturn(Map.of("browserContextId", "context-1"));
+        when(hostDriver.executeCdpCommand(eq("Target.createTarget"), anyMap())).thenReturn(Map.of("targetId", "page-1"));
+        when(contextDriver.switchTo()).thenReturn(mock(WebDriver.TargetLocator.class));
+        ChromiumDriver dedicatedDriver = mock();
+        var startedDrivers = new ArrayDeque<>(List.of(hostDriver, contextDriver, dedicatedDriver));
+        BrowserContextManager.lease(new ChromeOptions().addArguments("--lang=en"), options -> startedDrivers.poll());
+
+        var driver = BrowserContextManager.lease(new ChromeOptions().addArguments("--lang=de"), options -> startedDrivers.poll());
+
+        Validations.assertThat().object(driver).isEqualTo(dedicatedDriver).perform();
+        verify(hostDriver, times(1)).executeCdpCommand(eq("Target.createBrowserContext"), anyMap());
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        BrowserContextManager.shutdown();
+        reset(hostDriver, contextDriver);
+    }
+}
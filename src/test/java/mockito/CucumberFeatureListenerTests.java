@@ -1,12 +1,32 @@
 package mockito;
 
 import com.shaft.listeners.CucumberFeatureListener;
-import io.cucumber.plugin.event.EventPublisher;
+import com.shaft.listeners.internal.CucumberHelper;
+import com.shaft.validation.Validations;
+import io.cucumber.plugin.event.*;
+import io.qameta.allure.Allure;
+import io.qameta.allure.AllureLifecycle;
+import io.qameta.allure.AllureResultsWriter;
+import io.qameta.allure.model.StepResult;
+import io.qameta.allure.model.TestResult;
+import io.qameta.allure.model.TestResultContainer;
 import org.testng.annotations.Test;
 
-import static org.mockito.Mockito.mock;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
 
 public class CucumberFeatureListenerTests {
+    private static final int NUMBER_OF_SCENARIOS = 40;
+    private static final int STEPS_PER_SCENARIO = 3;
     // mock creation
     CucumberFeatureListener mockedCucumberFeatureListener = mock();
     EventPublisher publisher = mock();
@@ -15,4 +35,136 @@ public class CucumberFeatureListenerTests {
     public void doesNothing() {
         mockedCucumberFeatureListener.setEventPublisher(publisher);
     }
+
+    @Test
+    public void parallelScenariosShouldBeReportedIndependently() throws InterruptedException {
+        var results = new ConcurrentLinkedQueue<TestResult>();
+        var lifecycle = new AllureLifecycle(new AllureResultsWriter() {
+            @Override
+            public void write(TestResult testResult) {
+                results.add(testResult);
+            }
+
+            @Override
+            public void write(TestResultContainer testResultContainer) {
+                // containers are not validated
+            }
+
+            @Override
+            public void write(String source, InputStream attachment) {
+                // attachments are not validated
+            }
+        });
+        var originalLifecycle = Allure.getLifecycle();
+        Allure.setLifecycle(lifecycle);
+        try {
+            var handlers = new ConcurrentHashMap<Class<?>, EventHandler<?>>();
+            CucumberFeatureListener listener;
+            try (var cucumberHelper = mockStatic(CucumberHelper.class)) {
+                listener = new CucumberFeatureListener(lifecycle);
+            }
+            listener.setEventPublisher(new EventPublisher() {
+                @Override
+                public <T> void registerHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+                    handlers.put(eventType, handler);
+                }
+
+                @Override
+                public <T> void removeHandlerFor(Class<T> eventType, EventHandler<T> handler) {
+                    handlers.remove(eventType);
+                }
+            });
+
+            var featureFile = URI.create("classpath:parallel.feature");
+            publish(handlers, new TestSourceRead(Instant.now(), featureFile, parallelFeature()));
+
+            var executor = Executors.newFixedThreadPool(8);
+            for (int scenario = 0; scenario < NUMBER_OF_SCENARIOS; scenario++) {
+                var testCase = testCase(featureFile, scenario);
+                // odd scenarios fail in their second step, and the remaining steps are skipped
+                var failingStep = scenario % 2 == 0 ? STEPS_PER_SCENARIO : 1;
+                executor.submit(() -> {
+                    publish(handlers, new TestCaseStarted(Instant.now(), testCase));
+                    for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+                        var testStep = testCase.getTestSteps().get(step);
+                        publish(handlers, new TestStepStarted(Instant.now(), testCase, testStep));
+                        Thread.yield();
+                        publish(handlers, new TestStepFinished(Instant.now(), testCase, testStep, step < failingStep
+                                ? new Result(Status.PASSED, Duration.ZERO, null)
+                                : step == failingStep
+                                ? new Result(Status.FAILED, Duration.ZERO, new AssertionError("step " + step + " failed"))
+                                : new Result(Status.SKIPPED, Duration.ZERO, null)));
+                    }
+                    publish(handlers, new TestCaseFinished(Instant.now(), testCase,
+                            new Result(failingStep < STEPS_PER_SCENARIO ? Status.FAILED : Status.PASSED, Duration.ZERO, null)));
+                });
+            }
+            executor.shutdown();
+            Validations.assertThat().object(executor.awaitTermination(1, TimeUnit.MINUTES)).isEqualTo(true).perform();
+        } finally {
+            Allure.setLifecycle(originalLifecycle);
+        }
+
+        Validations.assertThat().number(results.size()).isEqualTo(NUMBER_OF_SCENARIOS).perform();
+        Validations.assertThat().number(results.stream().map(TestResult::getUuid).distinct().count()).isEqualTo(NUMBER_OF_SCENARIOS).perform();
+        for (var result : results) {
+            var scenario = Integer.parseInt(result.getName().substring("Scenario ".length()));
+            var stepNames = String.join(", ", result.getSteps().stream().map(StepResult::getName).toList());
+            var expectedStepNames = new StringJoiner(", ");
+            for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+                expectedStepNames.add("Given step " + scenario + "." + step);
+            }
+            Validations.assertThat().object(stepNames).isEqualTo(expectedStepNames.toString()).perform();
+            Validations.assertThat().object(result.getStatus())
+                    .isEqualTo(scenario % 2 == 0 ? io.qameta.allure.model.Status.PASSED : io.qameta.allure.model.Status.FAILED)
+                    .perform();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void publish(Map<Class<?>, EventHandler<?>> handlers, T event) {
+        var handler = (EventHandler<T>) handlers.get(event.getClass());
+        if (handler != null) {
+            handler.receive(event);
+        }
+    }
+
+    private static String parallelFeature() {
+        var feature = new StringBuilder("Feature: Parallel feature\n\n");
+        for (int scenario = 0; scenario < NUMBER_OF_SCENARIOS; scenario++) {
+            feature.append("  Scenario: Scenario ").append(scenario).append('\n');
+            for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+                feature.append("    Given step ").append(scenario).append('.').append(step).append('\n');
+            }
+            feature.append('\n');
+        }
+        return feature.toString();
+    }
+
+    private static int scenarioLine(int scenario) {
+        // the feature line and a blank line, then each scenario takes a line for itself, its steps, and a blank line
+        return 3 + scenario * (STEPS_PER_SCENARIO + 2);
+    }
+
+    private static TestCase testCase(URI featureFile, int scenario) {
+        var testSteps = new ArrayList<TestStep>();
+        for (int step = 0; step < STEPS_PER_SCENARIO; step++) {
+            Step pickleStep = mock();
+            when(pickleStep.getKeyword()).thenReturn("Given ");
+            when(pickleStep.getText()).thenReturn("step " + scenario + "." + step);
+            when(pickleStep.getLine()).thenReturn(scenarioLine(scenario) + step + 1);
+            PickleStepTestStep testStep = mock();
+            when(testStep.getStep()).thenReturn(pickleStep);
+            testSteps.add(testStep);
+        }
+        TestCase testCase = mock();
+        when(testCase.getId()).thenReturn(UUID.randomUUID());
+        when(testCase.getUri()).thenReturn(featureFile);
+        when(testCase.getName()).thenReturn("Scenario " + scenario);
+        when(testCase.getKeyword()).thenReturn("Scenario");
+        when(testCase.getLocation()).thenReturn(new Location(scenarioLine(scenario), 3));
+        when(testCase.getTags()).thenReturn(List.of());
+        when(testCase.getTestSteps()).thenReturn(testSteps);
+        return testCase;
+    }
 }
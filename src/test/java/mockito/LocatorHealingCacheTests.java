@@ -0,0 +1,116 @@
+package mockito;
+
+import com.epam.healenium.SelfHealingDriver;
+import com.shaft.driver.SHAFT;
+import com.shaft.gui.element.internal.LocatorHealingCache;
+import com.shaft.validation.Validations;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+public class LocatorHealingCacheTests {
+    private static final String PAGE_URL = "https://app.test/login";
+    private static final String HEALED_XPATH = "//button[@id='sign-in']";
+    private final SelfHealingDriver driver = mock();
+    private final WebDriver delegate = mock(withSettings().extraInterfaces(JavascriptExecutor.class));
+    private final WebElement healedElement = mock();
+    private String healingCacheFolderPath;
+    private Path cacheFolder;
+    private String currentDomPath;
+
+    @BeforeMethod
+    public void beforeMethod() throws IOException {
+        healingCacheFolderPath = SHAFT.Properties.paths.healingCache();
+        cacheFolder = Files.createTempDirectory("healingCache");
+        SHAFT.Properties.paths.set().healingCache(cacheFolder.toString());
+        currentDomPath = "/html[1]/body[1]/button[1]";
+
+        when(driver.getDelegate()).thenReturn(delegate);
+        when(delegate.getCurrentUrl()).thenReturn(PAGE_URL);
+        when(delegate.findElements(any(By.class))).thenReturn(List.of(healedElement));
+        when(((JavascriptExecutor) delegate).executeScript(anyString(), any(Object[].class))).thenAnswer(invocation -> {
+            String script = invocation.getArgument(0);
+            if (script.contains("domPath(element) === arguments[1]")) {
+                // the healed xpath only matches if the element is still at the cached dom path
+                return currentDomPath.equals(invocation.getArgument(2)) ? healedElement : null;
+            } else if (script.contains("return domPath(arguments[0])")) {
+                return currentDomPath;
+            }
+            // the xpath suggestion algorithm
+            return HEALED_XPATH;
+        });
+    }
+
+    @Test
+    public void brokenLocatorShouldOnlyBeHealedOnce() {
+        var brokenLocator = By.id("login-button");
+        when(delegate.findElement(brokenLocator)).thenThrow(new NoSuchElementException("login-button"));
+        when(driver.findElement(brokenLocator)).thenReturn(healedElement);
+
+        var firstElement = LocatorHealingCache.findElement(driver, brokenLocator);
+        var secondElement = LocatorHealingCache.findElement(driver, brokenLocator);
+
+        Validations.assertThat().object(firstElement).isEqualTo(healedElement).perform();
+        Validations.assertThat().object(secondElement).isEqualTo(healedElement).perform();
+        // the first lookup is a cache miss that is healed by healenium, the second one is a cache hit
+        verify(driver, times(1)).findElement(brokenLocator);
+        Validations.assertThat().object(readCacheFile()).contains(HEALED_XPATH.replace("=", "\\=")).perform();
+    }
+
+    @Test
+    public void cachedHealingShouldBeUsedByLaterExecutions() throws IOException {
+        var brokenLocator = By.id("cached-button");
+        Files.writeString(cacheFolder.resolve("locator-healing-cache.properties"), String.join(System.lineSeparator(),
+                "https\\://app.test/login\\ By.id\\:\\ cached-button.healedLocator=" + HEALED_XPATH.replace("=", "\\="),
+                "https\\://app.test/login\\ By.id\\:\\ cached-button.domPath=" + currentDomPath,
+                "https\\://app.test/login\\ By.id\\:\\ cached-button.healedAt=2024-01-01T00\\:00\\:00Z"));
+        when(delegate.findElement(brokenLocator)).thenThrow(new NoSuchElementException("cached-button"));
+
+        var element = LocatorHealingCache.findElement(driver, brokenLocator);
+
+        Validations.assertThat().object(element).isEqualTo(healedElement).perform();
+        verify(driver, never()).findElement(any(By.class));
+    }
+
+    @Test
+    public void staleHealingShouldBeEvictedAndHealedAgain() {
+        var brokenLocator = By.id("moved-button");
+        when(delegate.findElement(brokenLocator)).thenThrow(new NoSuchElementException("moved-button"));
+        when(driver.findElement(brokenLocator)).thenReturn(healedElement);
+        LocatorHealingCache.findElement(driver, brokenLocator);
+
+        // the element moved, so the cached dom path no longer matches
+        currentDomPath = "/html[1]/body[1]/div[1]/button[1]";
+        var element = LocatorHealingCache.findElement(driver, brokenLocator);
+
+        Validations.assertThat().object(element).isEqualTo(healedElement).perform();
+        verify(driver, times(2)).findElement(brokenLocator);
+        Validations.assertThat().object(readCacheFile()).contains("moved-button.domPath=" + currentDomPath).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SHAFT.Properties.paths.set().healingCache(healingCacheFolderPath);
+        reset(driver, delegate, healedElement);
+    }
+
+    private String readCacheFile() {
+        try {
+            return Files.readString(cacheFolder.resolve("locator-healing-cache.properties"));
+        } catch (IOException ioException) {
+            return "";
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package mockito;
+
+import com.shaft.gui.browser.internal.PageLoadMetricsCollector;
+import com.shaft.validation.Validations;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+public class PageLoadMetricsCollectorTests {
+    @Test
+    public void identifiersShouldBeRemovedFromUrlPatterns() {
+        Validations.assertThat().object(PageLoadMetricsCollector.toUrlPattern("https://example.com/orders/12345/items/7?page=2#top"))
+                .isEqualTo("https://example.com/orders/{id}/items/{id}").perform();
+        Validations.assertThat().object(PageLoadMetricsCollector.toUrlPattern("https://example.com/users/123e4567-e89b-12d3-a456-426614174000/"))
+                .isEqualTo("https://example.com/users/{id}").perform();
+        Validations.assertThat().object(PageLoadMetricsCollector.toUrlPattern("https://example.com/v2/release-2024"))
+                .isEqualTo("https://example.com/v2/release-2024").perform();
+        Validations.assertThat().object(PageLoadMetricsCollector.toUrlPattern("/")).isEqualTo("/").perform();
+    }
+
+    @Test
+    public void navigationsToTheSameUrlPatternShouldBeAggregated() {
+        WebDriver driver = mock(withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(((JavascriptExecutor) driver).executeAsyncScript(anyString())).thenReturn(
+                Map.of("url", "https://metrics.test/orders/1?tab=details", "pageLoadTime", 100L, "largestContentfulPaint", 900.5),
+                Map.of("url", "https://metrics.test/orders/2", "pageLoadTime", 200L));
+
+        PageLoadMetricsCollector.capture(driver);
+        var metrics = PageLoadMetricsCollector.capture(driver);
+        var summary = PageLoadMetricsCollector.getSummary();
+
+        Validations.assertThat().object(Double.isNaN(metrics.largestContentfulPaint())).isEqualTo(true).perform();
+        Validations.assertThat().object(summary).contains("https://metrics.test/orders/{id}" + System.lineSeparator() + "  Navigations: 2").perform();
+        Validations.assertThat().object(summary).contains("Page load time (ms): 150.000 / 200.000").perform();
+        // metrics that weren't recorded are left out of the average
+        Validations.assertThat().object(summary).contains("Largest contentful paint (ms): 900.500 / 900.500").perform();
+    }
+
+    @Test
+    public void missingScriptResultShouldNotFailTheCapture() {
+        WebDriver driver = mock(withSettings().extraInterfaces(JavascriptExecutor.class));
+        when(driver.getCurrentUrl()).thenReturn("https://metrics.test/blocked");
+        when(((JavascriptExecutor) driver).executeAsyncScript(anyString())).thenReturn(null);
+
+        var metrics = PageLoadMetricsCollector.capture(driver);
+
+        Validations.assertThat().object(metrics.url()).isEqualTo("https://metrics.test/blocked").perform();
+        Validations.assertThat().object(Double.isNaN(metrics.pageLoadTime())).isEqualTo(true).perform();
+        Validations.assertThat().object(PageLoadMetricsCollector.getSummary()).doesNotContain("https://metrics.test/blocked").perform();
+    }
+}
@@ -0,0 +1,84 @@
+package mockito;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.gui.element.internal.PageSourceSnapshot;
+import com.shaft.validation.Validations;
+import io.appium.java_client.AppiumBy;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+public class PageSourceSnapshotTests {
+    private static final String PAGE_SOURCE = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <hierarchy>
+              <android.widget.FrameLayout resource-id="com.example:id/content">
+                <android.widget.TextView resource-id="com.example:id/title" content-desc="title" text="Welcome"/>
+                <android.widget.Button resource-id="com.example:id/login" content-desc="login" text="Login"/>
+              </android.widget.FrameLayout>
+            </hierarchy>
+            """;
+    private final WebDriver driver = mock();
+    private String targetPlatform;
+    private String mobileBrowserName;
+    private boolean evaluateNativeLocatorsLocally;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        targetPlatform = SHAFT.Properties.platform.targetPlatform();
+        mobileBrowserName = SHAFT.Properties.mobile.browserName();
+        evaluateNativeLocatorsLocally = SHAFT.Properties.flags.evaluateNativeLocatorsLocally();
+        SHAFT.Properties.platform.set().targetPlatform("ANDROID");
+        SHAFT.Properties.mobile.set().browserName("");
+        SHAFT.Properties.flags.set().evaluateNativeLocatorsLocally(true);
+        PageSourceSnapshot.invalidate();
+        reset(driver);
+        when(driver.getPageSource()).thenReturn(PAGE_SOURCE);
+    }
+
+    @Test
+    public void xpathAndIdLocatorsShouldBeEvaluatedAgainstOneSnapshot() {
+        var title = PageSourceSnapshot.getText(driver, By.xpath("//android.widget.TextView[@content-desc='title']"));
+        var login = PageSourceSnapshot.getText(driver, AppiumBy.id("login"));
+        var description = PageSourceSnapshot.getAttribute(driver, AppiumBy.accessibilityId("login"), "resource-id");
+
+        Validations.assertThat().object(title).isEqualTo("Welcome").perform();
+        Validations.assertThat().object(login).isEqualTo("Login").perform();
+        Validations.assertThat().object(description).isEqualTo("com.example:id/login").perform();
+        verify(driver, times(1)).getPageSource();
+    }
+
+    @Test
+    public void locatorsThatAreMissingLocallyShouldNotRefetchThePageSource() {
+        for (int i = 0; i < 5; i++) {
+            var missingElementText = PageSourceSnapshot.getText(driver, By.xpath("//android.widget.TextView[@text='Loading']"));
+            Validations.assertThat().object(missingElementText).isNull().perform();
+        }
+        verify(driver, times(1)).getPageSource();
+    }
+
+    @Test
+    public void onlyActionsThatMayChangeTheScreenShouldDiscardTheSnapshot() {
+        PageSourceSnapshot.getText(driver, AppiumBy.id("title"));
+        PageSourceSnapshot.invalidateUnlessReadOnly("getText");
+        PageSourceSnapshot.invalidateUnlessReadOnly("isElementDisplayed");
+        PageSourceSnapshot.getText(driver, AppiumBy.id("title"));
+        verify(driver, times(1)).getPageSource();
+
+        PageSourceSnapshot.invalidateUnlessReadOnly("click");
+        PageSourceSnapshot.getText(driver, AppiumBy.id("title"));
+        verify(driver, times(2)).getPageSource();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        PageSourceSnapshot.invalidate();
+        SHAFT.Properties.platform.set().targetPlatform(targetPlatform);
+        SHAFT.Properties.mobile.set().browserName(mobileBrowserName);
+        SHAFT.Properties.flags.set().evaluateNativeLocatorsLocally(evaluateNativeLocatorsLocally);
+    }
+}
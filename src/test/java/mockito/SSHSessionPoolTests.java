@@ -0,0 +1,49 @@
+package mockito;
+
+import com.jcraft.jsch.Session;
+import com.shaft.cli.internal.SSHSessionPool;
+import com.shaft.validation.Validations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.*;
+
+public class SSHSessionPoolTests {
+    @Test
+    public void sessionsConnectedAtTheSameTimeShouldBeReducedToOne() {
+        var connectingThreads = new CountDownLatch(2);
+        var connectedSessions = new CopyOnWriteArrayList<Session>();
+        Runnable acquire = () -> SSHSessionPool.acquire("localhost", 22, "shaft", "", () -> {
+            // both threads are connecting before either of them installs its session
+            connectingThreads.countDown();
+            try {
+                connectingThreads.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            Session session = mock();
+            when(session.isConnected()).thenReturn(true);
+            connectedSessions.add(session);
+            return session;
+        });
+
+        CompletableFuture.allOf(CompletableFuture.runAsync(acquire), CompletableFuture.runAsync(acquire)).join();
+
+        Validations.assertThat().number(connectedSessions.size()).isEqualTo(2).perform();
+        Validations.assertThat().number(SSHSessionPool.getNumberOfPooledSessions()).isEqualTo(1).perform();
+        // the session that lost the race is closed, the other one is shared by both threads
+        var disconnectedSessions = connectedSessions.stream().filter(session -> mockingDetails(session).getInvocations().stream()
+                .anyMatch(invocation -> invocation.getMethod().getName().equals("disconnect"))).toList();
+        Validations.assertThat().number(disconnectedSessions.size()).isEqualTo(1).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SSHSessionPool.shutdown();
+    }
+}
@@ -0,0 +1,33 @@
+package mockito;
+
+import com.shaft.listeners.internal.WebDriverListener;
+import com.shaft.validation.Validations;
+import org.openqa.selenium.WebDriver;
+import org.testng.annotations.Test;
+
+import static org.mockito.Mockito.*;
+
+public class WebDriverListenerTests {
+    @Test
+    public void alternatingDriversShouldKeepTheirOwnDecorators() {
+        WebDriver firstDriver = mock();
+        WebDriver secondDriver = mock();
+
+        var firstDecoratedDriver = WebDriverListener.getDecoratedDriver(firstDriver);
+        var secondDecoratedDriver = WebDriverListener.getDecoratedDriver(secondDriver);
+
+        Validations.assertThat().object(WebDriverListener.getDecoratedDriver(firstDriver) == firstDecoratedDriver).isEqualTo(true).perform();
+        Validations.assertThat().object(WebDriverListener.getDecoratedDriver(secondDriver) == secondDecoratedDriver).isEqualTo(true).perform();
+        Validations.assertThat().object(firstDecoratedDriver == secondDecoratedDriver).isEqualTo(false).perform();
+    }
+
+    @Test
+    public void discardedDriversShouldBeDecoratedAgain() {
+        WebDriver driver = mock();
+        var decoratedDriver = WebDriverListener.getDecoratedDriver(driver);
+
+        WebDriverListener.discardDecoratedDriver(driver);
+
+        Validations.assertThat().object(WebDriverListener.getDecoratedDriver(driver) == decoratedDriver).isEqualTo(false).perform();
+    }
+}
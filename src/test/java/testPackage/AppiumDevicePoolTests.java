@@ -0,0 +1,98 @@
+package testPackage;
+
+import com.shaft.driver.internal.AppiumDevicePool;
+import com.shaft.driver.internal.AppiumDeviceProvider;
+import com.shaft.validation.Validations;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class AppiumDevicePoolTests {
+    private static final Duration LEASE_TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    public void devicesShouldBeBootedWithUniquePorts() throws InterruptedException {
+        var pool = new AppiumDevicePool(new FakeDeviceProvider(), 3).start();
+        try {
+            Set<Integer> ports = new HashSet<>();
+            // every device is leased from a different thread, since a thread keeps its device until it's released
+            Set<AppiumDevicePool.Device> leasedDevices = ConcurrentHashMap.newKeySet();
+            var threads = IntStream.range(0, 3).mapToObj(i -> new Thread(() -> leasedDevices.add(pool.lease(LEASE_TIMEOUT)))).toList();
+            threads.forEach(Thread::start);
+            for (var thread : threads) {
+                thread.join();
+            }
+            leasedDevices.forEach(device -> {
+                ports.add(device.ports().appiumPort());
+                ports.add(device.ports().systemPort());
+                ports.add(device.ports().chromedriverPort());
+                ports.add(device.ports().mjpegServerPort());
+            });
+            Validations.assertThat().number(leasedDevices.size()).isEqualTo(3).perform();
+            Validations.assertThat().number(ports.size()).isEqualTo(12).perform();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void sameThreadShouldKeepTheSameDeviceUntilReleased() {
+        var pool = new AppiumDevicePool(new FakeDeviceProvider(), 2).start();
+        try {
+            var device = pool.lease(LEASE_TIMEOUT);
+            Validations.assertThat().object(pool.lease(LEASE_TIMEOUT).udid()).isEqualTo(device.udid()).perform();
+            Validations.assertThat().number(pool.getNumberOfAvailableDevices()).isEqualTo(1).perform();
+        } finally {
+            pool.release();
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void unhealthyDeviceShouldBeReplacedAfterRelease() throws InterruptedException {
+        var provider = new FakeDeviceProvider();
+        var pool = new AppiumDevicePool(provider, 1).start();
+        try {
+            var device = pool.lease(LEASE_TIMEOUT);
+            provider.unhealthyDevices.add(device.udid());
+            pool.release();
+
+            var replacement = pool.lease(LEASE_TIMEOUT);
+            Validations.assertThat().object(replacement.udid()).doesNotEqual(device.udid()).perform();
+            Validations.assertThat().number(replacement.index()).isEqualTo(device.index()).perform();
+            Validations.assertThat().object(provider.shutdownDevices.contains(device.udid())).isEqualTo(true).perform();
+        } finally {
+            pool.release();
+            pool.shutdown();
+        }
+    }
+
+    private static class FakeDeviceProvider implements AppiumDeviceProvider {
+        private final AtomicInteger bootCounter = new AtomicInteger();
+        private final Set<String> unhealthyDevices = ConcurrentHashMap.newKeySet();
+        private final Set<String> shutdownDevices = ConcurrentHashMap.newKeySet();
+
+        @Override
+        public AppiumDevicePool.Device boot(int index, AppiumDevicePool.DevicePorts ports) throws InterruptedException {
+            TimeUnit.MILLISECONDS.sleep(100);
+            return new AppiumDevicePool.Device(index, "fake-device-" + bootCounter.incrementAndGet(),
+                    "http://localhost:" + ports.appiumPort() + "/", ports);
+        }
+
+        @Override
+        public boolean isHealthy(AppiumDevicePool.Device device) {
+            return !unhealthyDevices.contains(device.udid());
+        }
+
+        @Override
+        public void shutdown(AppiumDevicePool.Device device) {
+            shutdownDevices.add(device.udid());
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package testPackage;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.io.ReportManager;
+import com.shaft.tools.io.internal.ReportManagerHelper;
+import com.shaft.validation.Validations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DiscreteLogBufferTests {
+    private static final int BUFFER_SIZE = 10;
+    private int discreteLogBufferSize;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        discreteLogBufferSize = SHAFT.Properties.reporting.discreteLogBufferSize();
+        SHAFT.Properties.reporting.set().discreteLogBufferSize(BUFFER_SIZE);
+        ReportManagerHelper.flushDiscreteLogBuffer(true);
+    }
+
+    @Test
+    public void bufferedEntriesShouldBeDroppedWithoutFormattingWhenTheTestPasses() {
+        var formattedEntries = new AtomicInteger();
+        ReportManager.logDiscrete(() -> "entry #" + formattedEntries.incrementAndGet());
+        ReportManagerHelper.flushDiscreteLogBuffer(true);
+
+        Validations.assertThat().number(formattedEntries.get()).isEqualTo(0).perform();
+    }
+
+    @Test
+    public void onlyTheLastBufferedEntriesShouldBeWrittenWhenTheTestFails() {
+        var formattedEntries = new AtomicInteger();
+        for (int i = 0; i < BUFFER_SIZE * 2; i++) {
+            ReportManager.logDiscrete(() -> "entry #" + formattedEntries.incrementAndGet());
+        }
+        var formattedEntriesBeforeFailure = formattedEntries.get();
+        ReportManagerHelper.flushDiscreteLogBuffer(false);
+
+        Validations.assertThat().number(formattedEntriesBeforeFailure).isEqualTo(0).perform();
+        Validations.assertThat().number(formattedEntries.get()).isEqualTo(BUFFER_SIZE).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        ReportManagerHelper.flushDiscreteLogBuffer(true);
+        SHAFT.Properties.reporting.set().discreteLogBufferSize(discreteLogBufferSize);
+    }
+}
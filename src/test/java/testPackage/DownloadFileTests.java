@@ -0,0 +1,196 @@
+package testPackage;
+
+import com.shaft.cli.FileActions;
+import com.shaft.cli.TerminalActions;
+import com.shaft.validation.Validations;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class DownloadFileTests {
+    private static final String DOWNLOAD_FOLDER = "target/downloadFileTests/";
+    private static final byte[] LARGE_FILE = new byte[10 * 1024 * 1024 + 123];
+    private static final byte[] SMALL_FILE = new byte[64 * 1024];
+    private final AtomicInteger numberOfRangeRequests = new AtomicInteger();
+    private final AtomicInteger numberOfFullRequests = new AtomicInteger();
+    private final AtomicInteger numberOfHeadRequests = new AtomicInteger();
+    private volatile CountDownLatch rangeRequestsGate;
+    private HttpServer httpServer;
+    private String largeFileChecksum;
+    private String smallFileChecksum;
+    private String baseUrl;
+
+    @BeforeClass
+    public void beforeClass() throws Exception {
+        new Random(42).nextBytes(LARGE_FILE);
+        largeFileChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(LARGE_FILE));
+        new Random(7).nextBytes(SMALL_FILE);
+        smallFileChecksum = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(SMALL_FILE));
+
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        httpServer.createContext("/large.bin", exchange -> serveWithRanges(exchange, LARGE_FILE, largeFileChecksum));
+        httpServer.createContext("/small.bin", exchange -> serveWithRanges(exchange, SMALL_FILE, smallFileChecksum));
+        httpServer.createContext("/stalled.bin", this::serveStalledBody);
+        httpServer.setExecutor(Executors.newFixedThreadPool(8));
+        httpServer.start();
+        baseUrl = "http://localhost:" + httpServer.getAddress().getPort();
+    }
+
+    @BeforeMethod
+    public void beforeMethod() {
+        numberOfRangeRequests.set(0);
+        numberOfFullRequests.set(0);
+        numberOfHeadRequests.set(0);
+        rangeRequestsGate = null;
+    }
+
+    @Test
+    public void largeFileShouldBeDownloadedInParallelRanges() {
+        FileActions.getInstance().downloadFile(baseUrl + "/large.bin", DOWNLOAD_FOLDER + "large.bin", largeFileChecksum);
+
+        var actualChecksum = FileActions.getInstance().getFileChecksum(new TerminalActions(), DOWNLOAD_FOLDER, "large.bin");
+        Validations.assertThat().object(actualChecksum).isEqualTo(largeFileChecksum).perform();
+        Validations.assertThat().number(numberOfRangeRequests.get()).isGreaterThan(1).perform();
+        Validations.assertThat().number(numberOfFullRequests.get()).isEqualTo(0).perform();
+    }
+
+    @Test
+    public void concurrentDownloadsOfTheSameFileShouldBeShared() throws InterruptedException {
+        // the range requests are held until the second download was requested, so both downloads overlap
+        rangeRequestsGate = new CountDownLatch(1);
+        var firstDownload = CompletableFuture.runAsync(() -> FileActions.getInstance().downloadFile(baseUrl + "/large.bin", DOWNLOAD_FOLDER + "shared.bin"));
+        while (numberOfRangeRequests.get() == 0 && !firstDownload.isDone()) {
+            Thread.sleep(10);
+        }
+        var secondDownload = CompletableFuture.runAsync(() -> FileActions.getInstance().downloadFile(baseUrl + "/large.bin", DOWNLOAD_FOLDER + "shared.bin"));
+        Thread.sleep(500);
+        rangeRequestsGate.countDown();
+        CompletableFuture.allOf(firstDownload, secondDownload).join();
+
+        var actualChecksum = FileActions.getInstance().getFileChecksum(new TerminalActions(), DOWNLOAD_FOLDER, "shared.bin");
+        Validations.assertThat().object(actualChecksum).isEqualTo(largeFileChecksum).perform();
+        // a single download needs one probe and three range requests
+        Validations.assertThat().number(numberOfHeadRequests.get()).isEqualTo(1).perform();
+        Validations.assertThat().number(numberOfRangeRequests.get()).isEqualTo(3).perform();
+    }
+
+    @Test
+    public void partialFileOfAnUnknownVersionShouldNotBeResumed() throws IOException {
+        Files.createDirectories(Path.of(DOWNLOAD_FOLDER));
+        Files.write(Path.of(DOWNLOAD_FOLDER, "stale.bin.part"), new byte[1024]);
+
+        FileActions.getInstance().downloadFile(baseUrl + "/small.bin", DOWNLOAD_FOLDER + "stale.bin", smallFileChecksum);
+
+        Validations.assertThat().number(numberOfRangeRequests.get()).isEqualTo(0).perform();
+        Validations.assertThat().number(numberOfFullRequests.get()).isEqualTo(1).perform();
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void checksumMismatchShouldFailTheDownload() {
+        FileActions.getInstance().downloadFile(baseUrl + "/large.bin", DOWNLOAD_FOLDER + "corrupted.bin", "0".repeat(64));
+    }
+
+    @Test(expectedExceptions = AssertionError.class, timeOut = 10000)
+    public void stalledResponseBodyShouldTimeOut() {
+        FileActions.getInstance().downloadFile(baseUrl + "/stalled.bin", DOWNLOAD_FOLDER + "stalled.bin", 1000, 500, null);
+    }
+
+    @Test
+    public void fileUrlsShouldBeCopied() throws IOException {
+        var source = Files.write(Files.createDirectories(Path.of(DOWNLOAD_FOLDER, "source")).resolve("local.bin"), SMALL_FILE);
+
+        FileActions.getInstance().downloadFile(source.toUri().toString(), DOWNLOAD_FOLDER + "local.bin", smallFileChecksum);
+
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(Path.of(DOWNLOAD_FOLDER, "local.bin")), SMALL_FILE)).isEqualTo(true).perform();
+        Validations.assertThat().number(numberOfFullRequests.get()).isEqualTo(0).perform();
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void malformedUrlShouldFailTheDownload() {
+        FileActions.getInstance().downloadFile("not a url", DOWNLOAD_FOLDER + "malformed.bin");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        httpServer.stop(0);
+    }
+
+    private void serveStalledBody(HttpExchange exchange) throws IOException {
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(405, -1);
+            exchange.close();
+            return;
+        }
+        // the headers and the first bytes arrive in time, then the server stops sending data
+        exchange.sendResponseHeaders(200, SMALL_FILE.length);
+        var body = exchange.getResponseBody();
+        body.write(SMALL_FILE, 0, 1024);
+        body.flush();
+        try {
+            Thread.sleep(5000);
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+        exchange.close();
+    }
+
+    private void serveWithRanges(HttpExchange exchange, byte[] file, String checksum) throws IOException {
+        exchange.getResponseHeaders().add("Accept-Ranges", "bytes");
+        exchange.getResponseHeaders().add("ETag", "\"" + checksum + "\"");
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            numberOfHeadRequests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(file.length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+            return;
+        }
+        var range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = file.length - 1;
+        if (range != null) {
+            numberOfRangeRequests.incrementAndGet();
+            awaitGate();
+            var bounds = range.replace("bytes=", "").split("-");
+            start = Integer.parseInt(bounds[0]);
+            if (bounds.length > 1 && !bounds[1].isBlank()) {
+                end = Integer.parseInt(bounds[1]);
+            }
+            exchange.getResponseHeaders().add("Content-Range", "bytes " + start + "-" + end + "/" + file.length);
+            exchange.sendResponseHeaders(206, end - start + 1);
+        } else {
+            numberOfFullRequests.incrementAndGet();
+            exchange.sendResponseHeaders(200, file.length);
+        }
+        try (var body = exchange.getResponseBody()) {
+            body.write(file, start, end - start + 1);
+        }
+    }
+
+    private void awaitGate() {
+        var gate = rangeRequestsGate;
+        if (gate != null) {
+            try {
+                gate.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
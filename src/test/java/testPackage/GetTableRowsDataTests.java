@@ -7,11 +7,13 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
+import java.util.List;
 import java.util.Map;
 
 public class GetTableRowsDataTests {
     SHAFT.GUI.WebDriver driver;
     By tableLocator = By.id("example");
+    By nextPageButton = By.cssSelector("[data-dt-idx='next']");
 
     @Test
     public void getFirstRow(){
@@ -21,6 +23,20 @@ public class GetTableRowsDataTests {
         Assert.assertEquals(firstRow.get("Start date"), "2008-11-28");
 
     }
+
+    @Test
+    public void getRowsFromFirstTwoPages(){
+        int[] pagesRead = {1};
+        List<Map<String, String>> rows = driver.element().getTableRowsData(tableLocator, () -> {
+            if (pagesRead[0]++ >= 2) {
+                return false;
+            }
+            driver.element().click(nextPageButton);
+            return true;
+        });
+        Assert.assertEquals(rows.size(), 20);
+        Assert.assertNotEquals(rows.get(0).get("Name"), rows.get(10).get("Name"));
+    }
     @BeforeMethod(description = "Setup Browser instance.")
     public void beforeMethod() {
         driver = new SHAFT.GUI.WebDriver();
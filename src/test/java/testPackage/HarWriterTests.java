@@ -0,0 +1,55 @@
+package testPackage;
+
+import com.google.gson.JsonParser;
+import com.shaft.gui.browser.internal.HarWriter;
+import com.shaft.validation.Validations;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+
+public class HarWriterTests {
+    @Test
+    public void entriesShouldBeStreamedToAValidHarFile() throws IOException {
+        var file = Files.createTempDirectory("har").resolve("recording.har");
+        try (var harWriter = new HarWriter(file, 2)) {
+            harWriter.write(entry("https://example.com/", 120, 2048));
+            harWriter.write(entry("https://example.com/slow.js", 900, 512));
+            harWriter.write(entry("https://example.com/large.png", 300, 4096));
+        }
+
+        var log = JsonParser.parseString(Files.readString(file)).getAsJsonObject().getAsJsonObject("log");
+        var entries = log.getAsJsonArray("entries");
+        Validations.assertThat().object(log.get("version").getAsString()).isEqualTo("1.2").perform();
+        Validations.assertThat().number(entries.size()).isEqualTo(3).perform();
+        Validations.assertThat().object(entries.get(1).getAsJsonObject().getAsJsonObject("request").get("url").getAsString())
+                .isEqualTo("https://example.com/slow.js").perform();
+        Validations.assertThat().number(entries.get(1).getAsJsonObject().get("time").getAsDouble()).isEqualTo(900).perform();
+    }
+
+    @Test
+    public void summaryShouldOnlyKeepTheSlowestAndLargestEntries() throws IOException {
+        var file = Files.createTempDirectory("har").resolve("recording.har");
+        String summary;
+        try (var harWriter = new HarWriter(file, 1)) {
+            harWriter.write(entry("https://example.com/", 120, 2048));
+            harWriter.write(entry("https://example.com/slow.js", 900, 512));
+            harWriter.write(entry("https://example.com/large.png", 300, 4096));
+            summary = harWriter.getSummary();
+        }
+
+        var slowestRequests = summary.substring(summary.indexOf("Slowest requests:"), summary.indexOf("Largest responses:"));
+        var largestResponses = summary.substring(summary.indexOf("Largest responses:"));
+        Validations.assertThat().object(slowestRequests).contains("slow.js").perform();
+        Validations.assertThat().object(slowestRequests).doesNotContain("large.png").perform();
+        Validations.assertThat().object(largestResponses).contains("large.png").perform();
+        Validations.assertThat().object(largestResponses).doesNotContain("slow.js").perform();
+    }
+
+    private static HarWriter.Entry entry(String url, double time, long bodySize) {
+        return new HarWriter.Entry(System.currentTimeMillis(), "GET", url, "http/1.1", Map.of("Accept", "*/*"),
+                200, "OK", Map.of("Content-Type", "text/plain"), "text/plain", bodySize, null, false,
+                time * 0.75, time * 0.25, "Other");
+    }
+}
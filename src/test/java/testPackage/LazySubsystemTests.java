@@ -0,0 +1,39 @@
+package testPackage;
+
+import com.shaft.tools.internal.support.LazySubsystem;
+import com.shaft.validation.Validations;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class LazySubsystemTests {
+    @Test
+    public void subsystemShouldBeInitializedOnceWhenUsedConcurrently() {
+        var numberOfInitializations = new AtomicInteger();
+        var subsystem = LazySubsystem.of("Concurrent subsystem", numberOfInitializations::incrementAndGet);
+
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(i -> CompletableFuture.runAsync(subsystem::initialize))
+                .toArray(CompletableFuture[]::new)).join();
+
+        Validations.assertThat().number(numberOfInitializations.get()).isEqualTo(1).perform();
+        Validations.assertThat().object(subsystem.isInitialized()).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void dependenciesShouldBeInitializedFirst() {
+        List<String> initializationOrder = Collections.synchronizedList(new ArrayList<>());
+        var dependency = LazySubsystem.of("Dependency", () -> initializationOrder.add("dependency"));
+        var subsystem = LazySubsystem.of("Dependent subsystem", () -> initializationOrder.add("subsystem"), dependency);
+
+        Validations.assertThat().object(dependency.isInitialized()).isEqualTo(false).perform();
+        subsystem.initialize();
+
+        Validations.assertThat().object(String.join(",", initializationOrder)).isEqualTo("dependency,subsystem").perform();
+    }
+}
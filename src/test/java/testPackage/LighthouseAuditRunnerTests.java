@@ -0,0 +1,103 @@
+package testPackage;
+
+import com.shaft.performance.internal.LighthouseAuditProcess;
+import com.shaft.performance.internal.LighthouseAuditRunner;
+import com.shaft.validation.Validations;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LighthouseAuditRunnerTests {
+    @Test
+    public void auditsShouldRunOffTheTestThreadAndReuseWorkerProcesses() {
+        var numberOfStartedProcesses = new AtomicInteger();
+        Set<String> auditThreads = ConcurrentHashMap.newKeySet();
+        var runner = new LighthouseAuditRunner(() -> {
+            numberOfStartedProcesses.incrementAndGet();
+            return new FakeAuditProcess(auditThreads, false);
+        }, 2);
+        try {
+            for (int i = 0; i < 6; i++) {
+                runner.submit(new LighthouseAuditRunner.Job("https://example.com/page" + i, 9222 + i % 2, "page" + i + ".html"));
+            }
+            var results = runner.awaitPendingAudits();
+
+            Validations.assertThat().number(results.size()).isEqualTo(6).perform();
+            Validations.assertThat().object(results.get(5).url()).isEqualTo("https://example.com/page5").perform();
+            Validations.assertThat().number(numberOfStartedProcesses.get()).isLessThanOrEquals(2).perform();
+            Validations.assertThat().object(auditThreads.contains(Thread.currentThread().getName())).isEqualTo(false).perform();
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    @Test
+    public void failedProcessShouldBeReplaced() {
+        var numberOfStartedProcesses = new AtomicInteger();
+        Set<String> auditThreads = ConcurrentHashMap.newKeySet();
+        var runner = new LighthouseAuditRunner(() ->
+                new FakeAuditProcess(auditThreads, numberOfStartedProcesses.incrementAndGet() == 1), 1);
+        try {
+            runner.submit(new LighthouseAuditRunner.Job("https://example.com/failing", 9222, "failing.html"));
+            runner.submit(new LighthouseAuditRunner.Job("https://example.com/passing", 9222, "passing.html"));
+            var results = runner.awaitPendingAudits();
+
+            Validations.assertThat().object(results.get(0).isSuccessful()).isEqualTo(false).perform();
+            Validations.assertThat().object(results.get(1).isSuccessful()).isEqualTo(true).perform();
+            Validations.assertThat().number(numberOfStartedProcesses.get()).isEqualTo(2).perform();
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    @Test
+    public void auditsOfTheSameBrowserShouldNeverOverlap() {
+        var auditsInProgress = new ConcurrentHashMap<Integer, AtomicInteger>();
+        var maximumAuditsInProgress = new ConcurrentHashMap<Integer, Integer>();
+        var runner = new LighthouseAuditRunner(() -> new LighthouseAuditProcess() {
+            @Override
+            public LighthouseAuditRunner.Result audit(LighthouseAuditRunner.Job job) throws Exception {
+                var inProgress = auditsInProgress.computeIfAbsent(job.port(), port -> new AtomicInteger()).incrementAndGet();
+                maximumAuditsInProgress.merge(job.port(), inProgress, Math::max);
+                TimeUnit.MILLISECONDS.sleep(50);
+                auditsInProgress.get(job.port()).decrementAndGet();
+                return new LighthouseAuditRunner.Result(job.url(), job.reportPath(), 95, 1200, 50, 0.01, null);
+            }
+
+            @Override
+            public void close() {
+            }
+        }, 4);
+        try {
+            for (int i = 0; i < 8; i++) {
+                runner.submit(new LighthouseAuditRunner.Job("https://example.com/page" + i, 9222 + i % 2, "page" + i + ".html"));
+            }
+            var results = runner.awaitPendingAudits();
+
+            Validations.assertThat().number(results.size()).isEqualTo(8).perform();
+            Validations.assertThat().number(maximumAuditsInProgress.get(9222)).isEqualTo(1).perform();
+            Validations.assertThat().number(maximumAuditsInProgress.get(9223)).isEqualTo(1).perform();
+        } finally {
+            runner.shutdown();
+        }
+    }
+
+    private record FakeAuditProcess(Set<String> auditThreads, boolean isBroken) implements LighthouseAuditProcess {
+        @Override
+        public LighthouseAuditRunner.Result audit(LighthouseAuditRunner.Job job) throws Exception {
+            auditThreads.add(Thread.currentThread().getName());
+            if (isBroken) {
+                throw new IllegalStateException("Broken audit process.");
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+            return new LighthouseAuditRunner.Result(job.url(), job.reportPath(), 95, 1200, 50, 0.01, null);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package testPackage;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.performance.internal.LightHouseGenerateReport;
+import com.shaft.performance.internal.LighthouseAuditRunner;
+import com.shaft.validation.Validations;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+public class LighthouseBudgetTests {
+    private String budgetFile;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        budgetFile = SHAFT.Properties.performance.budgetFile();
+    }
+
+    @Test
+    public void onlyTheMetricsThatAreDefinedShouldBeBudgeted() throws IOException {
+        useBudget("""
+                # minimum
+                performanceScore=90
+                # maximums
+                largestContentfulPaint = 2500
+                totalBlockingTime=
+                unknownMetric=1
+                """);
+        var budget = LightHouseGenerateReport.readBudget();
+
+        Validations.assertThat().number(budget.size()).isEqualTo(2).perform();
+        Validations.assertThat().number(budget.get("performanceScore")).isEqualTo(90.0).perform();
+        Validations.assertThat().number(budget.get("largestContentfulPaint")).isEqualTo(2500.0).perform();
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void invalidBudgetShouldFail() throws IOException {
+        useBudget("cumulativeLayoutShift=low");
+        LightHouseGenerateReport.readBudget();
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void missingBudgetFileShouldFail() {
+        SHAFT.Properties.performance.set().budgetFile("src/test/resources/testDataFiles/missing-budget.properties");
+        LightHouseGenerateReport.assertPendingAuditsAreWithinBudget();
+    }
+
+    @Test
+    public void pendingAuditsShouldPassWhenNothingWasAudited() throws IOException {
+        useBudget("performanceScore=90");
+        LightHouseGenerateReport.assertPendingAuditsAreWithinBudget();
+    }
+
+    @Test
+    public void auditsWithinBudgetShouldPass() throws IOException {
+        useBudget("performanceScore=90\nlargestContentfulPaint=2500\ncumulativeLayoutShift=0.1");
+        LightHouseGenerateReport.assertWithinBudget(LightHouseGenerateReport.readBudget(), List.of(
+                result("https://example.com/", 95, 1200),
+                result("https://example.com/boundary", 90, 2500)));
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void auditOverBudgetShouldFail() throws IOException {
+        useBudget("performanceScore=90\nlargestContentfulPaint=2500");
+        LightHouseGenerateReport.assertWithinBudget(LightHouseGenerateReport.readBudget(), List.of(
+                result("https://example.com/", 95, 1200),
+                result("https://example.com/slow", 95, 4000)));
+    }
+
+    @Test(expectedExceptions = AssertionError.class)
+    public void failedAuditShouldFail() throws IOException {
+        useBudget("performanceScore=90");
+        LightHouseGenerateReport.assertWithinBudget(LightHouseGenerateReport.readBudget(), List.of(
+                new LighthouseAuditRunner.Result("https://example.com/", "report.html", 0, 0, 0, 0, "Chrome is not reachable")));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SHAFT.Properties.performance.set().budgetFile(budgetFile);
+    }
+
+    private static void useBudget(String budget) throws IOException {
+        var file = Files.writeString(Files.createTempFile("lighthouse-budget", ".properties"), budget);
+        SHAFT.Properties.performance.set().budgetFile(file.toString());
+    }
+
+    private static LighthouseAuditRunner.Result result(String url, double performanceScore, double largestContentfulPaint) {
+        return new LighthouseAuditRunner.Result(url, "report.html", performanceScore, largestContentfulPaint, 50, 0.01, null);
+    }
+}
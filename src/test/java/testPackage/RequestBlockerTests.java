@@ -0,0 +1,79 @@
+package testPackage;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.gui.browser.internal.RequestBlocker;
+import com.shaft.validation.Validations;
+import org.openqa.selenium.firefox.FirefoxProfile;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+
+public class RequestBlockerTests {
+    private String profiles;
+    private String urlPatterns;
+
+    @BeforeMethod
+    public void beforeMethod() {
+        profiles = SHAFT.Properties.web.blockedRequestsProfiles();
+        urlPatterns = SHAFT.Properties.web.blockedRequestsUrlPatterns();
+    }
+
+    @Test
+    public void profilesAndCustomPatternsShouldBeMergedWithoutDuplicates() {
+        SHAFT.Properties.web.set().blockedRequestsProfiles("fonts, Analytics, unsupportedProfile");
+        SHAFT.Properties.web.set().blockedRequestsUrlPatterns("*chat.example.com*, *.woff2");
+        var patterns = RequestBlocker.getBlockedUrlPatterns();
+
+        Validations.assertThat().object(patterns.contains("*.woff2?*")).isEqualTo(true).perform();
+        Validations.assertThat().object(patterns.contains("*google-analytics.com*")).isEqualTo(true).perform();
+        Validations.assertThat().object(patterns.contains("*chat.example.com*")).isEqualTo(true).perform();
+        Validations.assertThat().number(patterns.stream().filter("*.woff2"::equals).count()).isEqualTo(1).perform();
+        Validations.assertThat().object(RequestBlocker.isEnabled()).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void firefoxShouldMatchFileExtensionsOfSecureUrls() {
+        SHAFT.Properties.web.set().blockedRequestsProfiles("images");
+        SHAFT.Properties.web.set().blockedRequestsUrlPatterns("");
+        var firefoxProfile = new FirefoxProfile();
+        RequestBlocker.configure(firefoxProfile, false);
+
+        Validations.assertThat().number(firefoxProfile.getIntegerPreference("permissions.default.image", 1)).isEqualTo(2).perform();
+        Validations.assertThat().number(firefoxProfile.getIntegerPreference("network.proxy.type", 0)).isEqualTo(2).perform();
+        Validations.assertThat().object(firefoxProfile.getBooleanPreference("network.proxy.autoconfig_url.include_path", false)).isEqualTo(true).perform();
+        Validations.assertThat().object(firefoxProfile.getBooleanPreference("network.proxy.failover_direct", true)).isEqualTo(false).perform();
+
+        var script = firefoxProfile.getStringPreference("network.proxy.autoconfig_url", "");
+        Validations.assertThat().object(isBlockedByProxyAutoConfig(script, "https://cdn.example.com/images/logo.png")).isEqualTo(true).perform();
+        Validations.assertThat().object(isBlockedByProxyAutoConfig(script, "https://example.com/favicon.ico?v=2")).isEqualTo(true).perform();
+        // ? is not a wildcard, so hosts that only contain an extension aren't blocked
+        Validations.assertThat().object(isBlockedByProxyAutoConfig(script, "https://www.icons8.com/")).isEqualTo(false).perform();
+        Validations.assertThat().object(isBlockedByProxyAutoConfig(script, "https://example.com/index.html")).isEqualTo(false).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SHAFT.Properties.web.set().blockedRequestsProfiles(profiles);
+        SHAFT.Properties.web.set().blockedRequestsUrlPatterns(urlPatterns);
+    }
+
+    /**
+     * Evaluates the generated proxy auto-config script the way FindProxyForURL does, by testing the url against each of
+     * its regular expression literals.
+     */
+    private static boolean isBlockedByProxyAutoConfig(String proxyAutoConfigUrl, String url) {
+        var script = URLDecoder.decode(proxyAutoConfigUrl.substring("data:text/javascript,".length()), StandardCharsets.UTF_8);
+        Validations.assertThat().object(script).contains("return 'PROXY 127.0.0.1:9';").perform();
+        var regularExpressionLiterals = Pattern.compile("/(\\^.*?\\$)/(?=[,\\]])").matcher(script);
+        while (regularExpressionLiterals.find()) {
+            if (Pattern.compile(regularExpressionLiterals.group(1)).matcher(url).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
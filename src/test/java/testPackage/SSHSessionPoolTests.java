@@ -0,0 +1,100 @@
+package testPackage;
+
+import com.jcraft.jsch.JSch;
+import com.jcraft.jsch.KeyPair;
+import com.shaft.cli.TerminalActions;
+import com.shaft.cli.internal.SSHSessionPool;
+import com.shaft.driver.SHAFT;
+import com.shaft.validation.Validations;
+import org.apache.sshd.common.session.Session;
+import org.apache.sshd.common.session.SessionListener;
+import org.apache.sshd.server.SshServer;
+import org.apache.sshd.server.auth.pubkey.AcceptAllPublickeyAuthenticator;
+import org.apache.sshd.server.keyprovider.SimpleGeneratorHostKeyProvider;
+import org.apache.sshd.server.shell.ProcessShellCommandFactory;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SSHSessionPoolTests {
+    private static final String KEY_FILE_FOLDER = "target/sshSessionPoolTests/";
+    private static final String KEY_FILE_NAME = "id_rsa";
+    private final AtomicInteger numberOfCreatedSessions = new AtomicInteger();
+    private SshServer sshServer;
+    private TerminalActions terminalSession;
+
+    @BeforeClass
+    public void beforeClass() throws Exception {
+        Files.createDirectories(Path.of(KEY_FILE_FOLDER));
+        var keyPair = KeyPair.genKeyPair(new JSch(), KeyPair.RSA, 2048);
+        keyPair.writePrivateKey(KEY_FILE_FOLDER + KEY_FILE_NAME);
+        keyPair.dispose();
+
+        sshServer = SshServer.setUpDefaultServer();
+        sshServer.setHost("localhost");
+        sshServer.setPort(0);
+        sshServer.setKeyPairProvider(new SimpleGeneratorHostKeyProvider(Path.of(KEY_FILE_FOLDER, "host.ser")));
+        sshServer.setPublickeyAuthenticator(AcceptAllPublickeyAuthenticator.INSTANCE);
+        sshServer.setCommandFactory(ProcessShellCommandFactory.INSTANCE);
+        sshServer.addSessionListener(new SessionListener() {
+            @Override
+            public void sessionCreated(Session session) {
+                numberOfCreatedSessions.incrementAndGet();
+            }
+        });
+        sshServer.start();
+
+        terminalSession = new TerminalActions("localhost", sshServer.getPort(), System.getProperty("user.name"), KEY_FILE_FOLDER, KEY_FILE_NAME);
+    }
+
+    @BeforeMethod
+    public void beforeMethod() {
+        SSHSessionPool.shutdown();
+        numberOfCreatedSessions.set(0);
+    }
+
+    @Test
+    public void consecutiveCommandsShouldReuseTheSameSession() {
+        for (var i = 0; i < 5; i++) {
+            Validations.assertThat().object(terminalSession.performTerminalCommand("echo pooled")).contains("pooled").perform();
+        }
+        Validations.assertThat().number(numberOfCreatedSessions.get()).isEqualTo(1).perform();
+        Validations.assertThat().number(SSHSessionPool.getNumberOfPooledSessions()).isEqualTo(1).perform();
+    }
+
+    @Test
+    public void shutdownShouldCloseAllPooledSessions() {
+        terminalSession.performTerminalCommand("echo pooled");
+        SSHSessionPool.shutdown();
+        Validations.assertThat().number(SSHSessionPool.getNumberOfPooledSessions()).isEqualTo(0).perform();
+    }
+
+    @Test
+    public void disablingSessionReuseShouldCreateANewSessionPerCommand() {
+        SHAFT.Properties.flags.set().reuseSSHSessions(false);
+        try {
+            terminalSession.performTerminalCommand("echo first");
+            terminalSession.performTerminalCommand("echo second");
+        } finally {
+            SHAFT.Properties.flags.set().reuseSSHSessions(true);
+        }
+        Validations.assertThat().number(numberOfCreatedSessions.get()).isEqualTo(2).perform();
+        Validations.assertThat().number(SSHSessionPool.getNumberOfPooledSessions()).isEqualTo(0).perform();
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void afterMethod() {
+        SSHSessionPool.shutdown();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() throws Exception {
+        sshServer.stop(true);
+    }
+}
@@ -0,0 +1,30 @@
+package testPackage;
+
+import com.shaft.gui.element.internal.ScreenFingerprint;
+import com.shaft.validation.Validations;
+import org.testng.annotations.Test;
+
+public class ScreenFingerprintTests {
+    private static final String ANDROID_PAGE_SOURCE = """
+            <?xml version='1.0' encoding='UTF-8' standalone='yes' ?>
+            <hierarchy index="0" rotation="0">
+              <android.widget.ListView index="0" resource-id="list" bounds="[0,0][1080,2000]" focused="%s">
+                <android.widget.TextView index="0" text="%s" bounds="[0,0][1080,200]"/>
+                <android.widget.TextView index="1" text="Item 2" bounds="[0,200][1080,400]"/>
+              </android.widget.ListView>
+            </hierarchy>""";
+
+    @Test
+    public void fingerprintShouldIgnoreStateAttributes() {
+        var focused = ScreenFingerprint.of(ANDROID_PAGE_SOURCE.formatted("true", "Item 1"));
+        var notFocused = ScreenFingerprint.of(ANDROID_PAGE_SOURCE.formatted("false", "Item 1"));
+        Validations.assertThat().object(focused).isEqualTo(notFocused).perform();
+    }
+
+    @Test
+    public void fingerprintShouldChangeWhenVisibleContentChanges() {
+        var before = ScreenFingerprint.of(ANDROID_PAGE_SOURCE.formatted("false", "Item 1"));
+        var after = ScreenFingerprint.of(ANDROID_PAGE_SOURCE.formatted("false", "Item 3"));
+        Validations.assertThat().object(before).doesNotEqual(after).perform();
+    }
+}
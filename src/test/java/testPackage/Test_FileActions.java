@@ -1,12 +1,42 @@
 package testPackage;
 
 import com.shaft.cli.FileActions;
+import com.shaft.cli.TerminalActions;
 import com.shaft.validation.Validations;
 import org.testng.annotations.Test;
 
+import java.io.File;
+import java.net.MalformedURLException;
+
 public class Test_FileActions {
+    private static final String TEST_FOLDER = "target/fileActionsTests/";
+
     @Test
     public void f() {
         Validations.assertThat().object(FileActions.getInstance().listFilesInDirectory("/home/")).contains("").perform();
     }
+
+    @Test
+    public void zipAndUnpackFolder() throws MalformedURLException {
+        FileActions.getInstance().writeToFile(TEST_FOLDER + "source/", "text.txt", "SHAFT");
+        FileActions.getInstance().writeToFile(TEST_FOLDER + "source/nested/", "image.png", new byte[]{(byte) 0x89, 'P', 'N', 'G'});
+        FileActions.getInstance().createFolder(TEST_FOLDER + "source/empty/");
+
+        FileActions.getInstance().zipFiles(TEST_FOLDER + "source", TEST_FOLDER + "source.zip");
+        FileActions.getInstance().unpackArchive(new File(TEST_FOLDER + "source.zip").toURI().toURL(), TEST_FOLDER + "unpacked/");
+
+        Validations.assertThat().object(FileActions.getInstance().readFile(TEST_FOLDER + "unpacked/source/", "text.txt")).isEqualTo("SHAFT").perform();
+        Validations.assertThat().file(TEST_FOLDER + "unpacked/source/nested/", "image.png").exists().perform();
+        Validations.assertThat().file(TEST_FOLDER + "unpacked/source/", "empty").exists().perform();
+    }
+
+    @Test
+    public void copiedFolderShouldHaveMatchingChecksums() {
+        FileActions.getInstance().writeToFile(TEST_FOLDER + "original/nested/", "text.txt", "SHAFT Engine");
+        FileActions.getInstance().copyFolder(TEST_FOLDER + "original", TEST_FOLDER + "copy");
+
+        var originalChecksum = FileActions.getInstance().getFileChecksum(new TerminalActions(), TEST_FOLDER + "original/nested/", "text.txt");
+        var copiedChecksum = FileActions.getInstance().getFileChecksum(new TerminalActions(), TEST_FOLDER + "copy/nested/", "text.txt");
+        Validations.assertThat().object(copiedChecksum).isEqualTo(originalChecksum).perform();
+    }
 }
@@ -5,6 +5,7 @@ import com.shaft.validation.Validations;
 import io.qameta.allure.Issue;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
 import java.util.Arrays;
 
 public class Test_localShell {
@@ -39,4 +40,19 @@ public class Test_localShell {
 
         Validations.assertThat().object(lastDateOfCurrentMonth).equals("04/30/19");
     }
+
+    @Test
+    public void test_startTerminalCommandAndWaitForOutput() {
+        try (var process = (new TerminalActions()).startTerminalCommand("echo starting && sleep 1 && echo 'Server started' && sleep 30")) {
+            String response = process.waitForOutput("Server started", Duration.ofSeconds(10));
+            Validations.assertThat().object(response).contains("Server started").perform();
+        }
+    }
+
+    @Test
+    public void test_startTerminalCommandAndWaitForExitCode() {
+        var process = (new TerminalActions()).startTerminalCommand("echo done");
+        Validations.assertThat().number(process.waitFor(Duration.ofSeconds(10))).isEqualTo(0).perform();
+        Validations.assertThat().object(process.getOutputTail()).isEqualTo("done").perform();
+    }
 }
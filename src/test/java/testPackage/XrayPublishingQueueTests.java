@@ -0,0 +1,202 @@
+package testPackage;
+
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.internal.tms.XrayPublishingQueue;
+import com.shaft.validation.Validations;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class XrayPublishingQueueTests {
+    private final AtomicInteger issueRequests = new AtomicInteger();
+    private final AtomicInteger searchRequests = new AtomicInteger();
+    private final AtomicInteger attachmentRequests = new AtomicInteger();
+    private final AtomicInteger linkRequests = new AtomicInteger();
+    private final AtomicInteger unauthorizedRequests = new AtomicInteger();
+    private volatile boolean isTokenRevoked;
+    private volatile CountDownLatch requestsGate;
+    private HttpServer jira;
+    private String url;
+    private String projectKey;
+    private String authType;
+    private String authorization;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        url = SHAFT.Properties.jira.url();
+        projectKey = SHAFT.Properties.jira.projectKey();
+        authType = SHAFT.Properties.jira.authType();
+        authorization = SHAFT.Properties.jira.authorization();
+
+        jira = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jira.createContext("/rest/api/2/", this::handle);
+        jira.start();
+        SHAFT.Properties.jira.set().jiraUrl("http://localhost:" + jira.getAddress().getPort());
+        SHAFT.Properties.jira.set().projectKey("SHAFT");
+        SHAFT.Properties.jira.set().authType("Bearer");
+        SHAFT.Properties.jira.set().authorization("token");
+    }
+
+    @BeforeMethod
+    public void beforeMethod() {
+        issueRequests.set(0);
+        searchRequests.set(0);
+        attachmentRequests.set(0);
+        linkRequests.set(0);
+        unauthorizedRequests.set(0);
+        requestsGate = null;
+    }
+
+    @Test
+    public void bugShouldBeCreatedOnceWhenJiraIsTemporarilyUnavailable() throws IOException {
+        var spoolFolder = Files.createTempDirectory("xray-spool");
+        var screenshot = Files.writeString(spoolFolder.resolveSibling(spoolFolder.getFileName() + "-screenshot.png"), "screenshot");
+        var log = Files.writeString(spoolFolder.resolveSibling(spoolFolder.getFileName() + "-log.txt"), "log");
+
+        var queue = new XrayPublishingQueue(spoolFolder, 2);
+        queue.reportBug("failingTest", "execution log", List.of(screenshot.toString(), log.toString(), "missing.png"), "SHAFT-1");
+        var isPublished = queue.shutdown(Duration.ofSeconds(30));
+
+        Validations.assertThat().object(isPublished).isEqualTo(true).perform();
+        // the first request fails with 503, so the retry looks for the bug before creating it again
+        Validations.assertThat().number(issueRequests.get()).isEqualTo(2).perform();
+        Validations.assertThat().number(searchRequests.get()).isEqualTo(1).perform();
+        Validations.assertThat().number(attachmentRequests.get()).isEqualTo(1).perform();
+        Validations.assertThat().number(linkRequests.get()).isEqualTo(1).perform();
+        try (var spooledFiles = Files.list(spoolFolder)) {
+            Validations.assertThat().number(spooledFiles.count()).isEqualTo(0).perform();
+        }
+    }
+
+    @Test
+    public void bugShouldNotBeRetriedWhenJiraRejectsTheCredentials() throws IOException {
+        var spoolFolder = Files.createTempDirectory("xray-spool");
+        isTokenRevoked = true;
+        try {
+            var queue = new XrayPublishingQueue(spoolFolder, 2);
+            queue.reportBug("unauthorizedTest", "execution log", List.of(), null);
+            var isPublished = queue.shutdown(Duration.ofSeconds(30));
+
+            Validations.assertThat().object(isPublished).isEqualTo(true).perform();
+            Validations.assertThat().number(unauthorizedRequests.get()).isEqualTo(1).perform();
+            try (var spooledFiles = Files.list(spoolFolder.resolve("failed"))) {
+                Validations.assertThat().number(spooledFiles.count()).isEqualTo(1).perform();
+            }
+        } finally {
+            isTokenRevoked = false;
+        }
+    }
+
+    @Test
+    public void spooledJobShouldOnlyBePublishedByOneQueue() throws IOException {
+        var spoolFolder = Files.createTempDirectory("xray-spool");
+        Files.writeString(spoolFolder.resolve("spooled-bug.json"), "{\"id\":\"spooled-bug\",\"type\":\"BUG\",\"files\":[],"
+                + "\"linkedTicketID\":\"SHAFT-1\",\"isIssueRequested\":true,\"issueID\":\"SHAFT-2\"}");
+        // the first queue is still publishing the job while the second one starts, like two forks sharing the spool
+        requestsGate = new CountDownLatch(1);
+        var firstQueue = new XrayPublishingQueue(spoolFolder, 1);
+        var secondQueue = new XrayPublishingQueue(spoolFolder, 1);
+        requestsGate.countDown();
+        firstQueue.shutdown(Duration.ofSeconds(30));
+        secondQueue.shutdown(Duration.ofSeconds(30));
+
+        Validations.assertThat().number(linkRequests.get()).isEqualTo(1).perform();
+        try (var spooledFiles = Files.list(spoolFolder)) {
+            Validations.assertThat().number(spooledFiles.count()).isEqualTo(0).perform();
+        }
+    }
+
+    @Test
+    public void attachmentsShouldBeUploadedEvenIfTheyAreDeletedAfterTheBugWasReported() throws IOException {
+        var spoolFolder = Files.createTempDirectory("xray-spool");
+        var screenshot = Files.writeString(spoolFolder.resolveSibling(spoolFolder.getFileName() + "-screenshot.png"), "screenshot");
+        requestsGate = new CountDownLatch(1);
+
+        var queue = new XrayPublishingQueue(spoolFolder, 2);
+        queue.reportBug("failingTest", "execution log", List.of(screenshot.toString()), null);
+        // the next execution cleans the folders that the attachments were generated in
+        Files.delete(screenshot);
+        requestsGate.countDown();
+        var isPublished = queue.shutdown(Duration.ofSeconds(30));
+
+        Validations.assertThat().object(isPublished).isEqualTo(true).perform();
+        Validations.assertThat().number(attachmentRequests.get()).isEqualTo(1).perform();
+        try (var spooledFiles = Files.list(spoolFolder)) {
+            Validations.assertThat().number(spooledFiles.count()).isEqualTo(0).perform();
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        jira.stop(0);
+        SHAFT.Properties.jira.set().jiraUrl(url);
+        SHAFT.Properties.jira.set().projectKey(projectKey);
+        SHAFT.Properties.jira.set().authType(authType);
+        SHAFT.Properties.jira.set().authorization(authorization);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        awaitGate();
+        exchange.getRequestBody().readAllBytes();
+        var path = exchange.getRequestURI().getPath();
+        var method = exchange.getRequestMethod();
+        if (isTokenRevoked) {
+            unauthorizedRequests.incrementAndGet();
+            respond(exchange, 401, "");
+        } else if (method.equals("POST") && path.equals("/rest/api/2/issue")) {
+            if (issueRequests.incrementAndGet() == 1) {
+                respond(exchange, 503, "");
+            } else {
+                respond(exchange, 201, "{\"key\":\"SHAFT-2\"}");
+            }
+        } else if (method.equals("GET") && path.equals("/rest/api/2/search")) {
+            searchRequests.incrementAndGet();
+            respond(exchange, 200, "{\"issues\":[]}");
+        } else if (method.equals("POST") && path.equals("/rest/api/2/issue/SHAFT-2/attachments")) {
+            attachmentRequests.incrementAndGet();
+            respond(exchange, 200, "[]");
+        } else if (method.equals("PUT") && path.equals("/rest/api/2/issue/SHAFT-2")) {
+            linkRequests.incrementAndGet();
+            respond(exchange, 204, null);
+        } else {
+            respond(exchange, 404, "");
+        }
+    }
+
+    private void awaitGate() {
+        var gate = requestsGate;
+        if (gate != null) {
+            try {
+                gate.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException interruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(statusCode, -1);
+        } else {
+            var bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(statusCode, bytes.length == 0 ? -1 : bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
@@ -22,6 +22,12 @@ public class FlagsTests {
     boolean attemptToClickBeforeTyping ;
     boolean disableCache ;
     boolean enableTrueNativeMode ;
+    boolean waitForElementPresenceUsingMutationObserver;
+    boolean cacheElementHandles;
+    boolean reuseSSHSessions;
+    boolean cacheDriverResolution;
+    boolean resolveDriversOffline;
+    boolean evaluateNativeLocatorsLocally;
 
 
     @BeforeClass
@@ -42,6 +48,12 @@ public class FlagsTests {
         attemptToClickBeforeTyping = SHAFT.Properties.flags.attemptToClickBeforeTyping();
         disableCache = SHAFT.Properties.flags.disableCache();
         enableTrueNativeMode = SHAFT.Properties.flags.enableTrueNativeMode();
+        waitForElementPresenceUsingMutationObserver = SHAFT.Properties.flags.waitForElementPresenceUsingMutationObserver();
+        cacheElementHandles = SHAFT.Properties.flags.cacheElementHandles();
+        reuseSSHSessions = SHAFT.Properties.flags.reuseSSHSessions();
+        cacheDriverResolution = SHAFT.Properties.flags.cacheDriverResolution();
+        resolveDriversOffline = SHAFT.Properties.flags.resolveDriversOffline();
+        evaluateNativeLocatorsLocally = SHAFT.Properties.flags.evaluateNativeLocatorsLocally();
 
     }
 
@@ -63,6 +75,12 @@ public class FlagsTests {
         SHAFT.Properties.flags.set().attemptToClickBeforeTyping(attemptToClickBeforeTyping);
         SHAFT.Properties.flags.set().disableCache(disableCache);
         SHAFT.Properties.flags.set().enableTrueNativeMode(enableTrueNativeMode);
+        SHAFT.Properties.flags.set().waitForElementPresenceUsingMutationObserver(waitForElementPresenceUsingMutationObserver);
+        SHAFT.Properties.flags.set().cacheElementHandles(cacheElementHandles);
+        SHAFT.Properties.flags.set().reuseSSHSessions(reuseSSHSessions);
+        SHAFT.Properties.flags.set().cacheDriverResolution(cacheDriverResolution);
+        SHAFT.Properties.flags.set().resolveDriversOffline(resolveDriversOffline);
+        SHAFT.Properties.flags.set().evaluateNativeLocatorsLocally(evaluateNativeLocatorsLocally);
 
     }
 }
@@ -11,6 +11,7 @@ public class HealeniumTests {
     String serverHost;
     int serverPort;
     int imitatePort;
+    boolean localHealingCache;
 
     @BeforeClass
     public void beforeClass() {
@@ -20,6 +21,7 @@ public class HealeniumTests {
         serverHost = SHAFT.Properties.healenium.serverHost();
         serverPort = SHAFT.Properties.healenium.serverPort();
         imitatePort = SHAFT.Properties.healenium.imitatePort();
+        localHealingCache = SHAFT.Properties.healenium.localHealingCache();
     }
 
     @Test
@@ -30,5 +32,6 @@ public class HealeniumTests {
         SHAFT.Properties.healenium.set().serverHost(serverHost);
         SHAFT.Properties.healenium.set().serverPort(serverPort);
         SHAFT.Properties.healenium.set().imitatePort(imitatePort);
+        SHAFT.Properties.healenium.set().localHealingCache(localHealingCache);
     }
 }
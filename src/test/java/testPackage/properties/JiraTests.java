@@ -18,6 +18,9 @@ public class JiraTests {
     String assignee;
     String allureLinkTmsPattern;
     String allureLinkCustomPattern;
+    int publishingThreads;
+    int publishingTimeout;
+    String publishingSpoolFolderPath;
 
     @BeforeClass
     public void beforeClass() {
@@ -34,6 +37,9 @@ public class JiraTests {
         assignee = SHAFT.Properties.jira.assignee();
         allureLinkTmsPattern = SHAFT.Properties.jira.allureLinkTmsPattern();
         allureLinkCustomPattern = SHAFT.Properties.jira.allureLinkCustomPattern();
+        publishingThreads = SHAFT.Properties.jira.publishingThreads();
+        publishingTimeout = SHAFT.Properties.jira.publishingTimeout();
+        publishingSpoolFolderPath = SHAFT.Properties.jira.publishingSpoolFolderPath();
 
 
     }
@@ -53,6 +59,9 @@ public class JiraTests {
         SHAFT.Properties.jira.set().assignee(assignee);
         SHAFT.Properties.jira.set().allureLinkTmsPattern(allureLinkTmsPattern);
         SHAFT.Properties.jira.set().allureLinkCustomPattern(allureLinkCustomPattern);
+        SHAFT.Properties.jira.set().publishingThreads(publishingThreads);
+        SHAFT.Properties.jira.set().publishingTimeout(publishingTimeout);
+        SHAFT.Properties.jira.set().publishingSpoolFolderPath(publishingSpoolFolderPath);
 
 
     }
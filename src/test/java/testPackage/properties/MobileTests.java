@@ -17,6 +17,7 @@ public class MobileTests {
     String app;
     String appPackage;
     String appActivity;
+    int selfManagedDevicePoolSize;
 
 
     @BeforeClass
@@ -33,6 +34,7 @@ public class MobileTests {
         app = SHAFT.Properties.mobile.app();
         appPackage = SHAFT.Properties.mobile.appPackage();
         appActivity = SHAFT.Properties.mobile.appActivity();
+        selfManagedDevicePoolSize = SHAFT.Properties.mobile.selfManagedDevicePoolSize();
 
     }
 
@@ -50,6 +52,7 @@ public class MobileTests {
         SHAFT.Properties.mobile.set().app(app);
         SHAFT.Properties.mobile.set().appPackage(appPackage);
         SHAFT.Properties.mobile.set().appActivity(appActivity);
+        SHAFT.Properties.mobile.set().selfManagedDevicePoolSize(selfManagedDevicePoolSize);
 
     }
 }
@@ -15,6 +15,7 @@ public class PathsTests {
     String executionSummaryReport;
     String video;
     String applitoolsApiKey;
+    String healingCache;
 
 
     @BeforeClass
@@ -29,6 +30,7 @@ public class PathsTests {
         executionSummaryReport = SHAFT.Properties.paths.executionSummaryReport();
         video = SHAFT.Properties.paths.video();
         applitoolsApiKey = SHAFT.Properties.paths.applitoolsApiKey();
+        healingCache = SHAFT.Properties.paths.healingCache();
 
     }
 
@@ -43,6 +45,7 @@ public class PathsTests {
         SHAFT.Properties.paths.set().executionSummaryReport(executionSummaryReport);
         SHAFT.Properties.paths.set().video(video);
         SHAFT.Properties.paths.set().applitoolsApiKey(applitoolsApiKey);
+        SHAFT.Properties.paths.set().healingCache(healingCache);
 
 
     }
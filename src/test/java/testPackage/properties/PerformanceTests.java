@@ -7,16 +7,34 @@ import org.testng.annotations.Test;
 public class PerformanceTests {
     boolean isEnabled;
     int port;
+    int workers;
+    String budgetFile;
+    boolean capturePageLoadMetrics;
+    boolean recordNetworkTraffic;
+    String networkRecordingUrlFilter;
+    int networkRecordingMaximumBodySize;
 
     @BeforeClass
     public void beforeClass() {
         isEnabled = SHAFT.Properties.performance.isEnabled();
         port = SHAFT.Properties.performance.port();
+        workers = SHAFT.Properties.performance.workers();
+        budgetFile = SHAFT.Properties.performance.budgetFile();
+        capturePageLoadMetrics = SHAFT.Properties.performance.capturePageLoadMetrics();
+        recordNetworkTraffic = SHAFT.Properties.performance.recordNetworkTraffic();
+        networkRecordingUrlFilter = SHAFT.Properties.performance.networkRecordingUrlFilter();
+        networkRecordingMaximumBodySize = SHAFT.Properties.performance.networkRecordingMaximumBodySize();
     }
 
     @Test
     public void test() {
         SHAFT.Properties.performance.set().isEnabled(isEnabled);
         SHAFT.Properties.performance.set().port(port);
+        SHAFT.Properties.performance.set().workers(workers);
+        SHAFT.Properties.performance.set().budgetFile(budgetFile);
+        SHAFT.Properties.performance.set().capturePageLoadMetrics(capturePageLoadMetrics);
+        SHAFT.Properties.performance.set().recordNetworkTraffic(recordNetworkTraffic);
+        SHAFT.Properties.performance.set().networkRecordingUrlFilter(networkRecordingUrlFilter);
+        SHAFT.Properties.performance.set().networkRecordingMaximumBodySize(networkRecordingMaximumBodySize);
     }
 }
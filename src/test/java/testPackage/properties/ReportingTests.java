@@ -18,6 +18,8 @@ public class ReportingTests {
     boolean openLighthouseReportWhileExecution;
     boolean openExecutionSummaryReportAfterExecution;
     boolean disableLogging;
+    String nativeModeReportingLevel;
+    int discreteLogBufferSize;
 
     @BeforeClass
     public void beforeClass() {
@@ -34,6 +36,8 @@ public class ReportingTests {
         openLighthouseReportWhileExecution = SHAFT.Properties.reporting.openLighthouseReportWhileExecution();
         openExecutionSummaryReportAfterExecution = SHAFT.Properties.reporting.openExecutionSummaryReportAfterExecution();
         disableLogging = SHAFT.Properties.reporting.disableLogging();
+        nativeModeReportingLevel = SHAFT.Properties.reporting.nativeModeReportingLevel();
+        discreteLogBufferSize = SHAFT.Properties.reporting.discreteLogBufferSize();
 
     }
 
@@ -50,6 +54,8 @@ public class ReportingTests {
         SHAFT.Properties.reporting.set().openLighthouseReportWhileExecution(openLighthouseReportWhileExecution);
         SHAFT.Properties.reporting.set().openExecutionSummaryReportAfterExecution(openExecutionSummaryReportAfterExecution);
         SHAFT.Properties.reporting.set().disableLogging(disableLogging);
+        SHAFT.Properties.reporting.set().nativeModeReportingLevel(nativeModeReportingLevel);
+        SHAFT.Properties.reporting.set().discreteLogBufferSize(discreteLogBufferSize);
 
     }
 }
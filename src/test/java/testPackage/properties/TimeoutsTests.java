@@ -22,6 +22,9 @@ public class TimeoutsTests {
     Boolean waitForRemoteServerToBeUp;
     int timeoutForRemoteServerToBeUp;
     int remoteServerInstanceCreationTimeout;
+    int sshSessionIdleTimeout;
+    int driverResolutionCacheTimeout;
+    int pageSourceSnapshotTimeout;
 
 
     @BeforeClass
@@ -43,6 +46,9 @@ public class TimeoutsTests {
         waitForRemoteServerToBeUp = SHAFT.Properties.timeouts.waitForRemoteServerToBeUp();
         timeoutForRemoteServerToBeUp = SHAFT.Properties.timeouts.timeoutForRemoteServerToBeUp();
         remoteServerInstanceCreationTimeout = SHAFT.Properties.timeouts.remoteServerInstanceCreationTimeout();
+        sshSessionIdleTimeout = SHAFT.Properties.timeouts.sshSessionIdleTimeout();
+        driverResolutionCacheTimeout = SHAFT.Properties.timeouts.driverResolutionCacheTimeout();
+        pageSourceSnapshotTimeout = SHAFT.Properties.timeouts.pageSourceSnapshotTimeout();
 
     }
 
@@ -64,6 +70,9 @@ public class TimeoutsTests {
         SHAFT.Properties.timeouts.set().waitForRemoteServerToBeUp(waitForRemoteServerToBeUp);
         SHAFT.Properties.timeouts.set().timeoutForRemoteServerToBeUp(timeoutForRemoteServerToBeUp);
         SHAFT.Properties.timeouts.set().remoteServerInstanceCreationTimeout(remoteServerInstanceCreationTimeout);
+        SHAFT.Properties.timeouts.set().sshSessionIdleTimeout(sshSessionIdleTimeout);
+        SHAFT.Properties.timeouts.set().driverResolutionCacheTimeout(driverResolutionCacheTimeout);
+        SHAFT.Properties.timeouts.set().pageSourceSnapshotTimeout(pageSourceSnapshotTimeout);
 
     }
 
@@ -19,6 +19,7 @@ public class VisualsTests {
     boolean videoParamsRecordVideo;
     String videoParamsScope;
     String whenToTakePageSourceSnapshot;
+    String videoParamsEncodingPreset;
 
 
     @BeforeClass
@@ -37,6 +38,7 @@ public class VisualsTests {
         videoParamsRecordVideo = SHAFT.Properties.visuals.videoParamsRecordVideo();
         videoParamsScope = SHAFT.Properties.visuals.videoParamsScope();
         whenToTakePageSourceSnapshot = SHAFT.Properties.visuals.whenToTakePageSourceSnapshot();
+        videoParamsEncodingPreset = SHAFT.Properties.visuals.videoParamsEncodingPreset();
     }
 
     @Test
@@ -55,6 +57,7 @@ public class VisualsTests {
         SHAFT.Properties.visuals.set().videoParamsRecordVideo(videoParamsRecordVideo);
         SHAFT.Properties.visuals.set().videoParamsScope(videoParamsScope);
         SHAFT.Properties.visuals.set().whenToTakePageSourceSnapshot(whenToTakePageSourceSnapshot);
+        SHAFT.Properties.visuals.set().videoParamsEncodingPreset(videoParamsEncodingPreset);
 
     }
 
@@ -17,6 +17,11 @@ public class WebTests {
     String baseURL;
     int browserWindowWidth;
     int browserWindowHeight;
+    String blockedRequestsProfiles;
+    String blockedRequestsUrlPatterns;
+    String throttlingNetwork;
+    int throttlingCpuRate;
+    boolean sharedBrowserProcess;
 
 
     @BeforeClass
@@ -33,6 +38,11 @@ public class WebTests {
         baseURL = SHAFT.Properties.web.baseURL();
         browserWindowWidth = Integer.parseInt("1920");
         browserWindowHeight = Integer.parseInt("1080");
+        blockedRequestsProfiles = SHAFT.Properties.web.blockedRequestsProfiles();
+        blockedRequestsUrlPatterns = SHAFT.Properties.web.blockedRequestsUrlPatterns();
+        throttlingNetwork = SHAFT.Properties.web.throttlingNetwork();
+        throttlingCpuRate = SHAFT.Properties.web.throttlingCpuRate();
+        sharedBrowserProcess = SHAFT.Properties.web.sharedBrowserProcess();
     }
 
     @Test
@@ -49,5 +59,10 @@ public class WebTests {
                 .baseURL(baseURL)
                 .browserWindowWidth(browserWindowWidth)
                 .browserWindowHeight(browserWindowHeight);
+        SHAFT.Properties.web.set().blockedRequestsProfiles(blockedRequestsProfiles);
+        SHAFT.Properties.web.set().blockedRequestsUrlPatterns(blockedRequestsUrlPatterns);
+        SHAFT.Properties.web.set().throttlingNetwork(throttlingNetwork);
+        SHAFT.Properties.web.set().throttlingCpuRate(throttlingCpuRate);
+        SHAFT.Properties.web.set().sharedBrowserProcess(sharedBrowserProcess);
     }
 }
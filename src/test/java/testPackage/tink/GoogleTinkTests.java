@@ -0,0 +1,149 @@
+package testPackage.tink;
+
+import com.google.crypto.tink.Aead;
+import com.google.crypto.tink.CleartextKeysetHandle;
+import com.google.crypto.tink.JsonKeysetReader;
+import com.google.crypto.tink.JsonKeysetWriter;
+import com.google.crypto.tink.KeyTemplates;
+import com.google.crypto.tink.KeysetHandle;
+import com.google.crypto.tink.aead.AeadConfig;
+import com.shaft.driver.SHAFT;
+import com.shaft.tools.internal.security.GoogleTink;
+import com.shaft.validation.Validations;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.GeneralSecurityException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class GoogleTinkTests {
+    // the associated data that SHAFT uses for every encrypted file
+    private static final byte[] AAD = "This is SHAFT_Engine".getBytes();
+    private String keysetFilename;
+    private String kmsMasterKeyUri;
+    private Path folder;
+    private Aead aead;
+
+    @BeforeClass
+    public void beforeClass() throws GeneralSecurityException, IOException {
+        keysetFilename = SHAFT.Properties.tinkey.keysetFilename();
+        kmsMasterKeyUri = SHAFT.Properties.tinkey.kmsMasterKeyUri();
+        folder = Files.createTempDirectory("tink");
+        AeadConfig.register();
+        var keysetFile = folder.resolve("keyset.json");
+        CleartextKeysetHandle.write(KeysetHandle.generateNew(KeyTemplates.get("AES256_GCM")), JsonKeysetWriter.withPath(keysetFile));
+        SHAFT.Properties.tinkey.set().keysetFilename(keysetFile.toString());
+        SHAFT.Properties.tinkey.set().kmsMasterKeyUri("");
+        GoogleTink.initialize();
+        aead = CleartextKeysetHandle.read(JsonKeysetReader.withPath(keysetFile)).getPrimitive(Aead.class);
+    }
+
+    @Test
+    public void smallFilesShouldBeEncryptedAndDecrypted() throws IOException {
+        var plaintext = "{\"username\": \"SHAFT_Engine\"}".getBytes();
+        Files.write(folder.resolve("small.json"), plaintext);
+
+        GoogleTink.encrypt(folder + "/", "small.json");
+        var ciphertext = Files.readAllBytes(folder.resolve("small.json"));
+        Validations.assertThat().object(Arrays.equals(ciphertext, plaintext)).isEqualTo(false).perform();
+
+        // encrypting an encrypted file again should be skipped
+        GoogleTink.encrypt(folder + "/", "small.json");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("small.json")), ciphertext)).isEqualTo(true).perform();
+
+        GoogleTink.decrypt(folder + "/", "small.json");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("small.json")), plaintext)).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void largeFilesShouldBeStreamedThroughEncryptionAndDecryption() throws IOException {
+        var plaintext = new byte[5 * 1024 * 1024 + 7];
+        new Random(20).nextBytes(plaintext);
+        Files.write(folder.resolve("large.bin"), plaintext);
+
+        GoogleTink.encrypt(folder + "/", "large.bin");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("large.bin")), plaintext)).isEqualTo(false).perform();
+
+        GoogleTink.decrypt(folder + "/", "large.bin");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("large.bin")), plaintext)).isEqualTo(true).perform();
+
+        // decrypting a plaintext file again should leave it untouched
+        GoogleTink.decrypt(folder + "/", "large.bin");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("large.bin")), plaintext)).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void filesEncryptedBeforeTheHeaderWasIntroducedShouldBeDecrypted() throws IOException, GeneralSecurityException {
+        var plaintext = "{\"password\": \"legacy\"}".getBytes();
+        Files.write(folder.resolve("legacy.json"), aead.encrypt(plaintext, AAD));
+
+        GoogleTink.decrypt(folder + "/", "legacy.json");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(folder.resolve("legacy.json")), plaintext)).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void filesThatFailedToDecryptShouldNotBeRecordedAsPlaintext() throws IOException, GeneralSecurityException {
+        var plaintext = "{\"password\": \"corrupted\"}".getBytes();
+        var ciphertext = aead.encrypt(plaintext, AAD);
+        var corruptedCiphertext = ciphertext.clone();
+        corruptedCiphertext[corruptedCiphertext.length - 1] ^= 1;
+        var file = Files.write(folder.resolve("corrupted.json"), corruptedCiphertext);
+        var lastModified = FileTime.fromMillis(1_700_000_000_000L);
+        Files.setLastModifiedTime(file, lastModified);
+
+        GoogleTink.decrypt(folder + "/", "corrupted.json");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(file), corruptedCiphertext)).isEqualTo(true).perform();
+
+        // the repaired file has the same size and modification time, so it's only decrypted if the failure wasn't recorded
+        Files.write(file, ciphertext);
+        Files.setLastModifiedTime(file, lastModified);
+        GoogleTink.decrypt(folder + "/", "corrupted.json");
+        Validations.assertThat().object(Arrays.equals(Files.readAllBytes(file), plaintext)).isEqualTo(true).perform();
+    }
+
+    @Test
+    public void testDataFolderShouldBeEncryptedAndDecryptedInParallel() throws IOException {
+        var testDataFolderPath = SHAFT.Properties.paths.testData();
+        var testDataFolder = Files.createTempDirectory("testData");
+        Files.createDirectories(testDataFolder.resolve("nested"));
+        var plaintexts = new HashMap<Path, byte[]>();
+        var random = new Random(49);
+        for (int i = 0; i < 12; i++) {
+            // a mix of small and streamed files, some of them in a sub folder
+            var plaintext = new byte[i % 3 == 0 ? 2 * 1024 * 1024 : 64 + i];
+            random.nextBytes(plaintext);
+            var file = testDataFolder.resolve(i % 2 == 0 ? "nested" : "").resolve("data-" + i + ".bin");
+            plaintexts.put(Files.write(file, plaintext), plaintext);
+        }
+        try {
+            SHAFT.Properties.paths.set().testData(testDataFolder + "/");
+
+            GoogleTink.encrypt();
+            for (Map.Entry<Path, byte[]> entry : plaintexts.entrySet()) {
+                Validations.assertThat().object(Arrays.equals(Files.readAllBytes(entry.getKey()), entry.getValue())).isEqualTo(false).perform();
+            }
+
+            GoogleTink.decrypt();
+            for (Map.Entry<Path, byte[]> entry : plaintexts.entrySet()) {
+                Validations.assertThat().object(Arrays.equals(Files.readAllBytes(entry.getKey()), entry.getValue())).isEqualTo(true).perform();
+            }
+        } finally {
+            SHAFT.Properties.paths.set().testData(testDataFolderPath);
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void afterClass() {
+        SHAFT.Properties.tinkey.set().keysetFilename(keysetFilename);
+        SHAFT.Properties.tinkey.set().kmsMasterKeyUri(kmsMasterKeyUri);
+        GoogleTink.initialize();
+    }
+}